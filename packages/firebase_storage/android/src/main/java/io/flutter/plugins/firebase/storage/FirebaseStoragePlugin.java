@@ -4,7 +4,11 @@
 
 package io.flutter.plugins.firebase.storage;
 
+import android.content.Context;
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.SparseArray;
 import android.webkit.MimeTypeMap;
 import androidx.annotation.NonNull;
@@ -20,6 +24,7 @@ import com.google.firebase.storage.OnProgressListener;
 import com.google.firebase.storage.StorageException;
 import com.google.firebase.storage.StorageMetadata;
 import com.google.firebase.storage.StorageReference;
+import com.google.firebase.storage.StreamDownloadTask;
 import com.google.firebase.storage.UploadTask;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
@@ -27,16 +32,62 @@ import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
 import io.flutter.plugin.common.MethodChannel.Result;
 import io.flutter.plugin.common.PluginRegistry.Registrar;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /** FirebaseStoragePlugin */
 public class FirebaseStoragePlugin implements MethodCallHandler {
   private FirebaseStorage firebaseStorage;
   private final MethodChannel channel;
+  private final Context context;
+  private final Executor spillExecutor = Executors.newSingleThreadExecutor();
 
-  private int nextUploadHandle = 0;
+  // putData payloads at least this large are uploaded from a temporary file, -1 to disable.
+  private long putDataSpillThreshold = -1;
+  private static final String SPILL_FILE_PREFIX = "upload";
+  private static final String SPILL_FILE_SUFFIX = ".tmp";
+  // Spill files older than this process were left behind by one that died mid upload.
+  private static final long PROCESS_START_MILLIS = System.currentTimeMillis();
+  private static final AtomicBoolean staleSpillFilesDeleted = new AtomicBoolean();
+
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+  private int nextHandle = 0;
   private final SparseArray<UploadTask> uploadTasks = new SparseArray<>();
+  private final SparseArray<FileDownloadTask> downloadTasks = new SparseArray<>();
+  private final SparseArray<StreamDownload> streamDownloads = new SparseArray<>();
+  private final UploadQueue uploadQueue;
+
+  // Progress event throttling, see setProgressEventOptions.
+  private static final long DEFAULT_COALESCE_INTERVAL_MS = 100;
+  private long progressIntervalMillis = 0;
+  private long progressMinBytes = 0;
+  private boolean coalesceProgress = false;
+  private final SparseArray<long[]> lastProgress = new SparseArray<>();
+  private final Set<Integer> coalescedHandles = new LinkedHashSet<>();
+  private boolean coalesceTickScheduled = false;
+  private final Runnable coalesceTick =
+      new Runnable() {
+        @Override
+        public void run() {
+          coalesceTickScheduled = false;
+          sendCoalescedProgress();
+        }
+      };
 
   public static void registerWith(Registrar registrar) {
     final MethodChannel channel =
@@ -46,22 +97,53 @@ public class FirebaseStoragePlugin implements MethodCallHandler {
 
   private FirebaseStoragePlugin(MethodChannel channel, Registrar registrar) {
     this.channel = channel;
+    this.context = registrar.context();
     FirebaseApp.initializeApp(registrar.context());
+    this.uploadQueue = new UploadQueue(registrar.context(), mainHandler, uploadQueueDelegate);
+    if (staleSpillFilesDeleted.compareAndSet(false, true)) {
+      final File cacheDir = context.getCacheDir();
+      spillExecutor.execute(
+          new Runnable() {
+            @Override
+            public void run() {
+              deleteStaleSpillFiles(cacheDir);
+            }
+          });
+    }
   }
 
-  @Override
-  public void onMethodCall(@NonNull MethodCall call, @NonNull final Result result) {
-    String app = call.argument("app");
-    String storageBucket = call.argument("bucket");
+  private static void deleteStaleSpillFiles(File cacheDir) {
+    File[] files = cacheDir.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      String name = file.getName();
+      if (name.startsWith(SPILL_FILE_PREFIX)
+          && name.endsWith(SPILL_FILE_SUFFIX)
+          && file.lastModified() < PROCESS_START_MILLIS) {
+        file.delete();
+      }
+    }
+  }
+
+  private static FirebaseStorage getStorage(String app, String storageBucket) {
     if (app == null && storageBucket == null) {
-      firebaseStorage = FirebaseStorage.getInstance();
+      return FirebaseStorage.getInstance();
     } else if (storageBucket == null) {
-      firebaseStorage = FirebaseStorage.getInstance(FirebaseApp.getInstance(app));
+      return FirebaseStorage.getInstance(FirebaseApp.getInstance(app));
     } else if (app == null) {
-      firebaseStorage = FirebaseStorage.getInstance(storageBucket);
+      return FirebaseStorage.getInstance(storageBucket);
     } else {
-      firebaseStorage = FirebaseStorage.getInstance(FirebaseApp.getInstance(app), storageBucket);
+      return FirebaseStorage.getInstance(FirebaseApp.getInstance(app), storageBucket);
     }
+  }
+
+  @Override
+  public void onMethodCall(@NonNull MethodCall call, @NonNull final Result result) {
+    String app = call.argument("app");
+    String storageBucket = call.argument("bucket");
+    firebaseStorage = getStorage(app, storageBucket);
 
     switch (call.method) {
       case "FirebaseStorage#getMaxDownloadRetryTime":
@@ -82,6 +164,12 @@ public class FirebaseStoragePlugin implements MethodCallHandler {
       case "FirebaseStorage#setMaxOperationRetryTime":
         setMaxOperationTimeMillis(call, result);
         break;
+      case "FirebaseStorage#setPutDataSpillThreshold":
+        setPutDataSpillThreshold(call, result);
+        break;
+      case "FirebaseStorage#setProgressEventOptions":
+        setProgressEventOptions(call, result);
+        break;
       case "FirebaseStorage#getReferenceFromUrl":
         getReferenceFromUrl(call, result);
         break;
@@ -94,6 +182,9 @@ public class FirebaseStoragePlugin implements MethodCallHandler {
       case "StorageReference#getData":
         getData(call, result);
         break;
+      case "StorageReference#getDataStream":
+        getDataStream(call, result);
+        break;
       case "StorageReference#delete":
         delete(call, result);
         break;
@@ -127,6 +218,33 @@ public class FirebaseStoragePlugin implements MethodCallHandler {
       case "UploadTask#cancel":
         cancelUploadTask(call, result);
         break;
+      case "FileDownloadTask#pause":
+        pauseDownloadTask(call, result);
+        break;
+      case "FileDownloadTask#resume":
+        resumeDownloadTask(call, result);
+        break;
+      case "FileDownloadTask#cancel":
+        cancelDownloadTask(call, result);
+        break;
+      case "UploadQueue#start":
+        startUploadQueue(call, result);
+        break;
+      case "UploadQueue#enqueue":
+        enqueueUpload(call, result);
+        break;
+      case "UploadQueue#cancel":
+        cancelQueuedUpload(call, result);
+        break;
+      case "UploadQueue#getItems":
+        result.success(uploadQueue.getItems());
+        break;
+      case "StreamDownloadTask#request":
+        requestStreamChunks(call, result);
+        break;
+      case "StreamDownloadTask#cancel":
+        cancelStreamDownload(call, result);
+        break;
       default:
         result.notImplemented();
         break;
@@ -151,6 +269,25 @@ public class FirebaseStoragePlugin implements MethodCallHandler {
     result.success(null);
   }
 
+  private void setPutDataSpillThreshold(MethodCall call, Result result) {
+    Number threshold = call.argument("threshold");
+    putDataSpillThreshold = threshold == null ? -1 : threshold.longValue();
+    result.success(null);
+  }
+
+  private void setProgressEventOptions(MethodCall call, Result result) {
+    Number intervalMillis = call.argument("intervalMillis");
+    Number minBytes = call.argument("minBytes");
+    Boolean coalesce = call.argument("coalesce");
+    progressIntervalMillis = intervalMillis.longValue();
+    progressMinBytes = minBytes.longValue();
+    if (coalesceProgress && !coalesce) {
+      sendCoalescedProgress();
+    }
+    coalesceProgress = coalesce;
+    result.success(null);
+  }
+
   private void getReferenceFromUrl(MethodCall call, Result result) {
     String fullUrl = call.argument("fullUrl");
     StorageReference ref = firebaseStorage.getReferenceFromUrl(fullUrl);
@@ -270,11 +407,71 @@ public class FirebaseStoragePlugin implements MethodCallHandler {
     result.success(handle);
   }
 
+  private final UploadQueue.Delegate uploadQueueDelegate =
+      new UploadQueue.Delegate() {
+        @Override
+        public UploadTask startUpload(UploadQueue.Item item) {
+          Uri fileUri = Uri.fromFile(new File(item.filename));
+          StorageMetadata metadata =
+              buildMetadataFromMap(ensureMimeType(item.metadata, fileUri));
+          StorageReference ref = getStorage(item.app, item.bucket).getReference().child(item.path);
+          UploadTask uploadTask;
+          if (item.uploadSessionUri == null) {
+            uploadTask = ref.putFile(fileUri, metadata);
+          } else {
+            uploadTask = ref.putFile(fileUri, metadata, Uri.parse(item.uploadSessionUri));
+          }
+          item.handle = addUploadListeners(uploadTask);
+          return uploadTask;
+        }
+
+        @Override
+        public void onItemChanged(UploadQueue.Item item) {
+          channel.invokeMethod("UploadQueueEvent", item.toMap());
+        }
+
+        @Override
+        public void onProgress(Map<String, Object> progress) {
+          channel.invokeMethod("UploadQueueProgress", progress);
+        }
+      };
+
+  private void startUploadQueue(MethodCall call, Result result) {
+    int maxConcurrency = call.argument("maxConcurrency");
+    uploadQueue.start(maxConcurrency);
+    result.success(null);
+  }
+
+  private void enqueueUpload(MethodCall call, Result result) {
+    String app = call.argument("app");
+    String storageBucket = call.argument("bucket");
+    String path = call.argument("path");
+    String filename = call.argument("filename");
+    Map<String, Object> metadata = call.argument("metadata");
+    int priority = call.argument("priority");
+    UploadQueue.Item item =
+        uploadQueue.enqueue(app, storageBucket, path, filename, metadata, priority);
+    result.success(item.toMap());
+  }
+
+  private void cancelQueuedUpload(MethodCall call, Result result) {
+    String id = call.argument("id");
+    if (uploadQueue.cancel(id)) {
+      result.success(null);
+    } else {
+      result.error("cancel_error", "item == null", null);
+    }
+  }
+
   private void putData(MethodCall call, Result result) {
     byte[] bytes = call.argument("data");
     String path = call.argument("path");
     Map<String, Object> metadata = call.argument("metadata");
     StorageReference ref = firebaseStorage.getReference().child(path);
+    if (putDataSpillThreshold >= 0 && bytes.length >= putDataSpillThreshold) {
+      putDataFromFile(ref, bytes, metadata, result);
+      return;
+    }
     UploadTask uploadTask;
     if (metadata == null) {
       uploadTask = ref.putBytes(bytes);
@@ -285,6 +482,73 @@ public class FirebaseStoragePlugin implements MethodCallHandler {
     result.success(handle);
   }
 
+  /**
+   * Writes {@code bytes} to a temporary file off the main thread and uploads that file.
+   *
+   * <p>{@code putBytes} keeps the array reachable until the upload finishes. Spilling lets the
+   * payload be collected as soon as it is on disk, instead of staying on the heap next to the copy
+   * held by Dart.
+   */
+  private void putDataFromFile(
+      final StorageReference ref,
+      final byte[] bytes,
+      final Map<String, Object> metadata,
+      final Result result) {
+    spillExecutor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            final File file;
+            try {
+              file =
+                  File.createTempFile(SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX, context.getCacheDir());
+              FileChannel fileChannel = new FileOutputStream(file).getChannel();
+              try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                  fileChannel.write(buffer);
+                }
+              } catch (IOException e) {
+                file.delete();
+                throw e;
+              } finally {
+                fileChannel.close();
+              }
+            } catch (final IOException e) {
+              mainHandler.post(
+                  new Runnable() {
+                    @Override
+                    public void run() {
+                      result.error("upload_error", e.getMessage(), null);
+                    }
+                  });
+              return;
+            }
+            mainHandler.post(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    Uri fileUri = Uri.fromFile(file);
+                    UploadTask uploadTask;
+                    if (metadata == null) {
+                      uploadTask = ref.putFile(fileUri);
+                    } else {
+                      uploadTask = ref.putFile(fileUri, buildMetadataFromMap(metadata));
+                    }
+                    uploadTask.addOnCompleteListener(
+                        new OnCompleteListener<UploadTask.TaskSnapshot>() {
+                          @Override
+                          public void onComplete(@NonNull Task<UploadTask.TaskSnapshot> task) {
+                            file.delete();
+                          }
+                        });
+                    result.success(addUploadListeners(uploadTask));
+                  }
+                });
+          }
+        });
+  }
+
   private StorageMetadata buildMetadataFromMap(Map<String, Object> map) {
     StorageMetadata.Builder builder = new StorageMetadata.Builder();
     builder.setCacheControl((String) map.get("cacheControl"));
@@ -349,26 +613,188 @@ public class FirebaseStoragePlugin implements MethodCallHandler {
         });
   }
 
-  private void writeToFile(MethodCall call, final Result result) {
+  private void getDataStream(MethodCall call, final Result result) {
     String path = call.argument("path");
-    String filePath = call.argument("filePath");
-    File file = new File(filePath);
+    int chunkSize = call.argument("chunkSize");
+    int maxPendingChunks = call.argument("maxPendingChunks");
     StorageReference ref = firebaseStorage.getReference().child(path);
-    FileDownloadTask downloadTask = ref.getFile(file);
-    downloadTask.addOnSuccessListener(
-        new OnSuccessListener<FileDownloadTask.TaskSnapshot>() {
+    final int handle = ++nextHandle;
+    final StreamDownload download = new StreamDownload(handle, chunkSize, maxPendingChunks);
+    final StreamDownloadTask downloadTask = ref.getStream(download);
+    download.task = downloadTask;
+    downloadTask.addOnCompleteListener(
+        new OnCompleteListener<StreamDownloadTask.TaskSnapshot>() {
           @Override
-          public void onSuccess(FileDownloadTask.TaskSnapshot taskSnapshot) {
-            result.success(taskSnapshot.getTotalByteCount());
+          public void onComplete(@NonNull Task<StreamDownloadTask.TaskSnapshot> task) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("handle", handle);
+            event.put("bytesTransferred", download.bytesTransferred);
+            event.put("totalByteCount", download.totalByteCount);
+            if (task.isSuccessful()) {
+              event.put("type", StorageTaskEventType.success.ordinal());
+            } else {
+              event.put("type", StorageTaskEventType.failure.ordinal());
+              Exception e = task.getException();
+              event.put(
+                  "error",
+                  e instanceof StorageException
+                      ? ((StorageException) e).getErrorCode()
+                      : StorageException.ERROR_UNKNOWN);
+            }
+            streamDownloads.remove(handle);
+            channel.invokeMethod("StorageStreamEvent", event);
           }
         });
-    downloadTask.addOnFailureListener(
-        new OnFailureListener() {
-          @Override
-          public void onFailure(@NonNull Exception e) {
-            result.error("download_error", e.getMessage(), null);
+    streamDownloads.put(handle, download);
+    result.success(handle);
+  }
+
+  private void requestStreamChunks(MethodCall call, final Result result) {
+    int handle = call.argument("handle");
+    int count = call.argument("count");
+    StreamDownload download = streamDownloads.get(handle);
+    // Credits returned for the last chunk arrive after the download completed and was removed.
+    if (download != null) {
+      download.credits.release(count);
+    }
+    result.success(null);
+  }
+
+  private void cancelStreamDownload(MethodCall call, final Result result) {
+    int handle = call.argument("handle");
+    StreamDownload download = streamDownloads.get(handle);
+    // A download that is not found already completed, there is nothing to cancel.
+    if (download != null) {
+      download.cancel();
+    }
+    result.success(null);
+  }
+
+  /**
+   * Reads a {@link StreamDownloadTask} in fixed-size chunks and forwards them to Dart.
+   *
+   * <p>The download runs on the task's background thread and only sends a chunk while it holds a
+   * credit. Dart hands credits back as it consumes chunks, so at most {@code maxPendingChunks}
+   * chunks are in flight and a paused listener stalls the download instead of buffering it.
+   */
+  private class StreamDownload implements StreamDownloadTask.StreamProcessor {
+    private final int handle;
+    private final int chunkSize;
+    private final Semaphore credits;
+    private volatile boolean canceled;
+    private StreamDownloadTask task;
+    private volatile long bytesTransferred;
+    private volatile long totalByteCount = -1;
+
+    StreamDownload(int handle, int chunkSize, int maxPendingChunks) {
+      this.handle = handle;
+      this.chunkSize = chunkSize;
+      this.credits = new Semaphore(maxPendingChunks);
+    }
+
+    @Override
+    public void doInBackground(StreamDownloadTask.TaskSnapshot state, InputStream stream)
+        throws IOException {
+      totalByteCount = state.getTotalByteCount();
+      byte[] buffer = new byte[chunkSize];
+      try {
+        while (!canceled) {
+          int filled = 0;
+          boolean endOfStream = false;
+          while (filled < buffer.length) {
+            int read = stream.read(buffer, filled, buffer.length - filled);
+            if (read == -1) {
+              endOfStream = true;
+              break;
+            }
+            filled += read;
           }
-        });
+          if (filled == 0) {
+            break;
+          }
+          credits.acquire();
+          if (canceled) {
+            break;
+          }
+          bytesTransferred += filled;
+          sendChunk(Arrays.copyOf(buffer, filled), bytesTransferred);
+          if (endOfStream) {
+            break;
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      } finally {
+        stream.close();
+      }
+    }
+
+    private void sendChunk(byte[] chunk, long transferred) {
+      final Map<String, Object> event = new HashMap<>();
+      event.put("handle", handle);
+      event.put("type", StorageTaskEventType.progress.ordinal());
+      event.put("chunk", chunk);
+      event.put("bytesTransferred", transferred);
+      event.put("totalByteCount", totalByteCount);
+      mainHandler.post(
+          new Runnable() {
+            @Override
+            public void run() {
+              channel.invokeMethod("StorageStreamEvent", event);
+            }
+          });
+    }
+
+    void cancel() {
+      canceled = true;
+      // Wake the reader if it is waiting for a credit so it can observe the cancellation.
+      credits.release();
+      task.cancel();
+    }
+  }
+
+  private void writeToFile(MethodCall call, final Result result) {
+    String path = call.argument("path");
+    String filePath = call.argument("filePath");
+    File file = new File(filePath);
+    StorageReference ref = firebaseStorage.getReference().child(path);
+    FileDownloadTask downloadTask = ref.getFile(file);
+    final int handle = addDownloadListeners(downloadTask);
+    result.success(handle);
+  }
+
+  private void pauseDownloadTask(MethodCall call, final Result result) {
+    int handle = call.argument("handle");
+    FileDownloadTask task = downloadTasks.get(handle);
+    if (task != null) {
+      task.pause();
+      result.success(null);
+    } else {
+      result.error("pause_error", "task == null", null);
+    }
+  }
+
+  private void cancelDownloadTask(MethodCall call, final Result result) {
+    int handle = call.argument("handle");
+    FileDownloadTask task = downloadTasks.get(handle);
+    if (task != null) {
+      task.cancel();
+      result.success(null);
+    } else {
+      result.error("cancel_error", "task == null", null);
+    }
+  }
+
+  private void resumeDownloadTask(MethodCall call, final Result result) {
+    int handle = call.argument("handle");
+    FileDownloadTask task = downloadTasks.get(handle);
+    if (task != null) {
+      task.resume();
+      result.success(null);
+    } else {
+      result.error("resume_error", "task == null", null);
+    }
   }
 
   private void pauseUploadTask(MethodCall call, final Result result) {
@@ -405,19 +831,22 @@ public class FirebaseStoragePlugin implements MethodCallHandler {
   }
 
   private int addUploadListeners(final UploadTask uploadTask) {
-    final int handle = ++nextUploadHandle;
+    final int handle = ++nextHandle;
     uploadTask
         .addOnProgressListener(
             new OnProgressListener<UploadTask.TaskSnapshot>() {
               @Override
               public void onProgress(UploadTask.TaskSnapshot snapshot) {
-                invokeStorageTaskEvent(handle, StorageTaskEventType.progress, snapshot, null);
+                if (shouldSendProgress(handle, snapshot.getBytesTransferred())) {
+                  invokeStorageTaskEvent(handle, StorageTaskEventType.progress, snapshot, null);
+                }
               }
             })
         .addOnPausedListener(
             new OnPausedListener<UploadTask.TaskSnapshot>() {
               @Override
               public void onPaused(UploadTask.TaskSnapshot snapshot) {
+                coalescedHandles.remove(handle);
                 invokeStorageTaskEvent(handle, StorageTaskEventType.pause, snapshot, null);
               }
             })
@@ -425,6 +854,8 @@ public class FirebaseStoragePlugin implements MethodCallHandler {
             new OnCompleteListener<UploadTask.TaskSnapshot>() {
               @Override
               public void onComplete(@NonNull Task<UploadTask.TaskSnapshot> task) {
+                coalescedHandles.remove(handle);
+                lastProgress.remove(handle);
                 if (!task.isSuccessful()) {
                   invokeStorageTaskEvent(
                       handle,
@@ -442,6 +873,108 @@ public class FirebaseStoragePlugin implements MethodCallHandler {
     return handle;
   }
 
+  private int addDownloadListeners(final FileDownloadTask downloadTask) {
+    final int handle = ++nextHandle;
+    downloadTask
+        .addOnProgressListener(
+            new OnProgressListener<FileDownloadTask.TaskSnapshot>() {
+              @Override
+              public void onProgress(FileDownloadTask.TaskSnapshot snapshot) {
+                if (shouldSendProgress(handle, snapshot.getBytesTransferred())) {
+                  invokeStorageTaskEvent(handle, StorageTaskEventType.progress, snapshot, null);
+                }
+              }
+            })
+        .addOnPausedListener(
+            new OnPausedListener<FileDownloadTask.TaskSnapshot>() {
+              @Override
+              public void onPaused(FileDownloadTask.TaskSnapshot snapshot) {
+                coalescedHandles.remove(handle);
+                invokeStorageTaskEvent(handle, StorageTaskEventType.pause, snapshot, null);
+              }
+            })
+        .addOnCompleteListener(
+            new OnCompleteListener<FileDownloadTask.TaskSnapshot>() {
+              @Override
+              public void onComplete(@NonNull Task<FileDownloadTask.TaskSnapshot> task) {
+                coalescedHandles.remove(handle);
+                lastProgress.remove(handle);
+                if (!task.isSuccessful()) {
+                  invokeStorageTaskEvent(
+                      handle,
+                      StorageTaskEventType.failure,
+                      downloadTask.getSnapshot(),
+                      (StorageException) task.getException());
+                } else {
+                  invokeStorageTaskEvent(
+                      handle, StorageTaskEventType.success, task.getResult(), null);
+                }
+                downloadTasks.remove(handle);
+              }
+            });
+    downloadTasks.put(handle, downloadTask);
+    return handle;
+  }
+
+  /**
+   * Returns whether a progress event for {@code handle} should be sent right away.
+   *
+   * <p>When coalescing, the event is deferred to the next tick instead, where the latest snapshot
+   * of every task that made progress is sent in a single message.
+   */
+  private boolean shouldSendProgress(int handle, long bytesTransferred) {
+    if (coalesceProgress) {
+      coalescedHandles.add(handle);
+      if (!coalesceTickScheduled) {
+        coalesceTickScheduled = true;
+        long interval =
+            progressIntervalMillis > 0 ? progressIntervalMillis : DEFAULT_COALESCE_INTERVAL_MS;
+        mainHandler.postDelayed(coalesceTick, interval);
+      }
+      return false;
+    }
+    long now = SystemClock.elapsedRealtime();
+    long[] last = lastProgress.get(handle);
+    if (last == null) {
+      last = new long[2];
+      lastProgress.put(handle, last);
+    } else if (now - last[0] < progressIntervalMillis
+        || bytesTransferred - last[1] < progressMinBytes) {
+      return false;
+    }
+    last[0] = now;
+    last[1] = bytesTransferred;
+    return true;
+  }
+
+  private void sendCoalescedProgress() {
+    if (coalescedHandles.isEmpty()) {
+      return;
+    }
+    List<Map<String, Object>> events = new ArrayList<>(coalescedHandles.size());
+    for (int handle : coalescedHandles) {
+      UploadTask uploadTask = uploadTasks.get(handle);
+      FileDownloadTask downloadTask = downloadTasks.get(handle);
+      if (uploadTask != null) {
+        events.add(
+            buildMapFromTaskEvent(
+                handle,
+                StorageTaskEventType.progress,
+                buildMapFromTaskSnapshot(uploadTask.getSnapshot(), null)));
+      } else if (downloadTask != null) {
+        events.add(
+            buildMapFromTaskEvent(
+                handle,
+                StorageTaskEventType.progress,
+                buildMapFromTaskSnapshot(downloadTask.getSnapshot(), null)));
+      }
+    }
+    coalescedHandles.clear();
+    if (!events.isEmpty()) {
+      channel.invokeMethod("StorageTaskEvents", events);
+    }
+  }
+
   private enum StorageTaskEventType {
     resume,
     progress,
@@ -455,18 +988,27 @@ public class FirebaseStoragePlugin implements MethodCallHandler {
       StorageTaskEventType type,
       UploadTask.TaskSnapshot snapshot,
       StorageException error) {
-    channel.invokeMethod("StorageTaskEvent", buildMapFromTaskEvent(handle, type, snapshot, error));
+    channel.invokeMethod(
+        "StorageTaskEvent",
+        buildMapFromTaskEvent(handle, type, buildMapFromTaskSnapshot(snapshot, error)));
   }
 
-  private Map<String, Object> buildMapFromTaskEvent(
+  private void invokeStorageTaskEvent(
       int handle,
       StorageTaskEventType type,
-      UploadTask.TaskSnapshot snapshot,
+      FileDownloadTask.TaskSnapshot snapshot,
       StorageException error) {
+    channel.invokeMethod(
+        "StorageTaskEvent",
+        buildMapFromTaskEvent(handle, type, buildMapFromTaskSnapshot(snapshot, error)));
+  }
+
+  private Map<String, Object> buildMapFromTaskEvent(
+      int handle, StorageTaskEventType type, Map<String, Object> snapshot) {
     Map<String, Object> map = new HashMap<>();
     map.put("handle", handle);
     map.put("type", type.ordinal());
-    map.put("snapshot", buildMapFromTaskSnapshot(snapshot, error));
+    map.put("snapshot", snapshot);
     return map;
   }
 
@@ -487,6 +1029,17 @@ public class FirebaseStoragePlugin implements MethodCallHandler {
     return map;
   }
 
+  private Map<String, Object> buildMapFromTaskSnapshot(
+      FileDownloadTask.TaskSnapshot snapshot, StorageException error) {
+    Map<String, Object> map = new HashMap<>();
+    map.put("bytesTransferred", snapshot.getBytesTransferred());
+    map.put("totalByteCount", snapshot.getTotalByteCount());
+    if (error != null) {
+      map.put("error", error.getErrorCode());
+    }
+    return map;
+  }
+
   private Map<String, Object> ensureMimeType(Map<String, Object> metadata, Uri file) {
     if (metadata == null) {
       metadata = new HashMap<>();
@@ -0,0 +1,384 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.firebase.storage;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.storage.OnProgressListener;
+import com.google.firebase.storage.UploadTask;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Uploads files with a bounded number of concurrent {@link UploadTask}s.
+ *
+ * <p>Items start in priority order, then in the order they were enqueued. Unfinished items are
+ * persisted to {@link SharedPreferences} and restored when the plugin is created again; items that
+ * were running resume from their upload session where possible. Nothing runs until {@link
+ * #start(int)} is called, so that Dart can configure named Firebase apps first.
+ *
+ * <p>All methods must be called on the main thread.
+ */
+class UploadQueue {
+  private static final String TAG = "UploadQueue";
+  private static final String SHARED_PREFERENCES_NAME = "io.flutter.plugins.firebase.storage";
+  private static final String SHARED_PREFERENCES_ITEMS_KEY = "upload_queue_items";
+  private static final long PROGRESS_INTERVAL_MS = 500;
+
+  enum State {
+    queued,
+    running,
+    succeeded,
+    failed,
+    canceled
+  }
+
+  interface Delegate {
+    /** Creates and starts the upload for {@code item}, assigning {@link Item#handle}. */
+    UploadTask startUpload(Item item);
+
+    void onItemChanged(Item item);
+
+    void onProgress(Map<String, Object> progress);
+  }
+
+  static class Item {
+    final String id;
+    final String app;
+    final String bucket;
+    final String path;
+    final String filename;
+    final Map<String, Object> metadata;
+    final int priority;
+    final long sequence;
+    String uploadSessionUri;
+    State state = State.queued;
+    int handle;
+    long bytesTransferred;
+    long totalByteCount;
+    UploadTask task;
+
+    Item(
+        String id,
+        String app,
+        String bucket,
+        String path,
+        String filename,
+        Map<String, Object> metadata,
+        int priority,
+        long sequence) {
+      this.id = id;
+      this.app = app;
+      this.bucket = bucket;
+      this.path = path;
+      this.filename = filename;
+      this.metadata = metadata;
+      this.priority = priority;
+      this.sequence = sequence;
+      this.totalByteCount = new File(filename).length();
+    }
+
+    Map<String, Object> toMap() {
+      Map<String, Object> map = new HashMap<>();
+      map.put("id", id);
+      map.put("path", path);
+      map.put("filename", filename);
+      map.put("priority", priority);
+      map.put("state", state.ordinal());
+      map.put("handle", handle);
+      map.put("bytesTransferred", bytesTransferred);
+      map.put("totalByteCount", totalByteCount);
+      return map;
+    }
+
+    JSONObject toJson() throws JSONException {
+      JSONObject json = new JSONObject();
+      json.put("id", id);
+      json.put("app", app);
+      json.put("bucket", bucket);
+      json.put("path", path);
+      json.put("filename", filename);
+      json.put("metadata", metadata == null ? null : new JSONObject(metadata));
+      json.put("priority", priority);
+      json.put("sequence", sequence);
+      json.put("uploadSessionUri", uploadSessionUri);
+      return json;
+    }
+
+    static Item fromJson(JSONObject json) throws JSONException {
+      JSONObject metadata = json.optJSONObject("metadata");
+      Item item =
+          new Item(
+              json.getString("id"),
+              json.isNull("app") ? null : json.getString("app"),
+              json.isNull("bucket") ? null : json.getString("bucket"),
+              json.getString("path"),
+              json.getString("filename"),
+              metadata == null ? null : toMap(metadata),
+              json.getInt("priority"),
+              json.getLong("sequence"));
+      item.uploadSessionUri =
+          json.isNull("uploadSessionUri") ? null : json.getString("uploadSessionUri");
+      return item;
+    }
+
+    private static Map<String, Object> toMap(JSONObject json) throws JSONException {
+      Map<String, Object> map = new HashMap<>();
+      Iterator<String> keys = json.keys();
+      while (keys.hasNext()) {
+        String key = keys.next();
+        Object value = json.get(key);
+        if (value instanceof JSONObject) {
+          value = toMap((JSONObject) value);
+        } else if (value == JSONObject.NULL) {
+          value = null;
+        }
+        map.put(key, value);
+      }
+      return map;
+    }
+  }
+
+  private final SharedPreferences preferences;
+  private final Handler handler;
+  private final Delegate delegate;
+  private final Map<String, Item> items = new LinkedHashMap<>();
+  private final PriorityQueue<Item> pending =
+      new PriorityQueue<>(
+          11,
+          new Comparator<Item>() {
+            @Override
+            public int compare(Item a, Item b) {
+              if (a.priority != b.priority) {
+                return a.priority > b.priority ? -1 : 1;
+              }
+              return a.sequence < b.sequence ? -1 : (a.sequence == b.sequence ? 0 : 1);
+            }
+          });
+
+  private boolean started = false;
+  private int maxConcurrency = 1;
+  private int running = 0;
+  private long nextSequence = 0;
+
+  private long bytesTransferred = 0;
+  private long lastTickBytesTransferred = 0;
+  private long lastTickTime = 0;
+  private boolean tickScheduled = false;
+  private final Runnable tick =
+      new Runnable() {
+        @Override
+        public void run() {
+          tickScheduled = false;
+          sendProgress();
+          if (!items.isEmpty()) {
+            scheduleTick();
+          }
+        }
+      };
+
+  UploadQueue(Context context, Handler handler, Delegate delegate) {
+    this.preferences = context.getSharedPreferences(SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE);
+    this.handler = handler;
+    this.delegate = delegate;
+    restore();
+  }
+
+  /** Starts running queued items, with at most {@code maxConcurrency} uploads at a time. */
+  void start(int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+    started = true;
+    schedule();
+  }
+
+  Item enqueue(
+      String app,
+      String bucket,
+      String path,
+      String filename,
+      Map<String, Object> metadata,
+      int priority) {
+    Item item =
+        new Item(
+            UUID.randomUUID().toString(),
+            app,
+            bucket,
+            path,
+            filename,
+            metadata,
+            priority,
+            nextSequence++);
+    items.put(item.id, item);
+    pending.add(item);
+    persist();
+    delegate.onItemChanged(item);
+    schedule();
+    return item;
+  }
+
+  /** Cancels a queued or running item. Returns false if there is no such item. */
+  boolean cancel(String id) {
+    Item item = items.get(id);
+    if (item == null) {
+      return false;
+    }
+    if (item.task == null) {
+      pending.remove(item);
+      finish(item, State.canceled);
+    } else {
+      // The completion listener finishes the item once the task has stopped.
+      item.state = State.canceled;
+      item.task.cancel();
+    }
+    return true;
+  }
+
+  List<Map<String, Object>> getItems() {
+    List<Map<String, Object>> list = new ArrayList<>();
+    for (Item item : items.values()) {
+      list.add(item.toMap());
+    }
+    return list;
+  }
+
+  private void schedule() {
+    while (started && running < maxConcurrency && !pending.isEmpty()) {
+      startItem(pending.poll());
+    }
+    scheduleTick();
+  }
+
+  private void startItem(final Item item) {
+    if (!new File(item.filename).exists()) {
+      finish(item, State.failed);
+      return;
+    }
+    running++;
+    item.state = State.running;
+    final UploadTask task = delegate.startUpload(item);
+    item.task = task;
+    task.addOnProgressListener(
+            new OnProgressListener<UploadTask.TaskSnapshot>() {
+              @Override
+              public void onProgress(UploadTask.TaskSnapshot snapshot) {
+                long delta = snapshot.getBytesTransferred() - item.bytesTransferred;
+                if (delta > 0) {
+                  bytesTransferred += delta;
+                }
+                item.bytesTransferred = snapshot.getBytesTransferred();
+                item.totalByteCount = snapshot.getTotalByteCount();
+                if (item.uploadSessionUri == null && snapshot.getUploadSessionUri() != null) {
+                  item.uploadSessionUri = snapshot.getUploadSessionUri().toString();
+                  persist();
+                }
+              }
+            })
+        .addOnCompleteListener(
+            new OnCompleteListener<UploadTask.TaskSnapshot>() {
+              @Override
+              public void onComplete(@NonNull Task<UploadTask.TaskSnapshot> completed) {
+                running--;
+                if (completed.isSuccessful()) {
+                  finish(item, State.succeeded);
+                } else {
+                  finish(item, item.state == State.canceled ? State.canceled : State.failed);
+                }
+                schedule();
+              }
+            });
+    delegate.onItemChanged(item);
+  }
+
+  private void finish(Item item, State state) {
+    item.state = state;
+    item.task = null;
+    items.remove(item.id);
+    persist();
+    delegate.onItemChanged(item);
+  }
+
+  private void scheduleTick() {
+    if (tickScheduled || items.isEmpty()) {
+      return;
+    }
+    if (lastTickTime == 0) {
+      lastTickTime = SystemClock.elapsedRealtime();
+      lastTickBytesTransferred = bytesTransferred;
+    }
+    tickScheduled = true;
+    handler.postDelayed(tick, PROGRESS_INTERVAL_MS);
+  }
+
+  private void sendProgress() {
+    long now = SystemClock.elapsedRealtime();
+    long elapsed = Math.max(1, now - lastTickTime);
+    long bytesPerSecond = (bytesTransferred - lastTickBytesTransferred) * 1000 / elapsed;
+    lastTickTime = items.isEmpty() ? 0 : now;
+    lastTickBytesTransferred = bytesTransferred;
+
+    long remainingBytes = 0;
+    for (Item item : items.values()) {
+      remainingBytes += Math.max(0, item.totalByteCount - item.bytesTransferred);
+    }
+    Map<String, Object> progress = new HashMap<>();
+    progress.put("bytesTransferred", bytesTransferred);
+    progress.put("remainingBytes", remainingBytes);
+    progress.put("bytesPerSecond", bytesPerSecond);
+    progress.put("queued", pending.size());
+    progress.put("running", running);
+    delegate.onProgress(progress);
+  }
+
+  private void persist() {
+    JSONArray array = new JSONArray();
+    try {
+      for (Item item : items.values()) {
+        array.put(item.toJson());
+      }
+    } catch (JSONException e) {
+      Log.e(TAG, "Failed to persist upload queue", e);
+      return;
+    }
+    preferences.edit().putString(SHARED_PREFERENCES_ITEMS_KEY, array.toString()).apply();
+  }
+
+  private void restore() {
+    String json = preferences.getString(SHARED_PREFERENCES_ITEMS_KEY, null);
+    if (json == null) {
+      return;
+    }
+    try {
+      JSONArray array = new JSONArray(json);
+      for (int i = 0; i < array.length(); i++) {
+        Item item = Item.fromJson(array.getJSONObject(i));
+        items.put(item.id, item);
+        pending.add(item);
+        nextSequence = Math.max(nextSequence, item.sequence + 1);
+      }
+    } catch (JSONException e) {
+      Log.e(TAG, "Dropping unreadable upload queue", e);
+      items.clear();
+      pending.clear();
+      persist();
+    }
+  }
+}
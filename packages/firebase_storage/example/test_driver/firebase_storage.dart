@@ -1,5 +1,6 @@
 import 'dart:async';
 import 'dart:io';
+import 'dart:typed_data';
 import 'package:http/http.dart' as http;
 import 'package:flutter_driver/driver_extension.dart';
 import 'package:flutter_test/flutter_test.dart';
@@ -57,5 +58,34 @@ void main() {
       expect(tempFileContents, kTestString);
       expect(byteCount, kTestString.length);
     });
+
+    test('putData spilled to a file', () async {
+      const int kSize = 20 * 1024 * 1024;
+      final String uuid = Uuid().v1();
+      final Uint8List data = Uint8List(kSize);
+      for (int i = 0; i < kSize; i++) {
+        data[i] = i & 0xff;
+      }
+      final StorageReference ref =
+          firebaseStorage.ref().child('data').child('large$uuid.bin');
+      await firebaseStorage.setPutDataSpillThreshold(1024 * 1024);
+      final StorageTaskSnapshot complete = await ref
+          .putData(
+            data,
+            StorageMetadata(
+              contentType: 'application/octet-stream',
+              customMetadata: <String, String>{'activity': 'test'},
+            ),
+          )
+          .onComplete;
+      await firebaseStorage.setPutDataSpillThreshold(null);
+      expect(complete.error, isNull);
+      expect(complete.storageMetadata.sizeBytes, kSize);
+      final StorageMetadata metadata = await ref.getMetadata();
+      expect(metadata.sizeBytes, kSize);
+      expect(metadata.contentType, 'application/octet-stream');
+      expect(metadata.customMetadata['activity'], 'test');
+      await ref.delete();
+    });
   });
 }
@@ -23,6 +23,7 @@ static FlutterError *getFlutterError(NSError *error) {
   FIRStorage *storage;
   int _nextUploadHandle;
   NSMutableDictionary<NSNumber *, FIRStorageUploadTask *> *_uploadTasks;
+  NSMutableDictionary<NSNumber *, FIRStorageDownloadTask *> *_downloadTasks;
 }
 
 + (void)registerWithRegistrar:(NSObject<FlutterPluginRegistrar> *)registrar {
@@ -49,6 +50,7 @@ static FlutterError *getFlutterError(NSError *error) {
     }
     _storageMap = [[NSMutableDictionary alloc] init];
     _uploadTasks = [NSMutableDictionary<NSNumber *, FIRStorageUploadTask *> dictionary];
+    _downloadTasks = [NSMutableDictionary<NSNumber *, FIRStorageDownloadTask *> dictionary];
     _nextUploadHandle = 0;
   }
   return self;
@@ -98,6 +100,12 @@ static FlutterError *getFlutterError(NSError *error) {
     [self resumeUploadTask:call result:result];
   } else if ([@"UploadTask#cancel" isEqualToString:call.method]) {
     [self cancelUploadTask:call result:result];
+  } else if ([@"FileDownloadTask#pause" isEqualToString:call.method]) {
+    [self pauseDownloadTask:call result:result];
+  } else if ([@"FileDownloadTask#resume" isEqualToString:call.method]) {
+    [self resumeDownloadTask:call result:result];
+  } else if ([@"FileDownloadTask#cancel" isEqualToString:call.method]) {
+    [self cancelDownloadTask:call result:result];
   } else {
     result(FlutterMethodNotImplemented);
   }
@@ -351,16 +359,32 @@ typedef NS_ENUM(NSUInteger, StorageTaskEventType) {
   NSURL *localURL = [NSURL fileURLWithPath:filePath];
   FIRStorageReference *ref = [storage.reference child:path];
   FIRStorageDownloadTask *task = [ref writeToFile:localURL];
+  // Upload and download handles share one counter so task events can't be confused in Dart.
+  NSNumber *handle = [NSNumber numberWithInt:_nextUploadHandle++];
   [task observeStatus:FIRStorageTaskStatusSuccess
               handler:^(FIRStorageTaskSnapshot *snapshot) {
-                result(@(snapshot.progress.totalUnitCount));
+                [self invokeStorageTaskEvent:handle type:kSuccess snapshot:snapshot];
+                [self->_downloadTasks removeObjectForKey:handle];
+              }];
+  [task observeStatus:FIRStorageTaskStatusProgress
+              handler:^(FIRStorageTaskSnapshot *snapshot) {
+                [self invokeStorageTaskEvent:handle type:kProgress snapshot:snapshot];
+              }];
+  [task observeStatus:FIRStorageTaskStatusResume
+              handler:^(FIRStorageTaskSnapshot *snapshot) {
+                [self invokeStorageTaskEvent:handle type:kResume snapshot:snapshot];
+              }];
+  [task observeStatus:FIRStorageTaskStatusPause
+              handler:^(FIRStorageTaskSnapshot *snapshot) {
+                [self invokeStorageTaskEvent:handle type:kPause snapshot:snapshot];
               }];
   [task observeStatus:FIRStorageTaskStatusFailure
               handler:^(FIRStorageTaskSnapshot *snapshot) {
-                if (snapshot.error != nil) {
-                  result(getFlutterError(snapshot.error));
-                }
+                [self invokeStorageTaskEvent:handle type:kFailure snapshot:snapshot];
+                [self->_downloadTasks removeObjectForKey:handle];
               }];
+  _downloadTasks[handle] = task;
+  result(handle);
 }
 
 - (void)getMetadata:(FlutterMethodCall *)call result:(FlutterResult)result {
@@ -464,4 +488,37 @@ typedef NS_ENUM(NSUInteger, StorageTaskEventType) {
   }
 }
 
+- (void)pauseDownloadTask:(FlutterMethodCall *)call result:(FlutterResult)result {
+  NSNumber *handle = call.arguments[@"handle"];
+  FIRStorageDownloadTask *task = [_downloadTasks objectForKey:handle];
+  if (task != nil) {
+    [task pause];
+    result(nil);
+  } else {
+    result([FlutterError errorWithCode:@"pause_error" message:@"task == null" details:nil]);
+  }
+}
+
+- (void)resumeDownloadTask:(FlutterMethodCall *)call result:(FlutterResult)result {
+  NSNumber *handle = call.arguments[@"handle"];
+  FIRStorageDownloadTask *task = [_downloadTasks objectForKey:handle];
+  if (task != nil) {
+    [task resume];
+    result(nil);
+  } else {
+    result([FlutterError errorWithCode:@"resume_error" message:@"task == null" details:nil]);
+  }
+}
+
+- (void)cancelDownloadTask:(FlutterMethodCall *)call result:(FlutterResult)result {
+  NSNumber *handle = call.arguments[@"handle"];
+  FIRStorageDownloadTask *task = [_downloadTasks objectForKey:handle];
+  if (task != nil) {
+    [task cancel];
+    result(nil);
+  } else {
+    result([FlutterError errorWithCode:@"cancel_error" message:@"task == null" details:nil]);
+  }
+}
+
 @end
@@ -13,7 +13,10 @@ import 'package:flutter/services.dart';
 
 part 'src/error.dart';
 part 'src/event.dart';
+part 'src/file_download_task.dart';
 part 'src/firebase_storage.dart';
 part 'src/storage_metadata.dart';
 part 'src/storage_reference.dart';
+part 'src/stream_download.dart';
+part 'src/upload_queue.dart';
 part 'src/upload_task.dart';
@@ -0,0 +1,129 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of firebase_storage;
+
+class StorageFileDownloadTask {
+  StorageFileDownloadTask._(this._firebaseStorage, this._ref, this._file);
+
+  final FirebaseStorage _firebaseStorage;
+  final StorageReference _ref;
+  final File _file;
+
+  Future<int> _handle;
+
+  bool isCanceled = false;
+  bool isComplete = false;
+  bool isInProgress = true;
+  bool isPaused = false;
+  bool isSuccessful = false;
+
+  StorageTaskSnapshot lastSnapshot;
+
+  Completer<FileDownloadTaskSnapshot> _completer =
+      Completer<FileDownloadTaskSnapshot>();
+
+  /// Completes with the size of the downloaded file once the download
+  /// succeeds, or with a [PlatformException] if it fails.
+  Future<FileDownloadTaskSnapshot> get future => _completer.future;
+
+  StreamController<StorageTaskEvent> _controller =
+      StreamController<StorageTaskEvent>.broadcast();
+  Stream<StorageTaskEvent> get events => _controller.stream;
+
+  Future<void> _start() async {
+    _handle = FirebaseStorage.channel.invokeMethod<int>(
+      "StorageReference#writeToFile",
+      <String, dynamic>{
+        'app': _firebaseStorage.app?.name,
+        'bucket': _firebaseStorage.storageBucket,
+        'filePath': _file.absolute.path,
+        'path': _ref.path,
+      },
+    );
+    int handle;
+    try {
+      handle = await _handle;
+    } catch (error) {
+      _completer.completeError(error);
+      return;
+    }
+    final StorageTaskEvent event = await _firebaseStorage._methodStream
+        .where((MethodCall m) {
+      return m.method == 'StorageTaskEvent' && m.arguments['handle'] == handle;
+    }).map<StorageTaskEvent>((MethodCall m) {
+      final Map<dynamic, dynamic> args = m.arguments;
+      final StorageTaskEvent e =
+          StorageTaskEvent._(args['type'], _ref, args['snapshot']);
+      _changeState(e);
+      lastSnapshot = e.snapshot;
+      _controller.add(e);
+      return e;
+    }).firstWhere((StorageTaskEvent e) =>
+            e.type == StorageTaskEventType.success ||
+            e.type == StorageTaskEventType.failure);
+    if (event.type == StorageTaskEventType.success) {
+      _completer.complete(FileDownloadTaskSnapshot(
+          totalByteCount: event.snapshot.totalByteCount));
+    } else {
+      _completer.completeError(PlatformException(
+        code: 'download_error',
+        message: 'Download of ${_ref.path} failed',
+        details: event.snapshot.error,
+      ));
+    }
+  }
+
+  void _changeState(StorageTaskEvent event) {
+    isCanceled = false;
+    isComplete = false;
+    isInProgress = false;
+    isPaused = false;
+    isSuccessful = false;
+    switch (event.type) {
+      case StorageTaskEventType.progress:
+      case StorageTaskEventType.resume:
+        isInProgress = true;
+        break;
+      case StorageTaskEventType.pause:
+        isPaused = true;
+        break;
+      case StorageTaskEventType.success:
+        isSuccessful = true;
+        isComplete = true;
+        break;
+      case StorageTaskEventType.failure:
+        isComplete = true;
+        if (event.snapshot.error == StorageError.canceled) {
+          isCanceled = true;
+        }
+        break;
+    }
+  }
+
+  Future<void> _invokeTaskMethod(String method) async {
+    return FirebaseStorage.channel.invokeMethod<void>(
+      method,
+      <String, dynamic>{
+        'app': _firebaseStorage.app?.name,
+        'bucket': _firebaseStorage.storageBucket,
+        'handle': await _handle,
+      },
+    );
+  }
+
+  /// Pause the download
+  Future<void> pause() => _invokeTaskMethod('FileDownloadTask#pause');
+
+  /// Resume the download
+  Future<void> resume() => _invokeTaskMethod('FileDownloadTask#resume');
+
+  /// Cancel the download
+  Future<void> cancel() => _invokeTaskMethod('FileDownloadTask#cancel');
+}
+
+class FileDownloadTaskSnapshot {
+  FileDownloadTaskSnapshot({this.totalByteCount});
+  final int totalByteCount;
+}
@@ -22,7 +22,14 @@ class FirebaseStorage {
   FirebaseStorage({this.app, this.storageBucket}) {
     if (_initialized) return;
     channel.setMethodCallHandler((MethodCall call) async {
-      _methodStreamController.add(call);
+      if (call.method == 'StorageTaskEvents') {
+        // Coalesced progress events, see [setProgressEventOptions].
+        for (dynamic event in call.arguments) {
+          _methodStreamController.add(MethodCall('StorageTaskEvent', event));
+        }
+      } else {
+        _methodStreamController.add(call);
+      }
     });
     _initialized = true;
   }
@@ -57,6 +64,10 @@ class FirebaseStorage {
   /// Firebase Storage location.
   StorageReference ref() => StorageReference._(const <String>[], this);
 
+  /// The process-wide queue for uploading many files with bounded
+  /// concurrency.
+  StorageUploadQueue get uploadQueue => StorageUploadQueue._(this);
+
   Future<int> getMaxDownloadRetryTimeMillis() async {
     return await channel.invokeMethod<int>(
         "FirebaseStorage#getMaxDownloadRetryTime", <String, dynamic>{
@@ -108,6 +119,50 @@ class FirebaseStorage {
     });
   }
 
+  /// Makes [StorageReference.putData] upload payloads of at least [threshold]
+  /// bytes from a temporary file instead of from memory.
+  ///
+  /// The payload is written to the app's cache directory off the main thread
+  /// and the native copy can be freed before the upload finishes, which
+  /// matters for large payloads on memory constrained devices. Pass null to
+  /// always upload from memory, which is the default.
+  ///
+  /// The threshold applies to all [FirebaseStorage] instances. This is
+  /// currently only supported on Android.
+  Future<void> setPutDataSpillThreshold(int threshold) {
+    return channel.invokeMethod<void>(
+        "FirebaseStorage#setPutDataSpillThreshold", <String, dynamic>{
+      'app': app?.name,
+      'bucket': storageBucket,
+      'threshold': threshold,
+    });
+  }
+
+  /// Limits how often upload and download tasks report progress.
+  ///
+  /// A task sends a progress event only once at least [interval] has passed
+  /// and at least [minBytes] have been transferred since its previous one.
+  /// With [coalesce], progress of all running tasks is instead sent together
+  /// once per [interval] (100 milliseconds if zero). Pause, success and
+  /// failure events are never throttled.
+  ///
+  /// The options apply to all [FirebaseStorage] instances. This is currently
+  /// only supported on Android.
+  Future<void> setProgressEventOptions({
+    Duration interval = Duration.zero,
+    int minBytes = 0,
+    bool coalesce = false,
+  }) {
+    return channel.invokeMethod<void>(
+        "FirebaseStorage#setProgressEventOptions", <String, dynamic>{
+      'app': app?.name,
+      'bucket': storageBucket,
+      'intervalMillis': interval.inMilliseconds,
+      'minBytes': minBytes,
+      'coalesce': coalesce,
+    });
+  }
+
   /// Creates a [StorageReference] given a gs:// or // URL pointing to a Firebase
   /// Storage location.
   Future<StorageReference> getReferenceFromUrl(String fullUrl) async {
@@ -124,35 +179,3 @@ class FirebaseStorage {
     }
   }
 }
-
-/// TODO: Move into own file and build out progress functionality
-class StorageFileDownloadTask {
-  StorageFileDownloadTask._(this._firebaseStorage, this._path, this._file);
-
-  final FirebaseStorage _firebaseStorage;
-  final String _path;
-  final File _file;
-
-  Future<void> _start() async {
-    final int totalByteCount = await FirebaseStorage.channel.invokeMethod<int>(
-      "StorageReference#writeToFile",
-      <String, dynamic>{
-        'app': _firebaseStorage.app?.name,
-        'bucket': _firebaseStorage.storageBucket,
-        'filePath': _file.absolute.path,
-        'path': _path,
-      },
-    );
-    _completer
-        .complete(FileDownloadTaskSnapshot(totalByteCount: totalByteCount));
-  }
-
-  Completer<FileDownloadTaskSnapshot> _completer =
-      Completer<FileDownloadTaskSnapshot>();
-  Future<FileDownloadTaskSnapshot> get future => _completer.future;
-}
-
-class FileDownloadTaskSnapshot {
-  FileDownloadTaskSnapshot({this.totalByteCount});
-  final int totalByteCount;
-}
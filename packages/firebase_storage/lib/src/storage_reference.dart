@@ -126,11 +126,34 @@ class StorageReference {
     );
   }
 
+  /// Downloads the object at this [StorageReference] as a stream of chunks of
+  /// at most [chunkSize] bytes.
+  ///
+  /// Unlike [getData], the object is never held in memory as a whole. At most
+  /// [maxPendingChunks] chunks are sent ahead of the listener, and pausing the
+  /// subscription stalls the download until it is resumed. Cancelling the
+  /// subscription cancels the download.
+  ///
+  /// This is currently only supported on Android.
+  Stream<StorageDataChunk> getDataStream({
+    int chunkSize = 256 * 1024,
+    int maxPendingChunks = 4,
+  }) {
+    assert(chunkSize > 0);
+    assert(maxPendingChunks > 0);
+    return _StorageStreamDownload(
+            _firebaseStorage, this, chunkSize, maxPendingChunks)
+        .stream;
+  }
+
   /// Asynchronously downloads the object at this [StorageReference] to a
   /// specified system file.
+  ///
+  /// The returned task reports progress through [StorageFileDownloadTask.events]
+  /// and can be paused, resumed and cancelled.
   StorageFileDownloadTask writeToFile(File file) {
-    final StorageFileDownloadTask task = StorageFileDownloadTask._(
-        _firebaseStorage, _pathComponents.join("/"), file);
+    final StorageFileDownloadTask task =
+        StorageFileDownloadTask._(_firebaseStorage, this, file);
     task._start();
     return task;
   }
@@ -0,0 +1,151 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of firebase_storage;
+
+/// A piece of an object downloaded with [StorageReference.getDataStream].
+class StorageDataChunk {
+  StorageDataChunk._(this.bytes, this.bytesTransferred, this.totalByteCount);
+
+  /// The bytes of this chunk.
+  final Uint8List bytes;
+
+  /// The number of bytes downloaded so far, including this chunk.
+  final int bytesTransferred;
+
+  /// The size of the object in bytes, or -1 if it is not known.
+  final int totalByteCount;
+}
+
+/// Thrown into the stream returned by [StorageReference.getDataStream] when
+/// the download fails.
+class StorageStreamException implements Exception {
+  StorageStreamException._(this.error, this.bytesTransferred);
+
+  /// One of the [StorageError] codes.
+  final int error;
+
+  /// The number of bytes that were delivered before the failure.
+  final int bytesTransferred;
+
+  @override
+  String toString() => 'StorageStreamException($error, $bytesTransferred)';
+}
+
+class _StorageStreamDownload {
+  _StorageStreamDownload(this._firebaseStorage, this._ref, this._chunkSize,
+      this._maxPendingChunks) {
+    _controller = StreamController<StorageDataChunk>(
+      onListen: _start,
+      onResume: _onResume,
+      onCancel: _cancel,
+    );
+  }
+
+  final FirebaseStorage _firebaseStorage;
+  final StorageReference _ref;
+  final int _chunkSize;
+  final int _maxPendingChunks;
+
+  StreamController<StorageDataChunk> _controller;
+  StreamSubscription<MethodCall> _events;
+  Future<int> _handle;
+  bool _done = false;
+
+  /// Chunks received while the listener was paused, not yet handed back.
+  int _withheldCredits = 0;
+
+  Stream<StorageDataChunk> get stream => _controller.stream;
+
+  void _start() {
+    _handle = FirebaseStorage.channel.invokeMethod<int>(
+      'StorageReference#getDataStream',
+      <String, dynamic>{
+        'app': _firebaseStorage.app?.name,
+        'bucket': _firebaseStorage.storageBucket,
+        'path': _ref.path,
+        'chunkSize': _chunkSize,
+        'maxPendingChunks': _maxPendingChunks,
+      },
+    );
+    _handle.then((int handle) {
+      _events = _firebaseStorage._methodStream
+          .where((MethodCall m) =>
+              m.method == 'StorageStreamEvent' &&
+              m.arguments['handle'] == handle)
+          .listen(_onEvent);
+    }, onError: (Object error) {
+      _controller.addError(error);
+      _close();
+    });
+  }
+
+  void _onEvent(MethodCall call) {
+    final Map<dynamic, dynamic> args = call.arguments;
+    switch (StorageTaskEventType.values[args['type']]) {
+      case StorageTaskEventType.progress:
+        _controller.add(StorageDataChunk._(
+            args['chunk'], args['bytesTransferred'], args['totalByteCount']));
+        if (_controller.isPaused) {
+          _withheldCredits++;
+        } else {
+          _request(1);
+        }
+        break;
+      case StorageTaskEventType.failure:
+        _controller.addError(
+            StorageStreamException._(args['error'], args['bytesTransferred']));
+        _close();
+        break;
+      default:
+        _close();
+        break;
+    }
+  }
+
+  void _onResume() {
+    if (_withheldCredits > 0) {
+      _request(_withheldCredits);
+      _withheldCredits = 0;
+    }
+  }
+
+  Future<void> _request(int count) async {
+    if (_done) return;
+    try {
+      await FirebaseStorage.channel.invokeMethod<void>(
+        'StreamDownloadTask#request',
+        <String, dynamic>{
+          'app': _firebaseStorage.app?.name,
+          'bucket': _firebaseStorage.storageBucket,
+          'handle': await _handle,
+          'count': count,
+        },
+      );
+    } on PlatformException {
+      // Credits are only returned for chunks that were already delivered. If
+      // the download ended meanwhile, its completion or failure event tells
+      // the listener, there is nothing left to request.
+    }
+  }
+
+  Future<void> _cancel() async {
+    if (_done) return;
+    _close();
+    await FirebaseStorage.channel.invokeMethod<void>(
+      'StreamDownloadTask#cancel',
+      <String, dynamic>{
+        'app': _firebaseStorage.app?.name,
+        'bucket': _firebaseStorage.storageBucket,
+        'handle': await _handle,
+      },
+    );
+  }
+
+  void _close() {
+    _done = true;
+    _events?.cancel();
+    _controller.close();
+  }
+}
@@ -0,0 +1,157 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of firebase_storage;
+
+enum StorageUploadQueueItemState {
+  queued,
+  running,
+  succeeded,
+  failed,
+  canceled,
+}
+
+/// A file upload managed by the [StorageUploadQueue].
+class StorageUploadQueueItem {
+  StorageUploadQueueItem._(Map<dynamic, dynamic> m)
+      : id = m['id'],
+        path = m['path'],
+        filename = m['filename'],
+        priority = m['priority'],
+        state = StorageUploadQueueItemState.values[m['state']],
+        handle = m['handle'],
+        bytesTransferred = m['bytesTransferred'],
+        totalByteCount = m['totalByteCount'];
+
+  /// Identifies the item across app restarts.
+  final String id;
+
+  /// The storage path the file is uploaded to.
+  final String path;
+
+  /// The absolute path of the local file being uploaded.
+  final String filename;
+
+  /// Items with a higher priority start first.
+  final int priority;
+
+  final StorageUploadQueueItemState state;
+
+  /// The handle of the running upload task, or 0 if the item has not started.
+  final int handle;
+
+  final int bytesTransferred;
+  final int totalByteCount;
+}
+
+/// Aggregate progress of all items in the [StorageUploadQueue].
+class StorageUploadQueueProgress {
+  StorageUploadQueueProgress._(Map<dynamic, dynamic> m)
+      : bytesTransferred = m['bytesTransferred'],
+        remainingBytes = m['remainingBytes'],
+        bytesPerSecond = m['bytesPerSecond'],
+        queued = m['queued'],
+        running = m['running'];
+
+  /// The number of bytes uploaded by the queue since the app started.
+  final int bytesTransferred;
+
+  /// The number of bytes left to upload across all unfinished items.
+  final int remainingBytes;
+
+  /// The upload throughput since the previous progress update.
+  final int bytesPerSecond;
+
+  /// The number of items waiting to start.
+  final int queued;
+
+  /// The number of items currently uploading.
+  final int running;
+}
+
+/// A native queue that uploads files with bounded concurrency.
+///
+/// Unfinished items are persisted and survive app restarts, but the queue
+/// does not run until [start] is called. Items that were interrupted resume
+/// from their upload session where possible.
+///
+/// This is currently only supported on Android.
+class StorageUploadQueue {
+  StorageUploadQueue._(this._firebaseStorage);
+
+  final FirebaseStorage _firebaseStorage;
+
+  /// Starts uploading queued items, at most [maxConcurrency] at a time.
+  ///
+  /// Call this once any [FirebaseApp]s used by queued items are configured.
+  Future<void> start({int maxConcurrency = 3}) {
+    assert(maxConcurrency > 0);
+    return FirebaseStorage.channel.invokeMethod<void>(
+      'UploadQueue#start',
+      <String, dynamic>{
+        'app': _firebaseStorage.app?.name,
+        'bucket': _firebaseStorage.storageBucket,
+        'maxConcurrency': maxConcurrency,
+      },
+    );
+  }
+
+  /// Adds an upload of [file] to [ref] to the queue.
+  Future<StorageUploadQueueItem> enqueue(StorageReference ref, File file,
+      {StorageMetadata metadata, int priority = 0}) async {
+    assert(file.existsSync());
+    final Map<dynamic, dynamic> item =
+        await FirebaseStorage.channel.invokeMethod<Map<dynamic, dynamic>>(
+      'UploadQueue#enqueue',
+      <String, dynamic>{
+        'app': ref._firebaseStorage.app?.name,
+        'bucket': ref._firebaseStorage.storageBucket,
+        'path': ref.path,
+        'filename': file.absolute.path,
+        'metadata': metadata == null ? null : _buildMetadataUploadMap(metadata),
+        'priority': priority,
+      },
+    );
+    return StorageUploadQueueItem._(item);
+  }
+
+  /// Removes a queued item, or cancels it if it is already uploading.
+  Future<void> cancel(String id) {
+    return FirebaseStorage.channel.invokeMethod<void>(
+      'UploadQueue#cancel',
+      <String, dynamic>{
+        'app': _firebaseStorage.app?.name,
+        'bucket': _firebaseStorage.storageBucket,
+        'id': id,
+      },
+    );
+  }
+
+  /// Returns the items that have not finished yet.
+  Future<List<StorageUploadQueueItem>> getItems() async {
+    final List<dynamic> items = await FirebaseStorage.channel
+        .invokeMethod<List<dynamic>>('UploadQueue#getItems', <String, dynamic>{
+      'app': _firebaseStorage.app?.name,
+      'bucket': _firebaseStorage.storageBucket,
+    });
+    return items
+        .map<StorageUploadQueueItem>(
+            (dynamic item) => StorageUploadQueueItem._(item))
+        .toList();
+  }
+
+  /// Fires whenever an item is enqueued, starts or finishes.
+  Stream<StorageUploadQueueItem> get onItemChanged =>
+      _firebaseStorage._methodStream
+          .where((MethodCall m) => m.method == 'UploadQueueEvent')
+          .map<StorageUploadQueueItem>(
+              (MethodCall m) => StorageUploadQueueItem._(m.arguments));
+
+  /// Fires periodically while the queue has unfinished items.
+  Stream<StorageUploadQueueProgress> get onProgress =>
+      _firebaseStorage._methodStream
+          .where((MethodCall m) => m.method == 'UploadQueueProgress')
+          .map<StorageUploadQueueProgress>(
+              (MethodCall m) => StorageUploadQueueProgress._(m.arguments));
+}
@@ -3,6 +3,7 @@
 // found in the LICENSE file.
 
 import 'dart:async';
+import 'dart:io';
 import 'dart:typed_data';
 
 import 'package:firebase_core/firebase_core.dart';
@@ -187,6 +188,39 @@ void main() {
       });
     });
 
+    group('setProgressEventOptions', () {
+      final List<MethodCall> log = <MethodCall>[];
+
+      setUp(() {
+        FirebaseStorage.channel
+            .setMockMethodCallHandler((MethodCall methodCall) async {
+          log.add(methodCall);
+          return null;
+        });
+      });
+
+      test('invokes correct method', () async {
+        await storage.setProgressEventOptions(
+          interval: const Duration(milliseconds: 250),
+          minBytes: 1024,
+          coalesce: true,
+        );
+
+        expect(log, <Matcher>[
+          isMethodCall(
+            'FirebaseStorage#setProgressEventOptions',
+            arguments: <String, dynamic>{
+              'app': 'testApp',
+              'bucket': 'gs://fake-storage-bucket-url.com',
+              'intervalMillis': 250,
+              'minBytes': 1024,
+              'coalesce': true,
+            },
+          ),
+        ]);
+      });
+    });
+
     group('getReferenceFromUrl', () {
       final List<MethodCall> log = <MethodCall>[];
 
@@ -217,6 +251,58 @@ void main() {
       });
     });
 
+    group('uploadQueue', () {
+      final List<MethodCall> log = <MethodCall>[];
+
+      setUp(() {
+        log.clear();
+        FirebaseStorage.channel
+            .setMockMethodCallHandler((MethodCall methodCall) async {
+          log.add(methodCall);
+          if (methodCall.method == 'UploadQueue#getItems') {
+            return <dynamic>[
+              <String, dynamic>{
+                'id': 'abc',
+                'path': 'photos/1.jpg',
+                'filename': '/tmp/1.jpg',
+                'priority': 2,
+                'state': StorageUploadQueueItemState.running.index,
+                'handle': 4,
+                'bytesTransferred': 10,
+                'totalByteCount': 20,
+              },
+            ];
+          }
+          return null;
+        });
+      });
+
+      test('start invokes correct method', () async {
+        await storage.uploadQueue.start(maxConcurrency: 2);
+
+        expect(log, <Matcher>[
+          isMethodCall(
+            'UploadQueue#start',
+            arguments: <String, dynamic>{
+              'app': 'testApp',
+              'bucket': 'gs://fake-storage-bucket-url.com',
+              'maxConcurrency': 2,
+            },
+          ),
+        ]);
+      });
+
+      test('getItems returns correct result', () async {
+        final List<StorageUploadQueueItem> items =
+            await storage.uploadQueue.getItems();
+
+        expect(items, hasLength(1));
+        expect(items.single.id, 'abc');
+        expect(items.single.state, StorageUploadQueueItemState.running);
+        expect(items.single.bytesTransferred, 10);
+      });
+    });
+
     group('StorageReference', () {
       group('getData', () {
         final List<MethodCall> log = <MethodCall>[];
@@ -256,6 +342,226 @@ void main() {
         });
       });
 
+      group('getDataStream', () {
+        final List<MethodCall> log = <MethodCall>[];
+
+        StorageReference ref;
+
+        Future<void> simulateEvent(Map<String, dynamic> arguments) async {
+          // ignore: deprecated_member_use
+          await BinaryMessages.handlePlatformMessage(
+            FirebaseStorage.channel.name,
+            FirebaseStorage.channel.codec.encodeMethodCall(
+                MethodCall('StorageStreamEvent', arguments)),
+            (_) {},
+          );
+        }
+
+        setUp(() {
+          log.clear();
+          FirebaseStorage.channel
+              .setMockMethodCallHandler((MethodCall methodCall) async {
+            log.add(methodCall);
+            if (methodCall.method == 'StorageReference#getDataStream') {
+              return 7;
+            }
+            return null;
+          });
+          ref =
+              storage.ref().child('avatars').child('large').child('image.jpg');
+        });
+
+        test('emits chunks and returns credits', () async {
+          final List<StorageDataChunk> chunks = <StorageDataChunk>[];
+          final Completer<void> done = Completer<void>();
+          ref
+              .getDataStream(chunkSize: 2, maxPendingChunks: 1)
+              .listen(chunks.add, onDone: done.complete);
+          await Future<void>.delayed(Duration.zero);
+
+          await simulateEvent(<String, dynamic>{
+            'handle': 7,
+            'type': StorageTaskEventType.progress.index,
+            'chunk': Uint8List.fromList(<int>[1, 2]),
+            'bytesTransferred': 2,
+            'totalByteCount': 3,
+          });
+          await simulateEvent(<String, dynamic>{
+            'handle': 7,
+            'type': StorageTaskEventType.progress.index,
+            'chunk': Uint8List.fromList(<int>[3]),
+            'bytesTransferred': 3,
+            'totalByteCount': 3,
+          });
+          await simulateEvent(<String, dynamic>{
+            'handle': 7,
+            'type': StorageTaskEventType.success.index,
+            'bytesTransferred': 3,
+            'totalByteCount': 3,
+          });
+          await done.future;
+          await Future<void>.delayed(Duration.zero);
+
+          expect(chunks.map((StorageDataChunk c) => c.bytes),
+              <List<int>>[<int>[1, 2], <int>[3]]);
+          expect(chunks.last.bytesTransferred, 3);
+          expect(log, <Matcher>[
+            isMethodCall(
+              'StorageReference#getDataStream',
+              arguments: <String, dynamic>{
+                'app': 'testApp',
+                'bucket': 'gs://fake-storage-bucket-url.com',
+                'path': 'avatars/large/image.jpg',
+                'chunkSize': 2,
+                'maxPendingChunks': 1,
+              },
+            ),
+            isMethodCall(
+              'StreamDownloadTask#request',
+              arguments: <String, dynamic>{
+                'app': 'testApp',
+                'bucket': 'gs://fake-storage-bucket-url.com',
+                'handle': 7,
+                'count': 1,
+              },
+            ),
+            isMethodCall(
+              'StreamDownloadTask#request',
+              arguments: <String, dynamic>{
+                'app': 'testApp',
+                'bucket': 'gs://fake-storage-bucket-url.com',
+                'handle': 7,
+                'count': 1,
+              },
+            ),
+          ]);
+        });
+
+        test('ignores credits returned after completion', () async {
+          FirebaseStorage.channel
+              .setMockMethodCallHandler((MethodCall methodCall) async {
+            log.add(methodCall);
+            if (methodCall.method == 'StorageReference#getDataStream') {
+              return 7;
+            }
+            if (methodCall.method == 'StreamDownloadTask#request') {
+              // The download already completed and its handle was removed.
+              throw PlatformException(code: 'request_error');
+            }
+            return null;
+          });
+          final List<Object> errors = <Object>[];
+          await runZoned(() async {
+            final List<StorageDataChunk> chunks = <StorageDataChunk>[];
+            final Completer<void> done = Completer<void>();
+            ref.getDataStream(chunkSize: 2, maxPendingChunks: 1).listen(
+                chunks.add,
+                onError: errors.add,
+                onDone: done.complete);
+            await Future<void>.delayed(Duration.zero);
+
+            await simulateEvent(<String, dynamic>{
+              'handle': 7,
+              'type': StorageTaskEventType.progress.index,
+              'chunk': Uint8List.fromList(<int>[1, 2]),
+              'bytesTransferred': 2,
+              'totalByteCount': 2,
+            });
+            await simulateEvent(<String, dynamic>{
+              'handle': 7,
+              'type': StorageTaskEventType.success.index,
+              'bytesTransferred': 2,
+              'totalByteCount': 2,
+            });
+            await done.future;
+            await Future<void>.delayed(Duration.zero);
+
+            expect(chunks, hasLength(1));
+            expect(
+                log.map((MethodCall call) => call.method),
+                contains('StreamDownloadTask#request'));
+          }, onError: (Object error, StackTrace stackTrace) {
+            errors.add(error);
+          });
+
+          expect(errors, isEmpty);
+        });
+      });
+
+      group('writeToFile', () {
+        final List<MethodCall> log = <MethodCall>[];
+
+        StorageReference ref;
+
+        setUp(() {
+          log.clear();
+          FirebaseStorage.channel
+              .setMockMethodCallHandler((MethodCall methodCall) async {
+            log.add(methodCall);
+            if (methodCall.method == 'StorageReference#writeToFile') {
+              return 11;
+            }
+            return null;
+          });
+          ref =
+              storage.ref().child('avatars').child('large').child('image.jpg');
+        });
+
+        test('tracks the download task', () async {
+          final StorageFileDownloadTask task =
+              ref.writeToFile(File('/tmp/image.jpg'));
+          final List<StorageTaskEventType> events = <StorageTaskEventType>[];
+          task.events.listen((StorageTaskEvent e) => events.add(e.type));
+          await task.pause();
+
+          for (StorageTaskEventType type in <StorageTaskEventType>[
+            StorageTaskEventType.pause,
+            StorageTaskEventType.success,
+          ]) {
+            // ignore: deprecated_member_use
+            await BinaryMessages.handlePlatformMessage(
+              FirebaseStorage.channel.name,
+              FirebaseStorage.channel.codec.encodeMethodCall(
+                  MethodCall('StorageTaskEvent', <String, dynamic>{
+                'handle': 11,
+                'type': type.index,
+                'snapshot': <String, dynamic>{
+                  'bytesTransferred': 5,
+                  'totalByteCount': 5,
+                },
+              })),
+              (_) {},
+            );
+          }
+
+          expect((await task.future).totalByteCount, 5);
+          expect(events, <StorageTaskEventType>[
+            StorageTaskEventType.pause,
+            StorageTaskEventType.success,
+          ]);
+          expect(task.isSuccessful, isTrue);
+          expect(log, <Matcher>[
+            isMethodCall(
+              'StorageReference#writeToFile',
+              arguments: <String, dynamic>{
+                'app': 'testApp',
+                'bucket': 'gs://fake-storage-bucket-url.com',
+                'filePath': '/tmp/image.jpg',
+                'path': 'avatars/large/image.jpg',
+              },
+            ),
+            isMethodCall(
+              'FileDownloadTask#pause',
+              arguments: <String, dynamic>{
+                'app': 'testApp',
+                'bucket': 'gs://fake-storage-bucket-url.com',
+                'handle': 11,
+              },
+            ),
+          ]);
+        });
+      });
+
       group('getMetadata', () {
         final List<MethodCall> log = <MethodCall>[];
 
@@ -0,0 +1,105 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.util.LruCache;
+import com.google.android.gms.maps.model.BitmapDescriptor;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An LRU cache of the {@link BitmapDescriptor}s that icons are converted to, bounded by the memory
+ * their bitmaps use.
+ *
+ * <p>Icons decoded from bytes are keyed by their content, so markers that share an icon share one
+ * decoded bitmap no matter how many times Dart sends it.
+ */
+class BitmapDescriptorCache {
+  // Descriptors created from assets only hold a name; the map loads the bitmap itself.
+  private static final int ASSET_ENTRY_SIZE = 64;
+
+  private static final class Entry {
+    final BitmapDescriptor descriptor;
+    final int size;
+
+    Entry(BitmapDescriptor descriptor, int size) {
+      this.descriptor = descriptor;
+      this.size = size;
+    }
+  }
+
+  private static final class BytesKey {
+    final byte[] bytes;
+    final int hashCode;
+
+    BytesKey(byte[] bytes) {
+      this.bytes = bytes;
+      this.hashCode = Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof BytesKey && Arrays.equals(bytes, ((BytesKey) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private final LruCache<Object, Entry> cache;
+  private long hitCount = 0;
+  private long missCount = 0;
+
+  BitmapDescriptorCache(int maxSizeBytes) {
+    cache =
+        new LruCache<Object, Entry>(maxSizeBytes) {
+          @Override
+          protected int sizeOf(Object key, Entry entry) {
+            return entry.size;
+          }
+        };
+  }
+
+  static Object keyForBytes(byte[] bytes) {
+    return new BytesKey(bytes);
+  }
+
+  static Object keyForAsset(String assetKey) {
+    return "asset:" + assetKey;
+  }
+
+  synchronized BitmapDescriptor get(Object key) {
+    Entry entry = cache.get(key);
+    if (entry == null) {
+      missCount++;
+      return null;
+    }
+    hitCount++;
+    return entry.descriptor;
+  }
+
+  /** Caches a descriptor for a bitmap of {@code bitmapSizeBytes}, or for an asset if that is 0. */
+  synchronized void put(Object key, BitmapDescriptor descriptor, int bitmapSizeBytes) {
+    int size = bitmapSizeBytes > 0 ? bitmapSizeBytes : ASSET_ENTRY_SIZE;
+    if (key instanceof BytesKey) {
+      size += ((BytesKey) key).bytes.length;
+    }
+    cache.put(key, new Entry(descriptor, size));
+  }
+
+  synchronized Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("hitCount", hitCount);
+    stats.put("missCount", missCount);
+    stats.put("evictionCount", cache.evictionCount());
+    stats.put("entryCount", cache.snapshot().size());
+    stats.put("sizeBytes", cache.size());
+    stats.put("maxSizeBytes", cache.maxSize());
+    return stats;
+  }
+}
@@ -0,0 +1,43 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
+
+/** Serves tiles from a {@link TileDiskCache}, filling it from another provider. */
+class CachingTileProvider implements TileProvider {
+  private final TileProvider provider;
+  private final TileDiskCache cache;
+
+  CachingTileProvider(TileProvider provider, TileDiskCache cache) {
+    this.provider = provider;
+    this.cache = cache;
+  }
+
+  @Override
+  public Tile getTile(int x, int y, int zoom) {
+    Tile tile = cache.get(x, y, zoom);
+    if (tile != null) {
+      return tile;
+    }
+    tile = provider.getTile(x, y, zoom);
+    if (tile != null && tile != NO_TILE && tile.data != null) {
+      cache.put(x, y, zoom, tile);
+    }
+    return tile;
+  }
+
+  /** Fetches the tile into the cache if it is not cached yet. */
+  void prefetch(int x, int y, int zoom) {
+    if (!cache.contains(x, y, zoom)) {
+      getTile(x, y, zoom);
+    }
+  }
+
+  void clear() {
+    cache.clear();
+  }
+}
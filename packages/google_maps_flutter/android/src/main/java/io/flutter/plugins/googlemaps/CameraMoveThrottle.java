@@ -0,0 +1,140 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import com.google.android.gms.maps.model.CameraPosition;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limits how often camera positions are reported while the camera moves.
+ *
+ * <p>A position is held back when it is within the minimum distance and zoom delta of the last
+ * reported one, or when reporting it would exceed the maximum rate. Held back positions are
+ * coalesced: only the latest is kept, and it is reported once the rate allows it or when {@link
+ * #flush()} is called as the camera becomes idle.
+ */
+class CameraMoveThrottle {
+  interface Listener {
+    void onCameraMove(CameraPosition position);
+  }
+
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Listener listener;
+  private int maxEventsPerSecond = 0;
+  private float minDistanceDp = 0;
+  private float minZoomDelta = 0;
+  private CameraPosition lastReported;
+  private long lastReportedTime;
+  private CameraPosition pending;
+  private boolean scheduled = false;
+  private long reportedCount = 0;
+  private long suppressedCount = 0;
+
+  private final Runnable reportPending =
+      new Runnable() {
+        @Override
+        public void run() {
+          scheduled = false;
+          if (pending != null && isSignificant(pending)) {
+            report(pending);
+          }
+        }
+      };
+
+  CameraMoveThrottle(Listener listener) {
+    this.listener = listener;
+  }
+
+  /** Sets the limits. Zero values disable the corresponding limit. */
+  void setLimits(int maxEventsPerSecond, float minDistanceDp, float minZoomDelta) {
+    this.maxEventsPerSecond = maxEventsPerSecond;
+    this.minDistanceDp = minDistanceDp;
+    this.minZoomDelta = minZoomDelta;
+  }
+
+  void onCameraMove(CameraPosition position) {
+    if (!isSignificant(position)) {
+      suppress(position);
+      return;
+    }
+    long wait = 0;
+    if (maxEventsPerSecond > 0 && lastReported != null) {
+      wait = lastReportedTime + 1000 / maxEventsPerSecond - SystemClock.uptimeMillis();
+    }
+    if (wait > 0) {
+      suppress(position);
+      if (!scheduled) {
+        scheduled = true;
+        handler.postDelayed(reportPending, wait);
+      }
+      return;
+    }
+    report(position);
+  }
+
+  /** Reports the latest held back position, if any. */
+  void flush() {
+    if (pending != null) {
+      report(pending);
+    }
+  }
+
+  /** Drops the latest held back position. */
+  void cancel() {
+    pending = null;
+    if (scheduled) {
+      scheduled = false;
+      handler.removeCallbacks(reportPending);
+    }
+  }
+
+  Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("reportedCount", reportedCount);
+    stats.put("suppressedCount", suppressedCount);
+    return stats;
+  }
+
+  private void suppress(CameraPosition position) {
+    pending = position;
+    suppressedCount++;
+  }
+
+  private void report(CameraPosition position) {
+    cancel();
+    lastReported = position;
+    lastReportedTime = SystemClock.uptimeMillis();
+    reportedCount++;
+    listener.onCameraMove(position);
+  }
+
+  /** Returns whether the camera moved at least the minimum distance or zoomed the minimum delta. */
+  private boolean isSignificant(CameraPosition position) {
+    if (lastReported == null
+        || position.bearing != lastReported.bearing
+        || position.tilt != lastReported.tilt) {
+      return true;
+    }
+    float zoomDelta = Math.abs(position.zoom - lastReported.zoom);
+    if (zoomDelta > 0 && zoomDelta >= minZoomDelta) {
+      return true;
+    }
+    // The world is 256dp wide at zoom 0 and doubles with every zoom level.
+    double scale = 256 * Math.pow(2, position.zoom);
+    double dx = SpatialIndex.toWorldX(position.target) - SpatialIndex.toWorldX(lastReported.target);
+    if (dx > 0.5) {
+      dx -= 1;
+    } else if (dx < -0.5) {
+      dx += 1;
+    }
+    double dy = SpatialIndex.toWorldY(position.target) - SpatialIndex.toWorldY(lastReported.target);
+    double distance = Math.hypot(dx, dy) * scale;
+    return distance > 0 && distance >= minDistanceDp;
+  }
+}
@@ -23,6 +23,23 @@ class CircleBuilder implements CircleOptionsSink {
     return consumeTapEvents;
   }
 
+  /**
+   * Sets the built options on {@code sink}, the way {@link Convert#interpretCircleOptions} would
+   * for the options they were interpreted from.
+   */
+  void applyTo(CircleOptionsSink sink) {
+    sink.setConsumeTapEvents(consumeTapEvents);
+    sink.setFillColor(circleOptions.getFillColor());
+    sink.setStrokeColor(circleOptions.getStrokeColor());
+    sink.setVisible(circleOptions.isVisible());
+    sink.setStrokeWidth(circleOptions.getStrokeWidth());
+    sink.setZIndex(circleOptions.getZIndex());
+    if (circleOptions.getCenter() != null) {
+      sink.setCenter(circleOptions.getCenter());
+    }
+    sink.setRadius(circleOptions.getRadius());
+  }
+
   @Override
   public void setFillColor(int color) {
     circleOptions.fillColor(color);
@@ -7,6 +7,7 @@ package io.flutter.plugins.googlemaps;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.model.Circle;
 import com.google.android.gms.maps.model.CircleOptions;
+import com.google.android.gms.maps.model.LatLngBounds;
 import io.flutter.plugin.common.MethodChannel;
 import java.util.HashMap;
 import java.util.List;
@@ -18,6 +19,22 @@ class CirclesController {
   private final Map<String, String> googleMapsCircleIdToDartCircleId;
   private final MethodChannel methodChannel;
   private GoogleMap googleMap;
+  private boolean cullingEnabled = false;
+  // Every circle is kept as options, so that the map can be rebuilt when culling changes.
+  private final Map<String, CircleBuilder> circleIdToBuilder = new HashMap<>();
+  private final ViewportCuller<CircleBuilder> culler =
+      new ViewportCuller<>(
+          new ViewportCuller.Delegate<CircleBuilder>() {
+            @Override
+            public void addToMap(String circleId, CircleBuilder circleBuilder) {
+              addCircle(circleId, circleBuilder.build(), circleBuilder.consumeTapEvents());
+            }
+
+            @Override
+            public void removeFromMap(String circleId) {
+              CirclesController.this.removeFromMap(circleId);
+            }
+          });
 
   CirclesController(MethodChannel methodChannel) {
     this.circleIdToController = new HashMap<>();
@@ -29,11 +46,48 @@ class CirclesController {
     this.googleMap = googleMap;
   }
 
+  /**
+   * Enables or disables culling of the circles outside the visible region, and rebuilds the map
+   * with the existing circles.
+   */
+  void setCullingEnabled(boolean cullingEnabled) {
+    if (this.cullingEnabled == cullingEnabled) {
+      return;
+    }
+    culler.clear();
+    for (CircleController circleController : circleIdToController.values()) {
+      circleController.remove();
+    }
+    circleIdToController.clear();
+    googleMapsCircleIdToDartCircleId.clear();
+    this.cullingEnabled = cullingEnabled;
+    for (Map.Entry<String, CircleBuilder> entry : circleIdToBuilder.entrySet()) {
+      CircleBuilder circleBuilder = entry.getValue();
+      if (cullingEnabled) {
+        culler.put(entry.getKey(), circleBuilder, getBounds(circleBuilder.build()));
+      } else {
+        addCircle(entry.getKey(), circleBuilder.build(), circleBuilder.consumeTapEvents());
+      }
+    }
+    if (cullingEnabled) {
+      culler.refresh(googleMap);
+    }
+  }
+
+  void onCameraIdle() {
+    if (cullingEnabled) {
+      culler.refresh(googleMap);
+    }
+  }
+
   void addCircles(List<Object> circlesToAdd) {
     if (circlesToAdd != null) {
       for (Object circleToAdd : circlesToAdd) {
         addCircle(circleToAdd);
       }
+      if (cullingEnabled) {
+        culler.refresh(googleMap);
+      }
     }
   }
 
@@ -42,6 +96,9 @@ class CirclesController {
       for (Object circleToChange : circlesToChange) {
         changeCircle(circleToChange);
       }
+      if (cullingEnabled) {
+        culler.refresh(googleMap);
+      }
     }
   }
 
@@ -54,10 +111,11 @@ class CirclesController {
         continue;
       }
       String circleId = (String) rawCircleId;
-      final CircleController circleController = circleIdToController.remove(circleId);
-      if (circleController != null) {
-        circleController.remove();
-        googleMapsCircleIdToDartCircleId.remove(circleController.getGoogleMapsCircleId());
+      circleIdToBuilder.remove(circleId);
+      if (cullingEnabled) {
+        culler.remove(circleId);
+      } else {
+        removeFromMap(circleId);
       }
     }
   }
@@ -82,6 +140,11 @@ class CirclesController {
     CircleBuilder circleBuilder = new CircleBuilder();
     String circleId = Convert.interpretCircleOptions(circle, circleBuilder);
     CircleOptions options = circleBuilder.build();
+    circleIdToBuilder.put(circleId, circleBuilder);
+    if (cullingEnabled) {
+      culler.put(circleId, circleBuilder, getBounds(options));
+      return;
+    }
     addCircle(circleId, options, circleBuilder.consumeTapEvents());
   }
 
@@ -97,12 +160,34 @@ class CirclesController {
       return;
     }
     String circleId = getCircleId(circle);
+    if (!circleIdToBuilder.containsKey(circleId)) {
+      return;
+    }
+    // Changes carry every option, so a new builder replaces the stored one.
+    CircleBuilder circleBuilder = new CircleBuilder();
+    Convert.interpretCircleOptions(circle, circleBuilder);
+    circleIdToBuilder.put(circleId, circleBuilder);
+    if (cullingEnabled) {
+      culler.put(circleId, circleBuilder, getBounds(circleBuilder.build()));
+    }
     CircleController circleController = circleIdToController.get(circleId);
     if (circleController != null) {
-      Convert.interpretCircleOptions(circle, circleController);
+      circleBuilder.applyTo(circleController);
     }
   }
 
+  private void removeFromMap(String circleId) {
+    final CircleController circleController = circleIdToController.remove(circleId);
+    if (circleController != null) {
+      circleController.remove();
+      googleMapsCircleIdToDartCircleId.remove(circleController.getGoogleMapsCircleId());
+    }
+  }
+
+  private static LatLngBounds getBounds(CircleOptions options) {
+    return ViewportCuller.boundsOf(options.getCenter(), options.getRadius());
+  }
+
   @SuppressWarnings("unchecked")
   private static String getCircleId(Object circle) {
     Map<String, Object> circleMap = (Map<String, Object>) circle;
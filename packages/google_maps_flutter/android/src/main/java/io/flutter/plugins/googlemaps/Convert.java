@@ -23,6 +23,8 @@ import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.PatternItem;
 import com.google.android.gms.maps.model.RoundCap;
 import com.google.android.gms.maps.model.SquareCap;
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
 import io.flutter.view.FlutterMain;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -32,6 +34,9 @@ import java.util.Map;
 
 /** Conversions between JSON-like values and GoogleMaps data types. */
 class Convert {
+  // Shared by all maps. Icons are bounded to a sixteenth of the heap.
+  static final BitmapDescriptorCache bitmapDescriptorCache =
+      new BitmapDescriptorCache((int) (Runtime.getRuntime().maxMemory() / 16));
 
   private static BitmapDescriptor toBitmapDescriptor(Object o) {
     final List<?> data = toList(o);
@@ -44,16 +49,14 @@ class Convert {
         }
       case "fromAsset":
         if (data.size() == 2) {
-          return BitmapDescriptorFactory.fromAsset(
-              FlutterMain.getLookupKeyForAsset(toString(data.get(1))));
+          return getBitmapFromAsset(FlutterMain.getLookupKeyForAsset(toString(data.get(1))));
         } else {
-          return BitmapDescriptorFactory.fromAsset(
+          return getBitmapFromAsset(
               FlutterMain.getLookupKeyForAsset(toString(data.get(1)), toString(data.get(2))));
         }
       case "fromAssetImage":
         if (data.size() == 3) {
-          return BitmapDescriptorFactory.fromAsset(
-              FlutterMain.getLookupKeyForAsset(toString(data.get(1))));
+          return getBitmapFromAsset(FlutterMain.getLookupKeyForAsset(toString(data.get(1))));
         } else {
           throw new IllegalArgumentException(
               "'fromAssetImage' Expected exactly 3 arguments, got: " + data.size());
@@ -67,9 +70,16 @@ class Convert {
 
   private static BitmapDescriptor getBitmapFromBytes(List<?> data) {
     if (data.size() == 2) {
+      Object key = BitmapDescriptorCache.keyForBytes((byte[]) data.get(1));
+      BitmapDescriptor descriptor = bitmapDescriptorCache.get(key);
+      if (descriptor != null) {
+        return descriptor;
+      }
       try {
         Bitmap bitmap = toBitmap(data.get(1));
-        return BitmapDescriptorFactory.fromBitmap(bitmap);
+        descriptor = BitmapDescriptorFactory.fromBitmap(bitmap);
+        bitmapDescriptorCache.put(key, descriptor, bitmap.getRowBytes() * bitmap.getHeight());
+        return descriptor;
       } catch (Exception e) {
         throw new IllegalArgumentException("Unable to interpret bytes as a valid image.", e);
       }
@@ -79,6 +89,16 @@ class Convert {
     }
   }
 
+  private static BitmapDescriptor getBitmapFromAsset(String assetKey) {
+    Object key = BitmapDescriptorCache.keyForAsset(assetKey);
+    BitmapDescriptor descriptor = bitmapDescriptorCache.get(key);
+    if (descriptor == null) {
+      descriptor = BitmapDescriptorFactory.fromAsset(assetKey);
+      bitmapDescriptorCache.put(key, descriptor, 0);
+    }
+    return descriptor;
+  }
+
   private static boolean toBoolean(Object o) {
     return (Boolean) o;
   }
@@ -142,6 +162,20 @@ class Convert {
     return ((Number) o).intValue();
   }
 
+  private static long toLong(Object o) {
+    return ((Number) o).longValue();
+  }
+
+  /** Returns the tile a Dart tile provider answered with, where no data means there is no tile. */
+  static Tile toTile(Object o) {
+    final Map<?, ?> data = toMap(o);
+    final Object bytes = data.get("data");
+    if (bytes == null) {
+      return TileProvider.NO_TILE;
+    }
+    return new Tile(toInt(data.get("width")), toInt(data.get("height")), (byte[]) bytes);
+  }
+
   static Object cameraPositionToJson(CameraPosition position) {
     if (position == null) {
       return null;
@@ -240,6 +274,28 @@ class Convert {
     }
   }
 
+  static SnapshotEncoder toSnapshotEncoder(Object o, float density) {
+    final Map<?, ?> data = toMap(o);
+    final Object width = data.get("width");
+    final Object height = data.get("height");
+    return new SnapshotEncoder(
+        width == null ? 0 : toPixels(width, density),
+        height == null ? 0 : toPixels(height, density),
+        toCompressFormat(data.get("format")),
+        toInt(data.get("quality")));
+  }
+
+  private static Bitmap.CompressFormat toCompressFormat(Object o) {
+    switch (toString(o)) {
+      case "jpeg":
+        return Bitmap.CompressFormat.JPEG;
+      case "webp":
+        return Bitmap.CompressFormat.WEBP;
+      default:
+        return Bitmap.CompressFormat.PNG;
+    }
+  }
+
   private static Point toPoint(Object o, float density) {
     final List<?> data = toList(o);
     return new Point(toPixels(data.get(0), density), toPixels(data.get(1), density));
@@ -300,6 +356,12 @@ class Convert {
     if (trackCameraPosition != null) {
       sink.setTrackCameraPosition(toBoolean(trackCameraPosition));
     }
+    final Object cameraMoveThrottle = data.get("cameraMoveThrottle");
+    if (cameraMoveThrottle != null) {
+      final List<?> throttleData = toList(cameraMoveThrottle);
+      sink.setCameraMoveThrottle(
+          toInt(throttleData.get(0)), toFloat(throttleData.get(1)), toFloat(throttleData.get(2)));
+    }
     final Object zoomGesturesEnabled = data.get("zoomGesturesEnabled");
     if (zoomGesturesEnabled != null) {
       sink.setZoomGesturesEnabled(toBoolean(zoomGesturesEnabled));
@@ -316,6 +378,14 @@ class Convert {
     if (indoorEnabled != null) {
       sink.setIndoorEnabled(toBoolean(indoorEnabled));
     }
+    final Object markerClusteringEnabled = data.get("markerClusteringEnabled");
+    if (markerClusteringEnabled != null) {
+      sink.setMarkerClusteringEnabled(toBoolean(markerClusteringEnabled));
+    }
+    final Object viewportCullingEnabled = data.get("viewportCullingEnabled");
+    if (viewportCullingEnabled != null) {
+      sink.setViewportCullingEnabled(toBoolean(viewportCullingEnabled));
+    }
   }
 
   /** Returns the dartMarkerId of the interpreted marker. */
@@ -470,6 +540,11 @@ class Convert {
     if (zIndex != null) {
       sink.setZIndex(toFloat(zIndex));
     }
+    // Before the points, so that they are simplified with the new tolerance.
+    final Object simplificationTolerance = data.get("simplificationTolerance");
+    if (simplificationTolerance != null) {
+      sink.setSimplificationTolerance(toFloat(simplificationTolerance));
+    }
     final Object points = data.get("points");
     if (points != null) {
       sink.setPoints(toPoints(points));
@@ -528,13 +603,117 @@ class Convert {
     }
   }
 
+  static String interpretTileOverlayOptions(Object o, TileOverlayOptionsSink sink) {
+    final Map<?, ?> data = toMap(o);
+    final Object fadeIn = data.get("fadeIn");
+    if (fadeIn != null) {
+      sink.setFadeIn(toBoolean(fadeIn));
+    }
+    final Object transparency = data.get("transparency");
+    if (transparency != null) {
+      sink.setTransparency(toFloat(transparency));
+    }
+    final Object zIndex = data.get("zIndex");
+    if (zIndex != null) {
+      sink.setZIndex(toFloat(zIndex));
+    }
+    final Object visible = data.get("visible");
+    if (visible != null) {
+      sink.setVisible(toBoolean(visible));
+    }
+    final Object filePathTemplate = data.get("filePathTemplate");
+    if (filePathTemplate != null) {
+      sink.setFilePathTemplate(toString(filePathTemplate));
+    }
+    final Object diskCacheSize = data.get("diskCacheSize");
+    if (diskCacheSize != null) {
+      sink.setDiskCacheSize(toLong(diskCacheSize));
+    }
+    final Object prefetchAdjacentZoomLevels = data.get("prefetchAdjacentZoomLevels");
+    if (prefetchAdjacentZoomLevels != null) {
+      sink.setPrefetchAdjacentZoomLevels(toBoolean(prefetchAdjacentZoomLevels));
+    }
+    final String tileOverlayId = (String) data.get("tileOverlayId");
+    if (tileOverlayId == null) {
+      throw new IllegalArgumentException("tileOverlayId was null");
+    } else {
+      return tileOverlayId;
+    }
+  }
+
+  static String interpretHeatmapOptions(Object o, HeatmapOptionsSink sink) {
+    final Map<?, ?> data = toMap(o);
+    final Object radius = data.get("radius");
+    if (radius != null) {
+      sink.setRadius(toInt(radius));
+    }
+    final Object opacity = data.get("opacity");
+    if (opacity != null) {
+      sink.setOpacity(toFloat(opacity));
+    }
+    final Object gradient = data.get("gradient");
+    if (gradient != null) {
+      final Map<?, ?> gradientData = toMap(gradient);
+      final List<?> colors = toList(gradientData.get("colors"));
+      final List<?> startPoints = toList(gradientData.get("startPoints"));
+      if (colors.isEmpty() || colors.size() != startPoints.size()) {
+        throw new IllegalArgumentException("gradient needs as many colors as start points");
+      }
+      final int[] gradientColors = new int[colors.size()];
+      final float[] gradientStartPoints = new float[startPoints.size()];
+      for (int i = 0; i < gradientColors.length; i++) {
+        gradientColors[i] = toInt(colors.get(i));
+        gradientStartPoints[i] = toFloat(startPoints.get(i));
+      }
+      sink.setGradient(
+          gradientColors, gradientStartPoints, toInt(gradientData.get("colorMapSize")));
+    }
+    final Object maxIntensity = data.get("maxIntensity");
+    if (maxIntensity != null) {
+      sink.setMaxIntensity(toDouble(maxIntensity));
+    }
+    final Object zIndex = data.get("zIndex");
+    if (zIndex != null) {
+      sink.setZIndex(toFloat(zIndex));
+    }
+    final Object visible = data.get("visible");
+    if (visible != null) {
+      sink.setVisible(toBoolean(visible));
+    }
+    // Packed as [latitude0, longitude0, weight0, ...]. Changes only carry the added points when
+    // the points were appended to.
+    final Object points = data.get("points");
+    if (points != null) {
+      sink.setPoints((double[]) points);
+    }
+    final Object pointsToAdd = data.get("pointsToAdd");
+    if (pointsToAdd != null) {
+      sink.addPoints((double[]) pointsToAdd);
+    }
+    final String heatmapId = (String) data.get("heatmapId");
+    if (heatmapId == null) {
+      throw new IllegalArgumentException("heatmapId was null");
+    } else {
+      return heatmapId;
+    }
+  }
+
   private static List<LatLng> toPoints(Object o) {
+    if (o instanceof double[]) {
+      // Packed as [latitude0, longitude0, latitude1, longitude1, ...].
+      final double[] packed = (double[]) o;
+      final List<LatLng> points = new ArrayList<>(packed.length / 2);
+      for (int i = 0; i + 1 < packed.length; i += 2) {
+        points.add(new LatLng(packed[i], packed[i + 1]));
+      }
+      return points;
+    }
     final List<?> data = toList(o);
     final List<LatLng> points = new ArrayList<>(data.size());
 
     for (Object ob : data) {
       final List<?> point = toList(ob);
-      points.add(new LatLng(toFloat(point.get(0)), toFloat(point.get(1))));
+      points.add(new LatLng(toDouble(point.get(0)), toDouble(point.get(1))));
     }
     return points;
   }
@@ -0,0 +1,87 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves tiles from the Dart tile provider of an overlay.
+ *
+ * <p>The map calls {@link #getTile} on a background thread, which waits for the Dart side to
+ * answer a tileOverlay#getTile call made on the main thread.
+ */
+class DartTileProvider implements TileProvider {
+  private static final String TAG = "DartTileProvider";
+  private static final long TIMEOUT_SECONDS = 30;
+  private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+  private final MethodChannel methodChannel;
+  private final String tileOverlayId;
+
+  DartTileProvider(MethodChannel methodChannel, String tileOverlayId) {
+    this.methodChannel = methodChannel;
+    this.tileOverlayId = tileOverlayId;
+  }
+
+  @Override
+  public Tile getTile(int x, int y, int zoom) {
+    final Map<String, Object> arguments = new HashMap<>(4);
+    arguments.put("tileOverlayId", tileOverlayId);
+    arguments.put("x", x);
+    arguments.put("y", y);
+    arguments.put("zoom", zoom);
+    final AtomicReference<Tile> tile = new AtomicReference<>();
+    final CountDownLatch latch = new CountDownLatch(1);
+    mainHandler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            methodChannel.invokeMethod(
+                "tileOverlay#getTile",
+                arguments,
+                new MethodChannel.Result() {
+                  @Override
+                  public void success(Object result) {
+                    tile.set(Convert.toTile(result));
+                    latch.countDown();
+                  }
+
+                  @Override
+                  public void error(String code, String message, Object details) {
+                    Log.e(TAG, "Unable to get tile from Dart: " + code + " " + message);
+                    tile.set(NO_TILE);
+                    latch.countDown();
+                  }
+
+                  @Override
+                  public void notImplemented() {
+                    tile.set(NO_TILE);
+                    latch.countDown();
+                  }
+                });
+          }
+        });
+    try {
+      // A null tile makes the map ask for it again later.
+      if (!latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        return null;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+    return tile.get();
+  }
+}
@@ -0,0 +1,68 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.graphics.BitmapFactory;
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Serves tiles from image files, whose paths are a template with the {x}, {y} and {z}
+ * placeholders replaced by the tile coordinates.
+ */
+class FileTileProvider implements TileProvider {
+  private final String filePathTemplate;
+
+  FileTileProvider(String filePathTemplate) {
+    this.filePathTemplate = filePathTemplate;
+  }
+
+  @Override
+  public Tile getTile(int x, int y, int zoom) {
+    File file =
+        new File(
+            filePathTemplate
+                .replace("{x}", String.valueOf(x))
+                .replace("{y}", String.valueOf(y))
+                .replace("{z}", String.valueOf(zoom)));
+    if (!file.isFile()) {
+      return NO_TILE;
+    }
+    byte[] data = new byte[(int) file.length()];
+    InputStream input = null;
+    try {
+      input = new FileInputStream(file);
+      int offset = 0;
+      while (offset < data.length) {
+        int read = input.read(data, offset, data.length - offset);
+        if (read < 0) {
+          break;
+        }
+        offset += read;
+      }
+    } catch (IOException e) {
+      return NO_TILE;
+    } finally {
+      if (input != null) {
+        try {
+          input.close();
+        } catch (IOException e) {
+          // Ignored, the tile has been read.
+        }
+      }
+    }
+    BitmapFactory.Options options = new BitmapFactory.Options();
+    options.inJustDecodeBounds = true;
+    BitmapFactory.decodeByteArray(data, 0, data.length, options);
+    if (options.outWidth <= 0 || options.outHeight <= 0) {
+      return NO_TILE;
+    }
+    return new Tile(options.outWidth, options.outHeight, data);
+  }
+}
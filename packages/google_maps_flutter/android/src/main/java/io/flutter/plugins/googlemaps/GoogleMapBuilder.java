@@ -15,13 +15,20 @@ import java.util.concurrent.atomic.AtomicInteger;
 class GoogleMapBuilder implements GoogleMapOptionsSink {
   private final GoogleMapOptions options = new GoogleMapOptions();
   private boolean trackCameraPosition = false;
+  private int cameraMoveMaxEventsPerSecond = 0;
+  private float cameraMoveMinDistance = 0;
+  private float cameraMoveMinZoomDelta = 0;
   private boolean myLocationEnabled = false;
   private boolean myLocationButtonEnabled = false;
   private boolean indoorEnabled = true;
+  private boolean markerClusteringEnabled = false;
+  private boolean viewportCullingEnabled = false;
   private Object initialMarkers;
   private Object initialPolygons;
   private Object initialPolylines;
   private Object initialCircles;
+  private Object initialTileOverlays;
+  private Object initialHeatmaps;
   private Rect padding = new Rect(0, 0, 0, 0);
 
   GoogleMapController build(
@@ -33,10 +40,16 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
     controller.setMyLocationButtonEnabled(myLocationButtonEnabled);
     controller.setIndoorEnabled(indoorEnabled);
     controller.setTrackCameraPosition(trackCameraPosition);
+    controller.setCameraMoveThrottle(
+        cameraMoveMaxEventsPerSecond, cameraMoveMinDistance, cameraMoveMinZoomDelta);
+    controller.setMarkerClusteringEnabled(markerClusteringEnabled);
+    controller.setViewportCullingEnabled(viewportCullingEnabled);
     controller.setInitialMarkers(initialMarkers);
     controller.setInitialPolygons(initialPolygons);
     controller.setInitialPolylines(initialPolylines);
     controller.setInitialCircles(initialCircles);
+    controller.setInitialTileOverlays(initialTileOverlays);
+    controller.setInitialHeatmaps(initialHeatmaps);
     controller.setPadding(padding.top, padding.left, padding.bottom, padding.right);
     return controller;
   }
@@ -85,6 +98,13 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
     this.trackCameraPosition = trackCameraPosition;
   }
 
+  @Override
+  public void setCameraMoveThrottle(int maxEventsPerSecond, float minDistance, float minZoomDelta) {
+    this.cameraMoveMaxEventsPerSecond = maxEventsPerSecond;
+    this.cameraMoveMinDistance = minDistance;
+    this.cameraMoveMinZoomDelta = minZoomDelta;
+  }
+
   @Override
   public void setRotateGesturesEnabled(boolean rotateGesturesEnabled) {
     options.rotateGesturesEnabled(rotateGesturesEnabled);
@@ -110,6 +130,16 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
     this.indoorEnabled = indoorEnabled;
   }
 
+  @Override
+  public void setMarkerClusteringEnabled(boolean markerClusteringEnabled) {
+    this.markerClusteringEnabled = markerClusteringEnabled;
+  }
+
+  @Override
+  public void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    this.viewportCullingEnabled = viewportCullingEnabled;
+  }
+
   @Override
   public void setMyLocationEnabled(boolean myLocationEnabled) {
     this.myLocationEnabled = myLocationEnabled;
@@ -139,4 +169,14 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
   public void setInitialCircles(Object initialCircles) {
     this.initialCircles = initialCircles;
   }
+
+  @Override
+  public void setInitialTileOverlays(Object initialTileOverlays) {
+    this.initialTileOverlays = initialTileOverlays;
+  }
+
+  @Override
+  public void setInitialHeatmaps(Object initialHeatmaps) {
+    this.initialHeatmaps = initialHeatmaps;
+  }
 }
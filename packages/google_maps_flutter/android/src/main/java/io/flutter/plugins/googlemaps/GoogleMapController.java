@@ -17,6 +17,7 @@ import android.app.Activity;
 import android.app.Application;
 import android.content.Context;
 import android.content.pm.PackageManager;
+import android.graphics.Bitmap;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
@@ -37,6 +38,7 @@ import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.PluginRegistry;
 import io.flutter.plugin.platform.PlatformView;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -82,10 +84,15 @@ final class GoogleMapController
   private final PolygonsController polygonsController;
   private final PolylinesController polylinesController;
   private final CirclesController circlesController;
+  private final TileOverlaysController tileOverlaysController;
+  private final HeatmapsController heatmapsController;
+  private final CameraMoveThrottle cameraMoveThrottle;
   private List<Object> initialMarkers;
   private List<Object> initialPolygons;
   private List<Object> initialPolylines;
   private List<Object> initialCircles;
+  private List<Object> initialTileOverlays;
+  private List<Object> initialHeatmaps;
 
   GoogleMapController(
       int id,
@@ -103,10 +110,24 @@ final class GoogleMapController
         new MethodChannel(registrar.messenger(), "plugins.flutter.io/google_maps_" + id);
     methodChannel.setMethodCallHandler(this);
     this.registrarActivityHashCode = registrar.activity().hashCode();
-    this.markersController = new MarkersController(methodChannel);
+    this.markersController = new MarkersController(methodChannel, density);
     this.polygonsController = new PolygonsController(methodChannel);
     this.polylinesController = new PolylinesController(methodChannel, density);
     this.circlesController = new CirclesController(methodChannel);
+    this.tileOverlaysController =
+        new TileOverlaysController(
+            methodChannel, new File(context.getCacheDir(), "google_maps_flutter_tiles"));
+    this.heatmapsController = new HeatmapsController();
+    this.cameraMoveThrottle =
+        new CameraMoveThrottle(
+            new CameraMoveThrottle.Listener() {
+              @Override
+              public void onCameraMove(CameraPosition position) {
+                final Map<String, Object> arguments = new HashMap<>(2);
+                arguments.put("position", Convert.cameraPositionToJson(position));
+                methodChannel.invokeMethod("camera#onMove", arguments);
+              }
+            });
   }
 
   @Override
@@ -187,10 +208,14 @@ final class GoogleMapController
     polygonsController.setGoogleMap(googleMap);
     polylinesController.setGoogleMap(googleMap);
     circlesController.setGoogleMap(googleMap);
+    tileOverlaysController.setGoogleMap(googleMap);
+    heatmapsController.setGoogleMap(googleMap);
     updateInitialMarkers();
     updateInitialPolygons();
     updateInitialPolylines();
     updateInitialCircles();
+    updateInitialTileOverlays();
+    updateInitialHeatmaps();
   }
 
   @Override
@@ -209,6 +234,16 @@ final class GoogleMapController
           result.success(Convert.cameraPositionToJson(getCameraPosition()));
           break;
         }
+      case "map#getIconCacheStats":
+        {
+          result.success(Convert.bitmapDescriptorCache.getStats());
+          break;
+        }
+      case "map#getCameraMoveStats":
+        {
+          result.success(cameraMoveThrottle.getStats());
+          break;
+        }
       case "map#getVisibleRegion":
         {
           if (googleMap != null) {
@@ -222,6 +257,28 @@ final class GoogleMapController
           }
           break;
         }
+      case "map#takeSnapshot":
+        {
+          if (googleMap == null) {
+            result.error(
+                "GoogleMap uninitialized", "takeSnapshot called prior to map initialization", null);
+            break;
+          }
+          final SnapshotEncoder encoder = Convert.toSnapshotEncoder(call.arguments, density);
+          final MethodChannel.Result snapshotResult = result;
+          googleMap.snapshot(
+              new GoogleMap.SnapshotReadyCallback() {
+                @Override
+                public void onSnapshotReady(Bitmap bitmap) {
+                  if (bitmap == null) {
+                    snapshotResult.error("snapshot_failed", "Unable to take a snapshot", null);
+                  } else {
+                    encoder.encode(bitmap, snapshotResult);
+                  }
+                }
+              });
+          break;
+        }
       case "camera#move":
         {
           final CameraUpdate cameraUpdate =
@@ -241,12 +298,13 @@ final class GoogleMapController
       case "markers#update":
         {
           Object markersToAdd = call.argument("markersToAdd");
-          markersController.addMarkers((List<Object>) markersToAdd);
           Object markersToChange = call.argument("markersToChange");
-          markersController.changeMarkers((List<Object>) markersToChange);
           Object markerIdsToRemove = call.argument("markerIdsToRemove");
-          markersController.removeMarkers((List<Object>) markerIdsToRemove);
-          result.success(null);
+          markersController.updateMarkers(
+              (List<Object>) markersToAdd,
+              (List<Object>) markersToChange,
+              (List<Object>) markerIdsToRemove,
+              result);
           break;
         }
       case "polygons#update":
@@ -282,6 +340,35 @@ final class GoogleMapController
           result.success(null);
           break;
         }
+      case "tileOverlays#update":
+        {
+          Object tileOverlaysToAdd = call.argument("tileOverlaysToAdd");
+          tileOverlaysController.addTileOverlays((List<Object>) tileOverlaysToAdd);
+          Object tileOverlaysToChange = call.argument("tileOverlaysToChange");
+          tileOverlaysController.changeTileOverlays((List<Object>) tileOverlaysToChange);
+          Object tileOverlayIdsToRemove = call.argument("tileOverlayIdsToRemove");
+          tileOverlaysController.removeTileOverlays((List<Object>) tileOverlayIdsToRemove);
+          result.success(null);
+          break;
+        }
+      case "heatmaps#update":
+        {
+          Object heatmapsToAdd = call.argument("heatmapsToAdd");
+          heatmapsController.addHeatmaps((List<Object>) heatmapsToAdd);
+          Object heatmapsToChange = call.argument("heatmapsToChange");
+          heatmapsController.changeHeatmaps((List<Object>) heatmapsToChange);
+          Object heatmapIdsToRemove = call.argument("heatmapIdsToRemove");
+          heatmapsController.removeHeatmaps((List<Object>) heatmapIdsToRemove);
+          result.success(null);
+          break;
+        }
+      case "tileOverlays#clearTileCache":
+        {
+          String tileOverlayId = call.argument("tileOverlayId");
+          tileOverlaysController.clearTileCache(tileOverlayId);
+          result.success(null);
+          break;
+        }
       case "map#isCompassEnabled":
         {
           result.success(googleMap.getUiSettings().isCompassEnabled());
@@ -380,13 +467,19 @@ final class GoogleMapController
     if (!trackCameraPosition) {
       return;
     }
-    final Map<String, Object> arguments = new HashMap<>(2);
-    arguments.put("position", Convert.cameraPositionToJson(googleMap.getCameraPosition()));
-    methodChannel.invokeMethod("camera#onMove", arguments);
+    cameraMoveThrottle.onCameraMove(googleMap.getCameraPosition());
   }
 
   @Override
   public void onCameraIdle() {
+    if (trackCameraPosition) {
+      cameraMoveThrottle.flush();
+    }
+    markersController.onCameraIdle();
+    polygonsController.onCameraIdle();
+    polylinesController.onCameraIdle();
+    circlesController.onCameraIdle();
+    tileOverlaysController.onCameraIdle();
     methodChannel.invokeMethod("camera#onIdle", Collections.singletonMap("map", id));
   }
 
@@ -416,6 +509,8 @@ final class GoogleMapController
       return;
     }
     disposed = true;
+    cameraMoveThrottle.cancel();
+    markersController.cancelPendingUpdates();
     methodChannel.setMethodCallHandler(null);
     mapView.onDestroy();
     registrar.activity().getApplication().unregisterActivityLifecycleCallbacks(this);
@@ -502,6 +597,14 @@ final class GoogleMapController
   @Override
   public void setTrackCameraPosition(boolean trackCameraPosition) {
     this.trackCameraPosition = trackCameraPosition;
+    if (!trackCameraPosition) {
+      cameraMoveThrottle.cancel();
+    }
+  }
+
+  @Override
+  public void setCameraMoveThrottle(int maxEventsPerSecond, float minDistance, float minZoomDelta) {
+    cameraMoveThrottle.setLimits(maxEventsPerSecond, minDistance, minZoomDelta);
   }
 
   @Override
@@ -577,7 +680,7 @@ final class GoogleMapController
   }
 
   private void updateInitialMarkers() {
-    markersController.addMarkers(initialMarkers);
+    markersController.updateMarkers(initialMarkers, null, null, null);
   }
 
   @Override
@@ -616,6 +719,30 @@ final class GoogleMapController
     circlesController.addCircles(initialCircles);
   }
 
+  @Override
+  public void setInitialTileOverlays(Object initialTileOverlays) {
+    this.initialTileOverlays = (List<Object>) initialTileOverlays;
+    if (googleMap != null) {
+      updateInitialTileOverlays();
+    }
+  }
+
+  private void updateInitialTileOverlays() {
+    tileOverlaysController.addTileOverlays(initialTileOverlays);
+  }
+
+  @Override
+  public void setInitialHeatmaps(Object initialHeatmaps) {
+    this.initialHeatmaps = (List<Object>) initialHeatmaps;
+    if (googleMap != null) {
+      updateInitialHeatmaps();
+    }
+  }
+
+  private void updateInitialHeatmaps() {
+    heatmapsController.addHeatmaps(initialHeatmaps);
+  }
+
   @SuppressLint("MissingPermission")
   private void updateMyLocationSettings() {
     if (hasLocationPermission()) {
@@ -651,4 +778,17 @@ final class GoogleMapController
   public void setIndoorEnabled(boolean indoorEnabled) {
     this.indoorEnabled = indoorEnabled;
   }
+
+  @Override
+  public void setMarkerClusteringEnabled(boolean markerClusteringEnabled) {
+    markersController.setClusteringEnabled(markerClusteringEnabled);
+  }
+
+  @Override
+  public void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    markersController.setCullingEnabled(viewportCullingEnabled);
+    polygonsController.setCullingEnabled(viewportCullingEnabled);
+    polylinesController.setCullingEnabled(viewportCullingEnabled);
+    circlesController.setCullingEnabled(viewportCullingEnabled);
+  }
 }
@@ -44,6 +44,12 @@ public class GoogleMapFactory extends PlatformViewFactory {
     if (params.containsKey("circlesToAdd")) {
       builder.setInitialCircles(params.get("circlesToAdd"));
     }
+    if (params.containsKey("tileOverlaysToAdd")) {
+      builder.setInitialTileOverlays(params.get("tileOverlaysToAdd"));
+    }
+    if (params.containsKey("heatmapsToAdd")) {
+      builder.setInitialHeatmaps(params.get("heatmapsToAdd"));
+    }
     return builder.build(id, context, mActivityState, mPluginRegistrar);
   }
 }
@@ -28,6 +28,8 @@ interface GoogleMapOptionsSink {
 
   void setTrackCameraPosition(boolean trackCameraPosition);
 
+  void setCameraMoveThrottle(int maxEventsPerSecond, float minDistance, float minZoomDelta);
+
   void setZoomGesturesEnabled(boolean zoomGesturesEnabled);
 
   void setMyLocationEnabled(boolean myLocationEnabled);
@@ -36,6 +38,10 @@ interface GoogleMapOptionsSink {
 
   void setIndoorEnabled(boolean indoorEnabled);
 
+  void setMarkerClusteringEnabled(boolean markerClusteringEnabled);
+
+  void setViewportCullingEnabled(boolean viewportCullingEnabled);
+
   void setInitialMarkers(Object initialMarkers);
 
   void setInitialPolygons(Object initialPolygons);
@@ -43,4 +49,8 @@ interface GoogleMapOptionsSink {
   void setInitialPolylines(Object initialPolylines);
 
   void setInitialCircles(Object initialCircles);
+
+  void setInitialTileOverlays(Object initialTileOverlays);
+
+  void setInitialHeatmaps(Object initialHeatmaps);
 }
@@ -7,6 +7,7 @@ package io.flutter.plugins.googlemaps;
 import android.app.Activity;
 import android.app.Application;
 import android.os.Bundle;
+import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.PluginRegistry.Registrar;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -25,6 +26,7 @@ public class GoogleMapsPlugin implements Application.ActivityLifecycleCallbacks
   static final int DESTROYED = 6;
   private final AtomicInteger state = new AtomicInteger(0);
   private final int registrarActivityHashCode;
+  private final LiteMapSnapshotter snapshotter;
 
   public static void registerWith(Registrar registrar) {
     if (registrar.activity() == null) {
@@ -38,6 +40,8 @@ public class GoogleMapsPlugin implements Application.ActivityLifecycleCallbacks
         .platformViewRegistry()
         .registerViewFactory(
             "plugins.flutter.io/google_maps", new GoogleMapFactory(plugin.state, registrar));
+    new MethodChannel(registrar.messenger(), "plugins.flutter.io/google_maps_snapshotter")
+        .setMethodCallHandler(plugin.snapshotter);
   }
 
   @Override
@@ -89,9 +93,11 @@ public class GoogleMapsPlugin implements Application.ActivityLifecycleCallbacks
       return;
     }
     state.set(DESTROYED);
+    snapshotter.dispose();
   }
 
   private GoogleMapsPlugin(Registrar registrar) {
     this.registrarActivityHashCode = registrar.activity().hashCode();
+    this.snapshotter = new LiteMapSnapshotter(registrar.activity());
   }
 }
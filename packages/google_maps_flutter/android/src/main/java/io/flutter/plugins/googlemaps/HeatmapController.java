@@ -0,0 +1,74 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.TileOverlay;
+
+/** Controller of a single Heatmap on the map. */
+class HeatmapController implements HeatmapOptionsSink {
+  private final TileOverlay tileOverlay;
+  private final HeatmapTileProvider tileProvider;
+  // The version of the tile provider the map's tiles were rendered with.
+  private int renderedVersion;
+
+  HeatmapController(TileOverlay tileOverlay, HeatmapTileProvider tileProvider) {
+    this.tileOverlay = tileOverlay;
+    this.tileProvider = tileProvider;
+    this.renderedVersion = tileProvider.getVersion();
+  }
+
+  void remove() {
+    tileOverlay.remove();
+  }
+
+  /** Drops the map's tiles if the options changed how they are rendered. */
+  void refresh() {
+    int version = tileProvider.getVersion();
+    if (version != renderedVersion) {
+      renderedVersion = version;
+      tileOverlay.clearTileCache();
+    }
+  }
+
+  @Override
+  public void setPoints(double[] points) {
+    tileProvider.setPoints(points);
+  }
+
+  @Override
+  public void addPoints(double[] points) {
+    tileProvider.addPoints(points);
+  }
+
+  @Override
+  public void setRadius(int radius) {
+    tileProvider.setRadius(radius);
+  }
+
+  @Override
+  public void setOpacity(float opacity) {
+    tileProvider.setOpacity(opacity);
+  }
+
+  @Override
+  public void setGradient(int[] colors, float[] startPoints, int colorMapSize) {
+    tileProvider.setGradient(colors, startPoints, colorMapSize);
+  }
+
+  @Override
+  public void setMaxIntensity(double maxIntensity) {
+    tileProvider.setMaxIntensity(maxIntensity);
+  }
+
+  @Override
+  public void setZIndex(float zIndex) {
+    tileOverlay.setZIndex(zIndex);
+  }
+
+  @Override
+  public void setVisible(boolean visible) {
+    tileOverlay.setVisible(visible);
+  }
+}
@@ -0,0 +1,26 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+/** Receiver of Heatmap configuration options. */
+interface HeatmapOptionsSink {
+  /** Replaces the points, packed as [latitude0, longitude0, weight0, ...]. */
+  void setPoints(double[] points);
+
+  /** Adds points to the existing ones, packed like in {@link #setPoints(double[])}. */
+  void addPoints(double[] points);
+
+  void setRadius(int radius);
+
+  void setOpacity(float opacity);
+
+  void setGradient(int[] colors, float[] startPoints, int colorMapSize);
+
+  void setMaxIntensity(double maxIntensity);
+
+  void setZIndex(float zIndex);
+
+  void setVisible(boolean visible);
+}
@@ -0,0 +1,391 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.graphics.Bitmap;
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders weighted points into heatmap tiles.
+ *
+ * <p>Points are kept in world coordinates, in a fixed grid of cells over the world, so that a tile
+ * only visits the points near it and added points are appended to their cells without rebuilding
+ * anything. Tiles are rendered on the map's tile threads: the weights of the points within the
+ * radius of a tile are summed per pixel, spread with a gaussian kernel and colored with the
+ * gradient.
+ *
+ * <p>The points are published as immutable {@link Points} snapshots, swapped under a short lock,
+ * so that tile threads render from a snapshot without blocking the setters, which are called on
+ * the platform thread.
+ */
+class HeatmapTileProvider implements TileProvider {
+  private static final int TILE_SIZE = 256;
+  private static final int MAX_ZOOM = 22;
+  // The world is split into GRID_SIZE by GRID_SIZE cells.
+  private static final int GRID_SIZE = 256;
+
+  /** The indices of the points in a cell of the grid. */
+  private static final class Cell {
+    int[] indices = new int[4];
+    int size = 0;
+
+    void add(int index) {
+      if (size == indices.length) {
+        indices = Arrays.copyOf(indices, size * 2);
+      }
+      indices[size++] = index;
+    }
+
+    Cell copy() {
+      Cell copy = new Cell();
+      copy.indices = Arrays.copyOf(indices, Math.max(4, size));
+      copy.size = size;
+      return copy;
+    }
+  }
+
+  /**
+   * The points in world coordinates and their grid. A published snapshot is never changed: a
+   * later snapshot may share its arrays, but only writes beyond its size, and copies the cells it
+   * adds to.
+   */
+  private static final class Points {
+    static final Points EMPTY =
+        new Points(new double[0], new double[0], new double[0], 0, new HashMap<Integer, Cell>());
+
+    final double[] xs;
+    final double[] ys;
+    final double[] weights;
+    final int size;
+    final Map<Integer, Cell> cells;
+
+    Points(double[] xs, double[] ys, double[] weights, int size, Map<Integer, Cell> cells) {
+      this.xs = xs;
+      this.ys = ys;
+      this.weights = weights;
+      this.size = size;
+      this.cells = cells;
+    }
+
+    /** Returns these points followed by {@code points}, packed as lat, lng and weight triples. */
+    Points append(double[] points) {
+      int count = points.length / 3;
+      double[] xs = this.xs;
+      double[] ys = this.ys;
+      double[] weights = this.weights;
+      if (size + count > xs.length) {
+        int capacity = Math.max(size + count, xs.length * 2);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+      }
+      Map<Integer, Cell> cells = new HashMap<>(this.cells);
+      // The cells already copied for this snapshot.
+      Set<Integer> copiedCells = new HashSet<>();
+      int size = this.size;
+      for (int i = 0; i < count; i++) {
+        double x = SpatialIndex.toWorldX(points[3 * i + 1]);
+        double y = SpatialIndex.toWorldY(points[3 * i]);
+        xs[size] = x;
+        ys[size] = y;
+        weights[size] = points[3 * i + 2];
+        int key = toCell(y) * GRID_SIZE + toCell(x);
+        Cell cell = cells.get(key);
+        if (cell == null) {
+          cell = new Cell();
+          cells.put(key, cell);
+          copiedCells.add(key);
+        } else if (copiedCells.add(key)) {
+          cell = cell.copy();
+          cells.put(key, cell);
+        }
+        cell.add(size);
+        size++;
+      }
+      return new Points(xs, ys, weights, size, cells);
+    }
+  }
+
+  private Points points = Points.EMPTY;
+
+  private int radius = 20;
+  private float opacity = 0.7f;
+  private int[] colors = {0xff66e100, 0xffff0000};
+  private float[] startPoints = {0.2f, 1f};
+  private int[] colorMap = colorMap(colors, startPoints, 256, opacity);
+  private double maxIntensity = 0;
+  // The derived maximum intensity of every zoom level, or 0 if it is not computed yet. Replaced
+  // when the points or the radius change, so that a value computed for the previous ones is not
+  // stored in it.
+  private double[] maxIntensities = new double[MAX_ZOOM + 1];
+  // Incremented whenever the rendered tiles change.
+  private int version = 0;
+
+  synchronized int getVersion() {
+    return version;
+  }
+
+  // The points are only replaced on the platform thread, so the snapshots are built outside the
+  // lock from the current one.
+  void setPoints(double[] points) {
+    publish(Points.EMPTY.append(points));
+  }
+
+  void addPoints(double[] points) {
+    Points current;
+    synchronized (this) {
+      current = this.points;
+    }
+    publish(current.append(points));
+  }
+
+  private synchronized void publish(Points points) {
+    this.points = points;
+    invalidate();
+  }
+
+  synchronized void setRadius(int radius) {
+    if (this.radius != radius) {
+      this.radius = radius;
+      invalidate();
+    }
+  }
+
+  synchronized void setOpacity(float opacity) {
+    if (this.opacity != opacity) {
+      this.opacity = opacity;
+      colorMap = colorMap(colors, startPoints, colorMap.length, opacity);
+      version++;
+    }
+  }
+
+  synchronized void setGradient(int[] colors, float[] startPoints, int colorMapSize) {
+    if (!Arrays.equals(this.colors, colors)
+        || !Arrays.equals(this.startPoints, startPoints)
+        || colorMap.length != colorMapSize) {
+      this.colors = colors;
+      this.startPoints = startPoints;
+      colorMap = colorMap(colors, startPoints, colorMapSize, opacity);
+      version++;
+    }
+  }
+
+  synchronized void setMaxIntensity(double maxIntensity) {
+    if (this.maxIntensity != maxIntensity) {
+      this.maxIntensity = maxIntensity;
+      version++;
+    }
+  }
+
+  private void invalidate() {
+    maxIntensities = new double[MAX_ZOOM + 1];
+    version++;
+  }
+
+  @Override
+  public Tile getTile(int x, int y, int zoom) {
+    Points points;
+    int radius;
+    int[] colorMap;
+    double maxIntensity;
+    double[] maxIntensities;
+    synchronized (this) {
+      if (this.points.size == 0 || zoom > MAX_ZOOM) {
+        return NO_TILE;
+      }
+      points = this.points;
+      radius = this.radius;
+      colorMap = this.colorMap;
+      maxIntensities = this.maxIntensities;
+      maxIntensity = this.maxIntensity > 0 ? this.maxIntensity : maxIntensities[zoom];
+    }
+    int dimension = TILE_SIZE + 2 * radius;
+    double[] intensities = new double[dimension * dimension];
+    if (!sumWeights(points, x, y, zoom, radius, intensities)) {
+      return NO_TILE;
+    }
+    if (maxIntensity == 0) {
+      maxIntensity = maxIntensity(points, zoom, radius);
+      synchronized (this) {
+        maxIntensities[zoom] = maxIntensity;
+      }
+    }
+    int[] pixels = colorize(blur(intensities, radius), colorMap, maxIntensity);
+    Bitmap bitmap = Bitmap.createBitmap(pixels, TILE_SIZE, TILE_SIZE, Bitmap.Config.ARGB_8888);
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    bitmap.compress(Bitmap.CompressFormat.PNG, 100, stream);
+    bitmap.recycle();
+    return new Tile(TILE_SIZE, TILE_SIZE, stream.toByteArray());
+  }
+
+  /**
+   * Adds the weight of every point within {@code radius} pixels of the tile to the pixel it falls
+   * on, in a grid that extends the tile by the radius on every side. Returns whether there was any.
+   */
+  private static boolean sumWeights(
+      Points points, int x, int y, int zoom, int radius, double[] intensities) {
+    int tiles = 1 << zoom;
+    double scale = (double) TILE_SIZE * tiles;
+    double padding = radius / scale;
+    double originX = (double) x / tiles - padding;
+    double originY = (double) y / tiles - padding;
+    double extent = (TILE_SIZE + 2.0 * radius) / scale;
+    int dimension = TILE_SIZE + 2 * radius;
+
+    // Cells are not wrapped horizontally, so that tiles at the antimeridian see the points across.
+    int minCellX = (int) Math.floor(originX * GRID_SIZE);
+    int maxCellX = (int) Math.floor((originX + extent) * GRID_SIZE);
+    int minCellY = toCell(originY);
+    int maxCellY = toCell(originY + extent);
+    boolean found = false;
+    for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+      for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+        int wrappedCellX = ((cellX % GRID_SIZE) + GRID_SIZE) % GRID_SIZE;
+        Cell cell = points.cells.get(cellY * GRID_SIZE + wrappedCellX);
+        if (cell == null) {
+          continue;
+        }
+        double shift = (double) (cellX - wrappedCellX) / GRID_SIZE;
+        for (int i = 0; i < cell.size; i++) {
+          int index = cell.indices[i];
+          int pixelX = (int) Math.floor((points.xs[index] + shift - originX) * scale);
+          int pixelY = (int) Math.floor((points.ys[index] - originY) * scale);
+          if (pixelX >= 0 && pixelX < dimension && pixelY >= 0 && pixelY < dimension) {
+            intensities[pixelY * dimension + pixelX] += points.weights[index];
+            found = true;
+          }
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Returns the highest sum of weights in a cell the size of the radius at {@code zoom}, as an
+   * estimate of the densest area of the heatmap at that zoom level.
+   */
+  private static double maxIntensity(Points points, int zoom, int radius) {
+    double[] xs = points.xs;
+    double[] ys = points.ys;
+    double[] weights = points.weights;
+    double cellsPerWorld = TILE_SIZE * Math.pow(2, zoom) / radius;
+    long rowLength = (long) cellsPerWorld + 1;
+    Map<Long, double[]> sums = new HashMap<>();
+    double max = 0;
+    for (int i = 0; i < points.size; i++) {
+      long key = (long) (ys[i] * cellsPerWorld) * rowLength + (long) (xs[i] * cellsPerWorld);
+      double[] sum = sums.get(key);
+      if (sum == null) {
+        sum = new double[1];
+        sums.put(key, sum);
+      }
+      sum[0] += weights[i];
+      max = Math.max(max, sum[0]);
+    }
+    return max;
+  }
+
+  /** Spreads the summed weights with a gaussian kernel, keeping only the pixels of the tile. */
+  private static double[] blur(double[] intensities, int radius) {
+    int dimension = TILE_SIZE + 2 * radius;
+    double[] kernel = new double[2 * radius + 1];
+    double sigma = radius / 3.0;
+    for (int i = -radius; i <= radius; i++) {
+      kernel[i + radius] = Math.exp(-i * i / (2 * sigma * sigma));
+    }
+    // The kernel is separable: spread horizontally, then vertically. Most pixels are empty, so
+    // every non-empty pixel spreads its value rather than every pixel collecting its neighbors.
+    double[] horizontal = new double[dimension * TILE_SIZE];
+    for (int row = 0; row < dimension; row++) {
+      for (int column = 0; column < dimension; column++) {
+        double value = intensities[row * dimension + column];
+        if (value == 0) {
+          continue;
+        }
+        int from = Math.max(0, column - 2 * radius);
+        int to = Math.min(TILE_SIZE - 1, column);
+        for (int target = from; target <= to; target++) {
+          horizontal[row * TILE_SIZE + target] += value * kernel[column - target];
+        }
+      }
+    }
+    double[] result = new double[TILE_SIZE * TILE_SIZE];
+    for (int row = 0; row < dimension; row++) {
+      for (int column = 0; column < TILE_SIZE; column++) {
+        double value = horizontal[row * TILE_SIZE + column];
+        if (value == 0) {
+          continue;
+        }
+        int from = Math.max(0, row - 2 * radius);
+        int to = Math.min(TILE_SIZE - 1, row);
+        for (int target = from; target <= to; target++) {
+          result[target * TILE_SIZE + column] += value * kernel[row - target];
+        }
+      }
+    }
+    return result;
+  }
+
+  private static int[] colorize(double[] intensities, int[] colorMap, double maxIntensity) {
+    int[] pixels = new int[intensities.length];
+    int last = colorMap.length - 1;
+    for (int i = 0; i < intensities.length; i++) {
+      double intensity = intensities[i];
+      if (intensity > 0) {
+        pixels[i] = colorMap[(int) Math.min(last, intensity * last / maxIntensity)];
+      }
+    }
+    return pixels;
+  }
+
+  /**
+   * Samples the gradient into {@code size} colors, from the lowest to the highest intensity.
+   * Intensities below the first start point fade in from transparent.
+   */
+  static int[] colorMap(int[] colors, float[] startPoints, int size, float opacity) {
+    int[] colorMap = new int[size];
+    int stop = 0;
+    for (int i = 0; i < size; i++) {
+      float fraction = (float) i / (size - 1);
+      while (stop < startPoints.length - 1 && fraction > startPoints[stop + 1]) {
+        stop++;
+      }
+      int color;
+      if (fraction <= startPoints[0]) {
+        float t = startPoints[0] == 0 ? 1 : fraction / startPoints[0];
+        color = interpolate(colors[0] & 0x00ffffff, colors[0], t);
+      } else if (stop == startPoints.length - 1) {
+        color = colors[stop];
+      } else {
+        float t = (fraction - startPoints[stop]) / (startPoints[stop + 1] - startPoints[stop]);
+        color = interpolate(colors[stop], colors[stop + 1], t);
+      }
+      int alpha = Math.round((color >>> 24) * opacity);
+      colorMap[i] = (alpha << 24) | (color & 0x00ffffff);
+    }
+    return colorMap;
+  }
+
+  private static int interpolate(int from, int to, float t) {
+    int result = 0;
+    for (int shift = 0; shift < 32; shift += 8) {
+      int a = (from >>> shift) & 0xff;
+      int b = (to >>> shift) & 0xff;
+      result |= Math.round(a + (b - a) * t) << shift;
+    }
+    return result;
+  }
+
+  private static int toCell(double world) {
+    return Math.max(0, Math.min(GRID_SIZE - 1, (int) Math.floor(world * GRID_SIZE)));
+  }
+}
@@ -0,0 +1,88 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.TileOverlay;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class HeatmapsController {
+
+  private final Map<String, HeatmapController> heatmapIdToController;
+  private GoogleMap googleMap;
+
+  HeatmapsController() {
+    this.heatmapIdToController = new HashMap<>();
+  }
+
+  void setGoogleMap(GoogleMap googleMap) {
+    this.googleMap = googleMap;
+  }
+
+  void addHeatmaps(List<Object> heatmapsToAdd) {
+    if (heatmapsToAdd == null) {
+      return;
+    }
+    for (Object heatmapToAdd : heatmapsToAdd) {
+      addHeatmap(heatmapToAdd);
+    }
+  }
+
+  void changeHeatmaps(List<Object> heatmapsToChange) {
+    if (heatmapsToChange == null) {
+      return;
+    }
+    for (Object heatmapToChange : heatmapsToChange) {
+      changeHeatmap(heatmapToChange);
+    }
+  }
+
+  void removeHeatmaps(List<Object> heatmapIdsToRemove) {
+    if (heatmapIdsToRemove == null) {
+      return;
+    }
+    for (Object rawHeatmapId : heatmapIdsToRemove) {
+      if (rawHeatmapId == null) {
+        continue;
+      }
+      String heatmapId = (String) rawHeatmapId;
+      final HeatmapController heatmapController = heatmapIdToController.remove(heatmapId);
+      if (heatmapController != null) {
+        heatmapController.remove();
+      }
+    }
+  }
+
+  private void addHeatmap(Object heatmap) {
+    if (heatmap == null) {
+      return;
+    }
+    HeatmapBuilder heatmapBuilder = new HeatmapBuilder();
+    String heatmapId = Convert.interpretHeatmapOptions(heatmap, heatmapBuilder);
+    final TileOverlay tileOverlay = googleMap.addTileOverlay(heatmapBuilder.build());
+    heatmapIdToController.put(
+        heatmapId, new HeatmapController(tileOverlay, heatmapBuilder.getTileProvider()));
+  }
+
+  private void changeHeatmap(Object heatmap) {
+    if (heatmap == null) {
+      return;
+    }
+    String heatmapId = getHeatmapId(heatmap);
+    HeatmapController heatmapController = heatmapIdToController.get(heatmapId);
+    if (heatmapController != null) {
+      Convert.interpretHeatmapOptions(heatmap, heatmapController);
+      heatmapController.refresh();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static String getHeatmapId(Object heatmap) {
+    Map<String, Object> heatmapMap = (Map<String, Object>) heatmap;
+    return (String) heatmapMap.get("heatmapId");
+  }
+}
@@ -0,0 +1,309 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import com.google.android.gms.maps.CameraUpdateFactory;
+import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.GoogleMapOptions;
+import com.google.android.gms.maps.MapView;
+import com.google.android.gms.maps.OnMapReadyCallback;
+import com.google.android.gms.maps.model.CameraPosition;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Takes map snapshots with a pool of lite mode maps that are never shown.
+ *
+ * <p>Lite mode maps render a static image instead of an interactive map, which makes them cheap to
+ * create and to move. They only render while attached to a window, so they are kept in a container
+ * that is moved out of the visible area of the activity. Requests are queued and served by the
+ * first idle renderer, which is resized and moved to the requested camera, and snapshotted once the
+ * map has loaded.
+ */
+class LiteMapSnapshotter implements MethodChannel.MethodCallHandler {
+  private static final int DEFAULT_MAX_RENDERERS = 2;
+  // A map that does not report being loaded in time, e.g. while offline, is snapshotted as it is.
+  private static final long LOAD_TIMEOUT_MS = 10000;
+
+  private static final class Request {
+    final CameraPosition cameraPosition;
+    final int mapType;
+    final int width;
+    final int height;
+    final SnapshotEncoder encoder;
+    final MethodChannel.Result result;
+
+    Request(
+        CameraPosition cameraPosition,
+        int mapType,
+        int width,
+        int height,
+        SnapshotEncoder encoder,
+        MethodChannel.Result result) {
+      this.cameraPosition = cameraPosition;
+      this.mapType = mapType;
+      this.width = width;
+      this.height = height;
+      this.encoder = encoder;
+      this.result = result;
+    }
+  }
+
+  private final class Renderer implements OnMapReadyCallback {
+    private final MapView mapView;
+    private GoogleMap googleMap;
+    private Request request;
+    private boolean capturing = false;
+    private Runnable loadTimeout;
+
+    Renderer() {
+      mapView = new MapView(activity, new GoogleMapOptions().liteMode(true));
+      mapView.onCreate(null);
+      mapView.onStart();
+      mapView.onResume();
+      container.addView(mapView, new FrameLayout.LayoutParams(1, 1));
+      mapView.getMapAsync(this);
+    }
+
+    void render(Request request) {
+      this.request = request;
+      ViewGroup.LayoutParams params = mapView.getLayoutParams();
+      if (params.width != request.width || params.height != request.height) {
+        params.width = request.width;
+        params.height = request.height;
+        mapView.setLayoutParams(params);
+        // Lays the map out right away, so that it loads at the new size.
+        mapView.measure(
+            View.MeasureSpec.makeMeasureSpec(request.width, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(request.height, View.MeasureSpec.EXACTLY));
+        mapView.layout(0, 0, request.width, request.height);
+      }
+      if (googleMap != null) {
+        load();
+      }
+    }
+
+    @Override
+    public void onMapReady(GoogleMap googleMap) {
+      this.googleMap = googleMap;
+      googleMap.getUiSettings().setMapToolbarEnabled(false);
+      if (request != null) {
+        load();
+      }
+    }
+
+    private void load() {
+      // Both callbacks are tied to the request they load, as the one that does not win the race
+      // can still fire while a later request is loading.
+      final Request loading = request;
+      googleMap.setMapType(loading.mapType);
+      googleMap.moveCamera(CameraUpdateFactory.newCameraPosition(loading.cameraPosition));
+      googleMap.setOnMapLoadedCallback(
+          new GoogleMap.OnMapLoadedCallback() {
+            @Override
+            public void onMapLoaded() {
+              onLoaded(loading);
+            }
+          });
+      loadTimeout =
+          new Runnable() {
+            @Override
+            public void run() {
+              googleMap.setOnMapLoadedCallback(null);
+              onLoaded(loading);
+            }
+          };
+      handler.postDelayed(loadTimeout, LOAD_TIMEOUT_MS);
+    }
+
+    private void onLoaded(Request loaded) {
+      if (loaded != request || capturing) {
+        return;
+      }
+      handler.removeCallbacks(loadTimeout);
+      loadTimeout = null;
+      capturing = true;
+      googleMap.snapshot(
+          new GoogleMap.SnapshotReadyCallback() {
+            @Override
+            public void onSnapshotReady(Bitmap bitmap) {
+              Request finished = request;
+              request = null;
+              capturing = false;
+              if (bitmap == null) {
+                finished.result.error("snapshot_failed", "Unable to take a snapshot", null);
+              } else {
+                finished.encoder.encode(bitmap, finished.result);
+              }
+              onRendererIdle(Renderer.this);
+            }
+          });
+    }
+
+    void destroy() {
+      if (loadTimeout != null) {
+        handler.removeCallbacks(loadTimeout);
+      }
+      mapView.onPause();
+      mapView.onStop();
+      mapView.onDestroy();
+      container.removeView(mapView);
+    }
+  }
+
+  private final Activity activity;
+  private final float density;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final FrameLayout container;
+  private final ArrayDeque<Request> pendingRequests = new ArrayDeque<>();
+  private final List<Renderer> idleRenderers = new ArrayList<>();
+  private int rendererCount = 0;
+  private int maxRenderers = DEFAULT_MAX_RENDERERS;
+  private boolean disposed = false;
+
+  LiteMapSnapshotter(Activity activity) {
+    this.activity = activity;
+    this.density = activity.getResources().getDisplayMetrics().density;
+    this.container = new FrameLayout(activity);
+    container.addOnLayoutChangeListener(
+        new View.OnLayoutChangeListener() {
+          @Override
+          public void onLayoutChange(
+              View view,
+              int left,
+              int top,
+              int right,
+              int bottom,
+              int oldLeft,
+              int oldTop,
+              int oldRight,
+              int oldBottom) {
+            view.setTranslationX(-right);
+          }
+        });
+  }
+
+  @Override
+  public void onMethodCall(MethodCall call, MethodChannel.Result result) {
+    switch (call.method) {
+      case "snapshotter#takeSnapshot":
+        {
+          Map<?, ?> arguments = (Map<?, ?>) call.arguments;
+          takeSnapshot(
+              new Request(
+                  Convert.toCameraPosition(arguments.get("cameraPosition")),
+                  ((Number) arguments.get("mapType")).intValue(),
+                  toPixels(arguments.get("width")),
+                  toPixels(arguments.get("height")),
+                  Convert.toSnapshotEncoder(arguments, density),
+                  result));
+          break;
+        }
+      case "snapshotter#setMaxRenderers":
+        {
+          Integer maxRenderers = call.argument("maxRenderers");
+          setMaxRenderers(maxRenderers);
+          result.success(null);
+          break;
+        }
+      case "snapshotter#releaseRenderers":
+        {
+          releaseIdleRenderers(0);
+          result.success(null);
+          break;
+        }
+      default:
+        result.notImplemented();
+    }
+  }
+
+  /** Destroys every renderer and fails the pending requests. */
+  void dispose() {
+    disposed = true;
+    for (Request request : pendingRequests) {
+      request.result.error("disposed", "The activity was destroyed", null);
+    }
+    pendingRequests.clear();
+    releaseIdleRenderers(0);
+    ViewGroup parent = (ViewGroup) container.getParent();
+    if (parent != null) {
+      parent.removeView(container);
+    }
+  }
+
+  private void takeSnapshot(Request request) {
+    if (disposed) {
+      request.result.error("disposed", "The activity was destroyed", null);
+      return;
+    }
+    pendingRequests.add(request);
+    startPendingRequests();
+  }
+
+  private void setMaxRenderers(int maxRenderers) {
+    this.maxRenderers = Math.max(1, maxRenderers);
+    releaseIdleRenderers(this.maxRenderers);
+    startPendingRequests();
+  }
+
+  private void startPendingRequests() {
+    while (!pendingRequests.isEmpty()) {
+      Renderer renderer;
+      if (!idleRenderers.isEmpty()) {
+        renderer = idleRenderers.remove(idleRenderers.size() - 1);
+      } else if (rendererCount < maxRenderers) {
+        attachContainer();
+        renderer = new Renderer();
+        rendererCount++;
+      } else {
+        return;
+      }
+      renderer.render(pendingRequests.poll());
+    }
+  }
+
+  private void onRendererIdle(Renderer renderer) {
+    if (disposed || rendererCount > maxRenderers) {
+      renderer.destroy();
+      rendererCount--;
+    } else {
+      idleRenderers.add(renderer);
+    }
+    startPendingRequests();
+  }
+
+  /** Destroys idle renderers until at most {@code count} renderers are left. */
+  private void releaseIdleRenderers(int count) {
+    while (rendererCount > count && !idleRenderers.isEmpty()) {
+      idleRenderers.remove(idleRenderers.size() - 1).destroy();
+      rendererCount--;
+    }
+  }
+
+  private int toPixels(Object o) {
+    return Math.max(1, Math.round(((Number) o).floatValue() * density));
+  }
+
+  private void attachContainer() {
+    if (container.getParent() == null) {
+      ViewGroup content = (ViewGroup) activity.findViewById(android.R.id.content);
+      content.addView(
+          container,
+          new FrameLayout.LayoutParams(
+              ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+    }
+  }
+}
@@ -24,6 +24,32 @@ class MarkerBuilder implements MarkerOptionsSink {
     return consumeTapEvents;
   }
 
+  /**
+   * Sets the built options on {@code sink}, the way {@link Convert#interpretMarkerOptions} would
+   * for the options they were interpreted from.
+   */
+  void applyTo(MarkerOptionsSink sink) {
+    sink.setAlpha(markerOptions.getAlpha());
+    sink.setAnchor(markerOptions.getAnchorU(), markerOptions.getAnchorV());
+    sink.setConsumeTapEvents(consumeTapEvents);
+    sink.setDraggable(markerOptions.isDraggable());
+    sink.setFlat(markerOptions.isFlat());
+    if (markerOptions.getIcon() != null) {
+      sink.setIcon(markerOptions.getIcon());
+    }
+    if (markerOptions.getTitle() != null) {
+      sink.setInfoWindowText(markerOptions.getTitle(), markerOptions.getSnippet());
+    }
+    sink.setInfoWindowAnchor(
+        markerOptions.getInfoWindowAnchorU(), markerOptions.getInfoWindowAnchorV());
+    if (markerOptions.getPosition() != null) {
+      sink.setPosition(markerOptions.getPosition());
+    }
+    sink.setRotation(markerOptions.getRotation());
+    sink.setVisible(markerOptions.isVisible());
+    sink.setZIndex(markerOptions.getZIndex());
+  }
+
   @Override
   public void setAlpha(float alpha) {
     markerOptions.alpha(alpha);
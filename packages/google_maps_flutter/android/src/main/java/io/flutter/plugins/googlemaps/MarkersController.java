@@ -4,65 +4,326 @@
 
 package io.flutter.plugins.googlemaps;
 
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.Choreographer;
+import com.google.android.gms.maps.CameraUpdateFactory;
 import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.BitmapDescriptor;
+import com.google.android.gms.maps.model.BitmapDescriptorFactory;
+import com.google.android.gms.maps.model.CameraPosition;
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
 import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 class MarkersController {
+  private static final String TAG = "MarkersController";
+  // Markers closer than this on screen are grouped into one cluster.
+  private static final float CLUSTER_CELL_DP = 64;
+  private static final float CLUSTER_ICON_DP = 40;
+  private static final int CLUSTER_COLOR = 0xFF1A73E8;
+  // Markers are added to and changed on the map for at most this long per frame.
+  private static final long FRAME_BUDGET_MS = 8;
+  // Marker options, whose icons may need decoding, are interpreted on this thread.
+  private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  private static final class MarkerUpdate {
+    static final int ADD = 0;
+    static final int CHANGE = 1;
+    static final int REMOVE = 2;
+    // Completes the result of a markers#update once the updates before it are applied.
+    static final int APPLIED = 3;
+
+    final int type;
+    final String markerId;
+    final MarkerBuilder markerBuilder;
+    // The position of the options, read once when they are interpreted.
+    final LatLng position;
+    final MethodChannel.Result result;
+
+    MarkerUpdate(int type, String markerId, MarkerBuilder markerBuilder, LatLng position) {
+      this.type = type;
+      this.markerId = markerId;
+      this.markerBuilder = markerBuilder;
+      this.position = position;
+      this.result = null;
+    }
+
+    MarkerUpdate(MethodChannel.Result result) {
+      this.type = APPLIED;
+      this.markerId = null;
+      this.markerBuilder = null;
+      this.position = null;
+      this.result = result;
+    }
+  }
 
   private final Map<String, MarkerController> markerIdToController;
   private final Map<String, String> googleMapsMarkerIdToDartMarkerId;
   private final MethodChannel methodChannel;
+  private final float density;
   private GoogleMap googleMap;
 
-  MarkersController(MethodChannel methodChannel) {
+  // Every marker is kept as options in markerIdToBuilder, so that the map can be rebuilt when the
+  // options below change. When clustering or culling, only the visible markers that are not part
+  // of a cluster are added to the map. See refresh.
+  private boolean clusteringEnabled = false;
+  private boolean cullingEnabled = false;
+  private final Map<String, MarkerBuilder> markerIdToBuilder = new HashMap<>();
+  // The position of every marker in markerIdToBuilder, which refresh reads for every nearby marker.
+  private final Map<String, LatLng> markerIdToPosition = new HashMap<>();
+  private final SpatialIndex<String> markerIndex = new SpatialIndex<>();
+  private Map<Long, Marker> clusters = new HashMap<>();
+  private final Map<String, Marker> googleMapsMarkerIdToCluster = new HashMap<>();
+  private final Map<String, BitmapDescriptor> clusterIcons = new HashMap<>();
+
+  // Interpreted updates waiting to be applied to the map, in the order they were received.
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private final ArrayDeque<MarkerUpdate> pendingUpdates = new ArrayDeque<>();
+  private boolean frameCallbackPosted = false;
+  // Incremented by cancelPendingUpdates, so that updates interpreted before it are dropped.
+  private int generation = 0;
+  private final Choreographer.FrameCallback applyPendingUpdatesCallback =
+      new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+          frameCallbackPosted = false;
+          applyPendingUpdates();
+        }
+      };
+
+  MarkersController(MethodChannel methodChannel, float density) {
     this.markerIdToController = new HashMap<>();
     this.googleMapsMarkerIdToDartMarkerId = new HashMap<>();
     this.methodChannel = methodChannel;
+    this.density = density;
   }
 
   void setGoogleMap(GoogleMap googleMap) {
     this.googleMap = googleMap;
   }
 
-  void addMarkers(List<Object> markersToAdd) {
-    if (markersToAdd != null) {
-      for (Object markerToAdd : markersToAdd) {
-        addMarker(markerToAdd);
+  /** Enables or disables clustering, and rebuilds the map with the existing markers. */
+  void setClusteringEnabled(boolean clusteringEnabled) {
+    if (this.clusteringEnabled != clusteringEnabled) {
+      this.clusteringEnabled = clusteringEnabled;
+      rebuild();
+    }
+  }
+
+  /**
+   * Enables or disables culling of the markers outside the visible region, and rebuilds the map
+   * with the existing markers.
+   */
+  void setCullingEnabled(boolean cullingEnabled) {
+    if (this.cullingEnabled != cullingEnabled) {
+      this.cullingEnabled = cullingEnabled;
+      rebuild();
+    }
+  }
+
+  /**
+   * Removes the markers and the clusters from the map, then adds the markers again the way the
+   * current options want them. Unmanaged markers are added in slices, before the pending updates.
+   */
+  private void rebuild() {
+    for (MarkerController markerController : markerIdToController.values()) {
+      markerController.remove();
+    }
+    markerIdToController.clear();
+    googleMapsMarkerIdToDartMarkerId.clear();
+    removeClusters(clusters);
+    clusters = new HashMap<>();
+    markerIndex.clear();
+    if (isManaged()) {
+      for (Map.Entry<String, LatLng> entry : markerIdToPosition.entrySet()) {
+        markerIndex.put(entry.getKey(), entry.getValue());
+      }
+      refresh();
+      return;
+    }
+    List<MarkerUpdate> additions = new ArrayList<>();
+    for (Map.Entry<String, MarkerBuilder> entry : markerIdToBuilder.entrySet()) {
+      String markerId = entry.getKey();
+      additions.add(
+          new MarkerUpdate(
+              MarkerUpdate.ADD, markerId, entry.getValue(), markerIdToPosition.get(markerId)));
+    }
+    for (int i = additions.size() - 1; i >= 0; i--) {
+      pendingUpdates.addFirst(additions.get(i));
+    }
+    applyPendingUpdates();
+  }
+
+  /**
+   * Drops the updates that have not been applied to the map yet, when the map is disposed. The
+   * results waiting for them are completed.
+   */
+  void cancelPendingUpdates() {
+    for (MarkerUpdate update : pendingUpdates) {
+      if (update.type == MarkerUpdate.APPLIED) {
+        update.result.success(null);
       }
     }
+    pendingUpdates.clear();
+    generation++;
+  }
+
+  // Whether markers are kept in markerIdToBuilder and added to the map by refresh.
+  private boolean isManaged() {
+    return clusteringEnabled || cullingEnabled;
   }
 
-  void changeMarkers(List<Object> markersToChange) {
-    if (markersToChange != null) {
-      for (Object markerToChange : markersToChange) {
-        changeMarker(markerToChange);
+  void onCameraIdle() {
+    if (isManaged()) {
+      refresh();
+    }
+  }
+
+  /**
+   * Interprets the marker options on a background thread, then applies the updates to the map on
+   * the main thread in slices of at most {@link #FRAME_BUDGET_MS} per frame.
+   *
+   * <p>{@code result}, if not null, is completed once all the updates are applied to the map, or
+   * with an error if the options cannot be interpreted. Updates are always applied in the order
+   * this is called.
+   */
+  void updateMarkers(
+      final List<Object> markersToAdd,
+      final List<Object> markersToChange,
+      final List<Object> markerIdsToRemove,
+      final MethodChannel.Result result) {
+    final int requestGeneration = generation;
+    executor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            final List<MarkerUpdate> updates = new ArrayList<>();
+            RuntimeException error = null;
+            try {
+              interpretMarkers(markersToAdd, MarkerUpdate.ADD, updates);
+              interpretMarkers(markersToChange, MarkerUpdate.CHANGE, updates);
+              if (markerIdsToRemove != null) {
+                for (Object rawMarkerId : markerIdsToRemove) {
+                  if (rawMarkerId != null) {
+                    updates.add(
+                        new MarkerUpdate(MarkerUpdate.REMOVE, (String) rawMarkerId, null, null));
+                  }
+                }
+              }
+            } catch (RuntimeException e) {
+              error = e;
+            }
+            final RuntimeException interpretError = error;
+            mainHandler.post(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    if (interpretError != null) {
+                      // The initial markers come from the creation params and have no result.
+                      if (result == null) {
+                        Log.e(TAG, "Unable to interpret the initial markers", interpretError);
+                      } else {
+                        result.error("error", interpretError.getMessage(), null);
+                      }
+                      return;
+                    }
+                    if (requestGeneration != generation) {
+                      // The map was disposed while these options were interpreted.
+                      if (result != null) {
+                        result.success(null);
+                      }
+                      return;
+                    }
+                    pendingUpdates.addAll(updates);
+                    if (result != null) {
+                      pendingUpdates.add(new MarkerUpdate(result));
+                    }
+                    applyPendingUpdates();
+                  }
+                });
+          }
+        });
+  }
+
+  private static void interpretMarkers(List<Object> markers, int type, List<MarkerUpdate> updates) {
+    if (markers == null) {
+      return;
+    }
+    for (Object marker : markers) {
+      if (marker != null) {
+        MarkerBuilder markerBuilder = new MarkerBuilder();
+        String markerId = Convert.interpretMarkerOptions(marker, markerBuilder);
+        updates.add(
+            new MarkerUpdate(type, markerId, markerBuilder, markerBuilder.build().getPosition()));
       }
     }
   }
 
-  void removeMarkers(List<Object> markerIdsToRemove) {
-    if (markerIdsToRemove == null) {
+  private void applyPendingUpdates() {
+    if (frameCallbackPosted) {
       return;
     }
-    for (Object rawMarkerId : markerIdsToRemove) {
-      if (rawMarkerId == null) {
-        continue;
+    // Managed markers are only indexed here, refresh adds the visible ones.
+    boolean managed = isManaged();
+    long deadline = SystemClock.uptimeMillis() + FRAME_BUDGET_MS;
+    // Completed after the updates before them are on the map.
+    List<MethodChannel.Result> appliedResults = new ArrayList<>();
+    while (!pendingUpdates.isEmpty()) {
+      if (!managed && SystemClock.uptimeMillis() >= deadline) {
+        frameCallbackPosted = true;
+        Choreographer.getInstance().postFrameCallback(applyPendingUpdatesCallback);
+        break;
       }
-      String markerId = (String) rawMarkerId;
-      final MarkerController markerController = markerIdToController.remove(markerId);
-      if (markerController != null) {
-        markerController.remove();
-        googleMapsMarkerIdToDartMarkerId.remove(markerController.getGoogleMapsMarkerId());
+      MarkerUpdate update = pendingUpdates.poll();
+      switch (update.type) {
+        case MarkerUpdate.ADD:
+          addMarker(update.markerId, update.markerBuilder, update.position);
+          break;
+        case MarkerUpdate.CHANGE:
+          changeMarker(update.markerId, update.markerBuilder, update.position);
+          break;
+        case MarkerUpdate.REMOVE:
+          removeMarker(update.markerId);
+          break;
+        case MarkerUpdate.APPLIED:
+          appliedResults.add(update.result);
+          break;
       }
     }
+    if (managed) {
+      refresh();
+    }
+    for (MethodChannel.Result result : appliedResults) {
+      result.success(null);
+    }
   }
 
   boolean onMarkerTap(String googleMarkerId) {
+    Marker cluster = googleMapsMarkerIdToCluster.get(googleMarkerId);
+    if (cluster != null) {
+      float zoom = googleMap.getCameraPosition().zoom + 2;
+      googleMap.animateCamera(CameraUpdateFactory.newLatLngZoom(cluster.getPosition(), zoom));
+      return true;
+    }
     String markerId = googleMapsMarkerIdToDartMarkerId.get(googleMarkerId);
     if (markerId == null) {
       return false;
@@ -83,14 +344,16 @@ class MarkersController {
     methodChannel.invokeMethod("infoWindow#onTap", Convert.markerIdToJson(markerId));
   }
 
-  private void addMarker(Object marker) {
-    if (marker == null) {
+  private void addMarker(String markerId, MarkerBuilder markerBuilder, LatLng position) {
+    markerIdToBuilder.put(markerId, markerBuilder);
+    markerIdToPosition.put(markerId, position);
+    if (isManaged()) {
+      markerIndex.put(markerId, position);
       return;
     }
-    MarkerBuilder markerBuilder = new MarkerBuilder();
-    String markerId = Convert.interpretMarkerOptions(marker, markerBuilder);
-    MarkerOptions options = markerBuilder.build();
-    addMarker(markerId, options, markerBuilder.consumeTapEvents());
+    // The marker can be added again by a rebuild while an earlier one is still being applied.
+    removeFromMap(markerId);
+    addMarker(markerId, markerBuilder.build(), markerBuilder.consumeTapEvents());
   }
 
   private void addMarker(String markerId, MarkerOptions markerOptions, boolean consumeTapEvents) {
@@ -100,20 +363,155 @@ class MarkersController {
     googleMapsMarkerIdToDartMarkerId.put(marker.getId(), markerId);
   }
 
-  private void changeMarker(Object marker) {
-    if (marker == null) {
+  private void changeMarker(String markerId, MarkerBuilder markerBuilder, LatLng position) {
+    if (!markerIdToBuilder.containsKey(markerId)) {
       return;
     }
-    String markerId = getMarkerId(marker);
+    markerIdToBuilder.put(markerId, markerBuilder);
+    markerIdToPosition.put(markerId, position);
+    if (isManaged()) {
+      markerIndex.put(markerId, position);
+    }
     MarkerController markerController = markerIdToController.get(markerId);
     if (markerController != null) {
-      Convert.interpretMarkerOptions(marker, markerController);
+      markerBuilder.applyTo(markerController);
+    }
+  }
+
+  private void removeMarker(String markerId) {
+    markerIdToBuilder.remove(markerId);
+    markerIdToPosition.remove(markerId);
+    if (isManaged()) {
+      markerIndex.remove(markerId);
+    }
+    removeFromMap(markerId);
+  }
+
+  private void removeFromMap(String markerId) {
+    final MarkerController markerController = markerIdToController.remove(markerId);
+    if (markerController != null) {
+      markerController.remove();
+      googleMapsMarkerIdToDartMarkerId.remove(markerController.getGoogleMapsMarkerId());
+    }
+  }
+
+  /**
+   * Updates the map so that it shows the markers near the visible region. When clustering, the
+   * markers are grouped into screen-sized grid cells and every cell with more than one marker is
+   * shown as a single cluster marker.
+   */
+  private void refresh() {
+    if (googleMap == null) {
+      return;
+    }
+    CameraPosition camera = googleMap.getCameraPosition();
+    LatLngBounds region =
+        ViewportCuller.expand(
+            googleMap.getProjection().getVisibleRegion().latLngBounds,
+            ViewportCuller.VISIBLE_REGION_MARGIN);
+    Set<String> nearby = new HashSet<>();
+    markerIndex.query(region, nearby);
+
+    boolean cluster = clusteringEnabled && camera.zoom < googleMap.getMaxZoomLevel();
+    double cellSize = CLUSTER_CELL_DP / (256 * Math.pow(2, camera.zoom));
+    Map<Long, List<String>> cells = new HashMap<>();
+    Set<String> shown = new HashSet<>();
+    for (String markerId : nearby) {
+      if (!cluster) {
+        shown.add(markerId);
+        continue;
+      }
+      LatLng position = markerIdToPosition.get(markerId);
+      long cellX = (long) Math.floor(SpatialIndex.toWorldX(position) / cellSize);
+      long cellY = (long) Math.floor(SpatialIndex.toWorldY(position) / cellSize);
+      Long key = (cellX << 32) | cellY;
+      List<String> cell = cells.get(key);
+      if (cell == null) {
+        cell = new ArrayList<>();
+        cells.put(key, cell);
+      }
+      cell.add(markerId);
+    }
+
+    Map<Long, Marker> previousClusters = clusters;
+    clusters = new HashMap<>();
+    for (Map.Entry<Long, List<String>> entry : cells.entrySet()) {
+      List<String> cell = entry.getValue();
+      if (cell.size() == 1) {
+        shown.add(cell.get(0));
+        continue;
+      }
+      double latitude = 0;
+      double longitude = 0;
+      for (String markerId : cell) {
+        LatLng position = markerIdToPosition.get(markerId);
+        latitude += position.latitude;
+        longitude += position.longitude;
+      }
+      LatLng center = new LatLng(latitude / cell.size(), longitude / cell.size());
+      Marker marker = previousClusters.remove(entry.getKey());
+      if (marker == null) {
+        marker =
+            googleMap.addMarker(
+                new MarkerOptions()
+                    .position(center)
+                    .anchor(0.5f, 0.5f)
+                    .icon(getClusterIcon(cell.size())));
+        marker.setTag(cell.size());
+        googleMapsMarkerIdToCluster.put(marker.getId(), marker);
+      } else {
+        marker.setPosition(center);
+        if (!Integer.valueOf(cell.size()).equals(marker.getTag())) {
+          marker.setIcon(getClusterIcon(cell.size()));
+          marker.setTag(cell.size());
+        }
+      }
+      clusters.put(entry.getKey(), marker);
+    }
+    removeClusters(previousClusters);
+
+    List<String> hidden = new ArrayList<>();
+    for (String markerId : markerIdToController.keySet()) {
+      if (!shown.remove(markerId)) {
+        hidden.add(markerId);
+      }
+    }
+    for (String markerId : hidden) {
+      removeFromMap(markerId);
+    }
+    for (String markerId : shown) {
+      MarkerBuilder markerBuilder = markerIdToBuilder.get(markerId);
+      addMarker(markerId, markerBuilder.build(), markerBuilder.consumeTapEvents());
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private static String getMarkerId(Object marker) {
-    Map<String, Object> markerMap = (Map<String, Object>) marker;
-    return (String) markerMap.get("markerId");
+  private void removeClusters(Map<Long, Marker> clustersToRemove) {
+    for (Marker marker : clustersToRemove.values()) {
+      googleMapsMarkerIdToCluster.remove(marker.getId());
+      marker.remove();
+    }
+  }
+
+  private BitmapDescriptor getClusterIcon(int count) {
+    String label = count < 1000 ? String.valueOf(count) : (count / 1000) + "k+";
+    BitmapDescriptor icon = clusterIcons.get(label);
+    if (icon != null) {
+      return icon;
+    }
+    int size = (int) (CLUSTER_ICON_DP * density);
+    Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+    Canvas canvas = new Canvas(bitmap);
+    Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    paint.setColor(CLUSTER_COLOR);
+    canvas.drawCircle(size / 2f, size / 2f, size / 2f, paint);
+    paint.setColor(Color.WHITE);
+    paint.setTextAlign(Paint.Align.CENTER);
+    paint.setTypeface(Typeface.DEFAULT_BOLD);
+    paint.setTextSize(size * (label.length() > 3 ? 0.3f : 0.4f));
+    float baseline = size / 2f - (paint.descent() + paint.ascent()) / 2;
+    canvas.drawText(label, size / 2f, baseline, paint);
+    icon = BitmapDescriptorFactory.fromBitmap(bitmap);
+    clusterIcons.put(label, icon);
+    return icon;
   }
 }
@@ -20,6 +20,21 @@ class PolygonBuilder implements PolygonOptionsSink {
     return consumeTapEvents;
   }
 
+  /**
+   * Sets the built options on {@code sink}, the way {@link Convert#interpretPolygonOptions} would
+   * for the options they were interpreted from.
+   */
+  void applyTo(PolygonOptionsSink sink) {
+    sink.setConsumeTapEvents(consumeTapEvents);
+    sink.setFillColor(polygonOptions.getFillColor());
+    sink.setGeodesic(polygonOptions.isGeodesic());
+    sink.setPoints(polygonOptions.getPoints());
+    sink.setStrokeColor(polygonOptions.getStrokeColor());
+    sink.setStrokeWidth(polygonOptions.getStrokeWidth());
+    sink.setVisible(polygonOptions.isVisible());
+    sink.setZIndex(polygonOptions.getZIndex());
+  }
+
   @Override
   public void setFillColor(int color) {
     polygonOptions.fillColor(color);
@@ -5,6 +5,7 @@
 package io.flutter.plugins.googlemaps;
 
 import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Polygon;
 import com.google.android.gms.maps.model.PolygonOptions;
 import io.flutter.plugin.common.MethodChannel;
@@ -18,6 +19,22 @@ class PolygonsController {
   private final Map<String, String> googleMapsPolygonIdToDartPolygonId;
   private final MethodChannel methodChannel;
   private GoogleMap googleMap;
+  private boolean cullingEnabled = false;
+  // Every polygon is kept as options, so that the map can be rebuilt when culling changes.
+  private final Map<String, PolygonBuilder> polygonIdToBuilder = new HashMap<>();
+  private final ViewportCuller<PolygonBuilder> culler =
+      new ViewportCuller<>(
+          new ViewportCuller.Delegate<PolygonBuilder>() {
+            @Override
+            public void addToMap(String polygonId, PolygonBuilder polygonBuilder) {
+              addPolygon(polygonId, polygonBuilder.build(), polygonBuilder.consumeTapEvents());
+            }
+
+            @Override
+            public void removeFromMap(String polygonId) {
+              PolygonsController.this.removeFromMap(polygonId);
+            }
+          });
 
   PolygonsController(MethodChannel methodChannel) {
     this.polygonIdToController = new HashMap<>();
@@ -29,11 +46,48 @@ class PolygonsController {
     this.googleMap = googleMap;
   }
 
+  /**
+   * Enables or disables culling of the polygons outside the visible region, and rebuilds the map
+   * with the existing polygons.
+   */
+  void setCullingEnabled(boolean cullingEnabled) {
+    if (this.cullingEnabled == cullingEnabled) {
+      return;
+    }
+    culler.clear();
+    for (PolygonController polygonController : polygonIdToController.values()) {
+      polygonController.remove();
+    }
+    polygonIdToController.clear();
+    googleMapsPolygonIdToDartPolygonId.clear();
+    this.cullingEnabled = cullingEnabled;
+    for (Map.Entry<String, PolygonBuilder> entry : polygonIdToBuilder.entrySet()) {
+      PolygonBuilder polygonBuilder = entry.getValue();
+      if (cullingEnabled) {
+        culler.put(entry.getKey(), polygonBuilder, getBounds(polygonBuilder.build()));
+      } else {
+        addPolygon(entry.getKey(), polygonBuilder.build(), polygonBuilder.consumeTapEvents());
+      }
+    }
+    if (cullingEnabled) {
+      culler.refresh(googleMap);
+    }
+  }
+
+  void onCameraIdle() {
+    if (cullingEnabled) {
+      culler.refresh(googleMap);
+    }
+  }
+
   void addPolygons(List<Object> polygonsToAdd) {
     if (polygonsToAdd != null) {
       for (Object polygonToAdd : polygonsToAdd) {
         addPolygon(polygonToAdd);
       }
+      if (cullingEnabled) {
+        culler.refresh(googleMap);
+      }
     }
   }
 
@@ -42,6 +96,9 @@ class PolygonsController {
       for (Object polygonToChange : polygonsToChange) {
         changePolygon(polygonToChange);
       }
+      if (cullingEnabled) {
+        culler.refresh(googleMap);
+      }
     }
   }
 
@@ -54,10 +111,11 @@ class PolygonsController {
         continue;
       }
       String polygonId = (String) rawPolygonId;
-      final PolygonController polygonController = polygonIdToController.remove(polygonId);
-      if (polygonController != null) {
-        polygonController.remove();
-        googleMapsPolygonIdToDartPolygonId.remove(polygonController.getGoogleMapsPolygonId());
+      polygonIdToBuilder.remove(polygonId);
+      if (cullingEnabled) {
+        culler.remove(polygonId);
+      } else {
+        removeFromMap(polygonId);
       }
     }
   }
@@ -82,6 +140,11 @@ class PolygonsController {
     PolygonBuilder polygonBuilder = new PolygonBuilder();
     String polygonId = Convert.interpretPolygonOptions(polygon, polygonBuilder);
     PolygonOptions options = polygonBuilder.build();
+    polygonIdToBuilder.put(polygonId, polygonBuilder);
+    if (cullingEnabled) {
+      culler.put(polygonId, polygonBuilder, getBounds(options));
+      return;
+    }
     addPolygon(polygonId, options, polygonBuilder.consumeTapEvents());
   }
 
@@ -98,12 +161,34 @@ class PolygonsController {
       return;
     }
     String polygonId = getPolygonId(polygon);
+    if (!polygonIdToBuilder.containsKey(polygonId)) {
+      return;
+    }
+    // Changes carry every option, so a new builder replaces the stored one.
+    PolygonBuilder polygonBuilder = new PolygonBuilder();
+    Convert.interpretPolygonOptions(polygon, polygonBuilder);
+    polygonIdToBuilder.put(polygonId, polygonBuilder);
+    if (cullingEnabled) {
+      culler.put(polygonId, polygonBuilder, getBounds(polygonBuilder.build()));
+    }
     PolygonController polygonController = polygonIdToController.get(polygonId);
     if (polygonController != null) {
-      Convert.interpretPolygonOptions(polygon, polygonController);
+      polygonBuilder.applyTo(polygonController);
     }
   }
 
+  private void removeFromMap(String polygonId) {
+    final PolygonController polygonController = polygonIdToController.remove(polygonId);
+    if (polygonController != null) {
+      polygonController.remove();
+      googleMapsPolygonIdToDartPolygonId.remove(polygonController.getGoogleMapsPolygonId());
+    }
+  }
+
+  private static LatLngBounds getBounds(PolygonOptions options) {
+    return ViewportCuller.boundsOf(options.getPoints());
+  }
+
   @SuppressWarnings("unchecked")
   private static String getPolygonId(Object polygon) {
     Map<String, Object> polygonMap = (Map<String, Object>) polygon;
@@ -4,11 +4,14 @@ import com.google.android.gms.maps.model.Cap;
 import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.PatternItem;
 import com.google.android.gms.maps.model.PolylineOptions;
+import java.util.Collections;
 import java.util.List;
 
 class PolylineBuilder implements PolylineOptionsSink {
   private final PolylineOptions polylineOptions;
   private boolean consumeTapEvents;
+  private float simplificationTolerance;
+  private List<LatLng> points = Collections.emptyList();
 
   PolylineBuilder() {
     this.polylineOptions = new PolylineOptions();
@@ -22,6 +25,37 @@ class PolylineBuilder implements PolylineOptionsSink {
     return consumeTapEvents;
   }
 
+  /** The points of the polyline. They are not part of the options when simplifying. */
+  List<LatLng> getPoints() {
+    return points;
+  }
+
+  float getSimplificationTolerance() {
+    return simplificationTolerance;
+  }
+
+  /**
+   * Sets the built options on {@code sink}, the way {@link Convert#interpretPolylineOptions} would
+   * for the options they were interpreted from.
+   */
+  void applyTo(PolylineOptionsSink sink) {
+    sink.setConsumeTapEvents(consumeTapEvents);
+    sink.setColor(polylineOptions.getColor());
+    sink.setEndCap(polylineOptions.getEndCap());
+    sink.setGeodesic(polylineOptions.isGeodesic());
+    sink.setJointType(polylineOptions.getJointType());
+    sink.setStartCap(polylineOptions.getStartCap());
+    sink.setVisible(polylineOptions.isVisible());
+    sink.setWidth(polylineOptions.getWidth());
+    sink.setZIndex(polylineOptions.getZIndex());
+    // The tolerance decides how the points are shown, so it is set first.
+    sink.setSimplificationTolerance(simplificationTolerance);
+    sink.setPoints(points);
+    if (polylineOptions.getPattern() != null) {
+      sink.setPattern(polylineOptions.getPattern());
+    }
+  }
+
   @Override
   public void setColor(int color) {
     polylineOptions.color(color);
@@ -44,7 +78,15 @@ class PolylineBuilder implements PolylineOptionsSink {
 
   @Override
   public void setPoints(List<LatLng> points) {
-    polylineOptions.addAll(points);
+    this.points = points;
+    if (simplificationTolerance <= 0) {
+      polylineOptions.addAll(points);
+    }
+  }
+
+  @Override
+  public void setSimplificationTolerance(float simplificationTolerance) {
+    this.simplificationTolerance = simplificationTolerance;
   }
 
   @Override
@@ -12,18 +12,38 @@ class PolylineController implements PolylineOptionsSink {
   private final String googleMapsPolylineId;
   private boolean consumeTapEvents;
   private final float density;
+  private PolylineSimplifier simplifier;
+  private List<LatLng> simplifiedPoints;
+  private float zoom;
 
-  PolylineController(Polyline polyline, boolean consumeTapEvents, float density) {
+  PolylineController(Polyline polyline, boolean consumeTapEvents, float density, float zoom) {
     this.polyline = polyline;
     this.consumeTapEvents = consumeTapEvents;
     this.density = density;
+    this.zoom = zoom;
     this.googleMapsPolylineId = polyline.getId();
   }
 
   void remove() {
+    if (simplifier != null) {
+      simplifier.cancel();
+    }
     polyline.remove();
   }
 
+  /** Shows the simplified points for {@code zoom}, if simplifying. */
+  void onZoomChanged(float zoom) {
+    this.zoom = zoom;
+    if (simplifier == null) {
+      return;
+    }
+    List<LatLng> points = simplifier.getPointsForZoom(zoom);
+    if (points != null && points != simplifiedPoints) {
+      simplifiedPoints = points;
+      polyline.setPoints(points);
+    }
+  }
+
   @Override
   public void setConsumeTapEvents(boolean consumeTapEvents) {
     this.consumeTapEvents = consumeTapEvents;
@@ -57,7 +77,35 @@ class PolylineController implements PolylineOptionsSink {
 
   @Override
   public void setPoints(List<LatLng> points) {
-    polyline.setPoints(points);
+    if (simplifier != null) {
+      simplifier.setPoints(points);
+    } else {
+      polyline.setPoints(points);
+    }
+  }
+
+  @Override
+  public void setSimplificationTolerance(float simplificationTolerance) {
+    if (simplificationTolerance <= 0) {
+      if (simplifier != null) {
+        simplifier.cancel();
+        polyline.setPoints(simplifier.getPoints());
+        simplifier = null;
+        simplifiedPoints = null;
+      }
+    } else if (simplifier == null) {
+      simplifier =
+          new PolylineSimplifier(
+              simplificationTolerance,
+              new PolylineSimplifier.Listener() {
+                @Override
+                public void onSimplified() {
+                  onZoomChanged(zoom);
+                }
+              });
+    } else {
+      simplifier.setTolerance(simplificationTolerance);
+    }
   }
 
   @Override
@@ -0,0 +1,217 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.os.Handler;
+import android.os.Looper;
+import com.google.android.gms.maps.model.LatLng;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Simplifies the points of a polyline for every integer zoom level.
+ *
+ * <p>A single Douglas-Peucker pass over the points in world coordinates assigns every point the
+ * distance at which it stops mattering. The points drawn at a zoom level are then the ones whose
+ * distance is larger than the tolerance at that zoom. This runs on a background thread whenever the
+ * points or the tolerance change, and the listener is called on the main thread once the new levels
+ * are ready.
+ */
+class PolylineSimplifier {
+  private static final int MAX_ZOOM = 21;
+  // Levels that would keep at least this fraction of the points draw all of them instead, so that
+  // the deepest levels do not each hold a near-complete copy of the point list.
+  private static final double FULL_LEVEL_FRACTION = 0.9;
+  private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+  interface Listener {
+    void onSimplified();
+  }
+
+  private final Listener listener;
+  private List<LatLng> points = Collections.emptyList();
+  private float toleranceDp;
+  private List<List<LatLng>> levels;
+  private int generation = 0;
+
+  PolylineSimplifier(float toleranceDp, Listener listener) {
+    this.toleranceDp = toleranceDp;
+    this.listener = listener;
+  }
+
+  List<LatLng> getPoints() {
+    return points;
+  }
+
+  void setPoints(List<LatLng> points) {
+    this.points = points;
+    update();
+  }
+
+  void setTolerance(float toleranceDp) {
+    if (this.toleranceDp != toleranceDp) {
+      this.toleranceDp = toleranceDp;
+      update();
+    }
+  }
+
+  /** Returns the points to draw at {@code zoom}, or null if they are not computed yet. */
+  List<LatLng> getPointsForZoom(float zoom) {
+    if (levels == null) {
+      return null;
+    }
+    return levels.get(Math.max(0, Math.min(MAX_ZOOM, (int) zoom)));
+  }
+
+  /** Drops any pending result. */
+  void cancel() {
+    generation++;
+  }
+
+  private void update() {
+    final int requestGeneration = ++generation;
+    final List<LatLng> requestPoints = points;
+    final float requestTolerance = toleranceDp;
+    executor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            final List<List<LatLng>> result = simplify(requestPoints, requestTolerance);
+            mainHandler.post(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    if (requestGeneration == generation) {
+                      levels = result;
+                      listener.onSimplified();
+                    }
+                  }
+                });
+          }
+        });
+  }
+
+  static List<List<LatLng>> simplify(List<LatLng> points, float toleranceDp) {
+    int n = points.size();
+    double[] x = new double[n];
+    double[] y = new double[n];
+    for (int i = 0; i < n; i++) {
+      x[i] = SpatialIndex.toWorldX(points.get(i));
+      y[i] = SpatialIndex.toWorldY(points.get(i));
+    }
+    double[] significance = significance(x, y);
+
+    List<List<LatLng>> levels = new ArrayList<>(MAX_ZOOM + 1);
+    List<LatLng> previous = null;
+    for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+      // The world is 256dp wide at zoom 0 and doubles with every zoom level.
+      double tolerance = toleranceDp / (256 * Math.pow(2, zoom));
+      int count = 0;
+      for (int i = 0; i < n; i++) {
+        if (significance[i] > tolerance) {
+          count++;
+        }
+      }
+      List<LatLng> level;
+      if (count >= n * FULL_LEVEL_FRACTION) {
+        level = points;
+      } else if (previous != null && previous.size() == count) {
+        level = previous;
+      } else {
+        level = new ArrayList<>(count);
+        for (int i = 0; i < n; i++) {
+          if (significance[i] > tolerance) {
+            level.add(points.get(i));
+          }
+        }
+      }
+      levels.add(level);
+      previous = level;
+    }
+    return levels;
+  }
+
+  /**
+   * Returns, for every point, the largest tolerance at which Douglas-Peucker keeps it. Points
+   * never matter more than the point that split their range, so the kept points at any tolerance
+   * are exactly those with a larger significance.
+   */
+  private static double[] significance(double[] x, double[] y) {
+    int n = x.length;
+    double[] significance = new double[n];
+    if (n == 0) {
+      return significance;
+    }
+    significance[0] = Double.POSITIVE_INFINITY;
+    significance[n - 1] = Double.POSITIVE_INFINITY;
+
+    // Ranges still to split, as (first, last) index pairs with the significance of their parent.
+    int[] ranges = new int[64];
+    double[] bounds = new double[32];
+    int size = 0;
+    if (n > 2) {
+      ranges[0] = 0;
+      ranges[1] = n - 1;
+      bounds[0] = Double.POSITIVE_INFINITY;
+      size = 1;
+    }
+    while (size > 0) {
+      size--;
+      int first = ranges[2 * size];
+      int last = ranges[2 * size + 1];
+      double bound = bounds[size];
+
+      int split = -1;
+      double maxDistance = -1;
+      for (int i = first + 1; i < last; i++) {
+        double distance = segmentDistance(x[i], y[i], x[first], y[first], x[last], y[last]);
+        if (distance > maxDistance) {
+          maxDistance = distance;
+          split = i;
+        }
+      }
+      double value = Math.min(maxDistance, bound);
+      significance[split] = value;
+
+      if (size + 2 > bounds.length) {
+        int[] newRanges = new int[ranges.length * 2];
+        System.arraycopy(ranges, 0, newRanges, 0, ranges.length);
+        ranges = newRanges;
+        double[] newBounds = new double[bounds.length * 2];
+        System.arraycopy(bounds, 0, newBounds, 0, bounds.length);
+        bounds = newBounds;
+      }
+      if (split - first > 1) {
+        ranges[2 * size] = first;
+        ranges[2 * size + 1] = split;
+        bounds[size] = value;
+        size++;
+      }
+      if (last - split > 1) {
+        ranges[2 * size] = split;
+        ranges[2 * size + 1] = last;
+        bounds[size] = value;
+        size++;
+      }
+    }
+    return significance;
+  }
+
+  private static double segmentDistance(
+      double px, double py, double ax, double ay, double bx, double by) {
+    double dx = bx - ax;
+    double dy = by - ay;
+    double lengthSquared = dx * dx + dy * dy;
+    double t = lengthSquared == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / lengthSquared;
+    t = Math.max(0, Math.min(1, t));
+    double ex = px - (ax + t * dx);
+    double ey = py - (ay + t * dy);
+    return Math.sqrt(ex * ex + ey * ey);
+  }
+}
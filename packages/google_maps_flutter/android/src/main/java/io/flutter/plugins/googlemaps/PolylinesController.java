@@ -5,6 +5,7 @@
 package io.flutter.plugins.googlemaps;
 
 import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Polyline;
 import com.google.android.gms.maps.model.PolylineOptions;
 import io.flutter.plugin.common.MethodChannel;
@@ -18,6 +19,22 @@ class PolylinesController {
   private final Map<String, String> googleMapsPolylineIdToDartPolylineId;
   private final MethodChannel methodChannel;
   private GoogleMap googleMap;
+  private boolean cullingEnabled = false;
+  // Every polyline is kept as options, so that the map can be rebuilt when culling changes.
+  private final Map<String, PolylineBuilder> polylineIdToBuilder = new HashMap<>();
+  private final ViewportCuller<PolylineBuilder> culler =
+      new ViewportCuller<>(
+          new ViewportCuller.Delegate<PolylineBuilder>() {
+            @Override
+            public void addToMap(String polylineId, PolylineBuilder polylineBuilder) {
+              addPolyline(polylineId, polylineBuilder);
+            }
+
+            @Override
+            public void removeFromMap(String polylineId) {
+              PolylinesController.this.removeFromMap(polylineId);
+            }
+          });
   private final float density;
 
   PolylinesController(MethodChannel methodChannel, float density) {
@@ -31,11 +48,51 @@ class PolylinesController {
     this.googleMap = googleMap;
   }
 
+  /**
+   * Enables or disables culling of the polylines outside the visible region, and rebuilds the map
+   * with the existing polylines.
+   */
+  void setCullingEnabled(boolean cullingEnabled) {
+    if (this.cullingEnabled == cullingEnabled) {
+      return;
+    }
+    culler.clear();
+    for (PolylineController polylineController : polylineIdToController.values()) {
+      polylineController.remove();
+    }
+    polylineIdToController.clear();
+    googleMapsPolylineIdToDartPolylineId.clear();
+    this.cullingEnabled = cullingEnabled;
+    for (Map.Entry<String, PolylineBuilder> entry : polylineIdToBuilder.entrySet()) {
+      if (cullingEnabled) {
+        culler.put(entry.getKey(), entry.getValue(), getBounds(entry.getValue()));
+      } else {
+        addPolyline(entry.getKey(), entry.getValue());
+      }
+    }
+    if (cullingEnabled) {
+      culler.refresh(googleMap);
+    }
+  }
+
+  void onCameraIdle() {
+    if (cullingEnabled) {
+      culler.refresh(googleMap);
+    }
+    float zoom = googleMap.getCameraPosition().zoom;
+    for (PolylineController polylineController : polylineIdToController.values()) {
+      polylineController.onZoomChanged(zoom);
+    }
+  }
+
   void addPolylines(List<Object> polylinesToAdd) {
     if (polylinesToAdd != null) {
       for (Object polylineToAdd : polylinesToAdd) {
         addPolyline(polylineToAdd);
       }
+      if (cullingEnabled) {
+        culler.refresh(googleMap);
+      }
     }
   }
 
@@ -44,6 +101,9 @@ class PolylinesController {
       for (Object polylineToChange : polylinesToChange) {
         changePolyline(polylineToChange);
       }
+      if (cullingEnabled) {
+        culler.refresh(googleMap);
+      }
     }
   }
 
@@ -56,10 +116,11 @@ class PolylinesController {
         continue;
       }
       String polylineId = (String) rawPolylineId;
-      final PolylineController polylineController = polylineIdToController.remove(polylineId);
-      if (polylineController != null) {
-        polylineController.remove();
-        googleMapsPolylineIdToDartPolylineId.remove(polylineController.getGoogleMapsPolylineId());
+      polylineIdToBuilder.remove(polylineId);
+      if (cullingEnabled) {
+        culler.remove(polylineId);
+      } else {
+        removeFromMap(polylineId);
       }
     }
   }
@@ -83,14 +144,28 @@ class PolylinesController {
     }
     PolylineBuilder polylineBuilder = new PolylineBuilder();
     String polylineId = Convert.interpretPolylineOptions(polyline, polylineBuilder);
-    PolylineOptions options = polylineBuilder.build();
-    addPolyline(polylineId, options, polylineBuilder.consumeTapEvents());
+    polylineIdToBuilder.put(polylineId, polylineBuilder);
+    if (cullingEnabled) {
+      culler.put(polylineId, polylineBuilder, getBounds(polylineBuilder));
+      return;
+    }
+    addPolyline(polylineId, polylineBuilder);
   }
 
-  private void addPolyline(
-      String polylineId, PolylineOptions polylineOptions, boolean consumeTapEvents) {
-    final Polyline polyline = googleMap.addPolyline(polylineOptions);
-    PolylineController controller = new PolylineController(polyline, consumeTapEvents, density);
+  private void addPolyline(String polylineId, PolylineBuilder polylineBuilder) {
+    final Polyline polyline = googleMap.addPolyline(polylineBuilder.build());
+    PolylineController controller =
+        new PolylineController(
+            polyline,
+            polylineBuilder.consumeTapEvents(),
+            density,
+            googleMap.getCameraPosition().zoom);
+    float simplificationTolerance = polylineBuilder.getSimplificationTolerance();
+    if (simplificationTolerance > 0) {
+      // The builder leaves the points out of the options while simplifying.
+      controller.setSimplificationTolerance(simplificationTolerance);
+      controller.setPoints(polylineBuilder.getPoints());
+    }
     polylineIdToController.put(polylineId, controller);
     googleMapsPolylineIdToDartPolylineId.put(polyline.getId(), polylineId);
   }
@@ -100,12 +175,34 @@ class PolylinesController {
       return;
     }
     String polylineId = getPolylineId(polyline);
+    if (!polylineIdToBuilder.containsKey(polylineId)) {
+      return;
+    }
+    // Changes carry every option, so a new builder replaces the stored one.
+    PolylineBuilder polylineBuilder = new PolylineBuilder();
+    Convert.interpretPolylineOptions(polyline, polylineBuilder);
+    polylineIdToBuilder.put(polylineId, polylineBuilder);
+    if (cullingEnabled) {
+      culler.put(polylineId, polylineBuilder, getBounds(polylineBuilder));
+    }
     PolylineController polylineController = polylineIdToController.get(polylineId);
     if (polylineController != null) {
-      Convert.interpretPolylineOptions(polyline, polylineController);
+      polylineBuilder.applyTo(polylineController);
     }
   }
 
+  private void removeFromMap(String polylineId) {
+    final PolylineController polylineController = polylineIdToController.remove(polylineId);
+    if (polylineController != null) {
+      polylineController.remove();
+      googleMapsPolylineIdToDartPolylineId.remove(polylineController.getGoogleMapsPolylineId());
+    }
+  }
+
+  private static LatLngBounds getBounds(PolylineBuilder polylineBuilder) {
+    return ViewportCuller.boundsOf(polylineBuilder.getPoints());
+  }
+
   @SuppressWarnings("unchecked")
   private static String getPolylineId(Object polyline) {
     Map<String, Object> polylineMap = (Map<String, Object>) polyline;
@@ -0,0 +1,73 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import io.flutter.plugin.common.MethodChannel;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** Scales and compresses map snapshots on a background thread. */
+class SnapshotEncoder {
+  private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+  // The bounds the snapshot is scaled down to fit in, in pixels, or 0 for no bound.
+  private final int maxWidth;
+  private final int maxHeight;
+  private final Bitmap.CompressFormat format;
+  private final int quality;
+
+  SnapshotEncoder(int maxWidth, int maxHeight, Bitmap.CompressFormat format, int quality) {
+    this.maxWidth = maxWidth;
+    this.maxHeight = maxHeight;
+    this.format = format;
+    this.quality = quality;
+  }
+
+  /** Encodes {@code bitmap} and sends the bytes to {@code result}. Recycles {@code bitmap}. */
+  void encode(final Bitmap bitmap, final MethodChannel.Result result) {
+    executor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            Bitmap scaled = scale(bitmap);
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            scaled.compress(format, quality, stream);
+            if (scaled != bitmap) {
+              scaled.recycle();
+            }
+            bitmap.recycle();
+            final byte[] bytes = stream.toByteArray();
+            mainHandler.post(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    result.success(bytes);
+                  }
+                });
+          }
+        });
+  }
+
+  private Bitmap scale(Bitmap bitmap) {
+    float scale = 1;
+    if (maxWidth > 0) {
+      scale = Math.min(scale, (float) maxWidth / bitmap.getWidth());
+    }
+    if (maxHeight > 0) {
+      scale = Math.min(scale, (float) maxHeight / bitmap.getHeight());
+    }
+    if (scale >= 1) {
+      return bitmap;
+    }
+    int width = Math.max(1, Math.round(bitmap.getWidth() * scale));
+    int height = Math.max(1, Math.round(bitmap.getHeight() * scale));
+    return Bitmap.createScaledBitmap(bitmap, width, height, true);
+  }
+}
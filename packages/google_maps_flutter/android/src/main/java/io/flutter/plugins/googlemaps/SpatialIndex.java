@@ -0,0 +1,216 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A quadtree over the Web Mercator world that finds the items overlapping a region.
+ *
+ * <p>Coordinates are normalized world coordinates, where x and y both range over [0, 1] and y grows
+ * southwards, matching how the map projects the world at every zoom level. Each item is stored in
+ * the deepest node that fully contains it, so points end up in small leaves while large shapes stay
+ * near the root.
+ */
+class SpatialIndex<T> {
+  private static final int NODE_CAPACITY = 32;
+  private static final int MAX_DEPTH = 24;
+  private static final double MAX_LATITUDE = 85.05112878;
+
+  private static final class Item<T> {
+    final T value;
+    final double minX;
+    final double minY;
+    final double maxX;
+    final double maxY;
+    Node<T> node;
+
+    Item(T value, double minX, double minY, double maxX, double maxY) {
+      this.value = value;
+      this.minX = minX;
+      this.minY = minY;
+      this.maxX = maxX;
+      this.maxY = maxY;
+    }
+  }
+
+  private static final class Node<T> {
+    final double minX;
+    final double minY;
+    final double maxX;
+    final double maxY;
+    final int depth;
+    final List<Item<T>> items = new ArrayList<>();
+    List<Node<T>> children;
+
+    Node(double minX, double minY, double maxX, double maxY, int depth) {
+      this.minX = minX;
+      this.minY = minY;
+      this.maxX = maxX;
+      this.maxY = maxY;
+      this.depth = depth;
+    }
+
+    boolean contains(Item<T> item) {
+      return item.minX >= minX && item.maxX < maxX && item.minY >= minY && item.maxY < maxY;
+    }
+
+    boolean intersects(double minX, double minY, double maxX, double maxY) {
+      return minX <= this.maxX && maxX >= this.minX && minY <= this.maxY && maxY >= this.minY;
+    }
+  }
+
+  private final Map<T, Item<T>> items = new HashMap<>();
+  private Node<T> root = newRoot();
+
+  private static <T> Node<T> newRoot() {
+    // Slightly larger than the world so that x == 1 and y == 1 fall inside.
+    return new Node<>(0, 0, 1 + 1e-9, 1 + 1e-9, 0);
+  }
+
+  static double toWorldX(LatLng latLng) {
+    return toWorldX(latLng.longitude);
+  }
+
+  static double toWorldX(double longitude) {
+    return (longitude + 180) / 360;
+  }
+
+  static double toWorldY(LatLng latLng) {
+    return toWorldY(latLng.latitude);
+  }
+
+  static double toWorldY(double latitude) {
+    latitude = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+    double sin = Math.sin(Math.toRadians(latitude));
+    return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+  }
+
+  int size() {
+    return items.size();
+  }
+
+  Collection<T> values() {
+    return new ArrayList<>(items.keySet());
+  }
+
+  void put(T value, LatLng position) {
+    double x = toWorldX(position);
+    double y = toWorldY(position);
+    put(new Item<>(value, x, y, x, y));
+  }
+
+  void put(T value, LatLngBounds bounds) {
+    double minX = toWorldX(bounds.southwest);
+    double maxX = toWorldX(bounds.northeast);
+    if (minX > maxX) {
+      // Crosses the antimeridian.
+      minX = 0;
+      maxX = 1;
+    }
+    put(new Item<>(value, minX, toWorldY(bounds.northeast), maxX, toWorldY(bounds.southwest)));
+  }
+
+  void remove(T value) {
+    Item<T> item = items.remove(value);
+    if (item != null) {
+      item.node.items.remove(item);
+    }
+  }
+
+  void clear() {
+    items.clear();
+    root = newRoot();
+  }
+
+  /** Adds every item that overlaps {@code bounds} to {@code out}. */
+  void query(LatLngBounds bounds, Set<T> out) {
+    double minX = toWorldX(bounds.southwest);
+    double maxX = toWorldX(bounds.northeast);
+    double minY = toWorldY(bounds.northeast);
+    double maxY = toWorldY(bounds.southwest);
+    if (minX > maxX) {
+      query(root, minX, minY, 1, maxY, out);
+      query(root, 0, minY, maxX, maxY, out);
+    } else {
+      query(root, minX, minY, maxX, maxY, out);
+    }
+  }
+
+  private void put(Item<T> item) {
+    remove(item.value);
+    items.put(item.value, item);
+    Node<T> node = root;
+    while (node.children != null) {
+      Node<T> child = childContaining(node, item);
+      if (child == null) {
+        break;
+      }
+      node = child;
+    }
+    add(node, item);
+  }
+
+  private void add(Node<T> node, Item<T> item) {
+    node.items.add(item);
+    item.node = node;
+    if (node.children == null && node.items.size() > NODE_CAPACITY && node.depth < MAX_DEPTH) {
+      split(node);
+    }
+  }
+
+  private void split(Node<T> node) {
+    double midX = (node.minX + node.maxX) / 2;
+    double midY = (node.minY + node.maxY) / 2;
+    int depth = node.depth + 1;
+    node.children = new ArrayList<>(4);
+    node.children.add(new Node<T>(node.minX, node.minY, midX, midY, depth));
+    node.children.add(new Node<T>(midX, node.minY, node.maxX, midY, depth));
+    node.children.add(new Node<T>(node.minX, midY, midX, node.maxY, depth));
+    node.children.add(new Node<T>(midX, midY, node.maxX, node.maxY, depth));
+    List<Item<T>> existing = new ArrayList<>(node.items);
+    node.items.clear();
+    for (Item<T> item : existing) {
+      Node<T> child = childContaining(node, item);
+      if (child == null) {
+        node.items.add(item);
+      } else {
+        add(child, item);
+      }
+    }
+  }
+
+  private Node<T> childContaining(Node<T> node, Item<T> item) {
+    for (Node<T> child : node.children) {
+      if (child.contains(item)) {
+        return child;
+      }
+    }
+    return null;
+  }
+
+  private void query(
+      Node<T> node, double minX, double minY, double maxX, double maxY, Set<T> out) {
+    for (Item<T> item : node.items) {
+      if (item.minX <= maxX && item.maxX >= minX && item.minY <= maxY && item.maxY >= minY) {
+        out.add(item.value);
+      }
+    }
+    if (node.children != null) {
+      for (Node<T> child : node.children) {
+        if (child.intersects(minX, minY, maxX, maxY)) {
+          query(child, minX, minY, maxX, maxY, out);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,218 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.util.Log;
+import com.google.android.gms.maps.model.Tile;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An LRU cache of tiles in a directory, bounded by the size of its files.
+ *
+ * <p>Every tile is stored in its own file, named after its coordinates, as its width and height
+ * followed by the image data. The access order survives restarts through the modification times
+ * of the files, which are updated on every hit.
+ *
+ * <p>There is one cache per directory, shared by the overlays of every map that use it, so that
+ * they agree on its files and its size.
+ */
+class TileDiskCache {
+  private static final String TAG = "TileDiskCache";
+  // The caches by the absolute path of their directory.
+  private static final Map<String, TileDiskCache> caches = new HashMap<>();
+
+  private final File directory;
+  private long maxSizeBytes;
+  // File names in access order, with their sizes. Loaded from the directory on first use.
+  private LinkedHashMap<String, Long> entries;
+  private long sizeBytes = 0;
+
+  private TileDiskCache(File directory, long maxSizeBytes) {
+    this.directory = directory;
+    this.maxSizeBytes = maxSizeBytes;
+  }
+
+  /**
+   * Returns the cache of {@code directory}, bounded by {@code maxSizeBytes}. The bound of an
+   * existing cache is replaced by the latest one.
+   */
+  static TileDiskCache forDirectory(File directory, long maxSizeBytes) {
+    String path = directory.getAbsolutePath();
+    TileDiskCache cache;
+    synchronized (caches) {
+      cache = caches.get(path);
+      if (cache == null) {
+        cache = new TileDiskCache(directory, maxSizeBytes);
+        caches.put(path, cache);
+        return cache;
+      }
+    }
+    cache.setMaxSizeBytes(maxSizeBytes);
+    return cache;
+  }
+
+  private synchronized void setMaxSizeBytes(long maxSizeBytes) {
+    if (this.maxSizeBytes != maxSizeBytes) {
+      this.maxSizeBytes = maxSizeBytes;
+      if (entries != null) {
+        trimToSize();
+      }
+    }
+  }
+
+  private static String fileName(int x, int y, int zoom) {
+    return zoom + "_" + x + "_" + y;
+  }
+
+  boolean contains(int x, int y, int zoom) {
+    synchronized (this) {
+      load();
+      return entries.containsKey(fileName(x, y, zoom));
+    }
+  }
+
+  /** Returns the cached tile, or null if it is not cached. */
+  Tile get(int x, int y, int zoom) {
+    String name = fileName(x, y, zoom);
+    File file = new File(directory, name);
+    synchronized (this) {
+      load();
+      if (entries.get(name) == null) {
+        return null;
+      }
+      file.setLastModified(System.currentTimeMillis());
+    }
+    DataInputStream input = null;
+    try {
+      input = new DataInputStream(new FileInputStream(file));
+      int width = input.readInt();
+      int height = input.readInt();
+      byte[] data = new byte[(int) file.length() - 8];
+      input.readFully(data);
+      return new Tile(width, height, data);
+    } catch (IOException e) {
+      // The tile was evicted while it was read, or the file is damaged.
+      synchronized (this) {
+        remove(name);
+      }
+      return null;
+    } finally {
+      close(input);
+    }
+  }
+
+  void put(int x, int y, int zoom, Tile tile) {
+    String name = fileName(x, y, zoom);
+    // Map and prefetch threads can cache the same tile at once.
+    File temporary = new File(directory, name + "." + Thread.currentThread().getId() + ".tmp");
+    DataOutputStream output = null;
+    try {
+      if (!directory.isDirectory() && !directory.mkdirs()) {
+        return;
+      }
+      output = new DataOutputStream(new FileOutputStream(temporary));
+      output.writeInt(tile.width);
+      output.writeInt(tile.height);
+      output.write(tile.data);
+      output.close();
+      output = null;
+      synchronized (this) {
+        load();
+        remove(name);
+        if (!temporary.renameTo(new File(directory, name))) {
+          temporary.delete();
+          return;
+        }
+        long size = tile.data.length + 8;
+        entries.put(name, size);
+        sizeBytes += size;
+        trimToSize();
+      }
+    } catch (IOException e) {
+      Log.w(TAG, "Unable to cache tile " + name, e);
+      temporary.delete();
+    } finally {
+      close(output);
+    }
+  }
+
+  synchronized void clear() {
+    load();
+    for (String name : entries.keySet()) {
+      new File(directory, name).delete();
+    }
+    entries.clear();
+    sizeBytes = 0;
+  }
+
+  private void load() {
+    if (entries != null) {
+      return;
+    }
+    entries = new LinkedHashMap<>(16, 0.75f, true);
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    Arrays.sort(
+        files,
+        new Comparator<File>() {
+          @Override
+          public int compare(File a, File b) {
+            long difference = a.lastModified() - b.lastModified();
+            return difference < 0 ? -1 : (difference > 0 ? 1 : 0);
+          }
+        });
+    for (File file : files) {
+      if (file.getName().endsWith(".tmp")) {
+        file.delete();
+        continue;
+      }
+      entries.put(file.getName(), file.length());
+      sizeBytes += file.length();
+    }
+    trimToSize();
+  }
+
+  private void remove(String name) {
+    Long size = entries.remove(name);
+    if (size != null) {
+      sizeBytes -= size;
+      new File(directory, name).delete();
+    }
+  }
+
+  private void trimToSize() {
+    Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+    while (sizeBytes > maxSizeBytes && iterator.hasNext()) {
+      Map.Entry<String, Long> eldest = iterator.next();
+      iterator.remove();
+      sizeBytes -= eldest.getValue();
+      new File(directory, eldest.getKey()).delete();
+    }
+  }
+
+  private static void close(Closeable closeable) {
+    if (closeable != null) {
+      try {
+        closeable.close();
+      } catch (IOException e) {
+        // Ignored, the stream is not used anymore.
+      }
+    }
+  }
+}
@@ -0,0 +1,70 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.TileOverlayOptions;
+
+class TileOverlayBuilder implements TileOverlayOptionsSink {
+  private final TileOverlayOptions tileOverlayOptions;
+  private String filePathTemplate;
+  private long diskCacheSize;
+  private boolean prefetchAdjacentZoomLevels;
+
+  TileOverlayBuilder() {
+    this.tileOverlayOptions = new TileOverlayOptions();
+  }
+
+  /** Returns the options, without a tile provider. */
+  TileOverlayOptions build() {
+    return tileOverlayOptions;
+  }
+
+  String getFilePathTemplate() {
+    return filePathTemplate;
+  }
+
+  long getDiskCacheSize() {
+    return diskCacheSize;
+  }
+
+  boolean getPrefetchAdjacentZoomLevels() {
+    return prefetchAdjacentZoomLevels;
+  }
+
+  @Override
+  public void setFadeIn(boolean fadeIn) {
+    tileOverlayOptions.fadeIn(fadeIn);
+  }
+
+  @Override
+  public void setTransparency(float transparency) {
+    tileOverlayOptions.transparency(transparency);
+  }
+
+  @Override
+  public void setZIndex(float zIndex) {
+    tileOverlayOptions.zIndex(zIndex);
+  }
+
+  @Override
+  public void setVisible(boolean visible) {
+    tileOverlayOptions.visible(visible);
+  }
+
+  @Override
+  public void setFilePathTemplate(String filePathTemplate) {
+    this.filePathTemplate = filePathTemplate;
+  }
+
+  @Override
+  public void setDiskCacheSize(long diskCacheSize) {
+    this.diskCacheSize = diskCacheSize;
+  }
+
+  @Override
+  public void setPrefetchAdjacentZoomLevels(boolean prefetchAdjacentZoomLevels) {
+    this.prefetchAdjacentZoomLevels = prefetchAdjacentZoomLevels;
+  }
+}
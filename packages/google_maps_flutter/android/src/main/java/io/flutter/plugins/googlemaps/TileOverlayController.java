@@ -0,0 +1,180 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import com.google.android.gms.maps.model.LatLngBounds;
+import com.google.android.gms.maps.model.TileOverlay;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Controller of a single TileOverlay on the map. */
+class TileOverlayController implements TileOverlayOptionsSink {
+  private static final int MAX_ZOOM = 21;
+  // At most this many tiles are prefetched per zoom level whenever the camera becomes idle.
+  private static final int MAX_PREFETCH_TILES = 64;
+  // A prefetch stops fetching new tiles after this long, a single tile can still take longer.
+  private static final long MAX_PREFETCH_MILLIS = 10000;
+  private static final long IDLE_THREAD_SECONDS = 30;
+  // Clears run apart from the prefetches, which can each block on slow tiles for a long time.
+  private static final ExecutorService clearExecutor = Executors.newCachedThreadPool();
+  private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+  private final TileOverlay tileOverlay;
+  private final String filePathTemplate;
+  private final long diskCacheSize;
+  private final CachingTileProvider cachingTileProvider;
+  // Each overlay prefetches on its own thread, so a slow tile source does not hold up the others.
+  private final ThreadPoolExecutor prefetchExecutor;
+  private boolean prefetchAdjacentZoomLevels;
+  // Incremented to stop the running prefetch.
+  private final AtomicInteger prefetchGeneration = new AtomicInteger();
+
+  TileOverlayController(
+      TileOverlay tileOverlay,
+      TileOverlayBuilder tileOverlayBuilder,
+      CachingTileProvider cachingTileProvider) {
+    this.tileOverlay = tileOverlay;
+    this.filePathTemplate = tileOverlayBuilder.getFilePathTemplate();
+    this.diskCacheSize = tileOverlayBuilder.getDiskCacheSize();
+    this.prefetchAdjacentZoomLevels = tileOverlayBuilder.getPrefetchAdjacentZoomLevels();
+    this.cachingTileProvider = cachingTileProvider;
+    this.prefetchExecutor =
+        new ThreadPoolExecutor(
+            1, 1, IDLE_THREAD_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+    this.prefetchExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  void remove() {
+    prefetchGeneration.incrementAndGet();
+    prefetchExecutor.shutdown();
+    tileOverlay.remove();
+  }
+
+  /** Returns whether the tiles of {@code tileOverlayBuilder} come from the same source. */
+  boolean hasSameSource(TileOverlayBuilder tileOverlayBuilder) {
+    String template = tileOverlayBuilder.getFilePathTemplate();
+    return (template == null ? filePathTemplate == null : template.equals(filePathTemplate))
+        && tileOverlayBuilder.getDiskCacheSize() == diskCacheSize;
+  }
+
+  /** Drops the tiles in memory and on disk, so that they are all requested again. */
+  void clearTileCache() {
+    prefetchGeneration.incrementAndGet();
+    if (cachingTileProvider == null) {
+      tileOverlay.clearTileCache();
+      return;
+    }
+    // The map must only request the tiles again once they are gone from the disk cache.
+    clearExecutor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            cachingTileProvider.clear();
+            mainHandler.post(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    tileOverlay.clearTileCache();
+                  }
+                });
+          }
+        });
+  }
+
+  /**
+   * Fetches the tiles of {@code region} at the zoom levels next to {@code cameraZoom} into the disk
+   * cache, so that zooming in or out does not wait for them.
+   */
+  void prefetch(final LatLngBounds region, float cameraZoom) {
+    if (!prefetchAdjacentZoomLevels || cachingTileProvider == null || !tileOverlay.isVisible()) {
+      return;
+    }
+    final int generation = prefetchGeneration.incrementAndGet();
+    final int zoom = (int) cameraZoom;
+    prefetchExecutor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            long deadline = SystemClock.uptimeMillis() + MAX_PREFETCH_MILLIS;
+            prefetch(region, zoom + 1, generation, deadline);
+            prefetch(region, zoom - 1, generation, deadline);
+          }
+        });
+  }
+
+  private void prefetch(LatLngBounds region, int zoom, int generation, long deadline) {
+    if (zoom < 0 || zoom > MAX_ZOOM) {
+      return;
+    }
+    int tiles = 1 << zoom;
+    int minX = toTile(SpatialIndex.toWorldX(region.southwest), tiles);
+    int maxX = toTile(SpatialIndex.toWorldX(region.northeast), tiles);
+    if (maxX < minX) {
+      // The region crosses the antimeridian.
+      maxX += tiles;
+    }
+    int minY = toTile(SpatialIndex.toWorldY(region.northeast), tiles);
+    int maxY = toTile(SpatialIndex.toWorldY(region.southwest), tiles);
+    int count = 0;
+    for (int y = minY; y <= maxY; y++) {
+      for (int x = minX; x <= maxX; x++) {
+        // Checked before every tile, as fetching one can block for a long time.
+        if (count++ >= MAX_PREFETCH_TILES
+            || prefetchGeneration.get() != generation
+            || SystemClock.uptimeMillis() >= deadline) {
+          return;
+        }
+        cachingTileProvider.prefetch(x % tiles, y, zoom);
+      }
+    }
+  }
+
+  private static int toTile(double world, int tiles) {
+    return Math.max(0, Math.min(tiles - 1, (int) Math.floor(world * tiles)));
+  }
+
+  @Override
+  public void setFadeIn(boolean fadeIn) {
+    tileOverlay.setFadeIn(fadeIn);
+  }
+
+  @Override
+  public void setTransparency(float transparency) {
+    tileOverlay.setTransparency(transparency);
+  }
+
+  @Override
+  public void setZIndex(float zIndex) {
+    tileOverlay.setZIndex(zIndex);
+  }
+
+  @Override
+  public void setVisible(boolean visible) {
+    tileOverlay.setVisible(visible);
+  }
+
+  @Override
+  public void setFilePathTemplate(String filePathTemplate) {
+    // The tile source is fixed when the overlay is added, TileOverlaysController replaces the
+    // overlay when it changes.
+  }
+
+  @Override
+  public void setDiskCacheSize(long diskCacheSize) {
+    // See setFilePathTemplate.
+  }
+
+  @Override
+  public void setPrefetchAdjacentZoomLevels(boolean prefetchAdjacentZoomLevels) {
+    this.prefetchAdjacentZoomLevels = prefetchAdjacentZoomLevels;
+  }
+}
@@ -0,0 +1,22 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+/** Receiver of TileOverlay configuration options. */
+interface TileOverlayOptionsSink {
+  void setFadeIn(boolean fadeIn);
+
+  void setTransparency(float transparency);
+
+  void setZIndex(float zIndex);
+
+  void setVisible(boolean visible);
+
+  void setFilePathTemplate(String filePathTemplate);
+
+  void setDiskCacheSize(long diskCacheSize);
+
+  void setPrefetchAdjacentZoomLevels(boolean prefetchAdjacentZoomLevels);
+}
@@ -0,0 +1,165 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.CameraPosition;
+import com.google.android.gms.maps.model.LatLngBounds;
+import com.google.android.gms.maps.model.TileOverlay;
+import com.google.android.gms.maps.model.TileProvider;
+import io.flutter.plugin.common.MethodChannel;
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class TileOverlaysController {
+
+  private final Map<String, TileOverlayController> tileOverlayIdToController;
+  private final MethodChannel methodChannel;
+  // Tiles of every overlay are cached in a subdirectory named after a hash of its id.
+  private final File cacheDirectory;
+  private GoogleMap googleMap;
+
+  TileOverlaysController(MethodChannel methodChannel, File cacheDirectory) {
+    this.tileOverlayIdToController = new HashMap<>();
+    this.methodChannel = methodChannel;
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  void setGoogleMap(GoogleMap googleMap) {
+    this.googleMap = googleMap;
+  }
+
+  void addTileOverlays(List<Object> tileOverlaysToAdd) {
+    if (tileOverlaysToAdd == null) {
+      return;
+    }
+    for (Object tileOverlayToAdd : tileOverlaysToAdd) {
+      addTileOverlay(tileOverlayToAdd);
+    }
+  }
+
+  void changeTileOverlays(List<Object> tileOverlaysToChange) {
+    if (tileOverlaysToChange == null) {
+      return;
+    }
+    for (Object tileOverlayToChange : tileOverlaysToChange) {
+      changeTileOverlay(tileOverlayToChange);
+    }
+  }
+
+  void removeTileOverlays(List<Object> tileOverlayIdsToRemove) {
+    if (tileOverlayIdsToRemove == null) {
+      return;
+    }
+    for (Object rawTileOverlayId : tileOverlayIdsToRemove) {
+      if (rawTileOverlayId == null) {
+        continue;
+      }
+      String tileOverlayId = (String) rawTileOverlayId;
+      final TileOverlayController tileOverlayController =
+          tileOverlayIdToController.remove(tileOverlayId);
+      if (tileOverlayController != null) {
+        tileOverlayController.remove();
+      }
+    }
+  }
+
+  void clearTileCache(String tileOverlayId) {
+    TileOverlayController tileOverlayController = tileOverlayIdToController.get(tileOverlayId);
+    if (tileOverlayController != null) {
+      tileOverlayController.clearTileCache();
+    }
+  }
+
+  void onCameraIdle() {
+    if (googleMap == null || tileOverlayIdToController.isEmpty()) {
+      return;
+    }
+    CameraPosition camera = googleMap.getCameraPosition();
+    LatLngBounds region = googleMap.getProjection().getVisibleRegion().latLngBounds;
+    for (TileOverlayController tileOverlayController : tileOverlayIdToController.values()) {
+      tileOverlayController.prefetch(region, camera.zoom);
+    }
+  }
+
+  private void addTileOverlay(Object tileOverlay) {
+    if (tileOverlay == null) {
+      return;
+    }
+    TileOverlayBuilder tileOverlayBuilder = new TileOverlayBuilder();
+    String tileOverlayId = Convert.interpretTileOverlayOptions(tileOverlay, tileOverlayBuilder);
+    addTileOverlay(tileOverlayId, tileOverlayBuilder);
+  }
+
+  private void addTileOverlay(String tileOverlayId, TileOverlayBuilder tileOverlayBuilder) {
+    String filePathTemplate = tileOverlayBuilder.getFilePathTemplate();
+    TileProvider tileProvider;
+    CachingTileProvider cachingTileProvider = null;
+    if (filePathTemplate != null) {
+      tileProvider = new FileTileProvider(filePathTemplate);
+    } else {
+      tileProvider = new DartTileProvider(methodChannel, tileOverlayId);
+      if (tileOverlayBuilder.getDiskCacheSize() > 0) {
+        File directory = new File(cacheDirectory, cacheDirectoryName(tileOverlayId));
+        cachingTileProvider =
+            new CachingTileProvider(
+                tileProvider,
+                TileDiskCache.forDirectory(directory, tileOverlayBuilder.getDiskCacheSize()));
+        tileProvider = cachingTileProvider;
+      }
+    }
+    final TileOverlay tileOverlay =
+        googleMap.addTileOverlay(tileOverlayBuilder.build().tileProvider(tileProvider));
+    tileOverlayIdToController.put(
+        tileOverlayId,
+        new TileOverlayController(tileOverlay, tileOverlayBuilder, cachingTileProvider));
+  }
+
+  /** Returns the hex SHA-1 of the id, which is a valid file name unlike some ids. */
+  private static String cacheDirectoryName(String tileOverlayId) {
+    byte[] digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-1").digest(tileOverlayId.getBytes("UTF-8"));
+    } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+      // Every Android device supports both.
+      throw new IllegalStateException(e);
+    }
+    StringBuilder name = new StringBuilder(2 * digest.length);
+    for (byte b : digest) {
+      name.append(String.format("%02x", b));
+    }
+    return name.toString();
+  }
+
+  private void changeTileOverlay(Object tileOverlay) {
+    if (tileOverlay == null) {
+      return;
+    }
+    String tileOverlayId = getTileOverlayId(tileOverlay);
+    TileOverlayController tileOverlayController = tileOverlayIdToController.get(tileOverlayId);
+    if (tileOverlayController == null) {
+      return;
+    }
+    TileOverlayBuilder tileOverlayBuilder = new TileOverlayBuilder();
+    Convert.interpretTileOverlayOptions(tileOverlay, tileOverlayBuilder);
+    if (tileOverlayController.hasSameSource(tileOverlayBuilder)) {
+      Convert.interpretTileOverlayOptions(tileOverlay, tileOverlayController);
+    } else {
+      tileOverlayController.remove();
+      addTileOverlay(tileOverlayId, tileOverlayBuilder);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static String getTileOverlayId(Object tileOverlay) {
+    Map<String, Object> tileOverlayMap = (Map<String, Object>) tileOverlay;
+    return (String) tileOverlayMap.get("tileOverlayId");
+  }
+}
@@ -0,0 +1,145 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the options of map objects in a {@link SpatialIndex} and only adds the objects near the
+ * visible region to the map.
+ *
+ * <p>{@link #refresh(GoogleMap)} should be called whenever the camera becomes idle and after
+ * objects are put or removed.
+ */
+class ViewportCuller<T> {
+  // Objects this far outside the visible region, as a fraction of its size, are still added so
+  // that short pans do not add and remove them.
+  static final double VISIBLE_REGION_MARGIN = 0.25;
+  private static final double METERS_PER_DEGREE = 111320;
+
+  interface Delegate<T> {
+    void addToMap(String id, T options);
+
+    void removeFromMap(String id);
+  }
+
+  private final Delegate<T> delegate;
+  private final Map<String, T> idToOptions = new HashMap<>();
+  private final SpatialIndex<String> index = new SpatialIndex<>();
+  private final Set<String> onMap = new HashSet<>();
+
+  ViewportCuller(Delegate<T> delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Stores {@code options}. An object that is already on the map stays there until the next
+   * refresh. Objects with null {@code bounds} are never added to the map.
+   */
+  void put(String id, T options, LatLngBounds bounds) {
+    idToOptions.put(id, options);
+    if (bounds == null) {
+      index.remove(id);
+    } else {
+      index.put(id, bounds);
+    }
+  }
+
+  void remove(String id) {
+    idToOptions.remove(id);
+    index.remove(id);
+    if (onMap.remove(id)) {
+      delegate.removeFromMap(id);
+    }
+  }
+
+  void clear() {
+    for (String id : onMap) {
+      delegate.removeFromMap(id);
+    }
+    onMap.clear();
+    idToOptions.clear();
+    index.clear();
+  }
+
+  void refresh(GoogleMap googleMap) {
+    if (googleMap == null) {
+      return;
+    }
+    LatLngBounds region =
+        expand(googleMap.getProjection().getVisibleRegion().latLngBounds, VISIBLE_REGION_MARGIN);
+    Set<String> visible = new HashSet<>();
+    index.query(region, visible);
+    List<String> hidden = new ArrayList<>();
+    for (String id : onMap) {
+      if (!visible.contains(id)) {
+        hidden.add(id);
+      }
+    }
+    for (String id : hidden) {
+      onMap.remove(id);
+      delegate.removeFromMap(id);
+    }
+    for (String id : visible) {
+      if (onMap.add(id)) {
+        delegate.addToMap(id, idToOptions.get(id));
+      }
+    }
+  }
+
+  static LatLngBounds boundsOf(List<LatLng> points) {
+    if (points == null || points.isEmpty()) {
+      return null;
+    }
+    LatLngBounds.Builder builder = LatLngBounds.builder();
+    for (LatLng point : points) {
+      builder.include(point);
+    }
+    return builder.build();
+  }
+
+  static LatLngBounds boundsOf(LatLng center, double radiusMeters) {
+    if (center == null) {
+      return null;
+    }
+    double latitudeDelta = radiusMeters / METERS_PER_DEGREE;
+    double cos = Math.cos(Math.toRadians(center.latitude));
+    double longitudeDelta = cos < 1e-6 ? 180 : latitudeDelta / cos;
+    double south = center.latitude - latitudeDelta;
+    double north = center.latitude + latitudeDelta;
+    if (longitudeDelta >= 180) {
+      return new LatLngBounds(new LatLng(south, -180), new LatLng(north, 179.999999));
+    }
+    return new LatLngBounds(
+        new LatLng(south, center.longitude - longitudeDelta),
+        new LatLng(north, center.longitude + longitudeDelta));
+  }
+
+  /** Grows {@code bounds} by {@code fraction} of its size on every side. */
+  static LatLngBounds expand(LatLngBounds bounds, double fraction) {
+    double latitudeSpan = bounds.northeast.latitude - bounds.southwest.latitude;
+    double longitudeSpan = bounds.northeast.longitude - bounds.southwest.longitude;
+    if (longitudeSpan < 0) {
+      longitudeSpan += 360;
+    }
+    double south = Math.max(-90, bounds.southwest.latitude - latitudeSpan * fraction);
+    double north = Math.min(90, bounds.northeast.latitude + latitudeSpan * fraction);
+    if (longitudeSpan * (1 + 2 * fraction) >= 360) {
+      return new LatLngBounds(new LatLng(south, -180), new LatLng(north, 179.999999));
+    }
+    // LatLng wraps longitudes outside [-180, 180).
+    return new LatLngBounds(
+        new LatLng(south, bounds.southwest.longitude - longitudeSpan * fraction),
+        new LatLng(north, bounds.northeast.longitude + longitudeSpan * fraction));
+  }
+}
@@ -0,0 +1,184 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:math';
+
+import 'package:flutter/material.dart';
+import 'package:google_maps_flutter/google_maps_flutter.dart';
+
+import 'page.dart';
+
+class ClusterMarkersPage extends Page {
+  ClusterMarkersPage()
+      : super(const Icon(Icons.bubble_chart), 'Cluster markers');
+
+  @override
+  Widget build(BuildContext context) {
+    return const ClusterMarkersBody();
+  }
+}
+
+class ClusterMarkersBody extends StatefulWidget {
+  const ClusterMarkersBody();
+
+  @override
+  State<StatefulWidget> createState() => ClusterMarkersBodyState();
+}
+
+const LatLng _kMapCenter = LatLng(51.5074, -0.1278);
+
+/// Places many markers around London and shows how long the platform map
+/// takes to apply them, with and without clustering or viewport culling.
+///
+/// Also shows how long the map takes to show the markers after zooming or
+/// panning, which includes refreshing the clusters and the culled markers.
+class ClusterMarkersBodyState extends State<ClusterMarkersBody> {
+  GoogleMapController _controller;
+  // Measures the current camera move, until the map is idle.
+  Stopwatch _cameraStopwatch;
+  String _cameraMove;
+  // The last measurement, shown below the map.
+  String _timing = '';
+  // ignore: prefer_collection_literals
+  Set<Marker> _markers = Set<Marker>();
+  bool _clustering = true;
+  bool _culling = false;
+
+  void _setMarkerCount(int count) {
+    final Random random = Random(count);
+    // ignore: prefer_collection_literals
+    final Set<Marker> markers = Set<Marker>();
+    for (int i = 0; i < count; i++) {
+      markers.add(Marker(
+        markerId: MarkerId('marker_$i'),
+        position: LatLng(
+          _kMapCenter.latitude + (random.nextDouble() - 0.5),
+          _kMapCenter.longitude + (random.nextDouble() - 0.5) * 1.6,
+        ),
+        infoWindow: InfoWindow(title: 'Marker $i'),
+      ));
+    }
+    _measure(() => _markers = markers);
+  }
+
+  void _measure(VoidCallback change) {
+    if (_controller == null) {
+      return;
+    }
+    final Stopwatch stopwatch = Stopwatch()..start();
+    setState(change);
+    WidgetsBinding.instance.addPostFrameCallback((_) {
+      // Let the marker update reach the platform channel, then wait for the
+      // platform to put it on the map.
+      Future<void>.delayed(Duration.zero, () async {
+        await _controller.waitForMarkers();
+        _showTiming('${_markers.length} markers applied in '
+            '${stopwatch.elapsedMilliseconds} ms');
+      });
+    });
+  }
+
+  void _measureCameraMove(String name, CameraUpdate update) {
+    if (_controller == null) {
+      return;
+    }
+    _cameraMove = name;
+    _cameraStopwatch = Stopwatch()..start();
+    // Moved without animating, so that only the refresh is measured.
+    _controller.moveCamera(update);
+  }
+
+  void _onCameraIdle() {
+    if (_cameraStopwatch == null) {
+      return;
+    }
+    _showTiming('$_cameraMove with ${_markers.length} markers refreshed in '
+        '${_cameraStopwatch.elapsedMilliseconds} ms');
+    _cameraStopwatch = null;
+  }
+
+  void _showTiming(String timing) {
+    if (!mounted) {
+      return;
+    }
+    setState(() {
+      _timing = timing;
+    });
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    return Column(
+      crossAxisAlignment: CrossAxisAlignment.stretch,
+      children: <Widget>[
+        Expanded(
+          child: GoogleMap(
+            initialCameraPosition: const CameraPosition(
+              target: _kMapCenter,
+              zoom: 9.0,
+            ),
+            markers: _markers,
+            markerClusteringEnabled: _clustering,
+            viewportCullingEnabled: _culling,
+            onMapCreated: (GoogleMapController controller) {
+              _controller = controller;
+            },
+            onCameraIdle: _onCameraIdle,
+          ),
+        ),
+        Padding(
+          padding: const EdgeInsets.all(8.0),
+          child: Text(_timing, textAlign: TextAlign.center),
+        ),
+        SwitchListTile(
+          title: const Text('Clustering'),
+          value: _clustering,
+          onChanged: (bool value) => _measure(() => _clustering = value),
+        ),
+        SwitchListTile(
+          title: const Text('Viewport culling'),
+          value: _culling,
+          onChanged: (bool value) => _measure(() => _culling = value),
+        ),
+        ButtonBar(
+          alignment: MainAxisAlignment.center,
+          children: <Widget>[
+            FlatButton(
+              child: const Text('1k'),
+              onPressed: () => _setMarkerCount(1000),
+            ),
+            FlatButton(
+              child: const Text('10k'),
+              onPressed: () => _setMarkerCount(10000),
+            ),
+            FlatButton(
+              child: const Text('50k'),
+              onPressed: () => _setMarkerCount(50000),
+            ),
+          ],
+        ),
+        ButtonBar(
+          alignment: MainAxisAlignment.center,
+          children: <Widget>[
+            FlatButton(
+              child: const Text('Zoom in'),
+              onPressed: () =>
+                  _measureCameraMove('Zoom in', CameraUpdate.zoomIn()),
+            ),
+            FlatButton(
+              child: const Text('Zoom out'),
+              onPressed: () =>
+                  _measureCameraMove('Zoom out', CameraUpdate.zoomOut()),
+            ),
+            FlatButton(
+              child: const Text('Pan'),
+              onPressed: () => _measureCameraMove(
+                  'Pan', CameraUpdate.scrollBy(200.0, 0.0)),
+            ),
+          ],
+        ),
+      ],
+    );
+  }
+}
@@ -0,0 +1,104 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:math';
+import 'dart:typed_data';
+
+import 'package:flutter/material.dart';
+import 'package:google_maps_flutter/google_maps_flutter.dart';
+
+import 'page.dart';
+
+class HeatmapPage extends Page {
+  HeatmapPage() : super(const Icon(Icons.blur_on), 'Heatmap');
+
+  @override
+  Widget build(BuildContext context) {
+    return const HeatmapBody();
+  }
+}
+
+class HeatmapBody extends StatefulWidget {
+  const HeatmapBody();
+
+  @override
+  State<StatefulWidget> createState() => HeatmapBodyState();
+}
+
+const LatLng _kCenter = LatLng(52.5200, 13.4050);
+const int _kBatchSize = 10000;
+
+/// Draws a heatmap of random points and appends batches of points to it.
+class HeatmapBodyState extends State<HeatmapBody> {
+  final Random _random = Random(0);
+  WeightedLatLngList _points;
+
+  @override
+  void initState() {
+    super.initState();
+    _points = WeightedLatLngList(_randomPoints(_kBatchSize));
+  }
+
+  // Clusters points around a few random hot spots.
+  Float64List _randomPoints(int count) {
+    final Float64List values = Float64List(count * 3);
+    final List<LatLng> hotSpots = List<LatLng>.generate(
+        5,
+        (_) => LatLng(_kCenter.latitude + (_random.nextDouble() - 0.5) * 0.2,
+            _kCenter.longitude + (_random.nextDouble() - 0.5) * 0.3));
+    for (int i = 0; i < count; i++) {
+      final LatLng hotSpot = hotSpots[_random.nextInt(hotSpots.length)];
+      final double distance = _random.nextDouble() * _random.nextDouble();
+      final double angle = _random.nextDouble() * 2 * pi;
+      values[3 * i] = hotSpot.latitude + distance * 0.03 * sin(angle);
+      values[3 * i + 1] = hotSpot.longitude + distance * 0.05 * cos(angle);
+      values[3 * i + 2] = 1.0;
+    }
+    return values;
+  }
+
+  void _addPoints() {
+    setState(() {
+      _points = _points.appended(_randomPoints(_kBatchSize));
+    });
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    // ignore: prefer_collection_literals
+    final Set<Heatmap> heatmaps = Set<Heatmap>()
+      ..add(Heatmap(
+        heatmapId: HeatmapId('density'),
+        points: _points,
+        radius: 30,
+      ));
+    return Column(
+      crossAxisAlignment: CrossAxisAlignment.stretch,
+      children: <Widget>[
+        Expanded(
+          child: GoogleMap(
+            initialCameraPosition: const CameraPosition(
+              target: _kCenter,
+              zoom: 10.0,
+            ),
+            heatmaps: heatmaps,
+          ),
+        ),
+        Padding(
+          padding: const EdgeInsets.all(8.0),
+          child: Row(
+            mainAxisAlignment: MainAxisAlignment.spaceBetween,
+            children: <Widget>[
+              Text('${_points.length} points'),
+              FlatButton(
+                child: const Text('Add $_kBatchSize points'),
+                onPressed: _addPoints,
+              ),
+            ],
+          ),
+        ),
+      ],
+    );
+  }
+}
@@ -4,8 +4,11 @@
 
 import 'package:flutter/material.dart';
 import 'animate_camera.dart';
+import 'cluster_markers.dart';
+import 'heatmap.dart';
 import 'map_click.dart';
 import 'map_coordinates.dart';
+import 'map_snapshots.dart';
 import 'map_ui.dart';
 import 'marker_icons.dart';
 import 'move_camera.dart';
@@ -16,6 +19,8 @@ import 'place_marker.dart';
 import 'place_polygon.dart';
 import 'place_polyline.dart';
 import 'scrolling_map.dart';
+import 'simplify_polyline.dart';
+import 'tile_overlay.dart';
 
 final List<Page> _allPages = <Page>[
   MapUiPage(),
@@ -25,11 +30,16 @@ final List<Page> _allPages = <Page>[
   MoveCameraPage(),
   PlaceMarkerPage(),
   MarkerIconsPage(),
+  ClusterMarkersPage(),
   ScrollingMapPage(),
   PlacePolylinePage(),
+  SimplifyPolylinePage(),
   PlacePolygonPage(),
   PlaceCirclePage(),
   PaddingPage(),
+  TileOverlayPage(),
+  HeatmapPage(),
+  MapSnapshotsPage(),
 ];
 
 class MapsDemo extends StatelessWidget {
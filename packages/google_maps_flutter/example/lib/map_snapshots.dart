@@ -0,0 +1,97 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:typed_data';
+
+import 'package:flutter/material.dart';
+import 'package:google_maps_flutter/google_maps_flutter.dart';
+
+import 'page.dart';
+
+class MapSnapshotsPage extends Page {
+  MapSnapshotsPage() : super(const Icon(Icons.photo_library), 'Map snapshots');
+
+  @override
+  Widget build(BuildContext context) {
+    return const MapSnapshotsBody();
+  }
+}
+
+class MapSnapshotsBody extends StatefulWidget {
+  const MapSnapshotsBody();
+
+  @override
+  State<StatefulWidget> createState() => MapSnapshotsBodyState();
+}
+
+const List<String> _kCityNames = <String>[
+  'Amsterdam',
+  'Berlin',
+  'Lisbon',
+  'London',
+  'Paris',
+  'Rome',
+  'Vienna',
+  'Zurich',
+];
+
+const List<LatLng> _kCities = <LatLng>[
+  LatLng(52.3676, 4.9041),
+  LatLng(52.5200, 13.4050),
+  LatLng(38.7223, -9.1393),
+  LatLng(51.5074, -0.1278),
+  LatLng(48.8566, 2.3522),
+  LatLng(41.9028, 12.4964),
+  LatLng(48.2082, 16.3738),
+  LatLng(47.3769, 8.5417),
+];
+
+const Size _kThumbnailSize = Size(96.0, 64.0);
+
+/// Shows a list of map thumbnails, rendered without a [GoogleMap] each.
+class MapSnapshotsBodyState extends State<MapSnapshotsBody> {
+  final Map<int, Future<Uint8List>> _thumbnails = <int, Future<Uint8List>>{};
+
+  Future<Uint8List> _thumbnail(int index) {
+    return _thumbnails.putIfAbsent(
+        index,
+        () => MapSnapshotter.takeSnapshot(
+              cameraPosition: CameraPosition(target: _kCities[index], zoom: 11),
+              size: _kThumbnailSize,
+              format: SnapshotFormat.jpeg,
+              quality: 80,
+            ));
+  }
+
+  @override
+  void dispose() {
+    MapSnapshotter.releaseRenderers();
+    super.dispose();
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    return ListView.builder(
+      itemCount: _kCities.length,
+      itemBuilder: (BuildContext context, int index) {
+        return ListTile(
+          leading: SizedBox.fromSize(
+            size: _kThumbnailSize,
+            child: FutureBuilder<Uint8List>(
+              future: _thumbnail(index),
+              builder: (BuildContext context,
+                  AsyncSnapshot<Uint8List> snapshot) {
+                if (!snapshot.hasData) {
+                  return Container(color: Colors.grey[300]);
+                }
+                return Image.memory(snapshot.data, fit: BoxFit.cover);
+              },
+            ),
+          ),
+          title: Text(_kCityNames[index]),
+        );
+      },
+    );
+  }
+}
@@ -0,0 +1,87 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:math';
+import 'dart:typed_data';
+
+import 'package:flutter/material.dart';
+import 'package:google_maps_flutter/google_maps_flutter.dart';
+
+import 'page.dart';
+
+class SimplifyPolylinePage extends Page {
+  SimplifyPolylinePage()
+      : super(const Icon(Icons.timeline), 'Simplify long polyline');
+
+  @override
+  Widget build(BuildContext context) {
+    return const SimplifyPolylineBody();
+  }
+}
+
+class SimplifyPolylineBody extends StatefulWidget {
+  const SimplifyPolylineBody();
+
+  @override
+  State<StatefulWidget> createState() => SimplifyPolylineBodyState();
+}
+
+const LatLng _kStart = LatLng(47.3769, 8.5417);
+const int _kPointCount = 500000;
+
+/// Draws a random walk of many points, with and without simplification.
+class SimplifyPolylineBodyState extends State<SimplifyPolylineBody> {
+  final PackedLatLngList _points = _randomWalk(_kPointCount);
+  bool _simplify = true;
+
+  static PackedLatLngList _randomWalk(int count) {
+    final Random random = Random(0);
+    final Float64List coordinates = Float64List(count * 2);
+    double latitude = _kStart.latitude;
+    double longitude = _kStart.longitude;
+    for (int i = 0; i < count; i++) {
+      latitude += (random.nextDouble() - 0.5) * 2e-4;
+      longitude += (random.nextDouble() - 0.3) * 2e-4;
+      coordinates[2 * i] = latitude;
+      coordinates[2 * i + 1] = longitude;
+    }
+    return PackedLatLngList(coordinates);
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    // ignore: prefer_collection_literals
+    final Set<Polyline> polylines = Set<Polyline>()
+      ..add(Polyline(
+        polylineId: PolylineId('track'),
+        points: _points,
+        color: Colors.orange,
+        width: 3,
+        simplificationTolerance: _simplify ? 1.0 : 0.0,
+      ));
+    return Column(
+      crossAxisAlignment: CrossAxisAlignment.stretch,
+      children: <Widget>[
+        Expanded(
+          child: GoogleMap(
+            initialCameraPosition: const CameraPosition(
+              target: _kStart,
+              zoom: 9.0,
+            ),
+            polylines: polylines,
+          ),
+        ),
+        SwitchListTile(
+          title: const Text('Simplify $_kPointCount points'),
+          value: _simplify,
+          onChanged: (bool value) {
+            setState(() {
+              _simplify = value;
+            });
+          },
+        ),
+      ],
+    );
+  }
+}
@@ -0,0 +1,116 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:typed_data';
+import 'dart:ui' as ui;
+
+import 'package:flutter/material.dart';
+import 'package:google_maps_flutter/google_maps_flutter.dart';
+
+import 'page.dart';
+
+class TileOverlayPage extends Page {
+  TileOverlayPage() : super(const Icon(Icons.map), 'Tile overlay');
+
+  @override
+  Widget build(BuildContext context) {
+    return const TileOverlayBody();
+  }
+}
+
+class TileOverlayBody extends StatefulWidget {
+  const TileOverlayBody();
+
+  @override
+  State<StatefulWidget> createState() => TileOverlayBodyState();
+}
+
+class TileOverlayBodyState extends State<TileOverlayBody> {
+  GoogleMapController controller;
+  final _DebugTileProvider _tileProvider = _DebugTileProvider();
+  bool _prefetch = true;
+
+  @override
+  Widget build(BuildContext context) {
+    // ignore: prefer_collection_literals
+    final Set<TileOverlay> tileOverlays = Set<TileOverlay>()
+      ..add(TileOverlay(
+        tileOverlayId: TileOverlayId('debug_tiles'),
+        tileProvider: _tileProvider,
+        diskCacheSize: 16 * 1024 * 1024,
+        prefetchAdjacentZoomLevels: _prefetch,
+      ));
+    return Column(
+      crossAxisAlignment: CrossAxisAlignment.stretch,
+      children: <Widget>[
+        Expanded(
+          child: GoogleMap(
+            initialCameraPosition: const CameraPosition(
+              target: LatLng(59.935460, 30.325177),
+              zoom: 7.0,
+            ),
+            tileOverlays: tileOverlays,
+            onMapCreated: (GoogleMapController controller) {
+              this.controller = controller;
+            },
+          ),
+        ),
+        SwitchListTile(
+          title: Text('Prefetch adjacent zoom levels '
+              '(${_tileProvider.count} tiles drawn)'),
+          value: _prefetch,
+          onChanged: (bool value) {
+            setState(() {
+              _prefetch = value;
+            });
+          },
+        ),
+        FlatButton(
+          child: const Text('Clear tile cache'),
+          onPressed: () {
+            controller?.clearTileCache(TileOverlayId('debug_tiles'));
+          },
+        ),
+      ],
+    );
+  }
+}
+
+/// Draws the coordinates of every tile over a red border.
+class _DebugTileProvider implements TileProvider {
+  static const int _size = 256;
+  static final Paint _borderPaint = Paint()
+    ..color = Colors.red
+    ..strokeWidth = 2.0
+    ..style = PaintingStyle.stroke;
+
+  int count = 0;
+
+  @override
+  Future<Tile> getTile(int x, int y, int zoom) async {
+    count++;
+    final ui.PictureRecorder recorder = ui.PictureRecorder();
+    final Canvas canvas = Canvas(recorder);
+    final TextPainter textPainter = TextPainter(
+      text: TextSpan(
+        text: '$x,$y\nzoom $zoom',
+        style: const TextStyle(color: Colors.red, fontSize: 20.0),
+      ),
+      textAlign: TextAlign.center,
+      textDirection: TextDirection.ltr,
+    )..layout(minWidth: 0.0, maxWidth: _size.toDouble());
+    textPainter.paint(
+        canvas,
+        Offset((_size - textPainter.width) / 2,
+            (_size - textPainter.height) / 2));
+    canvas.drawRect(
+        Rect.fromLTRB(0.0, 0.0, _size.toDouble(), _size.toDouble()),
+        _borderPaint);
+    final ui.Image image =
+        await recorder.endRecording().toImage(_size, _size);
+    final ByteData data =
+        await image.toByteData(format: ui.ImageByteFormat.png);
+    return Tile(_size, _size, data.buffer.asUint8List());
+  }
+}
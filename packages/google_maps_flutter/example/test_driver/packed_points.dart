@@ -0,0 +1,61 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+// Measures how long the points of a long polyline take to encode and decode,
+// as nested lists and packed into a Float64List. Run with:
+//
+//   flutter drive test_driver/packed_points.dart
+
+import 'dart:async';
+import 'dart:convert';
+import 'dart:typed_data';
+
+import 'package:flutter/services.dart';
+import 'package:flutter/widgets.dart';
+import 'package:flutter_driver/driver_extension.dart';
+import 'package:google_maps_flutter/google_maps_flutter.dart';
+
+const int _kPoints = 100000;
+const int _kIterations = 10;
+const StandardMethodCodec _codec = StandardMethodCodec();
+
+void main() {
+  final Completer<String> completer = Completer<String>();
+  enableFlutterDriverExtension(handler: (_) => completer.future);
+  runApp(Container());
+  completer.complete(json.encode(_runBenchmark()));
+}
+
+Map<String, int> _runBenchmark() {
+  final List<LatLng> points = List<LatLng>.generate(
+      _kPoints, (int i) => LatLng(48.0 + i * 1e-5, 11.0 + i * 2e-5));
+  return <String, int>{
+    'nestedMedianUs': _medianMicros(() => points
+        .map((LatLng point) => <double>[point.latitude, point.longitude])
+        .toList()),
+    'packedMedianUs': _medianMicros(() {
+      final Float64List packed = Float64List(points.length * 2);
+      for (int i = 0; i < points.length; i++) {
+        packed[2 * i] = points[i].latitude;
+        packed[2 * i + 1] = points[i].longitude;
+      }
+      return packed;
+    }),
+  };
+}
+
+/// Times converting the points with [toArguments] and sending them through
+/// the codec both ways.
+int _medianMicros(dynamic toArguments()) {
+  final List<int> times = <int>[];
+  for (int i = 0; i < _kIterations; i++) {
+    final Stopwatch stopwatch = Stopwatch()..start();
+    final ByteData message = _codec
+        .encodeMethodCall(MethodCall('polylines#update', toArguments()));
+    _codec.decodeMethodCall(message);
+    times.add(stopwatch.elapsedMicroseconds);
+  }
+  times.sort();
+  return times[times.length ~/ 2];
+}
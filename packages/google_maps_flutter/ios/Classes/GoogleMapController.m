@@ -147,6 +147,35 @@ static double ToDouble(NSNumber* data) { return [FLTGoogleMapJsonConversions toD
                                  message:@"getVisibleRegion called prior to map initialization"
                                  details:nil]);
     }
+  } else if ([call.method isEqualToString:@"map#takeSnapshot"]) {
+    if (_mapView != nil) {
+      NSDictionary* arguments = call.arguments;
+      CGSize size = _mapView.bounds.size;
+      CGFloat scale = 1;
+      if (arguments[@"width"] != [NSNull null] && arguments[@"width"] != nil) {
+        scale = MIN(scale, ToDouble(arguments[@"width"]) / size.width);
+      }
+      if (arguments[@"height"] != [NSNull null] && arguments[@"height"] != nil) {
+        scale = MIN(scale, ToDouble(arguments[@"height"]) / size.height);
+      }
+      CGRect rect = CGRectMake(0, 0, size.width * scale, size.height * scale);
+      UIGraphicsBeginImageContextWithOptions(rect.size, YES, 0);
+      [_mapView drawViewHierarchyInRect:rect afterScreenUpdates:YES];
+      UIImage* image = UIGraphicsGetImageFromCurrentImageContext();
+      UIGraphicsEndImageContext();
+      // WebP is not supported on iOS, PNG is used instead.
+      NSData* data;
+      if ([arguments[@"format"] isEqualToString:@"jpeg"]) {
+        data = UIImageJPEGRepresentation(image, ToDouble(arguments[@"quality"]) / 100);
+      } else {
+        data = UIImagePNGRepresentation(image);
+      }
+      result([FlutterStandardTypedData typedDataWithBytes:data]);
+    } else {
+      result([FlutterError errorWithCode:@"GoogleMap uninitialized"
+                                 message:@"takeSnapshot called prior to map initialization"
+                                 details:nil]);
+    }
   } else if ([call.method isEqualToString:@"map#waitForMap"]) {
     result(nil);
   } else if ([call.method isEqualToString:@"markers#update"]) {
@@ -205,6 +234,12 @@ static double ToDouble(NSNumber* data) { return [FLTGoogleMapJsonConversions toD
       [_circlesController removeCircleIds:circleIdsToRemove];
     }
     result(nil);
+  } else if ([call.method isEqualToString:@"tileOverlays#update"]) {
+    // Tile overlays are not supported on iOS yet.
+    result(nil);
+  } else if ([call.method isEqualToString:@"heatmaps#update"]) {
+    // Heatmaps are not supported on iOS yet.
+    result(nil);
   } else if ([call.method isEqualToString:@"map#isCompassEnabled"]) {
     NSNumber* isCompassEnabled = @(_mapView.settings.compassButton);
     result(isCompassEnabled);
@@ -44,7 +44,19 @@
                          alpha:((float)((value & 0xFF000000) >> 24)) / 255.0];
 }
 
-+ (NSArray<CLLocation*>*)toPoints:(NSArray*)data {
++ (NSArray<CLLocation*>*)toPoints:(id)data {
+  if ([data isKindOfClass:[FlutterStandardTypedData class]]) {
+    // Packed as [latitude0, longitude0, latitude1, longitude1, ...].
+    FlutterStandardTypedData* typedData = data;
+    const double* packed = typedData.data.bytes;
+    NSUInteger count = typedData.elementCount / 2;
+    NSMutableArray* points = [[NSMutableArray alloc] initWithCapacity:count];
+    for (NSUInteger i = 0; i < count; i++) {
+      [points addObject:[[CLLocation alloc] initWithLatitude:packed[2 * i]
+                                                   longitude:packed[2 * i + 1]]];
+    }
+    return points;
+  }
   NSMutableArray* points = [[NSMutableArray alloc] init];
   for (unsigned i = 0; i < [data count]; i++) {
     NSNumber* latitude = data[i][0];
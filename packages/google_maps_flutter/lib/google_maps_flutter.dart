@@ -5,6 +5,7 @@
 library google_maps_flutter;
 
 import 'dart:async';
+import 'dart:collection';
 import 'dart:typed_data';
 import 'dart:ui';
 
@@ -19,6 +20,8 @@ part 'src/camera.dart';
 part 'src/cap.dart';
 part 'src/controller.dart';
 part 'src/google_map.dart';
+part 'src/heatmap.dart';
+part 'src/heatmap_updates.dart';
 part 'src/joint_type.dart';
 part 'src/marker.dart';
 part 'src/marker_updates.dart';
@@ -28,6 +31,10 @@ part 'src/polygon.dart';
 part 'src/polygon_updates.dart';
 part 'src/polyline.dart';
 part 'src/polyline_updates.dart';
+part 'src/snapshot.dart';
 part 'src/circle.dart';
 part 'src/circle_updates.dart';
+part 'src/tile.dart';
+part 'src/tile_overlay.dart';
+part 'src/tile_overlay_updates.dart';
 part 'src/ui.dart';
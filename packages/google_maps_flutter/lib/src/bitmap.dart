@@ -87,3 +87,46 @@ class BitmapDescriptor {
 
   dynamic _toJson() => _json;
 }
+
+/// Statistics of the cache that marker icons are decoded into.
+///
+/// Icons created with [BitmapDescriptor.fromBytes] are keyed by their
+/// content, so markers sharing an icon only decode it once.
+class IconCacheStats {
+  IconCacheStats._fromJson(Map<String, dynamic> json)
+      : hitCount = json['hitCount'],
+        missCount = json['missCount'],
+        evictionCount = json['evictionCount'],
+        entryCount = json['entryCount'],
+        sizeBytes = json['sizeBytes'],
+        maxSizeBytes = json['maxSizeBytes'];
+
+  /// Number of icons that were found in the cache.
+  final int hitCount;
+
+  /// Number of icons that had to be decoded.
+  final int missCount;
+
+  /// Number of icons dropped from the cache to stay within [maxSizeBytes].
+  final int evictionCount;
+
+  /// Number of icons currently in the cache.
+  final int entryCount;
+
+  /// Approximate memory used by the cached icons.
+  final int sizeBytes;
+
+  /// Memory bound of the cache.
+  final int maxSizeBytes;
+
+  /// Fraction of icon lookups that were found in the cache.
+  double get hitRate {
+    final int lookups = hitCount + missCount;
+    return lookups == 0 ? 0.0 : hitCount / lookups;
+  }
+
+  @override
+  String toString() =>
+      'IconCacheStats(hits: $hitCount, misses: $missCount, evictions: '
+      '$evictionCount, entries: $entryCount, size: $sizeBytes/$maxSizeBytes)';
+}
@@ -180,3 +180,21 @@ class CameraUpdate {
 
   dynamic _toJson() => _json;
 }
+
+/// Counts of the camera moves reported to and held back from
+/// [GoogleMap.onCameraMove], used to tune a [CameraMoveThrottle].
+class CameraMoveStats {
+  CameraMoveStats._fromJson(Map<String, dynamic> json)
+      : reportedCount = json['reportedCount'],
+        suppressedCount = json['suppressedCount'];
+
+  /// Number of camera moves reported to Dart.
+  final int reportedCount;
+
+  /// Number of camera moves that were held back by the throttle.
+  final int suppressedCount;
+
+  @override
+  String toString() => 'CameraMoveStats(reported: $reportedCount, '
+      'suppressed: $suppressedCount)';
+}
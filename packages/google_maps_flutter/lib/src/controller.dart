@@ -35,6 +35,9 @@ class GoogleMapController {
 
   final _GoogleMapState _googleMapState;
 
+  // The last markers#update call.
+  Future<void> _markersUpdate = Future<void>.value();
+
   Future<dynamic> _handleMethodCall(MethodCall call) async {
     switch (call.method) {
       case 'camera#onMoveStarted':
@@ -69,6 +72,14 @@ class GoogleMapController {
       case 'circle#onTap':
         _googleMapState.onCircleTap(call.arguments['circleId']);
         break;
+      case 'tileOverlay#getTile':
+        final Tile tile = await _googleMapState.onGetTile(
+          call.arguments['tileOverlayId'],
+          call.arguments['x'],
+          call.arguments['y'],
+          call.arguments['zoom'],
+        );
+        return (tile ?? TileProvider.noTile)._toJson();
       case 'map#onTap':
         _googleMapState.onTap(LatLng._fromJson(call.arguments['position']));
         break;
@@ -102,15 +113,28 @@ class GoogleMapController {
   /// Change listeners are notified once the update has been made on the
   /// platform side.
   ///
-  /// The returned [Future] completes after listeners have been notified.
+  /// The returned [Future] completes after listeners have been notified. On
+  /// Android, that is once every marker of the update is on the map, which
+  /// takes several frames for large updates.
   Future<void> _updateMarkers(_MarkerUpdates markerUpdates) async {
     assert(markerUpdates != null);
-    await channel.invokeMethod<void>(
+    _markersUpdate = channel.invokeMethod<void>(
       'markers#update',
       markerUpdates._toMap(),
     );
+    await _markersUpdate;
   }
 
+  /// Waits until the last change of [GoogleMap.markers] is on the map.
+  ///
+  /// On Android, large marker changes are applied over several frames, so the
+  /// markers of a rebuilt [GoogleMap] are not all shown right away. Wait for
+  /// this before depending on them being shown, for example before calling
+  /// [takeSnapshot] or before measuring how long the markers take to appear.
+  ///
+  /// Completes with an error if the platform could not apply the change.
+  Future<void> waitForMarkers() => _markersUpdate;
+
   /// Updates polygon configuration.
   ///
   /// Change listeners are notified once the update has been made on the
@@ -153,6 +177,43 @@ class GoogleMapController {
     );
   }
 
+  /// Updates tile overlay configuration.
+  ///
+  /// Change listeners are notified once the update has been made on the
+  /// platform side.
+  ///
+  /// The returned [Future] completes after listeners have been notified.
+  Future<void> _updateTileOverlays(
+      _TileOverlayUpdates tileOverlayUpdates) async {
+    assert(tileOverlayUpdates != null);
+    await channel.invokeMethod<void>(
+      'tileOverlays#update',
+      tileOverlayUpdates._toMap(),
+    );
+  }
+
+  /// Updates heatmap configuration.
+  ///
+  /// Change listeners are notified once the update has been made on the
+  /// platform side.
+  ///
+  /// The returned [Future] completes after listeners have been notified.
+  Future<void> _updateHeatmaps(_HeatmapUpdates heatmapUpdates) async {
+    assert(heatmapUpdates != null);
+    await channel.invokeMethod<void>(
+      'heatmaps#update',
+      heatmapUpdates._toMap(),
+    );
+  }
+
+  /// Drops the tiles of a [TileOverlay] that were loaded or cached on disk,
+  /// so that they are requested again.
+  Future<void> clearTileCache(TileOverlayId tileOverlayId) async {
+    assert(tileOverlayId != null);
+    await channel.invokeMethod<void>('tileOverlays#clearTileCache',
+        <String, dynamic>{'tileOverlayId': tileOverlayId.value});
+  }
+
   /// Starts an animated change of the map camera position.
   ///
   /// The returned [Future] completes after the change has been started on the
@@ -204,4 +265,36 @@ class GoogleMapController {
 
     return LatLngBounds(northeast: northeast, southwest: southwest);
   }
+
+  /// Returns an image of what the map currently shows.
+  ///
+  /// When [size] is given, the image is scaled down to fit in it, in logical
+  /// pixels. The image is encoded off the platform thread.
+  Future<Uint8List> takeSnapshot({
+    Size size,
+    SnapshotFormat format = SnapshotFormat.png,
+    int quality = 100,
+  }) async {
+    return await channel.invokeMethod<Uint8List>(
+        'map#takeSnapshot', _snapshotOptionsToJson(size, format, quality));
+  }
+
+  /// Returns statistics of the cache of decoded marker icons.
+  ///
+  /// The cache is shared by all maps in the process. Android only.
+  Future<IconCacheStats> getIconCacheStats() async {
+    final Map<String, dynamic> stats =
+        await channel.invokeMapMethod<String, dynamic>('map#getIconCacheStats');
+    return IconCacheStats._fromJson(stats);
+  }
+
+  /// Returns how many camera moves were reported to and held back from
+  /// [GoogleMap.onCameraMove] by [GoogleMap.cameraMoveThrottle].
+  ///
+  /// Android only.
+  Future<CameraMoveStats> getCameraMoveStats() async {
+    final Map<String, dynamic> stats = await channel
+        .invokeMapMethod<String, dynamic>('map#getCameraMoveStats');
+    return CameraMoveStats._fromJson(stats);
+  }
 }
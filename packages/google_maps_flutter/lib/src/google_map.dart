@@ -35,10 +35,15 @@ class GoogleMap extends StatefulWidget {
     /// If no padding is specified default padding will be 0.
     this.padding = const EdgeInsets.all(0),
     this.indoorViewEnabled = false,
+    this.markerClusteringEnabled = false,
+    this.viewportCullingEnabled = false,
+    this.cameraMoveThrottle = CameraMoveThrottle.unthrottled,
     this.markers,
     this.polygons,
     this.polylines,
     this.circles,
+    this.tileOverlays,
+    this.heatmaps,
     this.onCameraMoveStarted,
     this.onCameraMove,
     this.onCameraIdle,
@@ -96,6 +101,16 @@ class GoogleMap extends StatefulWidget {
   /// Circles to be placed on the map.
   final Set<Circle> circles;
 
+  /// Tile overlays to be placed on the map.
+  ///
+  /// Android only.
+  final Set<TileOverlay> tileOverlays;
+
+  /// Heatmaps to be placed on the map.
+  ///
+  /// Android only.
+  final Set<Heatmap> heatmaps;
+
   /// Called when the camera starts moving.
   ///
   /// This can be initiated by the following:
@@ -164,6 +179,31 @@ class GoogleMap extends StatefulWidget {
   /// Enables or disables the indoor view from the map
   final bool indoorViewEnabled;
 
+  /// True if markers that are close to each other on screen should be shown
+  /// as a single cluster marker labelled with their count.
+  ///
+  /// Clusters are recomputed when the camera stops moving, and only the
+  /// visible markers that are not part of a cluster are added to the platform
+  /// map, so this is suited to sets of many thousands of markers. Tapping a
+  /// cluster zooms the camera in on it. Clustering is disabled at the maximum
+  /// zoom level.
+  ///
+  /// Android only.
+  final bool markerClusteringEnabled;
+
+  /// True if markers, polygons, polylines and circles should only be added to
+  /// the platform map while they are near the visible region.
+  ///
+  /// The platform side keeps every object in a spatial index and adds or
+  /// removes the underlying map objects when the camera stops moving, which
+  /// bounds the number of native objects to what is in view.
+  ///
+  /// Android only.
+  final bool viewportCullingEnabled;
+
+  /// Limits how often [onCameraMove] is called while the camera moves.
+  final CameraMoveThrottle cameraMoveThrottle;
+
   /// Which gestures should be consumed by the map.
   ///
   /// It is possible for other gesture recognizers to be competing with the map on pointer
@@ -187,6 +227,9 @@ class _GoogleMapState extends State<GoogleMap> {
   Map<PolygonId, Polygon> _polygons = <PolygonId, Polygon>{};
   Map<PolylineId, Polyline> _polylines = <PolylineId, Polyline>{};
   Map<CircleId, Circle> _circles = <CircleId, Circle>{};
+  Map<TileOverlayId, TileOverlay> _tileOverlays =
+      <TileOverlayId, TileOverlay>{};
+  Map<HeatmapId, Heatmap> _heatmaps = <HeatmapId, Heatmap>{};
   _GoogleMapOptions _googleMapOptions;
 
   @override
@@ -198,6 +241,8 @@ class _GoogleMapState extends State<GoogleMap> {
       'polygonsToAdd': _serializePolygonSet(widget.polygons),
       'polylinesToAdd': _serializePolylineSet(widget.polylines),
       'circlesToAdd': _serializeCircleSet(widget.circles),
+      'tileOverlaysToAdd': _serializeTileOverlaySet(widget.tileOverlays),
+      'heatmapsToAdd': _serializeHeatmapSet(widget.heatmaps),
     };
     if (defaultTargetPlatform == TargetPlatform.android) {
       return AndroidView(
@@ -229,6 +274,8 @@ class _GoogleMapState extends State<GoogleMap> {
     _polygons = _keyByPolygonId(widget.polygons);
     _polylines = _keyByPolylineId(widget.polylines);
     _circles = _keyByCircleId(widget.circles);
+    _tileOverlays = _keyByTileOverlayId(widget.tileOverlays);
+    _heatmaps = _keyByHeatmapId(widget.heatmaps);
   }
 
   @override
@@ -239,6 +286,8 @@ class _GoogleMapState extends State<GoogleMap> {
     _updatePolygons();
     _updatePolylines();
     _updateCircles();
+    _updateTileOverlays();
+    _updateHeatmaps();
   }
 
   void _updateOptions() async {
@@ -281,6 +330,20 @@ class _GoogleMapState extends State<GoogleMap> {
     _circles = _keyByCircleId(widget.circles);
   }
 
+  void _updateTileOverlays() async {
+    final GoogleMapController controller = await _controller.future;
+    controller._updateTileOverlays(_TileOverlayUpdates.from(
+        _tileOverlays.values.toSet(), widget.tileOverlays));
+    _tileOverlays = _keyByTileOverlayId(widget.tileOverlays);
+  }
+
+  void _updateHeatmaps() async {
+    final GoogleMapController controller = await _controller.future;
+    controller._updateHeatmaps(
+        _HeatmapUpdates.from(_heatmaps.values.toSet(), widget.heatmaps));
+    _heatmaps = _keyByHeatmapId(widget.heatmaps);
+  }
+
   Future<void> onPlatformViewCreated(int id) async {
     final GoogleMapController controller = await GoogleMapController.init(
       id,
@@ -321,6 +384,17 @@ class _GoogleMapState extends State<GoogleMap> {
     _circles[circleId].onTap();
   }
 
+  Future<Tile> onGetTile(String tileOverlayIdParam, int x, int y, int zoom) {
+    assert(tileOverlayIdParam != null);
+    final TileOverlayId tileOverlayId = TileOverlayId(tileOverlayIdParam);
+    final TileProvider tileProvider =
+        _tileOverlays[tileOverlayId]?.tileProvider;
+    if (tileProvider == null) {
+      return Future<Tile>.value(TileProvider.noTile);
+    }
+    return tileProvider.getTile(x, y, zoom);
+  }
+
   void onInfoWindowTap(String markerIdParam) {
     assert(markerIdParam != null);
     final MarkerId markerId = MarkerId(markerIdParam);
@@ -359,11 +433,14 @@ class _GoogleMapOptions {
     this.scrollGesturesEnabled,
     this.tiltGesturesEnabled,
     this.trackCameraPosition,
+    this.cameraMoveThrottle,
     this.zoomGesturesEnabled,
     this.myLocationEnabled,
     this.myLocationButtonEnabled,
     this.padding,
     this.indoorViewEnabled,
+    this.markerClusteringEnabled,
+    this.viewportCullingEnabled,
   });
 
   static _GoogleMapOptions fromWidget(GoogleMap map) {
@@ -377,11 +454,14 @@ class _GoogleMapOptions {
       scrollGesturesEnabled: map.scrollGesturesEnabled,
       tiltGesturesEnabled: map.tiltGesturesEnabled,
       trackCameraPosition: map.onCameraMove != null,
+      cameraMoveThrottle: map.cameraMoveThrottle,
       zoomGesturesEnabled: map.zoomGesturesEnabled,
       myLocationEnabled: map.myLocationEnabled,
       myLocationButtonEnabled: map.myLocationButtonEnabled,
       padding: map.padding,
       indoorViewEnabled: map.indoorViewEnabled,
+      markerClusteringEnabled: map.markerClusteringEnabled,
+      viewportCullingEnabled: map.viewportCullingEnabled,
     );
   }
 
@@ -403,6 +483,8 @@ class _GoogleMapOptions {
 
   final bool trackCameraPosition;
 
+  final CameraMoveThrottle cameraMoveThrottle;
+
   final bool zoomGesturesEnabled;
 
   final bool myLocationEnabled;
@@ -413,6 +495,10 @@ class _GoogleMapOptions {
 
   final bool indoorViewEnabled;
 
+  final bool markerClusteringEnabled;
+
+  final bool viewportCullingEnabled;
+
   Map<String, dynamic> toMap() {
     final Map<String, dynamic> optionsMap = <String, dynamic>{};
 
@@ -432,6 +518,7 @@ class _GoogleMapOptions {
     addIfNonNull('tiltGesturesEnabled', tiltGesturesEnabled);
     addIfNonNull('zoomGesturesEnabled', zoomGesturesEnabled);
     addIfNonNull('trackCameraPosition', trackCameraPosition);
+    addIfNonNull('cameraMoveThrottle', cameraMoveThrottle?._toJson());
     addIfNonNull('myLocationEnabled', myLocationEnabled);
     addIfNonNull('myLocationButtonEnabled', myLocationButtonEnabled);
     addIfNonNull('padding', <double>[
@@ -441,6 +528,8 @@ class _GoogleMapOptions {
       padding?.right,
     ]);
     addIfNonNull('indoorEnabled', indoorViewEnabled);
+    addIfNonNull('markerClusteringEnabled', markerClusteringEnabled);
+    addIfNonNull('viewportCullingEnabled', viewportCullingEnabled);
     return optionsMap;
   }
 
@@ -0,0 +1,290 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of google_maps_flutter;
+
+/// Uniquely identifies a [Heatmap] among [GoogleMap] heatmaps.
+///
+/// This does not have to be globally unique, only unique among the list.
+@immutable
+class HeatmapId {
+  HeatmapId(this.value) : assert(value != null);
+
+  /// value of the [HeatmapId].
+  final String value;
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final HeatmapId typedOther = other;
+    return value == typedOther.value;
+  }
+
+  @override
+  int get hashCode => value.hashCode;
+
+  @override
+  String toString() {
+    return 'HeatmapId{value: $value}';
+  }
+}
+
+// Identifies a WeightedLatLngList and the lists it was appended to.
+class _WeightedLatLngListLineage {
+  _WeightedLatLngListLineage(this.parent);
+
+  final _WeightedLatLngListLineage parent;
+}
+
+/// An unmodifiable list of weighted points backed by packed values.
+///
+/// The values are sent to the platform as they are. A list created with
+/// [appended] remembers what it was appended to, so that a [Heatmap] whose
+/// points grow only sends the new points.
+class WeightedLatLngList {
+  /// Creates a list from [values] laid out as
+  /// `[latitude0, longitude0, weight0, latitude1, longitude1, weight1, ...]`.
+  ///
+  /// The list is a view of [values], which should not be modified afterwards.
+  WeightedLatLngList(this.values)
+      : assert(values != null),
+        assert(values.length % 3 == 0),
+        _lineage = _WeightedLatLngListLineage(null);
+
+  WeightedLatLngList._appended(this.values, WeightedLatLngList parent)
+      : _lineage = _WeightedLatLngListLineage(parent._lineage);
+
+  /// The packed values of the points.
+  final Float64List values;
+
+  final _WeightedLatLngListLineage _lineage;
+
+  /// The number of points.
+  int get length => values.length ~/ 3;
+
+  /// Returns a new list with the points of this list followed by [values],
+  /// laid out like the [values] of this list.
+  WeightedLatLngList appended(Float64List values) {
+    assert(values != null);
+    assert(values.length % 3 == 0);
+    final Float64List result = Float64List(this.values.length + values.length)
+      ..setAll(0, this.values)
+      ..setAll(this.values.length, values);
+    return WeightedLatLngList._appended(result, this);
+  }
+
+  // Whether this list was created by appending points to [other], directly
+  // or through intermediate lists.
+  bool _isAppendedTo(WeightedLatLngList other) {
+    _WeightedLatLngListLineage lineage = _lineage.parent;
+    while (lineage != null) {
+      if (identical(lineage, other._lineage)) {
+        return true;
+      }
+      lineage = lineage.parent;
+    }
+    return false;
+  }
+}
+
+/// The colors of a [Heatmap], from the lowest to the highest intensity.
+@immutable
+class HeatmapGradient {
+  /// Creates a gradient where [colors] start at the intensities in
+  /// [startPoints], given as fractions of the maximum intensity.
+  ///
+  /// Both lists must have the same length, and [startPoints] must be
+  /// increasing. Intensities below the first start point fade in from
+  /// transparent.
+  const HeatmapGradient({
+    @required this.colors,
+    @required this.startPoints,
+    this.colorMapSize = 256,
+  })  : assert(colors != null),
+        assert(startPoints != null),
+        assert(colorMapSize > 1);
+
+  /// The default gradient, from green to red.
+  static const HeatmapGradient standard = HeatmapGradient(
+    colors: <Color>[Color(0xff66e100), Color(0xffff0000)],
+    startPoints: <double>[0.2, 1.0],
+  );
+
+  /// The colors of the gradient.
+  final List<Color> colors;
+
+  /// The intensities at which the [colors] start, from 0.0 to 1.0.
+  final List<double> startPoints;
+
+  /// The number of distinct colors the gradient is sampled to.
+  final int colorMapSize;
+
+  dynamic _toJson() {
+    return <String, dynamic>{
+      'colors': colors.map<int>((Color color) => color.value).toList(),
+      'startPoints': startPoints,
+      'colorMapSize': colorMapSize,
+    };
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final HeatmapGradient typedOther = other;
+    return listEquals(colors, typedOther.colors) &&
+        listEquals(startPoints, typedOther.startPoints) &&
+        colorMapSize == typedOther.colorMapSize;
+  }
+
+  @override
+  int get hashCode =>
+      hashValues(hashList(colors), hashList(startPoints), colorMapSize);
+}
+
+/// Draws the density of weighted points over the map.
+///
+/// The points are rendered into tiles by the platform, on a background
+/// thread. Replacing [points] with a list created by
+/// [WeightedLatLngList.appended] only sends the added points.
+@immutable
+class Heatmap {
+  const Heatmap({
+    @required this.heatmapId,
+    @required this.points,
+    this.radius = 20,
+    this.opacity = 0.7,
+    this.gradient = HeatmapGradient.standard,
+    this.maxIntensity = 0.0,
+    this.zIndex = 0,
+    this.visible = true,
+  })  : assert(points != null),
+        assert(radius > 0),
+        assert(opacity >= 0.0 && opacity <= 1.0),
+        assert(gradient != null),
+        assert(maxIntensity >= 0.0);
+
+  /// Uniquely identifies a [Heatmap].
+  final HeatmapId heatmapId;
+
+  /// The weighted points of the heatmap.
+  final WeightedLatLngList points;
+
+  /// The radius, in pixels of a tile, over which every point is spread.
+  final int radius;
+
+  /// The opacity of the heatmap, from 0.0 (invisible) to 1.0 (opaque).
+  final double opacity;
+
+  /// The colors of the heatmap.
+  final HeatmapGradient gradient;
+
+  /// The intensity drawn with the last color of [gradient], or 0.0 to derive
+  /// it from the densest area of [points] at every zoom level.
+  final double maxIntensity;
+
+  /// The z-index of the heatmap, used to determine relative drawing order of
+  /// map overlays.
+  final int zIndex;
+
+  /// True if the heatmap is visible.
+  final bool visible;
+
+  /// Creates a new [Heatmap] object whose values are the same as this
+  /// instance, unless overwritten by the specified parameters.
+  Heatmap copyWith({
+    WeightedLatLngList pointsParam,
+    int radiusParam,
+    double opacityParam,
+    HeatmapGradient gradientParam,
+    double maxIntensityParam,
+    int zIndexParam,
+    bool visibleParam,
+  }) {
+    return Heatmap(
+      heatmapId: heatmapId,
+      points: pointsParam ?? points,
+      radius: radiusParam ?? radius,
+      opacity: opacityParam ?? opacity,
+      gradient: gradientParam ?? gradient,
+      maxIntensity: maxIntensityParam ?? maxIntensity,
+      zIndex: zIndexParam ?? zIndex,
+      visible: visibleParam ?? visible,
+    );
+  }
+
+  dynamic _toJson() {
+    final Map<String, dynamic> json = _optionsToJson();
+    json['points'] = points.values;
+    return json;
+  }
+
+  // Only sends the points added since [previous], when there are any.
+  dynamic _toChangeJson(Heatmap previous) {
+    final Map<String, dynamic> json = _optionsToJson();
+    if (identical(points, previous.points)) {
+      return json;
+    }
+    if (points._isAppendedTo(previous.points)) {
+      final Float64List values = points.values;
+      final int offset = previous.points.values.length;
+      json['pointsToAdd'] = Float64List.view(
+          values.buffer,
+          values.offsetInBytes + offset * Float64List.bytesPerElement,
+          values.length - offset);
+    } else {
+      json['points'] = points.values;
+    }
+    return json;
+  }
+
+  Map<String, dynamic> _optionsToJson() {
+    final Map<String, dynamic> json = <String, dynamic>{};
+
+    void addIfPresent(String fieldName, dynamic value) {
+      if (value != null) {
+        json[fieldName] = value;
+      }
+    }
+
+    addIfPresent('heatmapId', heatmapId.value);
+    addIfPresent('radius', radius);
+    addIfPresent('opacity', opacity);
+    addIfPresent('gradient', gradient._toJson());
+    addIfPresent('maxIntensity', maxIntensity);
+    addIfPresent('zIndex', zIndex);
+    addIfPresent('visible', visible);
+
+    return json;
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final Heatmap typedOther = other;
+    return heatmapId == typedOther.heatmapId;
+  }
+
+  @override
+  int get hashCode => heatmapId.hashCode;
+}
+
+Map<HeatmapId, Heatmap> _keyByHeatmapId(Iterable<Heatmap> heatmaps) {
+  if (heatmaps == null) {
+    return <HeatmapId, Heatmap>{};
+  }
+  return Map<HeatmapId, Heatmap>.fromEntries(heatmaps.map((Heatmap heatmap) =>
+      MapEntry<HeatmapId, Heatmap>(heatmap.heatmapId, heatmap)));
+}
+
+List<Map<String, dynamic>> _serializeHeatmapSet(Set<Heatmap> heatmaps) {
+  if (heatmaps == null) {
+    return null;
+  }
+  return heatmaps
+      .map<Map<String, dynamic>>((Heatmap h) => h._toJson())
+      .toList();
+}
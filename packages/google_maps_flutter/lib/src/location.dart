@@ -49,6 +49,42 @@ class LatLng {
   int get hashCode => hashValues(latitude, longitude);
 }
 
+/// An unmodifiable list of [LatLng]s backed by packed coordinates.
+///
+/// Use this for the points of long [Polyline]s and [Polygon]s: the
+/// coordinates are sent to the platform as they are, without creating a
+/// [LatLng] for every point.
+class PackedLatLngList extends ListBase<LatLng> {
+  /// Creates a list from [coordinates] laid out as
+  /// `[latitude0, longitude0, latitude1, longitude1, ...]`.
+  ///
+  /// The list is a view of [coordinates], which should not be modified
+  /// afterwards.
+  PackedLatLngList(this.coordinates)
+      : assert(coordinates != null),
+        assert(coordinates.length.isEven);
+
+  /// The packed coordinates of the points.
+  final Float64List coordinates;
+
+  @override
+  int get length => coordinates.length ~/ 2;
+
+  @override
+  set length(int newLength) {
+    throw UnsupportedError('Cannot change the length of a PackedLatLngList');
+  }
+
+  @override
+  LatLng operator [](int index) =>
+      LatLng(coordinates[2 * index], coordinates[2 * index + 1]);
+
+  @override
+  void operator []=(int index, LatLng value) {
+    throw UnsupportedError('Cannot modify a PackedLatLngList');
+  }
+}
+
 /// A latitude/longitude aligned rectangle.
 ///
 /// The rectangle conceptually includes all points (lat, lng) where
@@ -65,6 +65,9 @@ class Polygon {
   ///
   /// Line segments are drawn between consecutive points. A polygon is not closed by
   /// default; to form a closed polygon, the start and end points must be the same.
+  ///
+  /// Long lists of points are sent to the platform faster as a
+  /// [PackedLatLngList].
   final List<LatLng> points;
 
   /// True if the marker is visible.
@@ -152,10 +155,17 @@ class Polygon {
   @override
   int get hashCode => polygonId.hashCode;
 
+  // Packed as [latitude0, longitude0, latitude1, longitude1, ...] so that
+  // long point lists cross the platform channel as a single typed array.
   dynamic _pointsToJson() {
-    final List<dynamic> result = <dynamic>[];
-    for (final LatLng point in points) {
-      result.add(point._toJson());
+    if (points is PackedLatLngList) {
+      final PackedLatLngList packed = points;
+      return packed.coordinates;
+    }
+    final Float64List result = Float64List(points.length * 2);
+    for (int i = 0; i < points.length; i++) {
+      result[2 * i] = points[i].latitude;
+      result[2 * i + 1] = points[i].longitude;
     }
     return result;
   }
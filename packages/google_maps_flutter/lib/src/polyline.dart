@@ -39,6 +39,7 @@ class Polyline {
     this.jointType = JointType.mitered,
     this.points = const <LatLng>[],
     this.patterns = const <PatternItem>[],
+    this.simplificationTolerance = 0.0,
     this.startCap = Cap.buttCap,
     this.visible = true,
     this.width = 10,
@@ -84,8 +85,23 @@ class Polyline {
   ///
   /// Line segments are drawn between consecutive points. A polyline is not closed by
   /// default; to form a closed polyline, the start and end points must be the same.
+  ///
+  /// Long lists of points are sent to the platform faster as a
+  /// [PackedLatLngList].
   final List<LatLng> points;
 
+  /// The maximum distance in logical pixels that the drawn line may deviate
+  /// from [points], or 0 to always draw every point.
+  ///
+  /// When positive, the platform simplifies the points in the background for
+  /// every zoom level and draws the simplified line that matches the zoom
+  /// level whenever the camera stops moving. This keeps polylines with
+  /// hundreds of thousands of points smooth. A tolerance of 1 is visually
+  /// lossless.
+  ///
+  /// Android only.
+  final double simplificationTolerance;
+
   /// The cap at the start vertex of the polyline.
   ///
   /// The default start cap is ButtCap.
@@ -129,6 +145,7 @@ class Polyline {
     JointType jointTypeParam,
     List<PatternItem> patternsParam,
     List<LatLng> pointsParam,
+    double simplificationToleranceParam,
     Cap startCapParam,
     bool visibleParam,
     int widthParam,
@@ -144,6 +161,8 @@ class Polyline {
       jointType: jointTypeParam ?? jointType,
       patterns: patternsParam ?? patterns,
       points: pointsParam ?? points,
+      simplificationTolerance:
+          simplificationToleranceParam ?? simplificationTolerance,
       startCap: startCapParam ?? startCap,
       visible: visibleParam ?? visible,
       width: widthParam ?? width,
@@ -167,6 +186,7 @@ class Polyline {
     addIfPresent('endCap', endCap?._toJson());
     addIfPresent('geodesic', geodesic);
     addIfPresent('jointType', jointType?.value);
+    addIfPresent('simplificationTolerance', simplificationTolerance);
     addIfPresent('startCap', startCap?._toJson());
     addIfPresent('visible', visible);
     addIfPresent('width', width);
@@ -194,10 +214,17 @@ class Polyline {
   @override
   int get hashCode => polylineId.hashCode;
 
+  // Packed as [latitude0, longitude0, latitude1, longitude1, ...] so that
+  // long point lists cross the platform channel as a single typed array.
   dynamic _pointsToJson() {
-    final List<dynamic> result = <dynamic>[];
-    for (final LatLng point in points) {
-      result.add(point._toJson());
+    if (points is PackedLatLngList) {
+      final PackedLatLngList packed = points;
+      return packed.coordinates;
+    }
+    final Float64List result = Float64List(points.length * 2);
+    for (int i = 0; i < points.length; i++) {
+      result[2 * i] = points[i].latitude;
+      result[2 * i + 1] = points[i].longitude;
     }
     return result;
   }
@@ -0,0 +1,91 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of google_maps_flutter;
+
+/// The image format of a map snapshot.
+enum SnapshotFormat {
+  /// Lossless PNG.
+  png,
+
+  /// Lossy JPEG, with the quality given when taking the snapshot.
+  jpeg,
+
+  /// WebP, with the quality given when taking the snapshot.
+  ///
+  /// Android only, snapshots are encoded as PNG on iOS.
+  webp,
+}
+
+Map<String, dynamic> _snapshotOptionsToJson(
+    Size size, SnapshotFormat format, int quality) {
+  assert(format != null);
+  assert(quality >= 0 && quality <= 100);
+  final Map<String, dynamic> json = <String, dynamic>{};
+
+  void addIfPresent(String fieldName, dynamic value) {
+    if (value != null) {
+      json[fieldName] = value;
+    }
+  }
+
+  addIfPresent('width', size?.width);
+  addIfPresent('height', size?.height);
+  addIfPresent('format', const <String>['png', 'jpeg', 'webp'][format.index]);
+  addIfPresent('quality', quality);
+
+  return json;
+}
+
+/// Takes snapshots of maps without showing them.
+///
+/// Use this for map thumbnails, e.g. in list items, instead of a [GoogleMap]
+/// per thumbnail. The snapshots are rendered by a small pool of lite mode maps
+/// that are reused for every request, and encoded on a background thread.
+///
+/// Android only.
+class MapSnapshotter {
+  MapSnapshotter._();
+
+  static const MethodChannel _channel =
+      MethodChannel('plugins.flutter.io/google_maps_snapshotter');
+
+  /// Returns an image of the map at [cameraPosition], [size] logical pixels
+  /// large.
+  ///
+  /// The image is in physical pixels. Requests are served in order by the
+  /// first idle renderer.
+  static Future<Uint8List> takeSnapshot({
+    @required CameraPosition cameraPosition,
+    @required Size size,
+    MapType mapType = MapType.normal,
+    SnapshotFormat format = SnapshotFormat.png,
+    int quality = 100,
+  }) async {
+    assert(cameraPosition != null);
+    assert(size != null);
+    final Map<String, dynamic> arguments =
+        _snapshotOptionsToJson(size, format, quality);
+    arguments['cameraPosition'] = cameraPosition._toMap();
+    arguments['mapType'] = mapType.index;
+    return await _channel.invokeMethod<Uint8List>(
+        'snapshotter#takeSnapshot', arguments);
+  }
+
+  /// Sets how many maps may render snapshots at the same time.
+  ///
+  /// Defaults to 2. Each renderer keeps a map in memory while it is idle.
+  static Future<void> setMaxRenderers(int maxRenderers) async {
+    assert(maxRenderers > 0);
+    await _channel.invokeMethod<void>('snapshotter#setMaxRenderers',
+        <String, dynamic>{'maxRenderers': maxRenderers});
+  }
+
+  /// Destroys the idle renderers, e.g. once no more thumbnails are needed.
+  ///
+  /// Renderers are created again for the next snapshots.
+  static Future<void> releaseRenderers() async {
+    await _channel.invokeMethod<void>('snapshotter#releaseRenderers');
+  }
+}
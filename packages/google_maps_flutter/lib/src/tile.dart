@@ -0,0 +1,51 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of google_maps_flutter;
+
+/// An image drawn by a [TileOverlay] over one tile of the map.
+@immutable
+class Tile {
+  const Tile(this.width, this.height, this.data);
+
+  /// The width of the image in pixels.
+  final int width;
+
+  /// The height of the image in pixels.
+  final int height;
+
+  /// The encoded image, in a format decodable by the platform, e.g. PNG.
+  ///
+  /// A null value means that there is no tile, see [TileProvider.noTile].
+  final Uint8List data;
+
+  dynamic _toJson() {
+    final Map<String, dynamic> json = <String, dynamic>{};
+
+    void addIfPresent(String fieldName, dynamic value) {
+      if (value != null) {
+        json[fieldName] = value;
+      }
+    }
+
+    addIfPresent('width', width);
+    addIfPresent('height', height);
+    addIfPresent('data', data);
+
+    return json;
+  }
+}
+
+/// Provides the images of a [TileOverlay].
+///
+/// Tiles are addressed like in the Web Mercator tiling scheme: at a zoom level
+/// the world is split into 2^zoom by 2^zoom tiles, with (0, 0) the
+/// north-westernmost one.
+abstract class TileProvider {
+  /// A tile that tells the map there is no image for these coordinates.
+  static const Tile noTile = Tile(-1, -1, null);
+
+  /// Returns the tile at the given coordinates, or [noTile].
+  Future<Tile> getTile(int x, int y, int zoom);
+}
@@ -0,0 +1,181 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of google_maps_flutter;
+
+/// Uniquely identifies a [TileOverlay] among [GoogleMap] tile overlays.
+///
+/// This does not have to be globally unique, only unique among the list.
+@immutable
+class TileOverlayId {
+  TileOverlayId(this.value) : assert(value != null);
+
+  /// value of the [TileOverlayId].
+  final String value;
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final TileOverlayId typedOther = other;
+    return value == typedOther.value;
+  }
+
+  @override
+  int get hashCode => value.hashCode;
+
+  @override
+  String toString() {
+    return 'TileOverlayId{value: $value}';
+  }
+}
+
+/// Draws images over the tiles of the map.
+///
+/// The images come either from local files, see [filePathTemplate], or from a
+/// [tileProvider].
+@immutable
+class TileOverlay {
+  const TileOverlay({
+    @required this.tileOverlayId,
+    this.tileProvider,
+    this.filePathTemplate,
+    this.fadeIn = true,
+    this.transparency = 0.0,
+    this.zIndex = 0,
+    this.visible = true,
+    this.diskCacheSize = 0,
+    this.prefetchAdjacentZoomLevels = false,
+  })  : assert(tileProvider == null || filePathTemplate == null),
+        assert(transparency >= 0.0 && transparency <= 1.0),
+        assert(diskCacheSize >= 0);
+
+  /// Uniquely identifies a [TileOverlay].
+  final TileOverlayId tileOverlayId;
+
+  /// Provides the tiles, unless they are read from [filePathTemplate].
+  ///
+  /// Tiles the map already loaded are kept until
+  /// [GoogleMapController.clearTileCache] is called.
+  final TileProvider tileProvider;
+
+  /// The path of the image files of the tiles, where `{x}`, `{y}` and `{z}`
+  /// are replaced by the coordinates and zoom level of each tile.
+  ///
+  /// The files are read directly by the platform. Tiles without a file are
+  /// left empty.
+  ///
+  /// Android only.
+  final String filePathTemplate;
+
+  /// True if the tiles should fade in.
+  final bool fadeIn;
+
+  /// The transparency of the overlay, from 0.0 (opaque) to 1.0 (invisible).
+  final double transparency;
+
+  /// The z-index of the overlay, used to determine relative drawing order of
+  /// map overlays.
+  final int zIndex;
+
+  /// True if the overlay is visible.
+  final bool visible;
+
+  /// The maximum number of bytes of tiles from [tileProvider] to keep on
+  /// disk, or 0 to not cache them.
+  ///
+  /// Cached tiles are kept across app restarts, keyed by [tileOverlayId], and
+  /// the least recently used ones are dropped first. Use
+  /// [GoogleMapController.clearTileCache] when the tiles change.
+  ///
+  /// Android only.
+  final int diskCacheSize;
+
+  /// True if the tiles of the visible region at the zoom levels just above
+  /// and below the camera's should be fetched into the disk cache whenever
+  /// the camera stops moving.
+  ///
+  /// Only applies to tiles from [tileProvider] with a [diskCacheSize].
+  ///
+  /// Android only.
+  final bool prefetchAdjacentZoomLevels;
+
+  /// Creates a new [TileOverlay] object whose values are the same as this
+  /// instance, unless overwritten by the specified parameters.
+  TileOverlay copyWith({
+    TileProvider tileProviderParam,
+    String filePathTemplateParam,
+    bool fadeInParam,
+    double transparencyParam,
+    int zIndexParam,
+    bool visibleParam,
+    int diskCacheSizeParam,
+    bool prefetchAdjacentZoomLevelsParam,
+  }) {
+    return TileOverlay(
+      tileOverlayId: tileOverlayId,
+      tileProvider: tileProviderParam ?? tileProvider,
+      filePathTemplate: filePathTemplateParam ?? filePathTemplate,
+      fadeIn: fadeInParam ?? fadeIn,
+      transparency: transparencyParam ?? transparency,
+      zIndex: zIndexParam ?? zIndex,
+      visible: visibleParam ?? visible,
+      diskCacheSize: diskCacheSizeParam ?? diskCacheSize,
+      prefetchAdjacentZoomLevels:
+          prefetchAdjacentZoomLevelsParam ?? prefetchAdjacentZoomLevels,
+    );
+  }
+
+  dynamic _toJson() {
+    final Map<String, dynamic> json = <String, dynamic>{};
+
+    void addIfPresent(String fieldName, dynamic value) {
+      if (value != null) {
+        json[fieldName] = value;
+      }
+    }
+
+    addIfPresent('tileOverlayId', tileOverlayId.value);
+    addIfPresent('filePathTemplate', filePathTemplate);
+    addIfPresent('fadeIn', fadeIn);
+    addIfPresent('transparency', transparency);
+    addIfPresent('zIndex', zIndex);
+    addIfPresent('visible', visible);
+    addIfPresent('diskCacheSize', diskCacheSize);
+    addIfPresent('prefetchAdjacentZoomLevels', prefetchAdjacentZoomLevels);
+
+    return json;
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final TileOverlay typedOther = other;
+    return tileOverlayId == typedOther.tileOverlayId;
+  }
+
+  @override
+  int get hashCode => tileOverlayId.hashCode;
+}
+
+Map<TileOverlayId, TileOverlay> _keyByTileOverlayId(
+    Iterable<TileOverlay> tileOverlays) {
+  if (tileOverlays == null) {
+    return <TileOverlayId, TileOverlay>{};
+  }
+  return Map<TileOverlayId, TileOverlay>.fromEntries(tileOverlays.map(
+      (TileOverlay tileOverlay) => MapEntry<TileOverlayId, TileOverlay>(
+          tileOverlay.tileOverlayId, tileOverlay)));
+}
+
+List<Map<String, dynamic>> _serializeTileOverlaySet(
+    Set<TileOverlay> tileOverlays) {
+  if (tileOverlays == null) {
+    return null;
+  }
+  return tileOverlays
+      .map<Map<String, dynamic>>((TileOverlay t) => t._toJson())
+      .toList();
+}
@@ -98,6 +98,59 @@ class MinMaxZoomPreference {
   }
 }
 
+/// Limits on how often [GoogleMap.onCameraMove] is called.
+///
+/// Camera positions that are held back are coalesced on the platform side, so
+/// the latest position is still delivered once the limits allow it, and the
+/// final position is always delivered before [GoogleMap.onCameraIdle].
+///
+/// Android only.
+class CameraMoveThrottle {
+  const CameraMoveThrottle({
+    this.maxEventsPerSecond = 0,
+    this.minDistance = 0.0,
+    this.minZoomDelta = 0.0,
+  })  : assert(maxEventsPerSecond != null && maxEventsPerSecond >= 0),
+        assert(minDistance != null && minDistance >= 0.0),
+        assert(minZoomDelta != null && minZoomDelta >= 0.0);
+
+  /// The maximum number of camera moves reported per second, or 0 for no
+  /// limit.
+  final int maxEventsPerSecond;
+
+  /// The distance in logical pixels the camera target has to move before a
+  /// new position is reported, unless the zoom changed by [minZoomDelta].
+  final double minDistance;
+
+  /// The zoom change that reports a new position regardless of
+  /// [minDistance].
+  final double minZoomDelta;
+
+  /// Reports every camera move.
+  static const CameraMoveThrottle unthrottled = CameraMoveThrottle();
+
+  dynamic _toJson() => <dynamic>[maxEventsPerSecond, minDistance, minZoomDelta];
+
+  @override
+  bool operator ==(dynamic other) {
+    if (identical(this, other)) return true;
+    if (runtimeType != other.runtimeType) return false;
+    final CameraMoveThrottle typedOther = other;
+    return maxEventsPerSecond == typedOther.maxEventsPerSecond &&
+        minDistance == typedOther.minDistance &&
+        minZoomDelta == typedOther.minZoomDelta;
+  }
+
+  @override
+  int get hashCode => hashValues(maxEventsPerSecond, minDistance, minZoomDelta);
+
+  @override
+  String toString() {
+    return 'CameraMoveThrottle(maxEventsPerSecond: $maxEventsPerSecond, '
+        'minDistance: $minDistance, minZoomDelta: $minZoomDelta)';
+  }
+}
+
 /// Exception when a map style is invalid or was unable to be set.
 ///
 /// See also: `setStyle` on [GoogleMapController] for why this exception
@@ -19,6 +19,8 @@ class FakePlatformGoogleMap {
     updatePolygons(params);
     updatePolylines(params);
     updateCircles(params);
+    updateTileOverlays(params);
+    updateHeatmaps(params);
   }
 
   MethodChannel channel;
@@ -45,12 +47,18 @@ class FakePlatformGoogleMap {
 
   bool trackCameraPosition;
 
+  CameraMoveThrottle cameraMoveThrottle;
+
   bool myLocationEnabled;
 
   bool myLocationButtonEnabled;
 
   List<dynamic> padding;
 
+  bool markerClusteringEnabled;
+
+  bool viewportCullingEnabled;
+
   Set<MarkerId> markerIdsToRemove;
 
   Set<Marker> markersToAdd;
@@ -75,6 +83,23 @@ class FakePlatformGoogleMap {
 
   Set<Circle> circlesToChange;
 
+  Set<TileOverlayId> tileOverlayIdsToRemove;
+
+  Set<TileOverlay> tileOverlaysToAdd;
+
+  Set<TileOverlay> tileOverlaysToChange;
+
+  Set<HeatmapId> heatmapIdsToRemove;
+
+  Set<Heatmap> heatmapsToAdd;
+
+  Set<Heatmap> heatmapsToChange;
+
+  /// The points sent as added to the heatmaps in [heatmapsToChange].
+  Map<HeatmapId, Float64List> heatmapPointsToAdd;
+
+  Map<dynamic, dynamic> snapshotArguments;
+
   Future<dynamic> onMethodCall(MethodCall call) {
     switch (call.method) {
       case 'map#update':
@@ -92,6 +117,16 @@ class FakePlatformGoogleMap {
       case 'circles#update':
         updateCircles(call.arguments);
         return Future<void>.sync(() {});
+      case 'tileOverlays#update':
+        updateTileOverlays(call.arguments);
+        return Future<void>.sync(() {});
+      case 'heatmaps#update':
+        updateHeatmaps(call.arguments);
+        return Future<void>.sync(() {});
+      case 'map#takeSnapshot':
+        snapshotArguments = call.arguments;
+        return Future<Uint8List>.sync(
+            () => Uint8List.fromList(<int>[0x89, 0x50, 0x4e, 0x47]));
       default:
         return Future<void>.sync(() {});
     }
@@ -196,6 +231,7 @@ class FakePlatformGoogleMap {
         polygonId: PolygonId(polygonId),
         visible: visible,
         geodesic: geodesic,
+        points: _deserializePoints(polygonData['points']),
       ));
     }
 
@@ -246,12 +282,21 @@ class FakePlatformGoogleMap {
         polylineId: PolylineId(polylineId),
         visible: visible,
         geodesic: geodesic,
+        points: _deserializePoints(polylineData['points']),
+        simplificationTolerance: polylineData['simplificationTolerance'],
       ));
     }
 
     return result;
   }
 
+  List<LatLng> _deserializePoints(dynamic points) {
+    if (points == null) {
+      return null;
+    }
+    return PackedLatLngList(points);
+  }
+
   void updateCircles(Map<dynamic, dynamic> circleUpdates) {
     if (circleUpdates == null) {
       return;
@@ -299,6 +344,106 @@ class FakePlatformGoogleMap {
     return result;
   }
 
+  void updateTileOverlays(Map<dynamic, dynamic> tileOverlayUpdates) {
+    if (tileOverlayUpdates == null) {
+      return;
+    }
+    tileOverlaysToAdd =
+        _deserializeTileOverlays(tileOverlayUpdates['tileOverlaysToAdd']);
+    tileOverlayIdsToRemove = _deserializeTileOverlayIds(
+        tileOverlayUpdates['tileOverlayIdsToRemove']);
+    tileOverlaysToChange =
+        _deserializeTileOverlays(tileOverlayUpdates['tileOverlaysToChange']);
+  }
+
+  Set<TileOverlayId> _deserializeTileOverlayIds(List<dynamic> tileOverlayIds) {
+    if (tileOverlayIds == null) {
+      // ignore: prefer_collection_literals
+      return Set<TileOverlayId>();
+    }
+    return tileOverlayIds
+        .map((dynamic tileOverlayId) => TileOverlayId(tileOverlayId))
+        .toSet();
+  }
+
+  Set<TileOverlay> _deserializeTileOverlays(dynamic tileOverlays) {
+    if (tileOverlays == null) {
+      // ignore: prefer_collection_literals
+      return Set<TileOverlay>();
+    }
+    final List<dynamic> tileOverlaysData = tileOverlays;
+    // ignore: prefer_collection_literals
+    final Set<TileOverlay> result = Set<TileOverlay>();
+    for (Map<dynamic, dynamic> tileOverlayData in tileOverlaysData) {
+      final String tileOverlayId = tileOverlayData['tileOverlayId'];
+      final bool visible = tileOverlayData['visible'];
+      final double transparency = tileOverlayData['transparency'];
+      final int diskCacheSize = tileOverlayData['diskCacheSize'];
+
+      result.add(TileOverlay(
+        tileOverlayId: TileOverlayId(tileOverlayId),
+        filePathTemplate: tileOverlayData['filePathTemplate'],
+        visible: visible,
+        transparency: transparency,
+        diskCacheSize: diskCacheSize,
+      ));
+    }
+
+    return result;
+  }
+
+  void updateHeatmaps(Map<dynamic, dynamic> heatmapUpdates) {
+    if (heatmapUpdates == null) {
+      return;
+    }
+    heatmapsToAdd = _deserializeHeatmaps(heatmapUpdates['heatmapsToAdd']);
+    heatmapIdsToRemove =
+        _deserializeHeatmapIds(heatmapUpdates['heatmapIdsToRemove']);
+    heatmapsToChange =
+        _deserializeHeatmaps(heatmapUpdates['heatmapsToChange']);
+    heatmapPointsToAdd = <HeatmapId, Float64List>{};
+    final List<dynamic> changes = heatmapUpdates['heatmapsToChange'];
+    for (Map<dynamic, dynamic> heatmapData in changes ?? <dynamic>[]) {
+      if (heatmapData.containsKey('pointsToAdd')) {
+        heatmapPointsToAdd[HeatmapId(heatmapData['heatmapId'])] =
+            heatmapData['pointsToAdd'];
+      }
+    }
+  }
+
+  Set<HeatmapId> _deserializeHeatmapIds(List<dynamic> heatmapIds) {
+    if (heatmapIds == null) {
+      // ignore: prefer_collection_literals
+      return Set<HeatmapId>();
+    }
+    return heatmapIds.map((dynamic heatmapId) => HeatmapId(heatmapId)).toSet();
+  }
+
+  Set<Heatmap> _deserializeHeatmaps(dynamic heatmaps) {
+    if (heatmaps == null) {
+      // ignore: prefer_collection_literals
+      return Set<Heatmap>();
+    }
+    final List<dynamic> heatmapsData = heatmaps;
+    // ignore: prefer_collection_literals
+    final Set<Heatmap> result = Set<Heatmap>();
+    for (Map<dynamic, dynamic> heatmapData in heatmapsData) {
+      final String heatmapId = heatmapData['heatmapId'];
+      final Float64List points = heatmapData['points'];
+      final int radius = heatmapData['radius'];
+      final bool visible = heatmapData['visible'];
+
+      result.add(Heatmap(
+        heatmapId: HeatmapId(heatmapId),
+        points: WeightedLatLngList(points ?? Float64List(0)),
+        radius: radius,
+        visible: visible,
+      ));
+    }
+
+    return result;
+  }
+
   void updateOptions(Map<dynamic, dynamic> options) {
     if (options.containsKey('compassEnabled')) {
       compassEnabled = options['compassEnabled'];
@@ -332,6 +477,14 @@ class FakePlatformGoogleMap {
     if (options.containsKey('trackCameraPosition')) {
       trackCameraPosition = options['trackCameraPosition'];
     }
+    if (options.containsKey('cameraMoveThrottle')) {
+      final List<dynamic> throttleList = options['cameraMoveThrottle'];
+      cameraMoveThrottle = CameraMoveThrottle(
+        maxEventsPerSecond: throttleList[0],
+        minDistance: throttleList[1],
+        minZoomDelta: throttleList[2],
+      );
+    }
     if (options.containsKey('zoomGesturesEnabled')) {
       zoomGesturesEnabled = options['zoomGesturesEnabled'];
     }
@@ -344,6 +497,12 @@ class FakePlatformGoogleMap {
     if (options.containsKey('padding')) {
       padding = options['padding'];
     }
+    if (options.containsKey('markerClusteringEnabled')) {
+      markerClusteringEnabled = options['markerClusteringEnabled'];
+    }
+    if (options.containsKey('viewportCullingEnabled')) {
+      viewportCullingEnabled = options['viewportCullingEnabled'];
+    }
   }
 }
 
@@ -355,6 +355,45 @@ void main() {
     expect(platformGoogleMap.trackCameraPosition, true);
   });
 
+  testWidgets('Can update cameraMoveThrottle', (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+        ),
+      ),
+    );
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+
+    expect(
+        platformGoogleMap.cameraMoveThrottle, CameraMoveThrottle.unthrottled);
+
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          cameraMoveThrottle: CameraMoveThrottle(
+            maxEventsPerSecond: 10,
+            minDistance: 4.0,
+            minZoomDelta: 0.1,
+          ),
+        ),
+      ),
+    );
+
+    expect(
+        platformGoogleMap.cameraMoveThrottle,
+        const CameraMoveThrottle(
+          maxEventsPerSecond: 10,
+          minDistance: 4.0,
+          minZoomDelta: 0.1,
+        ));
+  });
+
   testWidgets('Can update zoomGesturesEnabled', (WidgetTester tester) async {
     await tester.pumpWidget(
       const Directionality(
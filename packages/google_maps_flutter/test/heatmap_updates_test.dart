@@ -0,0 +1,157 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:typed_data';
+
+import 'package:flutter/services.dart';
+import 'package:flutter/widgets.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:google_maps_flutter/google_maps_flutter.dart';
+
+import 'fake_maps_controllers.dart';
+
+Set<Heatmap> _toSet({Heatmap h1, Heatmap h2}) {
+  final Set<Heatmap> res = Set<Heatmap>.identity();
+  if (h1 != null) {
+    res.add(h1);
+  }
+  if (h2 != null) {
+    res.add(h2);
+  }
+  return res;
+}
+
+Widget _mapWithHeatmaps(Set<Heatmap> heatmaps) {
+  return Directionality(
+    textDirection: TextDirection.ltr,
+    child: GoogleMap(
+      initialCameraPosition: const CameraPosition(target: LatLng(10.0, 15.0)),
+      heatmaps: heatmaps,
+    ),
+  );
+}
+
+WeightedLatLngList _points(List<double> values) {
+  return WeightedLatLngList(Float64List.fromList(values));
+}
+
+void main() {
+  final FakePlatformViewsController fakePlatformViewsController =
+      FakePlatformViewsController();
+
+  setUpAll(() {
+    SystemChannels.platform_views.setMockMethodCallHandler(
+        fakePlatformViewsController.fakePlatformViewsMethodHandler);
+  });
+
+  setUp(() {
+    fakePlatformViewsController.reset();
+  });
+
+  testWidgets('Initializing a heatmap', (WidgetTester tester) async {
+    final Heatmap h1 = Heatmap(
+        heatmapId: HeatmapId('heatmap_1'),
+        points: _points(<double>[1.0, 2.0, 1.0, 3.0, 4.0, 0.5]));
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h1)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.heatmapsToAdd.length, 1);
+
+    final Heatmap initializedHeatmap = platformGoogleMap.heatmapsToAdd.first;
+    expect(initializedHeatmap, equals(h1));
+    expect(initializedHeatmap.points.values, h1.points.values);
+    expect(platformGoogleMap.heatmapIdsToRemove.isEmpty, true);
+    expect(platformGoogleMap.heatmapsToChange.isEmpty, true);
+  });
+
+  testWidgets('Adding a heatmap', (WidgetTester tester) async {
+    final Heatmap h1 = Heatmap(
+        heatmapId: HeatmapId('heatmap_1'), points: _points(<double>[]));
+    final Heatmap h2 = Heatmap(
+        heatmapId: HeatmapId('heatmap_2'), points: _points(<double>[]));
+
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h1)));
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h1, h2: h2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.heatmapsToAdd.length, 1);
+    expect(platformGoogleMap.heatmapsToAdd.first, equals(h2));
+    expect(platformGoogleMap.heatmapIdsToRemove.isEmpty, true);
+    expect(platformGoogleMap.heatmapsToChange.isEmpty, true);
+  });
+
+  testWidgets('Removing a heatmap', (WidgetTester tester) async {
+    final Heatmap h1 = Heatmap(
+        heatmapId: HeatmapId('heatmap_1'), points: _points(<double>[]));
+
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h1)));
+    await tester.pumpWidget(_mapWithHeatmaps(null));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.heatmapIdsToRemove.length, 1);
+    expect(platformGoogleMap.heatmapIdsToRemove.first, equals(h1.heatmapId));
+    expect(platformGoogleMap.heatmapsToChange.isEmpty, true);
+    expect(platformGoogleMap.heatmapsToAdd.isEmpty, true);
+  });
+
+  testWidgets('Updating a heatmap', (WidgetTester tester) async {
+    final Heatmap h1 = Heatmap(
+        heatmapId: HeatmapId('heatmap_1'),
+        points: _points(<double>[1.0, 2.0, 1.0]));
+    final Heatmap h2 = h1.copyWith(radiusParam: 40);
+
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h1)));
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.heatmapsToChange.length, 1);
+    final Heatmap changedHeatmap = platformGoogleMap.heatmapsToChange.first;
+    expect(changedHeatmap.radius, 40);
+    // The points did not change, so they are not sent again.
+    expect(changedHeatmap.points.length, 0);
+    expect(platformGoogleMap.heatmapPointsToAdd.isEmpty, true);
+  });
+
+  testWidgets('Appended points are sent incrementally',
+      (WidgetTester tester) async {
+    final Heatmap h1 = Heatmap(
+        heatmapId: HeatmapId('heatmap_1'),
+        points: _points(<double>[1.0, 2.0, 1.0]));
+    final WeightedLatLngList appended = h1.points
+        .appended(Float64List.fromList(<double>[3.0, 4.0, 0.5]))
+        .appended(Float64List.fromList(<double>[5.0, 6.0, 0.25]));
+    final Heatmap h2 = h1.copyWith(pointsParam: appended);
+
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h1)));
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(appended.length, 3);
+    expect(platformGoogleMap.heatmapsToChange.first.points.length, 0);
+    expect(platformGoogleMap.heatmapPointsToAdd[h1.heatmapId],
+        <double>[3.0, 4.0, 0.5, 5.0, 6.0, 0.25]);
+  });
+
+  testWidgets('Replaced points are sent in full', (WidgetTester tester) async {
+    final Heatmap h1 = Heatmap(
+        heatmapId: HeatmapId('heatmap_1'),
+        points: _points(<double>[1.0, 2.0, 1.0]));
+    final Heatmap h2 = h1.copyWith(
+        pointsParam: _points(<double>[1.0, 2.0, 1.0, 3.0, 4.0, 0.5]));
+
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h1)));
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.heatmapsToChange.first.points.values,
+        h2.points.values);
+    expect(platformGoogleMap.heatmapPointsToAdd.isEmpty, true);
+  });
+}
@@ -23,12 +23,14 @@ Set<Marker> _toSet({Marker m1, Marker m2, Marker m3}) {
   return res;
 }
 
-Widget _mapWithMarkers(Set<Marker> markers) {
+Widget _mapWithMarkers(Set<Marker> markers,
+    {bool markerClusteringEnabled = false}) {
   return Directionality(
     textDirection: TextDirection.ltr,
     child: GoogleMap(
       initialCameraPosition: const CameraPosition(target: LatLng(10.0, 15.0)),
       markers: markers,
+      markerClusteringEnabled: markerClusteringEnabled,
     ),
   );
 }
@@ -173,6 +175,23 @@ void main() {
     expect(platformGoogleMap.markerIdsToRemove.first, equals(m3.markerId));
   });
 
+  testWidgets("Toggling clustering keeps all markers",
+      (WidgetTester tester) async {
+    final Marker m1 = Marker(markerId: MarkerId("marker_1"));
+    final Marker m2 = Marker(markerId: MarkerId("marker_2"));
+
+    await tester.pumpWidget(_mapWithMarkers(_toSet(m1: m1, m2: m2)));
+    await tester.pumpWidget(_mapWithMarkers(_toSet(m1: m1, m2: m2),
+        markerClusteringEnabled: true));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.markerClusteringEnabled, true);
+    expect(platformGoogleMap.markersToAdd.isEmpty, true);
+    expect(platformGoogleMap.markerIdsToRemove.isEmpty, true);
+    expect(platformGoogleMap.markersToChange.isEmpty, true);
+  });
+
   testWidgets(
     "Partial Update",
     (WidgetTester tester) async {
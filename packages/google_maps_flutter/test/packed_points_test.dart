@@ -0,0 +1,93 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:typed_data';
+
+import 'package:flutter/services.dart';
+import 'package:flutter/widgets.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:google_maps_flutter/google_maps_flutter.dart';
+
+import 'fake_maps_controllers.dart';
+
+Widget _mapWithPolyline(Polyline polyline) {
+  return Directionality(
+    textDirection: TextDirection.ltr,
+    child: GoogleMap(
+      initialCameraPosition: const CameraPosition(target: LatLng(10.0, 15.0)),
+      // ignore: prefer_collection_literals
+      polylines: Set<Polyline>()..add(polyline),
+    ),
+  );
+}
+
+List<LatLng> _track(int length) {
+  return List<LatLng>.generate(
+      length, (int i) => LatLng(48.0 + i * 1e-5, 11.0 + i * 2e-5));
+}
+
+void main() {
+  final FakePlatformViewsController fakePlatformViewsController =
+      FakePlatformViewsController();
+
+  setUpAll(() {
+    SystemChannels.platform_views.setMockMethodCallHandler(
+        fakePlatformViewsController.fakePlatformViewsMethodHandler);
+  });
+
+  setUp(() {
+    fakePlatformViewsController.reset();
+  });
+
+  testWidgets('Polyline points are sent packed', (WidgetTester tester) async {
+    final List<LatLng> points = _track(100);
+    await tester.pumpWidget(_mapWithPolyline(
+        Polyline(polylineId: PolylineId('polyline_1'), points: points)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    final List<LatLng> sent = platformGoogleMap.polylinesToAdd.first.points;
+    expect(sent.length, points.length);
+    for (int i = 0; i < points.length; i++) {
+      expect(sent[i].latitude, points[i].latitude);
+      expect(sent[i].longitude, closeTo(points[i].longitude, 1e-9));
+    }
+  });
+
+  testWidgets('PackedLatLngList points are sent as is',
+      (WidgetTester tester) async {
+    final Float64List coordinates =
+        Float64List.fromList(<double>[1.0, 2.0, 3.0, 4.0]);
+    await tester.pumpWidget(_mapWithPolyline(Polyline(
+        polylineId: PolylineId('polyline_1'),
+        points: PackedLatLngList(coordinates))));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.polylinesToAdd.first.points,
+        const <LatLng>[LatLng(1.0, 2.0), LatLng(3.0, 4.0)]);
+  });
+
+  test('Packed points encode smaller than nested lists', () {
+    const StandardMethodCodec codec = StandardMethodCodec();
+    final List<LatLng> points = _track(100000);
+
+    final List<dynamic> nested = points
+        .map((LatLng point) => <double>[point.latitude, point.longitude])
+        .toList();
+    final ByteData nestedMessage =
+        codec.encodeMethodCall(MethodCall('polylines#update', nested));
+
+    final Float64List packed = Float64List(points.length * 2);
+    for (int i = 0; i < points.length; i++) {
+      packed[2 * i] = points[i].latitude;
+      packed[2 * i + 1] = points[i].longitude;
+    }
+    final ByteData packedMessage =
+        codec.encodeMethodCall(MethodCall('polylines#update', packed));
+
+    expect(packedMessage.lengthInBytes,
+        lessThan(nestedMessage.lengthInBytes * 0.9));
+  });
+}
@@ -23,12 +23,14 @@ Set<Polyline> _toSet({Polyline p1, Polyline p2, Polyline p3}) {
   return res;
 }
 
-Widget _mapWithPolylines(Set<Polyline> polylines) {
+Widget _mapWithPolylines(Set<Polyline> polylines,
+    {bool viewportCullingEnabled = false}) {
   return Directionality(
     textDirection: TextDirection.ltr,
     child: GoogleMap(
       initialCameraPosition: const CameraPosition(target: LatLng(10.0, 15.0)),
       polylines: polylines,
+      viewportCullingEnabled: viewportCullingEnabled,
     ),
   );
 }
@@ -172,6 +174,38 @@ void main() {
     expect(platformGoogleMap.polylineIdsToRemove.first, equals(p3.polylineId));
   });
 
+  testWidgets("Updating a polyline's simplification tolerance",
+      (WidgetTester tester) async {
+    final Polyline p1 = Polyline(polylineId: PolylineId("polyline_1"));
+    final Polyline p2 = p1.copyWith(simplificationToleranceParam: 1.0);
+
+    await tester.pumpWidget(_mapWithPolylines(_toSet(p1: p1)));
+    await tester.pumpWidget(_mapWithPolylines(_toSet(p1: p2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.polylinesToChange.length, 1);
+    expect(
+        platformGoogleMap.polylinesToChange.first.simplificationTolerance, 1.0);
+  });
+
+  testWidgets("Toggling viewport culling keeps all polylines",
+      (WidgetTester tester) async {
+    final Polyline p1 = Polyline(polylineId: PolylineId("polyline_1"));
+    final Polyline p2 = Polyline(polylineId: PolylineId("polyline_2"));
+
+    await tester.pumpWidget(_mapWithPolylines(_toSet(p1: p1, p2: p2)));
+    await tester.pumpWidget(_mapWithPolylines(_toSet(p1: p1, p2: p2),
+        viewportCullingEnabled: true));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.viewportCullingEnabled, true);
+    expect(platformGoogleMap.polylinesToAdd.isEmpty, true);
+    expect(platformGoogleMap.polylineIdsToRemove.isEmpty, true);
+    expect(platformGoogleMap.polylinesToChange.isEmpty, true);
+  });
+
   testWidgets(
     "Partial Update",
     (WidgetTester tester) async {
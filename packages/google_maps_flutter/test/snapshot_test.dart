@@ -0,0 +1,84 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:async';
+import 'dart:typed_data';
+
+import 'package:flutter/services.dart';
+import 'package:flutter/widgets.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:google_maps_flutter/google_maps_flutter.dart';
+
+import 'fake_maps_controllers.dart';
+
+void main() {
+  final FakePlatformViewsController fakePlatformViewsController =
+      FakePlatformViewsController();
+
+  setUpAll(() {
+    SystemChannels.platform_views.setMockMethodCallHandler(
+        fakePlatformViewsController.fakePlatformViewsMethodHandler);
+  });
+
+  setUp(() {
+    fakePlatformViewsController.reset();
+  });
+
+  testWidgets('Takes a snapshot of a map', (WidgetTester tester) async {
+    final Completer<GoogleMapController> controllerCompleter =
+        Completer<GoogleMapController>();
+    await tester.pumpWidget(Directionality(
+      textDirection: TextDirection.ltr,
+      child: GoogleMap(
+        initialCameraPosition: const CameraPosition(target: LatLng(10.0, 15.0)),
+        onMapCreated: controllerCompleter.complete,
+      ),
+    ));
+    final GoogleMapController controller = await controllerCompleter.future;
+
+    final Uint8List snapshot = await controller.takeSnapshot(
+        size: const Size(120.0, 80.0),
+        format: SnapshotFormat.jpeg,
+        quality: 75);
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(snapshot, <int>[0x89, 0x50, 0x4e, 0x47]);
+    expect(platformGoogleMap.snapshotArguments, <String, dynamic>{
+      'width': 120.0,
+      'height': 80.0,
+      'format': 'jpeg',
+      'quality': 75,
+    });
+  });
+
+  test('Takes a snapshot without a map', () async {
+    const MethodChannel channel =
+        MethodChannel('plugins.flutter.io/google_maps_snapshotter');
+    final List<MethodCall> calls = <MethodCall>[];
+    channel.setMockMethodCallHandler((MethodCall call) async {
+      calls.add(call);
+      return Uint8List.fromList(<int>[1, 2, 3]);
+    });
+
+    final Uint8List snapshot = await MapSnapshotter.takeSnapshot(
+      cameraPosition:
+          const CameraPosition(target: LatLng(10.0, 15.0), zoom: 12.0),
+      size: const Size(160.0, 90.0),
+      mapType: MapType.satellite,
+    );
+
+    expect(snapshot, <int>[1, 2, 3]);
+    expect(calls.single.method, 'snapshotter#takeSnapshot');
+    final Map<dynamic, dynamic> arguments = calls.single.arguments;
+    expect(arguments['width'], 160.0);
+    expect(arguments['height'], 90.0);
+    expect(arguments['format'], 'png');
+    expect(arguments['quality'], 100);
+    expect(arguments['mapType'], MapType.satellite.index);
+    expect(CameraPosition.fromMap(arguments['cameraPosition']),
+        const CameraPosition(target: LatLng(10.0, 15.0), zoom: 12.0));
+    channel.setMockMethodCallHandler(null);
+  });
+}
@@ -0,0 +1,174 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:typed_data';
+
+import 'package:flutter/services.dart';
+import 'package:flutter/widgets.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:google_maps_flutter/google_maps_flutter.dart';
+
+import 'fake_maps_controllers.dart';
+
+Set<TileOverlay> _toSet({TileOverlay t1, TileOverlay t2}) {
+  final Set<TileOverlay> res = Set<TileOverlay>.identity();
+  if (t1 != null) {
+    res.add(t1);
+  }
+  if (t2 != null) {
+    res.add(t2);
+  }
+  return res;
+}
+
+Widget _mapWithTileOverlays(Set<TileOverlay> tileOverlays) {
+  return Directionality(
+    textDirection: TextDirection.ltr,
+    child: GoogleMap(
+      initialCameraPosition: const CameraPosition(target: LatLng(10.0, 15.0)),
+      tileOverlays: tileOverlays,
+    ),
+  );
+}
+
+class _FakeTileProvider implements TileProvider {
+  final List<List<int>> requests = <List<int>>[];
+
+  @override
+  Future<Tile> getTile(int x, int y, int zoom) async {
+    requests.add(<int>[x, y, zoom]);
+    return Tile(1, 1, Uint8List.fromList(<int>[x, y, zoom]));
+  }
+}
+
+void main() {
+  final FakePlatformViewsController fakePlatformViewsController =
+      FakePlatformViewsController();
+
+  setUpAll(() {
+    SystemChannels.platform_views.setMockMethodCallHandler(
+        fakePlatformViewsController.fakePlatformViewsMethodHandler);
+  });
+
+  setUp(() {
+    fakePlatformViewsController.reset();
+  });
+
+  testWidgets('Initializing a tile overlay', (WidgetTester tester) async {
+    final TileOverlay t1 = TileOverlay(
+        tileOverlayId: TileOverlayId('tile_overlay_1'),
+        filePathTemplate: '/tiles/{z}/{x}/{y}.png');
+    await tester.pumpWidget(_mapWithTileOverlays(_toSet(t1: t1)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.tileOverlaysToAdd.length, 1);
+
+    final TileOverlay initializedTileOverlay =
+        platformGoogleMap.tileOverlaysToAdd.first;
+    expect(initializedTileOverlay, equals(t1));
+    expect(initializedTileOverlay.filePathTemplate, '/tiles/{z}/{x}/{y}.png');
+    expect(platformGoogleMap.tileOverlayIdsToRemove.isEmpty, true);
+    expect(platformGoogleMap.tileOverlaysToChange.isEmpty, true);
+  });
+
+  testWidgets('Adding a tile overlay', (WidgetTester tester) async {
+    final TileOverlay t1 =
+        TileOverlay(tileOverlayId: TileOverlayId('tile_overlay_1'));
+    final TileOverlay t2 =
+        TileOverlay(tileOverlayId: TileOverlayId('tile_overlay_2'));
+
+    await tester.pumpWidget(_mapWithTileOverlays(_toSet(t1: t1)));
+    await tester.pumpWidget(_mapWithTileOverlays(_toSet(t1: t1, t2: t2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.tileOverlaysToAdd.length, 1);
+    expect(platformGoogleMap.tileOverlaysToAdd.first, equals(t2));
+    expect(platformGoogleMap.tileOverlayIdsToRemove.isEmpty, true);
+    expect(platformGoogleMap.tileOverlaysToChange.length, 1);
+    expect(platformGoogleMap.tileOverlaysToChange.first, equals(t1));
+  });
+
+  testWidgets('Removing a tile overlay', (WidgetTester tester) async {
+    final TileOverlay t1 =
+        TileOverlay(tileOverlayId: TileOverlayId('tile_overlay_1'));
+
+    await tester.pumpWidget(_mapWithTileOverlays(_toSet(t1: t1)));
+    await tester.pumpWidget(_mapWithTileOverlays(null));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.tileOverlayIdsToRemove.length, 1);
+    expect(platformGoogleMap.tileOverlayIdsToRemove.first,
+        equals(t1.tileOverlayId));
+    expect(platformGoogleMap.tileOverlaysToChange.isEmpty, true);
+    expect(platformGoogleMap.tileOverlaysToAdd.isEmpty, true);
+  });
+
+  testWidgets('Updating a tile overlay', (WidgetTester tester) async {
+    final TileOverlay t1 =
+        TileOverlay(tileOverlayId: TileOverlayId('tile_overlay_1'));
+    final TileOverlay t2 = t1.copyWith(
+        transparencyParam: 0.5, diskCacheSizeParam: 16 * 1024 * 1024);
+
+    await tester.pumpWidget(_mapWithTileOverlays(_toSet(t1: t1)));
+    await tester.pumpWidget(_mapWithTileOverlays(_toSet(t1: t2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.tileOverlaysToChange.length, 1);
+    final TileOverlay changed = platformGoogleMap.tileOverlaysToChange.first;
+    expect(changed.transparency, 0.5);
+    expect(changed.diskCacheSize, 16 * 1024 * 1024);
+    expect(platformGoogleMap.tileOverlayIdsToRemove.isEmpty, true);
+    expect(platformGoogleMap.tileOverlaysToAdd.isEmpty, true);
+  });
+
+  testWidgets('Tiles are requested from the tile provider',
+      (WidgetTester tester) async {
+    final _FakeTileProvider tileProvider = _FakeTileProvider();
+    final TileOverlay t1 = TileOverlay(
+        tileOverlayId: TileOverlayId('tile_overlay_1'),
+        tileProvider: tileProvider);
+    await tester.pumpWidget(_mapWithTileOverlays(_toSet(t1: t1)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    const StandardMethodCodec codec = StandardMethodCodec();
+
+    Future<dynamic> getTile(String tileOverlayId) async {
+      ByteData reply;
+      // TODO(hterkelsen): Remove this when defaultBinaryMessages is in stable.
+      // https://github.com/flutter/flutter/issues/33446
+      // ignore: deprecated_member_use
+      await BinaryMessages.handlePlatformMessage(
+        platformGoogleMap.channel.name,
+        codec.encodeMethodCall(
+          MethodCall(
+            'tileOverlay#getTile',
+            <String, dynamic>{
+              'tileOverlayId': tileOverlayId,
+              'x': 1,
+              'y': 2,
+              'zoom': 3,
+            },
+          ),
+        ),
+        (ByteData data) => reply = data,
+      );
+      return codec.decodeEnvelope(reply);
+    }
+
+    final Map<dynamic, dynamic> tile = await getTile('tile_overlay_1');
+    expect(tileProvider.requests, <List<int>>[
+      <int>[1, 2, 3]
+    ]);
+    expect(tile['width'], 1);
+    expect(tile['data'], <int>[1, 2, 3]);
+
+    final Map<dynamic, dynamic> noTile = await getTile('unknown');
+    expect(noTile['data'], isNull);
+  });
+}
@@ -0,0 +1,119 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.sensors;
+
+import android.content.Context;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import io.flutter.plugin.common.EventChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Streams the samples of a sensor in batches, at the sampling period and maximum report latency
+ * given when the stream is listened to.
+ *
+ * <p>A batch is a packed {@code double[]} of the samples received since the previous batch. Each
+ * sample is its timestamp in nanoseconds followed by its values. Batches are sent once per batch
+ * interval, and only when they hold samples.
+ *
+ * <p>Samples are copied into a buffer that grows to the size of a batch, so that no memory is
+ * allocated per sample.
+ */
+final class BatchedSensorStreamHandler implements EventChannel.StreamHandler, SensorEventListener {
+  private static final int DEFAULT_BATCH_INTERVAL_MS = 100;
+  private static final int INITIAL_CAPACITY_SAMPLES = 64;
+
+  private final SensorManager sensorManager;
+  private final Sensor sensor;
+  private final int dimension;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable flusher =
+      new Runnable() {
+        @Override
+        public void run() {
+          flush();
+          handler.postDelayed(this, batchIntervalMs);
+        }
+      };
+  private EventChannel.EventSink events;
+  private long batchIntervalMs;
+  private double[] samples;
+  private int size = 0;
+
+  BatchedSensorStreamHandler(Context context, int sensorType, int dimension) {
+    sensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
+    sensor = sensorManager.getDefaultSensor(sensorType);
+    this.dimension = dimension;
+    samples = new double[INITIAL_CAPACITY_SAMPLES * (dimension + 1)];
+  }
+
+  @Override
+  public void onListen(Object arguments, EventChannel.EventSink events) {
+    if (sensor == null) {
+      events.error("sensor_unavailable", "The device has no such sensor", null);
+      return;
+    }
+    Map<?, ?> options = arguments == null ? Collections.emptyMap() : (Map<?, ?>) arguments;
+    int samplingPeriodUs =
+        toInt(options.get("samplingPeriodUs"), SensorManager.SENSOR_DELAY_NORMAL);
+    int maxReportLatencyUs = toInt(options.get("maxReportLatencyUs"), 0);
+    batchIntervalMs = toInt(options.get("batchIntervalMs"), DEFAULT_BATCH_INTERVAL_MS);
+    this.events = events;
+    size = 0;
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+      sensorManager.registerListener(this, sensor, samplingPeriodUs, maxReportLatencyUs);
+    } else {
+      sensorManager.registerListener(this, sensor, samplingPeriodUs);
+    }
+    handler.postDelayed(flusher, batchIntervalMs);
+  }
+
+  @Override
+  public void onCancel(Object arguments) {
+    sensorManager.unregisterListener(this);
+    handler.removeCallbacks(flusher);
+    events = null;
+    size = 0;
+  }
+
+  @Override
+  public void onAccuracyChanged(Sensor sensor, int accuracy) {}
+
+  @Override
+  public void onSensorChanged(SensorEvent event) {
+    int stride = dimension + 1;
+    if (size + stride > samples.length) {
+      samples = Arrays.copyOf(samples, samples.length * 2);
+    }
+    samples[size] = event.timestamp;
+    int count = Math.min(dimension, event.values.length);
+    for (int i = 0; i < count; i++) {
+      samples[size + 1 + i] = event.values[i];
+    }
+    for (int i = count; i < dimension; i++) {
+      samples[size + 1 + i] = 0;
+    }
+    size += stride;
+  }
+
+  private void flush() {
+    if (events == null || size == 0) {
+      return;
+    }
+    events.success(Arrays.copyOf(samples, size));
+    size = 0;
+  }
+
+  private static int toInt(Object o, int defaultValue) {
+    return o == null ? defaultValue : ((Number) o).intValue();
+  }
+}
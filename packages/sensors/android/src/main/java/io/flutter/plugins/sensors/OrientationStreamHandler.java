@@ -0,0 +1,195 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.sensors;
+
+import android.content.Context;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Build;
+import io.flutter.plugin.common.EventChannel;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Streams the orientation of the device, fused from its motion sensors, at a lower rate than the
+ * sensors are sampled.
+ *
+ * <p>The orientation comes from the rotation vector sensor, which fuses the gyroscope, the
+ * accelerometer and the magnetometer, or from the game rotation vector sensor, which leaves the
+ * magnetometer out. Without them it is computed from the accelerometer and the magnetometer.
+ *
+ * <p>The latest orientation is sent at most once per interval, as a {@code double[]} of its
+ * timestamp in nanoseconds, its quaternion {@code x, y, z, w}, and its azimuth, pitch and roll in
+ * radians. The samples in between are only copied to preallocated arrays, and the fusion only
+ * uses primitive arrays, so that no memory is allocated per sample.
+ */
+final class OrientationStreamHandler implements EventChannel.StreamHandler, SensorEventListener {
+  private static final int DEFAULT_INTERVAL_MS = 50;
+
+  private final SensorManager sensorManager;
+  private EventChannel.EventSink events;
+  private long intervalNs;
+  private long lastEventNs;
+
+  // Whether the orientation comes from the accelerometer and the magnetometer.
+  private boolean isFusingAccelerometer;
+  private final float[] gravity = new float[3];
+  private final float[] geomagnetic = new float[3];
+  private boolean hasGravity;
+  private boolean hasGeomagnetic;
+  private final float[] rotationMatrix = new float[9];
+  // x, y, z, w.
+  private final double[] quaternion = new double[4];
+
+  OrientationStreamHandler(Context context) {
+    sensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
+  }
+
+  @Override
+  public void onListen(Object arguments, EventChannel.EventSink events) {
+    Map<?, ?> options = arguments == null ? Collections.emptyMap() : (Map<?, ?>) arguments;
+    int samplingPeriodUs =
+        toInt(options.get("samplingPeriodUs"), SensorManager.SENSOR_DELAY_GAME);
+    intervalNs = toInt(options.get("intervalMs"), DEFAULT_INTERVAL_MS) * 1000000L;
+    boolean useMagnetometer = !Boolean.FALSE.equals(options.get("useMagnetometer"));
+
+    Sensor rotationVector = null;
+    if (!useMagnetometer && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+      rotationVector = sensorManager.getDefaultSensor(Sensor.TYPE_GAME_ROTATION_VECTOR);
+    }
+    if (rotationVector == null) {
+      rotationVector = sensorManager.getDefaultSensor(Sensor.TYPE_ROTATION_VECTOR);
+    }
+    Sensor accelerometer = sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
+    Sensor magnetometer = sensorManager.getDefaultSensor(Sensor.TYPE_MAGNETIC_FIELD);
+    if (rotationVector == null && (accelerometer == null || magnetometer == null)) {
+      events.error("sensor_unavailable", "The device has no sensors to fuse", null);
+      return;
+    }
+
+    this.events = events;
+    lastEventNs = 0;
+    hasGravity = false;
+    hasGeomagnetic = false;
+    isFusingAccelerometer = rotationVector == null;
+    if (isFusingAccelerometer) {
+      sensorManager.registerListener(this, accelerometer, samplingPeriodUs);
+      sensorManager.registerListener(this, magnetometer, samplingPeriodUs);
+    } else {
+      sensorManager.registerListener(this, rotationVector, samplingPeriodUs);
+    }
+  }
+
+  @Override
+  public void onCancel(Object arguments) {
+    sensorManager.unregisterListener(this);
+    events = null;
+  }
+
+  @Override
+  public void onAccuracyChanged(Sensor sensor, int accuracy) {}
+
+  @Override
+  public void onSensorChanged(SensorEvent event) {
+    if (isFusingAccelerometer) {
+      if (event.sensor.getType() == Sensor.TYPE_ACCELEROMETER) {
+        System.arraycopy(event.values, 0, gravity, 0, 3);
+        hasGravity = true;
+      } else {
+        System.arraycopy(event.values, 0, geomagnetic, 0, 3);
+        hasGeomagnetic = true;
+      }
+    }
+    // Only the latest orientation is sent, so it is only computed when it is sent.
+    if (events == null || event.timestamp - lastEventNs < intervalNs) {
+      return;
+    }
+    if (isFusingAccelerometer) {
+      if (!hasGravity
+          || !hasGeomagnetic
+          || !SensorManager.getRotationMatrix(rotationMatrix, null, gravity, geomagnetic)) {
+        return;
+      }
+      setQuaternionFromMatrix();
+    } else {
+      setQuaternionFromRotationVector(event.values);
+    }
+    lastEventNs = event.timestamp;
+    sendOrientation(event.timestamp);
+  }
+
+  private void setQuaternionFromRotationVector(float[] values) {
+    double x = values[0];
+    double y = values[1];
+    double z = values[2];
+    // The scalar component is optional before API 18.
+    double w =
+        values.length > 3 ? values[3] : Math.sqrt(Math.max(0, 1 - x * x - y * y - z * z));
+    quaternion[0] = x;
+    quaternion[1] = y;
+    quaternion[2] = z;
+    quaternion[3] = w;
+  }
+
+  private void setQuaternionFromMatrix() {
+    float[] m = rotationMatrix;
+    double trace = m[0] + m[4] + m[8];
+    if (trace > 0) {
+      double s = 0.5 / Math.sqrt(trace + 1);
+      quaternion[3] = 0.25 / s;
+      quaternion[0] = (m[7] - m[5]) * s;
+      quaternion[1] = (m[2] - m[6]) * s;
+      quaternion[2] = (m[3] - m[1]) * s;
+    } else if (m[0] > m[4] && m[0] > m[8]) {
+      double s = 2 * Math.sqrt(1 + m[0] - m[4] - m[8]);
+      quaternion[3] = (m[7] - m[5]) / s;
+      quaternion[0] = 0.25 * s;
+      quaternion[1] = (m[1] + m[3]) / s;
+      quaternion[2] = (m[2] + m[6]) / s;
+    } else if (m[4] > m[8]) {
+      double s = 2 * Math.sqrt(1 + m[4] - m[0] - m[8]);
+      quaternion[3] = (m[2] - m[6]) / s;
+      quaternion[0] = (m[1] + m[3]) / s;
+      quaternion[1] = 0.25 * s;
+      quaternion[2] = (m[5] + m[7]) / s;
+    } else {
+      double s = 2 * Math.sqrt(1 + m[8] - m[0] - m[4]);
+      quaternion[3] = (m[3] - m[1]) / s;
+      quaternion[0] = (m[2] + m[6]) / s;
+      quaternion[1] = (m[5] + m[7]) / s;
+      quaternion[2] = 0.25 * s;
+    }
+  }
+
+  private void sendOrientation(long timestampNs) {
+    double x = quaternion[0];
+    double y = quaternion[1];
+    double z = quaternion[2];
+    double w = quaternion[3];
+    // The elements of the rotation matrix that SensorManager.getOrientation reads.
+    double m1 = 2 * (x * y - z * w);
+    double m4 = 1 - 2 * (x * x + z * z);
+    double m6 = 2 * (x * z - y * w);
+    double m7 = 2 * (y * z + x * w);
+    double m8 = 1 - 2 * (x * x + y * y);
+
+    double[] orientation = new double[8];
+    orientation[0] = timestampNs;
+    orientation[1] = x;
+    orientation[2] = y;
+    orientation[3] = z;
+    orientation[4] = w;
+    orientation[5] = Math.atan2(m1, m4);
+    orientation[6] = Math.asin(Math.max(-1, Math.min(1, -m7)));
+    orientation[7] = Math.atan2(-m6, m8);
+    events.success(orientation);
+  }
+
+  private static int toInt(Object o, int defaultValue) {
+    return o == null ? defaultValue : ((Number) o).intValue();
+  }
+}
@@ -0,0 +1,260 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.sensors;
+
+import android.annotation.TargetApi;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorEventListener2;
+import android.hardware.SensorManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import io.flutter.plugin.common.MethodChannel.Result;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the samples of a sensor to an append-only file, on a background thread.
+ *
+ * <p>The sensor is registered with a maximum report latency, so that a sensor with a hardware FIFO
+ * keeps sampling while the CPU sleeps and delivers its samples in bursts. No wake lock is held and
+ * the sensor is not a wake-up one: samples that overflow the FIFO while the device sleeps are lost.
+ * {@link #flush} makes the sensor deliver its FIFO right away.
+ *
+ * <p>Each record is the timestamp of a sample in nanoseconds as a little-endian int64, followed by
+ * its values as little-endian float32s. Records are buffered in memory and written when the buffer
+ * is full, when the recording is flushed and when it stops.
+ *
+ * <p>The methods must be called on the main thread, and complete their result on the main thread.
+ * Once the recording stopped or failed to start, they complete their result with an error.
+ */
+final class SensorRecorder {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final SensorManager sensorManager;
+  private final Sensor sensor;
+  private final int dimension;
+  private final HandlerThread thread;
+  private final Handler handler;
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private final SensorEventListener listener;
+  // Only used on the main thread. Whether the thread quit or is about to, calls are then rejected
+  // rather than posted to it.
+  private boolean isStopped = false;
+
+  // Only used on the recording thread.
+  private final ByteBuffer buffer =
+      ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+  private FileChannel file;
+  // The results of the flushes waiting for the sensor to deliver its FIFO.
+  private final List<Result> pendingFlushes = new ArrayList<>();
+  // The first failed write, reported by the next flush or stop.
+  private IOException writeError;
+  // Why the file could not be opened, reported by the calls made before the failure was known.
+  private IOException startError;
+
+  SensorRecorder(SensorManager sensorManager, Sensor sensor, int dimension) {
+    this.sensorManager = sensorManager;
+    this.sensor = sensor;
+    this.dimension = dimension;
+    thread = new HandlerThread("SensorRecorder");
+    thread.start();
+    handler = new Handler(thread.getLooper());
+    listener =
+        Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT
+            ? new FlushingListener()
+            : new Listener();
+  }
+
+  /** Opens the file at {@code path} for appending, and starts recording into it. */
+  void start(
+      final String path,
+      final int samplingPeriodUs,
+      final int maxReportLatencyUs,
+      final Result result) {
+    handler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            try {
+              file = new FileOutputStream(path, true).getChannel();
+            } catch (IOException e) {
+              startError = e;
+              fail(result, e);
+              return;
+            }
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+              sensorManager.registerListener(
+                  listener, sensor, samplingPeriodUs, maxReportLatencyUs, handler);
+            } else {
+              sensorManager.registerListener(listener, sensor, samplingPeriodUs, handler);
+            }
+            reply(result, null);
+          }
+        });
+  }
+
+  /** Writes the samples held by the sensor and by this recorder to the file. */
+  void flush(final Result result) {
+    if (isStopped) {
+      rejectStopped(result);
+      return;
+    }
+    handler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            if (file == null) {
+              reply(result, startError);
+              return;
+            }
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT
+                && sensorManager.flush(listener)) {
+              // Completed by onFlushCompleted, once the FIFO is delivered.
+              pendingFlushes.add(result);
+              return;
+            }
+            write();
+            reply(result, writeError);
+          }
+        });
+  }
+
+  /** Stops recording, writes the remaining samples and closes the file. */
+  void stop(final Result result) {
+    if (isStopped) {
+      rejectStopped(result);
+      return;
+    }
+    isStopped = true;
+    handler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            if (file == null) {
+              reply(result, startError);
+              thread.quit();
+              return;
+            }
+            sensorManager.unregisterListener(listener);
+            write();
+            try {
+              file.close();
+            } catch (IOException e) {
+              if (writeError == null) {
+                writeError = e;
+              }
+            }
+            for (Result pendingFlush : pendingFlushes) {
+              reply(pendingFlush, writeError);
+            }
+            pendingFlushes.clear();
+            reply(result, writeError);
+            thread.quit();
+          }
+        });
+  }
+
+  private void record(SensorEvent event) {
+    if (buffer.remaining() < 8 + 4 * dimension) {
+      write();
+    }
+    buffer.putLong(event.timestamp);
+    int count = Math.min(dimension, event.values.length);
+    for (int i = 0; i < count; i++) {
+      buffer.putFloat(event.values[i]);
+    }
+    for (int i = count; i < dimension; i++) {
+      buffer.putFloat(0);
+    }
+  }
+
+  private void write() {
+    buffer.flip();
+    try {
+      while (buffer.hasRemaining()) {
+        file.write(buffer);
+      }
+    } catch (IOException e) {
+      if (writeError == null) {
+        writeError = e;
+      }
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Completes the result of a start that failed, then quits the thread once the calls made until
+   * then ran. They are behind the start in the queue, and fail with the start error.
+   */
+  private void fail(final Result result, final IOException error) {
+    mainHandler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            if (!isStopped) {
+              isStopped = true;
+              handler.post(
+                  new Runnable() {
+                    @Override
+                    public void run() {
+                      thread.quit();
+                    }
+                  });
+            }
+            result.error("recording_failed", error.getMessage(), null);
+          }
+        });
+  }
+
+  private static void rejectStopped(Result result) {
+    result.error("not_recording", "The recording is stopped", null);
+  }
+
+  private void reply(final Result result, final IOException error) {
+    mainHandler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            if (error == null) {
+              result.success(null);
+            } else {
+              result.error("recording_failed", error.getMessage(), null);
+            }
+          }
+        });
+  }
+
+  private class Listener implements SensorEventListener {
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int accuracy) {}
+
+    @Override
+    public void onSensorChanged(SensorEvent event) {
+      record(event);
+    }
+  }
+
+  @TargetApi(Build.VERSION_CODES.KITKAT)
+  private final class FlushingListener extends Listener implements SensorEventListener2 {
+    @Override
+    public void onFlushCompleted(Sensor sensor) {
+      // Completes one flush per call, in the order they were requested.
+      if (pendingFlushes.isEmpty()) {
+        return;
+      }
+      write();
+      reply(pendingFlushes.remove(0), writeError);
+    }
+  }
+}
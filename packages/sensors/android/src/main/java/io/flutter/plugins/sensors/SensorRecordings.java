@@ -0,0 +1,124 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.sensors;
+
+import android.content.Context;
+import android.hardware.Sensor;
+import android.hardware.SensorManager;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
+import io.flutter.plugin.common.MethodChannel.Result;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Starts, flushes and stops the {@link SensorRecorder} of each sensor. */
+final class SensorRecordings implements MethodCallHandler {
+  private static final int DEFAULT_MAX_REPORT_LATENCY_US = 10 * 1000 * 1000;
+  private static final Map<String, Integer> SENSOR_TYPES = new HashMap<>();
+  // The number of values of each sample, by sensor type.
+  private static final Map<Integer, Integer> SENSOR_DIMENSIONS = new HashMap<>();
+
+  static {
+    SENSOR_TYPES.put("accelerometer", Sensor.TYPE_ACCELEROMETER);
+    SENSOR_TYPES.put("userAccelerometer", Sensor.TYPE_LINEAR_ACCELERATION);
+    SENSOR_TYPES.put("gyroscope", Sensor.TYPE_GYROSCOPE);
+    SENSOR_TYPES.put("magnetometer", Sensor.TYPE_MAGNETIC_FIELD);
+    SENSOR_TYPES.put("pressure", Sensor.TYPE_PRESSURE);
+    SENSOR_DIMENSIONS.put(Sensor.TYPE_ACCELEROMETER, 3);
+    SENSOR_DIMENSIONS.put(Sensor.TYPE_LINEAR_ACCELERATION, 3);
+    SENSOR_DIMENSIONS.put(Sensor.TYPE_GYROSCOPE, 3);
+    SENSOR_DIMENSIONS.put(Sensor.TYPE_MAGNETIC_FIELD, 3);
+    SENSOR_DIMENSIONS.put(Sensor.TYPE_PRESSURE, 1);
+  }
+
+  private final SensorManager sensorManager;
+  // The ongoing recordings, by sensor name.
+  private final Map<String, SensorRecorder> recorders = new HashMap<>();
+
+  SensorRecordings(Context context) {
+    sensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
+  }
+
+  @Override
+  public void onMethodCall(MethodCall call, Result result) {
+    String sensorName = call.argument("sensor");
+    switch (call.method) {
+      case "startRecording":
+        startRecording(call, sensorName, result);
+        break;
+      case "flushRecording":
+        {
+          SensorRecorder recorder = recorders.get(sensorName);
+          if (recorder == null) {
+            result.error("not_recording", "The sensor is not being recorded", null);
+            return;
+          }
+          recorder.flush(result);
+          break;
+        }
+      case "stopRecording":
+        {
+          SensorRecorder recorder = recorders.remove(sensorName);
+          if (recorder == null) {
+            result.success(null);
+            return;
+          }
+          recorder.stop(result);
+          break;
+        }
+      default:
+        result.notImplemented();
+        break;
+    }
+  }
+
+  private void startRecording(MethodCall call, final String sensorName, final Result result) {
+    if (recorders.containsKey(sensorName)) {
+      result.error("already_recording", "The sensor is already being recorded", null);
+      return;
+    }
+    Integer sensorType = SENSOR_TYPES.get(sensorName);
+    Sensor sensor = sensorType == null ? null : sensorManager.getDefaultSensor(sensorType);
+    if (sensor == null) {
+      result.error("sensor_unavailable", "The device has no " + sensorName + " sensor", null);
+      return;
+    }
+    int samplingPeriodUs =
+        toInt(call.argument("samplingPeriodUs"), SensorManager.SENSOR_DELAY_NORMAL);
+    int maxReportLatencyUs =
+        toInt(call.argument("maxReportLatencyUs"), DEFAULT_MAX_REPORT_LATENCY_US);
+    final SensorRecorder recorder =
+        new SensorRecorder(sensorManager, sensor, SENSOR_DIMENSIONS.get(sensorType));
+    recorders.put(sensorName, recorder);
+    recorder.start(
+        (String) call.argument("path"),
+        samplingPeriodUs,
+        maxReportLatencyUs,
+        new Result() {
+          @Override
+          public void success(Object o) {
+            result.success(o);
+          }
+
+          @Override
+          public void error(String code, String message, Object details) {
+            // The recorder did not start, it stops its thread.
+            if (recorders.get(sensorName) == recorder) {
+              recorders.remove(sensorName);
+            }
+            result.error(code, message, details);
+          }
+
+          @Override
+          public void notImplemented() {
+            result.notImplemented();
+          }
+        });
+  }
+
+  private static int toInt(Object o, int defaultValue) {
+    return o == null ? defaultValue : ((Number) o).intValue();
+  }
+}
@@ -10,6 +10,7 @@ import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
 import io.flutter.plugin.common.EventChannel;
+import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.PluginRegistry.Registrar;
 
 /** SensorsPlugin */
@@ -19,6 +20,13 @@ public class SensorsPlugin implements EventChannel.StreamHandler {
   private static final String GYROSCOPE_CHANNEL_NAME = "plugins.flutter.io/sensors/gyroscope";
   private static final String USER_ACCELEROMETER_CHANNEL_NAME =
       "plugins.flutter.io/sensors/user_accel";
+  private static final String MAGNETOMETER_CHANNEL_NAME = "plugins.flutter.io/sensors/magnetometer";
+  private static final String ROTATION_VECTOR_CHANNEL_NAME =
+      "plugins.flutter.io/sensors/rotation_vector";
+  private static final String PRESSURE_CHANNEL_NAME = "plugins.flutter.io/sensors/pressure";
+  private static final String ORIENTATION_CHANNEL_NAME = "plugins.flutter.io/sensors/orientation";
+  private static final String BATCHES_SUFFIX = "/batches";
+  private static final String RECORDINGS_CHANNEL_NAME = "plugins.flutter.io/sensors/recordings";
 
   /** Plugin registration. */
   public static void registerWith(Registrar registrar) {
@@ -36,6 +44,42 @@ public class SensorsPlugin implements EventChannel.StreamHandler {
         new EventChannel(registrar.messenger(), GYROSCOPE_CHANNEL_NAME);
     gyroscopeChannel.setStreamHandler(
         new SensorsPlugin(registrar.context(), Sensor.TYPE_GYROSCOPE));
+
+    final EventChannel magnetometerChannel =
+        new EventChannel(registrar.messenger(), MAGNETOMETER_CHANNEL_NAME);
+    magnetometerChannel.setStreamHandler(
+        new SensorsPlugin(registrar.context(), Sensor.TYPE_MAGNETIC_FIELD));
+
+    final EventChannel rotationVectorChannel =
+        new EventChannel(registrar.messenger(), ROTATION_VECTOR_CHANNEL_NAME);
+    rotationVectorChannel.setStreamHandler(
+        new SensorsPlugin(registrar.context(), Sensor.TYPE_ROTATION_VECTOR));
+
+    final EventChannel pressureChannel =
+        new EventChannel(registrar.messenger(), PRESSURE_CHANNEL_NAME);
+    pressureChannel.setStreamHandler(new SensorsPlugin(registrar.context(), Sensor.TYPE_PRESSURE));
+
+    final EventChannel orientationChannel =
+        new EventChannel(registrar.messenger(), ORIENTATION_CHANNEL_NAME);
+    orientationChannel.setStreamHandler(new OrientationStreamHandler(registrar.context()));
+
+    registerBatches(registrar, ACCELEROMETER_CHANNEL_NAME, Sensor.TYPE_ACCELEROMETER, 3);
+    registerBatches(registrar, USER_ACCELEROMETER_CHANNEL_NAME, Sensor.TYPE_LINEAR_ACCELERATION, 3);
+    registerBatches(registrar, GYROSCOPE_CHANNEL_NAME, Sensor.TYPE_GYROSCOPE, 3);
+    registerBatches(registrar, MAGNETOMETER_CHANNEL_NAME, Sensor.TYPE_MAGNETIC_FIELD, 3);
+    registerBatches(registrar, PRESSURE_CHANNEL_NAME, Sensor.TYPE_PRESSURE, 1);
+
+    final MethodChannel recordingsChannel =
+        new MethodChannel(registrar.messenger(), RECORDINGS_CHANNEL_NAME);
+    recordingsChannel.setMethodCallHandler(new SensorRecordings(registrar.context()));
+  }
+
+  private static void registerBatches(
+      Registrar registrar, String channelName, int sensorType, int dimension) {
+    final EventChannel channel =
+        new EventChannel(registrar.messenger(), channelName + BATCHES_SUFFIX);
+    channel.setStreamHandler(
+        new BatchedSensorStreamHandler(registrar.context(), sensorType, dimension));
   }
 
   private SensorEventListener sensorEventListener;
@@ -49,6 +93,10 @@ public class SensorsPlugin implements EventChannel.StreamHandler {
 
   @Override
   public void onListen(Object arguments, EventChannel.EventSink events) {
+    if (sensor == null) {
+      events.error("sensor_unavailable", "The device has no such sensor", null);
+      return;
+    }
     sensorEventListener = createSensorEventListener(events);
     sensorManager.registerListener(sensorEventListener, sensor, sensorManager.SENSOR_DELAY_NORMAL);
   }
@@ -1,4 +1,8 @@
 import 'dart:async';
+import 'dart:io';
+import 'dart:math' as math;
+import 'dart:typed_data';
+
 import 'package:flutter/services.dart';
 
 const EventChannel _accelerometerEventChannel =
@@ -10,6 +14,36 @@ const EventChannel _userAccelerometerEventChannel =
 const EventChannel _gyroscopeEventChannel =
     EventChannel('plugins.flutter.io/sensors/gyroscope');
 
+const EventChannel _magnetometerEventChannel =
+    EventChannel('plugins.flutter.io/sensors/magnetometer');
+
+const EventChannel _rotationVectorEventChannel =
+    EventChannel('plugins.flutter.io/sensors/rotation_vector');
+
+const EventChannel _pressureEventChannel =
+    EventChannel('plugins.flutter.io/sensors/pressure');
+
+const EventChannel _orientationEventChannel =
+    EventChannel('plugins.flutter.io/sensors/orientation');
+
+const EventChannel _accelerometerBatchEventChannel =
+    EventChannel('plugins.flutter.io/sensors/accelerometer/batches');
+
+const EventChannel _userAccelerometerBatchEventChannel =
+    EventChannel('plugins.flutter.io/sensors/user_accel/batches');
+
+const EventChannel _gyroscopeBatchEventChannel =
+    EventChannel('plugins.flutter.io/sensors/gyroscope/batches');
+
+const EventChannel _magnetometerBatchEventChannel =
+    EventChannel('plugins.flutter.io/sensors/magnetometer/batches');
+
+const EventChannel _pressureBatchEventChannel =
+    EventChannel('plugins.flutter.io/sensors/pressure/batches');
+
+const MethodChannel _recordingsChannel =
+    MethodChannel('plugins.flutter.io/sensors/recordings');
+
 class AccelerometerEvent {
   AccelerometerEvent(this.x, this.y, this.z);
 
@@ -58,6 +92,206 @@ class UserAccelerometerEvent {
   String toString() => '[UserAccelerometerEvent (x: $x, y: $y, z: $z)]';
 }
 
+class MagnetometerEvent {
+  MagnetometerEvent(this.x, this.y, this.z);
+
+  /// Ambient magnetic field along the x axis measured in μT.
+  final double x;
+
+  /// Ambient magnetic field along the y axis measured in μT.
+  final double y;
+
+  /// Ambient magnetic field along the z axis measured in μT.
+  final double z;
+
+  @override
+  String toString() => '[MagnetometerEvent (x: $x, y: $y, z: $z)]';
+}
+
+/// The orientation of the device as a unit quaternion, relative to the east,
+/// the magnetic north and the sky.
+class RotationVectorEvent {
+  RotationVectorEvent(this.x, this.y, this.z, this.w);
+
+  final double x;
+
+  final double y;
+
+  final double z;
+
+  /// The scalar component of the quaternion.
+  final double w;
+
+  @override
+  String toString() => '[RotationVectorEvent (x: $x, y: $y, z: $z, w: $w)]';
+}
+
+class PressureEvent {
+  PressureEvent(this.pressure);
+
+  /// Atmospheric pressure measured in hPa.
+  final double pressure;
+
+  @override
+  String toString() => '[PressureEvent (pressure: $pressure)]';
+}
+
+/// The orientation of the device, fused from its motion sensors.
+class OrientationEvent {
+  OrientationEvent._fromList(List<double> list)
+      : timestamp = list[0].toInt(),
+        x = list[1],
+        y = list[2],
+        z = list[3],
+        w = list[4],
+        azimuth = list[5],
+        pitch = list[6],
+        roll = list[7];
+
+  /// The time at which the orientation was measured, in nanoseconds since the
+  /// device booted.
+  final int timestamp;
+
+  /// The x component of the orientation as a unit quaternion.
+  final double x;
+
+  /// The y component of the orientation as a unit quaternion.
+  final double y;
+
+  /// The z component of the orientation as a unit quaternion.
+  final double z;
+
+  /// The scalar component of the orientation as a unit quaternion.
+  final double w;
+
+  /// The angle between the y axis of the device and the north, from -π to π
+  /// radians, as computed by Android's `SensorManager.getOrientation`.
+  final double azimuth;
+
+  /// The rotation around the x axis of the device, from -π/2 to π/2 radians.
+  final double pitch;
+
+  /// The rotation around the y axis of the device, from -π to π radians.
+  final double roll;
+
+  @override
+  String toString() => '[OrientationEvent '
+      '(x: $x, y: $y, z: $z, w: $w, '
+      'azimuth: $azimuth, pitch: $pitch, roll: $roll)]';
+}
+
+/// How the orientation of the device is fused and how often it is sent.
+class OrientationOptions {
+  const OrientationOptions({
+    this.samplingPeriod,
+    this.interval = const Duration(milliseconds: 50),
+    this.useMagnetometer = true,
+  })  : assert(interval != null),
+        assert(useMagnetometer != null);
+
+  /// The period at which the fused sensors are sampled, or null for 20 ms.
+  final Duration samplingPeriod;
+
+  /// The minimum time between two [OrientationEvent]s.
+  ///
+  /// The samples in between are only used by the fusion, which keeps the
+  /// stream cheap when the sensors are sampled fast.
+  final Duration interval;
+
+  /// Whether the azimuth is relative to the magnetic north.
+  ///
+  /// Without the magnetometer the orientation is not disturbed by magnetic
+  /// fields, but its azimuth drifts. Ignored before Android 4.3.
+  final bool useMagnetometer;
+
+  Map<String, dynamic> _toMap() {
+    final Map<String, dynamic> json = <String, dynamic>{
+      'intervalMs': interval.inMilliseconds,
+      'useMagnetometer': useMagnetometer,
+    };
+    if (samplingPeriod != null) {
+      json['samplingPeriodUs'] = samplingPeriod.inMicroseconds;
+    }
+    return json;
+  }
+}
+
+/// How the samples of a sensor are collected and batched.
+///
+/// Values that are null keep the defaults of the platform.
+class SensorBatchOptions {
+  const SensorBatchOptions({
+    this.samplingPeriod,
+    this.maxReportLatency,
+    this.batchInterval = const Duration(milliseconds: 100),
+  }) : assert(batchInterval != null);
+
+  /// The period at which the sensor is sampled, or null for 200 ms.
+  ///
+  /// This is a hint, the sensor can sample faster or slower.
+  final Duration samplingPeriod;
+
+  /// How long the sensor can hold samples in its hardware queue before
+  /// delivering them, which saves power. Null delivers them right away.
+  ///
+  /// Ignored by the sensors that have no hardware queue, and before Android
+  /// 4.4.
+  final Duration maxReportLatency;
+
+  /// How often the collected samples are sent as a [SensorBatch].
+  final Duration batchInterval;
+
+  Map<String, dynamic> _toMap() {
+    final Map<String, dynamic> json = <String, dynamic>{};
+
+    void addIfPresent(String fieldName, dynamic value) {
+      if (value != null) {
+        json[fieldName] = value;
+      }
+    }
+
+    addIfPresent('samplingPeriodUs', samplingPeriod?.inMicroseconds);
+    addIfPresent('maxReportLatencyUs', maxReportLatency?.inMicroseconds);
+    addIfPresent('batchIntervalMs', batchInterval.inMilliseconds);
+    return json;
+  }
+}
+
+/// The samples of a sensor collected during a batch interval.
+class SensorBatch {
+  SensorBatch._(this.samples, this.dimension);
+
+  /// The packed samples, each as its timestamp in nanoseconds followed by its
+  /// [dimension] values.
+  final Float64List samples;
+
+  /// The number of values of each sample, such as 3 for the x, y and z axes.
+  final int dimension;
+
+  /// The number of samples in the batch.
+  int get length => samples.length ~/ (dimension + 1);
+
+  /// The time at which the sample at [index] was taken, in nanoseconds since
+  /// the device booted.
+  int timestampAt(int index) => samples[index * (dimension + 1)].toInt();
+
+  /// The value of the sample at [index] for [axis], such as 0 for x.
+  double valueAt(int index, int axis) {
+    assert(axis >= 0 && axis < dimension);
+    return samples[index * (dimension + 1) + 1 + axis];
+  }
+
+  @override
+  String toString() => '[SensorBatch (length: $length)]';
+}
+
+Stream<SensorBatch> _batches(
+    EventChannel channel, SensorBatchOptions options, int dimension) {
+  return channel
+      .receiveBroadcastStream(options._toMap())
+      .map((dynamic event) => SensorBatch._(event, dimension));
+}
+
 AccelerometerEvent _listToAccelerometerEvent(List<double> list) {
   return AccelerometerEvent(list[0], list[1], list[2]);
 }
@@ -70,9 +304,27 @@ GyroscopeEvent _listToGyroscopeEvent(List<double> list) {
   return GyroscopeEvent(list[0], list[1], list[2]);
 }
 
+MagnetometerEvent _listToMagnetometerEvent(List<double> list) {
+  return MagnetometerEvent(list[0], list[1], list[2]);
+}
+
+RotationVectorEvent _listToRotationVectorEvent(List<double> list) {
+  final double x = list[0];
+  final double y = list[1];
+  final double z = list[2];
+  // The scalar component is optional before Android 4.3.
+  final double w = list.length > 3
+      ? list[3]
+      : math.sqrt(math.max(0.0, 1.0 - x * x - y * y - z * z));
+  return RotationVectorEvent(x, y, z, w);
+}
+
 Stream<AccelerometerEvent> _accelerometerEvents;
 Stream<GyroscopeEvent> _gyroscopeEvents;
 Stream<UserAccelerometerEvent> _userAccelerometerEvents;
+Stream<MagnetometerEvent> _magnetometerEvents;
+Stream<RotationVectorEvent> _rotationVectorEvents;
+Stream<PressureEvent> _pressureEvents;
 
 /// A broadcast stream of events from the device accelerometer.
 Stream<AccelerometerEvent> get accelerometerEvents {
@@ -105,3 +357,220 @@ Stream<UserAccelerometerEvent> get userAccelerometerEvents {
   }
   return _userAccelerometerEvents;
 }
+
+/// A broadcast stream of events from the device magnetometer.
+///
+/// Only supported on Android.
+Stream<MagnetometerEvent> get magnetometerEvents {
+  return _magnetometerEvents ??= _magnetometerEventChannel
+      .receiveBroadcastStream()
+      .map((dynamic event) => _listToMagnetometerEvent(event.cast<double>()));
+}
+
+/// A broadcast stream of events from the rotation vector sensor, which fuses
+/// the accelerometer, the gyroscope and the magnetometer.
+///
+/// Only supported on Android.
+Stream<RotationVectorEvent> get rotationVectorEvents {
+  return _rotationVectorEvents ??= _rotationVectorEventChannel
+      .receiveBroadcastStream()
+      .map((dynamic event) =>
+          _listToRotationVectorEvent(event.cast<double>()));
+}
+
+/// A broadcast stream of events from the device barometer.
+///
+/// Only supported on Android. Many devices have no barometer, the stream then
+/// emits a [PlatformException] with the code `sensor_unavailable`.
+Stream<PressureEvent> get pressureEvents {
+  return _pressureEvents ??= _pressureEventChannel
+      .receiveBroadcastStream()
+      .map((dynamic event) => PressureEvent(event[0]));
+}
+
+/// A broadcast stream of the orientation of the device, fused on the platform
+/// from its motion sensors and sent at most once per
+/// [OrientationOptions.interval].
+///
+/// Only supported on Android, where the orientation comes from the rotation
+/// vector sensors when the device has them, and from the accelerometer and the
+/// magnetometer otherwise. The orientation has a single stream at a time:
+/// listening with other [options] replaces the previous stream.
+Stream<OrientationEvent> orientationEvents(
+    [OrientationOptions options = const OrientationOptions()]) {
+  return _orientationEventChannel
+      .receiveBroadcastStream(options._toMap())
+      .map((dynamic event) =>
+          OrientationEvent._fromList(event.cast<double>()));
+}
+
+/// A broadcast stream of batches of samples from the device accelerometer,
+/// with the same values as [accelerometerEvents].
+///
+/// Only supported on Android. Batching sends far fewer messages than
+/// [accelerometerEvents] at high sampling rates. A sensor has a single batched
+/// stream at a time: listening with other [options] replaces the previous
+/// stream.
+Stream<SensorBatch> accelerometerBatches(
+    [SensorBatchOptions options = const SensorBatchOptions()]) {
+  return _batches(_accelerometerBatchEventChannel, options, 3);
+}
+
+/// A broadcast stream of batches of samples from the device gyroscope, with
+/// the same values as [gyroscopeEvents].
+///
+/// See [accelerometerBatches].
+Stream<SensorBatch> gyroscopeBatches(
+    [SensorBatchOptions options = const SensorBatchOptions()]) {
+  return _batches(_gyroscopeBatchEventChannel, options, 3);
+}
+
+/// A broadcast stream of batches of samples from the device accelerometer
+/// with gravity removed, with the same values as [userAccelerometerEvents].
+///
+/// See [accelerometerBatches].
+Stream<SensorBatch> userAccelerometerBatches(
+    [SensorBatchOptions options = const SensorBatchOptions()]) {
+  return _batches(_userAccelerometerBatchEventChannel, options, 3);
+}
+
+/// A broadcast stream of batches of samples from the device magnetometer,
+/// with the same values as [magnetometerEvents].
+///
+/// See [accelerometerBatches].
+Stream<SensorBatch> magnetometerBatches(
+    [SensorBatchOptions options = const SensorBatchOptions()]) {
+  return _batches(_magnetometerBatchEventChannel, options, 3);
+}
+
+/// A broadcast stream of batches of samples from the device barometer, with
+/// the same values as [pressureEvents].
+///
+/// See [accelerometerBatches].
+Stream<SensorBatch> pressureBatches(
+    [SensorBatchOptions options = const SensorBatchOptions()]) {
+  return _batches(_pressureBatchEventChannel, options, 1);
+}
+
+/// A sensor that can be recorded by a [SensorRecorder].
+///
+/// The samples of [pressure] have one value, the others have three.
+enum RecordedSensor {
+  accelerometer,
+  userAccelerometer,
+  gyroscope,
+  magnetometer,
+  pressure,
+}
+
+/// Records the samples of a sensor to a file, without keeping a stream open.
+///
+/// Only supported on Android. The sensor holds its samples in its hardware
+/// FIFO, when it has one, for up to [maxReportLatency] while the device
+/// sleeps, and the platform appends them to the file at [path] on a background
+/// thread. No wake lock is held: samples that overflow the FIFO while the
+/// device sleeps are lost. Recording goes on while the app process lives.
+///
+/// Samples are written to the file in bursts. Call [flush] before reading the
+/// latest samples with [SensorRecording].
+class SensorRecorder {
+  SensorRecorder(
+    this.sensor,
+    this.path, {
+    this.samplingPeriod,
+    this.maxReportLatency = const Duration(seconds: 10),
+  })  : assert(sensor != null),
+        assert(path != null),
+        assert(maxReportLatency != null);
+
+  final RecordedSensor sensor;
+
+  /// The file the samples are appended to, created if it does not exist.
+  final String path;
+
+  /// The period at which the sensor is sampled, or null for 200 ms.
+  final Duration samplingPeriod;
+
+  /// How long the sensor can hold samples before delivering them.
+  final Duration maxReportLatency;
+
+  String get _sensorName => sensor.toString().split('.').last;
+
+  /// Starts recording. A sensor can only have one recording at a time.
+  Future<void> start() async {
+    final Map<String, dynamic> arguments = <String, dynamic>{
+      'sensor': _sensorName,
+      'path': path,
+      'maxReportLatencyUs': maxReportLatency.inMicroseconds,
+    };
+    if (samplingPeriod != null) {
+      arguments['samplingPeriodUs'] = samplingPeriod.inMicroseconds;
+    }
+    await _recordingsChannel.invokeMethod<void>('startRecording', arguments);
+  }
+
+  /// Writes the samples held by the sensor and the platform to the file.
+  Future<void> flush() async {
+    await _recordingsChannel.invokeMethod<void>(
+      'flushRecording',
+      <String, dynamic>{'sensor': _sensorName},
+    );
+  }
+
+  /// Stops recording and writes the remaining samples to the file.
+  Future<void> stop() async {
+    await _recordingsChannel.invokeMethod<void>(
+      'stopRecording',
+      <String, dynamic>{'sensor': _sensorName},
+    );
+  }
+}
+
+/// The samples a [SensorRecorder] wrote to a file.
+///
+/// Each record of the file is the timestamp of a sample in nanoseconds as a
+/// little-endian int64, followed by its [dimension] values as little-endian
+/// float32s.
+class SensorRecording {
+  SensorRecording(this.path, {this.dimension = 3})
+      : assert(path != null),
+        assert(dimension != null && dimension > 0);
+
+  final String path;
+
+  /// The number of values of each sample: 1 for a recording of
+  /// [RecordedSensor.pressure], 3 for the other sensors.
+  final int dimension;
+
+  int get _recordSize => 8 + 4 * dimension;
+
+  /// The number of samples in the file.
+  Future<int> get length async => await File(path).length() ~/ _recordSize;
+
+  /// Reads up to [count] samples, from the sample at index [start].
+  Future<SensorBatch> read(int start, int count) async {
+    assert(start != null && start >= 0);
+    assert(count != null && count >= 0);
+    final RandomAccessFile file = await File(path).open();
+    try {
+      await file.setPosition(start * _recordSize);
+      final Uint8List bytes = await file.read(count * _recordSize);
+      final ByteData data = bytes.buffer.asByteData(bytes.offsetInBytes);
+      final int length = bytes.length ~/ _recordSize;
+      final int stride = dimension + 1;
+      final Float64List samples = Float64List(length * stride);
+      for (int i = 0; i < length; i++) {
+        final int offset = i * _recordSize;
+        samples[i * stride] =
+            data.getInt64(offset, Endian.little).toDouble();
+        for (int axis = 0; axis < dimension; axis++) {
+          samples[i * stride + 1 + axis] =
+              data.getFloat32(offset + 8 + 4 * axis, Endian.little);
+        }
+      }
+      return SensorBatch._(samples, dimension);
+    } finally {
+      await file.close();
+    }
+  }
+}
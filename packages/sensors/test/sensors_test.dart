@@ -1,4 +1,5 @@
 import 'dart:async';
+import 'dart:io';
 import 'dart:typed_data';
 
 import 'package:flutter/services.dart';
@@ -49,4 +50,176 @@ void main() {
     await Future<void>.delayed(Duration.zero);
     expect(isCanceled, isTrue);
   });
+
+  test('$accelerometerBatches are streamed', () async {
+    const String channelName =
+        'plugins.flutter.io/sensors/accelerometer/batches';
+    final Float64List sensorData = Float64List.fromList(<double>[
+      1000.0, 1.0, 2.0, 3.0, //
+      6000.0, 4.0, 5.0, 6.0,
+    ]);
+
+    const StandardMethodCodec standardMethod = StandardMethodCodec();
+
+    dynamic arguments;
+    // TODO(hterkelsen): Remove this when defaultBinaryMessages is in stable.
+    // https://github.com/flutter/flutter/issues/33446
+    // ignore: deprecated_member_use
+    BinaryMessages.setMockMessageHandler(channelName, (ByteData message) async {
+      final MethodCall methodCall = standardMethod.decodeMethodCall(message);
+      if (methodCall.method == 'listen') {
+        arguments = methodCall.arguments;
+        // ignore: deprecated_member_use
+        BinaryMessages.handlePlatformMessage(
+          channelName,
+          standardMethod.encodeSuccessEnvelope(sensorData),
+          (ByteData reply) {},
+        );
+      }
+      return standardMethod.encodeSuccessEnvelope(null);
+    });
+
+    final SensorBatch batch = await accelerometerBatches(
+      const SensorBatchOptions(
+        samplingPeriod: Duration(microseconds: 5000),
+        maxReportLatency: Duration(milliseconds: 500),
+        batchInterval: Duration(milliseconds: 250),
+      ),
+    ).first;
+    expect(arguments, <String, dynamic>{
+      'samplingPeriodUs': 5000,
+      'maxReportLatencyUs': 500000,
+      'batchIntervalMs': 250,
+    });
+    expect(batch.length, 2);
+    expect(batch.timestampAt(1), 6000);
+    expect(batch.valueAt(0, 0), 1.0);
+    expect(batch.valueAt(1, 2), 6.0);
+  });
+
+  test('$SensorRecorder calls the platform', () async {
+    const MethodChannel channel =
+        MethodChannel('plugins.flutter.io/sensors/recordings');
+    final List<MethodCall> log = <MethodCall>[];
+    channel.setMockMethodCallHandler((MethodCall methodCall) async {
+      log.add(methodCall);
+      return null;
+    });
+
+    final SensorRecorder recorder = SensorRecorder(
+      RecordedSensor.userAccelerometer,
+      '/data/gait.bin',
+      samplingPeriod: const Duration(microseconds: 10000),
+    );
+    await recorder.start();
+    await recorder.flush();
+    await recorder.stop();
+
+    expect(log.map((MethodCall call) => call.method), <String>[
+      'startRecording',
+      'flushRecording',
+      'stopRecording',
+    ]);
+    expect(log.first.arguments, <String, dynamic>{
+      'sensor': 'userAccelerometer',
+      'path': '/data/gait.bin',
+      'maxReportLatencyUs': 10000000,
+      'samplingPeriodUs': 10000,
+    });
+    expect(log.last.arguments,
+        <String, dynamic>{'sensor': 'userAccelerometer'});
+
+    channel.setMockMethodCallHandler(null);
+  });
+
+  test('$SensorRecording reads ranges of samples', () async {
+    final Directory directory = Directory.systemTemp.createTempSync();
+    final File file = File('${directory.path}/recording.bin');
+    final ByteData data = ByteData(3 * 20);
+    for (int i = 0; i < 3; i++) {
+      data.setInt64(i * 20, 1000 * (i + 1), Endian.little);
+      for (int axis = 0; axis < 3; axis++) {
+        data.setFloat32(i * 20 + 8 + 4 * axis, i + axis / 4, Endian.little);
+      }
+    }
+    file.writeAsBytesSync(data.buffer.asUint8List());
+
+    final SensorRecording recording = SensorRecording(file.path);
+    expect(await recording.length, 3);
+    final SensorBatch batch = await recording.read(1, 5);
+    expect(batch.length, 2);
+    expect(batch.timestampAt(0), 2000);
+    expect(batch.valueAt(0, 1), 1.25);
+    expect(batch.timestampAt(1), 3000);
+    expect(batch.valueAt(1, 2), 2.5);
+
+    directory.deleteSync(recursive: true);
+  });
+
+  test('$orientationEvents are streamed', () async {
+    const String channelName = 'plugins.flutter.io/sensors/orientation';
+    final Float64List sensorData = Float64List.fromList(<double>[
+      5000.0, 0.0, 0.0, 0.6, 0.8, -1.25, 0.5, 0.25, //
+    ]);
+
+    const StandardMethodCodec standardMethod = StandardMethodCodec();
+
+    dynamic arguments;
+    // ignore: deprecated_member_use
+    BinaryMessages.setMockMessageHandler(channelName, (ByteData message) async {
+      final MethodCall methodCall = standardMethod.decodeMethodCall(message);
+      if (methodCall.method == 'listen') {
+        arguments = methodCall.arguments;
+        // ignore: deprecated_member_use
+        BinaryMessages.handlePlatformMessage(
+          channelName,
+          standardMethod.encodeSuccessEnvelope(sensorData),
+          (ByteData reply) {},
+        );
+      }
+      return standardMethod.encodeSuccessEnvelope(null);
+    });
+
+    final OrientationEvent event = await orientationEvents(
+      const OrientationOptions(
+        samplingPeriod: Duration(microseconds: 5000),
+        interval: Duration(milliseconds: 100),
+        useMagnetometer: false,
+      ),
+    ).first;
+    expect(arguments, <String, dynamic>{
+      'intervalMs': 100,
+      'useMagnetometer': false,
+      'samplingPeriodUs': 5000,
+    });
+    expect(event.timestamp, 5000);
+    expect(event.z, 0.6);
+    expect(event.w, 0.8);
+    expect(event.azimuth, -1.25);
+    expect(event.pitch, 0.5);
+    expect(event.roll, 0.25);
+  });
+
+  test('$rotationVectorEvents without a scalar component', () async {
+    const String channelName = 'plugins.flutter.io/sensors/rotation_vector';
+    const StandardMethodCodec standardMethod = StandardMethodCodec();
+
+    // ignore: deprecated_member_use
+    BinaryMessages.setMockMessageHandler(channelName, (ByteData message) async {
+      final MethodCall methodCall = standardMethod.decodeMethodCall(message);
+      if (methodCall.method == 'listen') {
+        // ignore: deprecated_member_use
+        BinaryMessages.handlePlatformMessage(
+          channelName,
+          standardMethod.encodeSuccessEnvelope(<double>[0.0, 0.6, 0.0]),
+          (ByteData reply) {},
+        );
+      }
+      return standardMethod.encodeSuccessEnvelope(null);
+    });
+
+    final RotationVectorEvent event = await rotationVectorEvents.first;
+    expect(event.y, 0.6);
+    expect(event.w, closeTo(0.8, 1e-9));
+  });
 }
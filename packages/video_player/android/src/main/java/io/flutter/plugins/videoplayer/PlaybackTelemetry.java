@@ -0,0 +1,202 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Surface;
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.Format;
+import com.google.android.exoplayer2.Player;
+import com.google.android.exoplayer2.analytics.AnalyticsListener;
+import io.flutter.plugin.common.EventChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures the quality of experience of a player and reports it on an event channel.
+ *
+ * <p>Every report is a snapshot of all the metrics since the player was created, so reports can be
+ * dropped: while nothing listens no report is sent, and a listener gets the current snapshot right
+ * away. Reports are sent when a metric changes, at most once per interval.
+ *
+ * <p>Analytics events are delivered on the thread of the player, the main thread.
+ */
+final class PlaybackTelemetry implements AnalyticsListener, EventChannel.StreamHandler {
+  private final EventChannel eventChannel;
+  private final long intervalMs;
+  private final long createdAtMs = SystemClock.elapsedRealtime();
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable reportRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          reportScheduled = false;
+          sendReport();
+        }
+      };
+  private EventChannel.EventSink eventSink;
+  private long lastReportMs = C.TIME_UNSET;
+  private boolean reportScheduled = false;
+
+  private long timeToFirstFrameMs = C.TIME_UNSET;
+  private boolean hasBeenReady = false;
+  private boolean isSeeking = false;
+  // When the ongoing rebuffer started, or C.TIME_UNSET if the player is not rebuffering.
+  private long rebufferStartMs = C.TIME_UNSET;
+  private int rebufferCount = 0;
+  private long rebufferDurationMs = 0;
+  private long droppedFrames = 0;
+  private long videoDecoderInitMs = C.TIME_UNSET;
+  private long audioDecoderInitMs = C.TIME_UNSET;
+  private Format videoFormat;
+  private int videoFormatChanges = 0;
+
+  PlaybackTelemetry(EventChannel eventChannel, long intervalMs) {
+    this.eventChannel = eventChannel;
+    this.intervalMs = intervalMs;
+    eventChannel.setStreamHandler(this);
+  }
+
+  void dispose() {
+    handler.removeCallbacks(reportRunnable);
+    eventChannel.setStreamHandler(null);
+    eventSink = null;
+  }
+
+  @Override
+  public void onListen(Object arguments, EventChannel.EventSink eventSink) {
+    this.eventSink = eventSink;
+    sendReport();
+  }
+
+  @Override
+  public void onCancel(Object arguments) {
+    eventSink = null;
+  }
+
+  @Override
+  public void onPlayerStateChanged(EventTime eventTime, boolean playWhenReady, int playbackState) {
+    switch (playbackState) {
+      case Player.STATE_BUFFERING:
+        // Buffering before the first frame, after a seek or while paused is not a rebuffer.
+        if (hasBeenReady && playWhenReady && !isSeeking && rebufferStartMs == C.TIME_UNSET) {
+          rebufferStartMs = eventTime.realtimeMs;
+          rebufferCount++;
+          scheduleReport();
+        }
+        break;
+      case Player.STATE_READY:
+        hasBeenReady = true;
+        isSeeking = false;
+        endRebuffer(eventTime.realtimeMs);
+        break;
+      default:
+        endRebuffer(eventTime.realtimeMs);
+        break;
+    }
+  }
+
+  @Override
+  public void onSeekStarted(EventTime eventTime) {
+    isSeeking = true;
+    endRebuffer(eventTime.realtimeMs);
+  }
+
+  @Override
+  public void onRenderedFirstFrame(EventTime eventTime, Surface surface) {
+    if (timeToFirstFrameMs == C.TIME_UNSET) {
+      timeToFirstFrameMs = eventTime.realtimeMs - createdAtMs;
+      scheduleReport();
+    }
+  }
+
+  @Override
+  public void onDroppedVideoFrames(EventTime eventTime, int droppedFrames, long elapsedMs) {
+    this.droppedFrames += droppedFrames;
+    scheduleReport();
+  }
+
+  @Override
+  public void onDecoderInitialized(
+      EventTime eventTime, int trackType, String decoderName, long initializationDurationMs) {
+    if (trackType == C.TRACK_TYPE_VIDEO) {
+      videoDecoderInitMs = initializationDurationMs;
+    } else if (trackType == C.TRACK_TYPE_AUDIO) {
+      audioDecoderInitMs = initializationDurationMs;
+    } else {
+      return;
+    }
+    scheduleReport();
+  }
+
+  @Override
+  public void onDecoderInputFormatChanged(EventTime eventTime, int trackType, Format format) {
+    if (trackType != C.TRACK_TYPE_VIDEO) {
+      return;
+    }
+    if (videoFormat != null) {
+      videoFormatChanges++;
+    }
+    videoFormat = format;
+    scheduleReport();
+  }
+
+  private void endRebuffer(long realtimeMs) {
+    if (rebufferStartMs != C.TIME_UNSET) {
+      rebufferDurationMs += realtimeMs - rebufferStartMs;
+      rebufferStartMs = C.TIME_UNSET;
+      scheduleReport();
+    }
+  }
+
+  private void scheduleReport() {
+    if (eventSink == null || reportScheduled) {
+      return;
+    }
+    long delayMs =
+        lastReportMs == C.TIME_UNSET
+            ? 0
+            : lastReportMs + intervalMs - SystemClock.elapsedRealtime();
+    if (delayMs <= 0) {
+      sendReport();
+    } else {
+      reportScheduled = true;
+      handler.postDelayed(reportRunnable, delayMs);
+    }
+  }
+
+  private void sendReport() {
+    if (eventSink == null) {
+      return;
+    }
+    handler.removeCallbacks(reportRunnable);
+    reportScheduled = false;
+    long now = SystemClock.elapsedRealtime();
+    lastReportMs = now;
+    Map<String, Object> report = new HashMap<>();
+    if (timeToFirstFrameMs != C.TIME_UNSET) {
+      report.put("timeToFirstFrameMs", timeToFirstFrameMs);
+    }
+    report.put("rebufferCount", rebufferCount);
+    long ongoingRebufferMs = rebufferStartMs == C.TIME_UNSET ? 0 : now - rebufferStartMs;
+    report.put("rebufferDurationMs", rebufferDurationMs + ongoingRebufferMs);
+    report.put("droppedFrames", droppedFrames);
+    if (videoDecoderInitMs != C.TIME_UNSET) {
+      report.put("videoDecoderInitMs", videoDecoderInitMs);
+    }
+    if (audioDecoderInitMs != C.TIME_UNSET) {
+      report.put("audioDecoderInitMs", audioDecoderInitMs);
+    }
+    if (videoFormat != null) {
+      report.put("videoWidth", videoFormat.width);
+      report.put("videoHeight", videoFormat.height);
+      report.put("videoBitrate", videoFormat.bitrate);
+    }
+    report.put("videoFormatChanges", videoFormatChanges);
+    eventSink.success(report);
+  }
+}
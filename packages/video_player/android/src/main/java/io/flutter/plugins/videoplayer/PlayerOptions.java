@@ -0,0 +1,79 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import com.google.android.exoplayer2.DefaultLoadControl;
+import com.google.android.exoplayer2.LoadControl;
+import com.google.android.exoplayer2.trackselection.DefaultTrackSelector;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The track selection constraints, buffer durations and event intervals of a player, as sent by
+ * {@code create}.
+ *
+ * <p>Missing values keep ExoPlayer's defaults.
+ */
+final class PlayerOptions {
+  private static final int DEFAULT_TELEMETRY_INTERVAL_MS = 1000;
+
+  final int maxVideoWidth;
+  final int maxVideoHeight;
+  final int maxVideoBitrate;
+  final int minBufferMs;
+  final int maxBufferMs;
+  final int bufferForPlaybackMs;
+  final int bufferForPlaybackAfterRebufferMs;
+  final int telemetryIntervalMs;
+  // 0 if the position is polled rather than sent.
+  final int positionUpdateIntervalMs;
+
+  private PlayerOptions(Map<?, ?> options) {
+    maxVideoWidth = toInt(options.get("maxVideoWidth"), Integer.MAX_VALUE);
+    maxVideoHeight = toInt(options.get("maxVideoHeight"), Integer.MAX_VALUE);
+    maxVideoBitrate = toInt(options.get("maxVideoBitrate"), Integer.MAX_VALUE);
+    minBufferMs = toInt(options.get("minBufferMs"), DefaultLoadControl.DEFAULT_MIN_BUFFER_MS);
+    maxBufferMs = toInt(options.get("maxBufferMs"), DefaultLoadControl.DEFAULT_MAX_BUFFER_MS);
+    bufferForPlaybackMs =
+        toInt(
+            options.get("bufferForPlaybackMs"), DefaultLoadControl.DEFAULT_BUFFER_FOR_PLAYBACK_MS);
+    bufferForPlaybackAfterRebufferMs =
+        toInt(
+            options.get("bufferForPlaybackAfterRebufferMs"),
+            DefaultLoadControl.DEFAULT_BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS);
+    telemetryIntervalMs = toInt(options.get("telemetryIntervalMs"), DEFAULT_TELEMETRY_INTERVAL_MS);
+    positionUpdateIntervalMs = toInt(options.get("positionUpdateIntervalMs"), 0);
+  }
+
+  static PlayerOptions fromMap(Object o) {
+    return new PlayerOptions(o == null ? Collections.emptyMap() : (Map<?, ?>) o);
+  }
+
+  DefaultTrackSelector.Parameters toTrackSelectorParameters() {
+    return new DefaultTrackSelector.ParametersBuilder()
+        .setMaxVideoSize(maxVideoWidth, maxVideoHeight)
+        .setMaxVideoBitrate(maxVideoBitrate)
+        .build();
+  }
+
+  LoadControl createLoadControl() {
+    return new DefaultLoadControl.Builder()
+        .setBufferDurationsMs(
+            minBufferMs, maxBufferMs, bufferForPlaybackMs, bufferForPlaybackAfterRebufferMs)
+        .createDefaultLoadControl();
+  }
+
+  /** Whether players created with these options and {@code other} buffer the same way. */
+  boolean hasSameBufferDurations(PlayerOptions other) {
+    return minBufferMs == other.minBufferMs
+        && maxBufferMs == other.maxBufferMs
+        && bufferForPlaybackMs == other.bufferForPlaybackMs
+        && bufferForPlaybackAfterRebufferMs == other.bufferForPlaybackAfterRebufferMs;
+  }
+
+  private static int toInt(Object o, int defaultValue) {
+    return o == null ? defaultValue : ((Number) o).intValue();
+  }
+}
@@ -0,0 +1,123 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import com.google.android.exoplayer2.DefaultRenderersFactory;
+import com.google.android.exoplayer2.ExoPlayerFactory;
+import com.google.android.exoplayer2.Player;
+import com.google.android.exoplayer2.SimpleExoPlayer;
+import com.google.android.exoplayer2.trackselection.DefaultTrackSelector;
+import com.google.android.exoplayer2.upstream.BandwidthMeter;
+import com.google.android.exoplayer2.upstream.DefaultBandwidthMeter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the players of disposed videos, so that the next videos reuse them.
+ *
+ * <p>Constructing a player starts its playback thread and creates its renderers, which adds up when
+ * swiping through a feed of short videos. A released player is reset and kept idle instead, up to
+ * a maximum number of idle players. The buffer durations of a player are fixed when it is
+ * constructed, so a player is only reused for videos with the same buffer durations.
+ *
+ * <p>All the players share a bandwidth meter, so that a new player starts from the bandwidth
+ * estimated by the previous ones.
+ *
+ * <p>Players must only be used on the main thread, so this class is not thread-safe.
+ */
+final class PlayerPool {
+  private static final int DEFAULT_MAX_IDLE_PLAYERS = 2;
+
+  /** A player with its track selector and the options it was constructed with. */
+  static final class PooledPlayer {
+    final SimpleExoPlayer player;
+    final DefaultTrackSelector trackSelector;
+    final PlayerOptions options;
+
+    private PooledPlayer(
+        SimpleExoPlayer player, DefaultTrackSelector trackSelector, PlayerOptions options) {
+      this.player = player;
+      this.trackSelector = trackSelector;
+      this.options = options;
+    }
+  }
+
+  private final Context context;
+  private final DefaultBandwidthMeter bandwidthMeter = new DefaultBandwidthMeter.Builder().build();
+  // From the least to the most recently released.
+  private final List<PooledPlayer> idlePlayers = new ArrayList<>();
+  private int maxIdlePlayers = DEFAULT_MAX_IDLE_PLAYERS;
+
+  PlayerPool(Context context) {
+    this.context = context;
+  }
+
+  BandwidthMeter getBandwidthMeter() {
+    return bandwidthMeter;
+  }
+
+  /**
+   * Returns an idle player with the buffer durations of {@code options}, or a new one if there are
+   * none. The track selection constraints of {@code options} are applied to the player.
+   */
+  PooledPlayer acquire(PlayerOptions options) {
+    PooledPlayer pooledPlayer = null;
+    for (int i = idlePlayers.size() - 1; i >= 0; i--) {
+      if (idlePlayers.get(i).options.hasSameBufferDurations(options)) {
+        pooledPlayer = idlePlayers.remove(i);
+        break;
+      }
+    }
+    if (pooledPlayer == null) {
+      DefaultTrackSelector trackSelector = new DefaultTrackSelector();
+      SimpleExoPlayer player =
+          ExoPlayerFactory.newSimpleInstance(
+              context,
+              new DefaultRenderersFactory(context),
+              trackSelector,
+              options.createLoadControl(),
+              null,
+              bandwidthMeter);
+      pooledPlayer = new PooledPlayer(player, trackSelector, options);
+    }
+    pooledPlayer.trackSelector.setParameters(options.toTrackSelectorParameters());
+    return pooledPlayer;
+  }
+
+  /**
+   * Resets the player and keeps it for a later {@link #acquire}, evicting the least recently
+   * released idle player if there are too many. The listeners of the player must have been removed.
+   */
+  void release(PooledPlayer pooledPlayer) {
+    SimpleExoPlayer player = pooledPlayer.player;
+    player.stop(true);
+    player.clearVideoSurface();
+    player.setPlayWhenReady(false);
+    player.setRepeatMode(Player.REPEAT_MODE_OFF);
+    player.setVolume(1f);
+    idlePlayers.add(pooledPlayer);
+    trimToSize();
+  }
+
+  void setMaxIdlePlayers(int maxIdlePlayers) {
+    this.maxIdlePlayers = Math.max(0, maxIdlePlayers);
+    trimToSize();
+  }
+
+  /** Releases every idle player. */
+  void clear() {
+    for (PooledPlayer pooledPlayer : idlePlayers) {
+      pooledPlayer.player.release();
+    }
+    idlePlayers.clear();
+  }
+
+  private void trimToSize() {
+    while (idlePlayers.size() > maxIdlePlayers) {
+      idlePlayers.remove(0).player.release();
+    }
+  }
+}
@@ -1,7 +1,12 @@
 package io.flutter.plugins.videoplayer;
 
 import io.flutter.plugin.common.EventChannel;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * And implementation of {@link EventChannel.EventSink} which can wrap an underlying sink.
@@ -9,19 +14,75 @@ import java.util.ArrayList;
  * <p>It delivers messages immediately when downstream is available, but it queues messages before
  * the delegate event sink is set with setDelegate.
  *
+ * <p>The queue is bounded and coalescing, so that it does not grow while nothing listens:
+ *
+ * <ul>
+ *   <li>An event that is a map whose {@code "event"} value is one of the coalesced kinds supersedes
+ *       the queued event of the same kind, which is removed. Only the latest state is delivered.
+ *   <li>Once the queue holds {@code capacity} events, the {@link OverflowPolicy} decides whether
+ *       the oldest queued event or the new one is dropped. Errors, the end of the stream and the
+ *       events of the retained kinds are never dropped, so they can exceed the capacity.
+ * </ul>
+ *
+ * <p>Events are delivered in the order they were sent: the delivered events are the sent events
+ * minus the superseded and dropped ones.
+ *
  * <p>This class is not thread-safe. All calls must be done on the same thread or synchronized
  * externally.
  */
 final class QueuingEventSink implements EventChannel.EventSink {
+  /** What to drop when an event is sent to a full queue. */
+  enum OverflowPolicy {
+    /** Drops the oldest queued event that can be dropped. */
+    DROP_OLDEST,
+    /** Drops the new event. */
+    DROP_NEWEST,
+  }
+
+  private final int capacity;
+  private final OverflowPolicy overflowPolicy;
+  private final Set<String> coalescedKinds;
+  private final Set<String> retainedKinds;
   private EventChannel.EventSink delegate;
-  private ArrayList<Object> eventQueue = new ArrayList<>();
+  private final ArrayDeque<Object> eventQueue = new ArrayDeque<>();
+  // The queued event of every coalesced kind.
+  private final Map<String, Object> queuedEventsByKind = new HashMap<>();
+  private int droppedEventCount = 0;
   private boolean done = false;
 
+  /** Creates a sink that queues every event. */
+  QueuingEventSink() {
+    this(
+        Integer.MAX_VALUE,
+        OverflowPolicy.DROP_OLDEST,
+        Collections.<String>emptySet(),
+        Collections.<String>emptySet());
+  }
+
+  QueuingEventSink(
+      int capacity,
+      OverflowPolicy overflowPolicy,
+      Set<String> coalescedKinds,
+      Set<String> retainedKinds) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+    this.coalescedKinds = coalescedKinds;
+    this.retainedKinds = retainedKinds;
+  }
+
   public void setDelegate(EventChannel.EventSink delegate) {
     this.delegate = delegate;
     maybeFlush();
   }
 
+  /** Returns the number of events that were dropped because the queue was full. */
+  int getDroppedEventCount() {
+    return droppedEventCount;
+  }
+
   @Override
   public void endOfStream() {
     enqueue(new EndOfStreamEvent());
@@ -45,7 +106,67 @@ final class QueuingEventSink implements EventChannel.EventSink {
     if (done) {
       return;
     }
+    String kind = coalescedKind(event);
+    if (kind != null) {
+      Object superseded = queuedEventsByKind.remove(kind);
+      if (superseded != null) {
+        removeQueued(superseded);
+      }
+    }
+    if (isDroppable(event) && eventQueue.size() >= capacity) {
+      if (overflowPolicy == OverflowPolicy.DROP_NEWEST || !dropOldest()) {
+        droppedEventCount++;
+        return;
+      }
+    }
     eventQueue.add(event);
+    if (kind != null) {
+      queuedEventsByKind.put(kind, event);
+    }
+  }
+
+  /** Drops the oldest droppable event, and returns whether there was one. */
+  private boolean dropOldest() {
+    Iterator<Object> iterator = eventQueue.iterator();
+    while (iterator.hasNext()) {
+      Object event = iterator.next();
+      if (isDroppable(event)) {
+        iterator.remove();
+        String kind = coalescedKind(event);
+        if (kind != null) {
+          queuedEventsByKind.remove(kind);
+        }
+        droppedEventCount++;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Removes the given instance, rather than the first event equal to it.
+  private void removeQueued(Object event) {
+    Iterator<Object> iterator = eventQueue.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next() == event) {
+        iterator.remove();
+        return;
+      }
+    }
+  }
+
+  private String coalescedKind(Object event) {
+    Object kind = kind(event);
+    return coalescedKinds.contains(kind) ? (String) kind : null;
+  }
+
+  private boolean isDroppable(Object event) {
+    return !(event instanceof EndOfStreamEvent)
+        && !(event instanceof ErrorEvent)
+        && !retainedKinds.contains(kind(event));
+  }
+
+  private static Object kind(Object event) {
+    return event instanceof Map ? ((Map<?, ?>) event).get("event") : null;
   }
 
   private void maybeFlush() {
@@ -63,6 +184,7 @@ final class QueuingEventSink implements EventChannel.EventSink {
       }
     }
     eventQueue.clear();
+    queuedEventsByKind.clear();
   }
 
   private static class EndOfStreamEvent {}
@@ -0,0 +1,318 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.upstream.DataSpec;
+import com.google.android.exoplayer2.upstream.DefaultHttpDataSource;
+import com.google.android.exoplayer2.upstream.DefaultHttpDataSourceFactory;
+import com.google.android.exoplayer2.upstream.FileDataSourceFactory;
+import com.google.android.exoplayer2.upstream.TransferListener;
+import com.google.android.exoplayer2.upstream.cache.Cache;
+import com.google.android.exoplayer2.upstream.cache.CacheDataSink;
+import com.google.android.exoplayer2.upstream.cache.CacheDataSinkFactory;
+import com.google.android.exoplayer2.upstream.cache.CacheDataSource;
+import com.google.android.exoplayer2.upstream.cache.CacheDataSourceFactory;
+import com.google.android.exoplayer2.upstream.cache.CacheEvictor;
+import com.google.android.exoplayer2.upstream.cache.CacheSpan;
+import com.google.android.exoplayer2.upstream.cache.CacheUtil;
+import com.google.android.exoplayer2.upstream.cache.SimpleCache;
+import com.google.android.exoplayer2.util.Util;
+import io.flutter.plugin.common.MethodChannel;
+import java.io.File;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The disk cache of network videos, shared by every player of the process.
+ *
+ * <p>Media is read through a {@link SimpleCache} that evicts the least recently used data once it
+ * is larger than its maximum size. Manifests and playlists are always requested from the network,
+ * so that live streams are not served stale from the cache.
+ *
+ * <p>A {@link SimpleCache} locks its directory, so there must be a single instance per process.
+ *
+ * <p>The beginning of upcoming videos can be preloaded into the cache, one video at a time in the
+ * order they were requested, so that they start without waiting for the network.
+ */
+final class VideoCache {
+  private static final long DEFAULT_MAX_SIZE_BYTES = 100 * 1024 * 1024;
+  private static final String DIRECTORY = "video_player";
+  private static final String USER_AGENT = "ExoPlayer";
+
+  private static VideoCache instance;
+
+  private static final ExecutorService preloadExecutor = Executors.newSingleThreadExecutor();
+  private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+  static synchronized VideoCache getInstance(Context context) {
+    if (instance == null) {
+      instance = new VideoCache(context.getApplicationContext());
+    }
+    return instance;
+  }
+
+  private final Context context;
+  private final Evictor evictor = new Evictor(DEFAULT_MAX_SIZE_BYTES);
+  // Created on first use, since opening the cache reads its whole index.
+  private SimpleCache cache;
+  // The cancellation flags of the preloads that did not finish, by uri.
+  private final Map<String, AtomicBoolean> preloads = new HashMap<>();
+
+  // Reads that were served from the cache, at least in part, and the bytes they read.
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong bytesSaved = new AtomicLong();
+  // Requests that went to the network, and the bytes they downloaded.
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong bytesDownloaded = new AtomicLong();
+
+  private final CacheDataSource.EventListener cacheListener =
+      new CacheDataSource.EventListener() {
+        @Override
+        public void onCachedBytesRead(long cacheSizeBytes, long cachedBytesRead) {
+          hits.incrementAndGet();
+          bytesSaved.addAndGet(cachedBytesRead);
+        }
+
+        @Override
+        public void onCacheIgnored(int reason) {}
+      };
+
+  private final TransferListener transferListener =
+      new TransferListener() {
+        @Override
+        public void onTransferInitializing(
+            DataSource source, DataSpec dataSpec, boolean isNetwork) {}
+
+        @Override
+        public void onTransferStart(DataSource source, DataSpec dataSpec, boolean isNetwork) {
+          if (isNetwork) {
+            misses.incrementAndGet();
+          }
+        }
+
+        @Override
+        public void onBytesTransferred(
+            DataSource source, DataSpec dataSpec, boolean isNetwork, int bytesTransferred) {
+          if (isNetwork) {
+            bytesDownloaded.addAndGet(bytesTransferred);
+          }
+        }
+
+        @Override
+        public void onTransferEnd(DataSource source, DataSpec dataSpec, boolean isNetwork) {}
+      };
+
+  private VideoCache(Context context) {
+    this.context = context;
+  }
+
+  /** Returns a factory of data sources that read media through the cache, when it is enabled. */
+  synchronized DataSource.Factory createDataSourceFactory() {
+    DataSource.Factory upstreamFactory = createUpstreamDataSourceFactory();
+    if (evictor.getMaxSizeBytes() == 0) {
+      return upstreamFactory;
+    }
+    Cache cache = getCache();
+    return new CacheDataSourceFactory(
+        cache,
+        upstreamFactory,
+        new FileDataSourceFactory(),
+        new CacheDataSinkFactory(cache, CacheDataSink.DEFAULT_MAX_CACHE_FILE_SIZE),
+        CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR,
+        cacheListener);
+  }
+
+  /** Returns a factory of data sources that always read from the network. */
+  DataSource.Factory createUpstreamDataSourceFactory() {
+    return new DefaultHttpDataSourceFactory(
+        USER_AGENT,
+        transferListener,
+        DefaultHttpDataSource.DEFAULT_CONNECT_TIMEOUT_MILLIS,
+        DefaultHttpDataSource.DEFAULT_READ_TIMEOUT_MILLIS,
+        true);
+  }
+
+  /**
+   * Sets the size above which cached data is evicted, evicting right away if needed. A size of 0
+   * empties the cache and disables it for the players created afterwards.
+   */
+  synchronized void setMaxSizeBytes(long maxSizeBytes) {
+    if (cache == null) {
+      evictor.setMaxSizeBytes(maxSizeBytes);
+      return;
+    }
+    // The evictor is otherwise only called by the cache, with the cache locked.
+    synchronized (cache) {
+      evictor.setMaxSizeBytes(maxSizeBytes);
+      evictor.evict(cache, 0);
+    }
+  }
+
+  /**
+   * Caches up to {@code maxBytes} from the start of the video at {@code uri}, and completes {@code
+   * result} with the number of bytes of the video that are cached. Only progressive videos can be
+   * preloaded, the segments of streams are only known once their manifest is parsed.
+   */
+  synchronized void preload(
+      final String uri, final long maxBytes, final MethodChannel.Result result) {
+    final Uri parsedUri = Uri.parse(uri);
+    if (Util.inferContentType(parsedUri.getLastPathSegment()) != C.TYPE_OTHER) {
+      result.error("preload_unsupported", "Only progressive videos can be preloaded", null);
+      return;
+    }
+    if (evictor.getMaxSizeBytes() == 0) {
+      result.success(0L);
+      return;
+    }
+    final Cache cache = getCache();
+    final DataSource upstream = createUpstreamDataSourceFactory().createDataSource();
+    final AtomicBoolean canceled = new AtomicBoolean();
+    AtomicBoolean previous = preloads.put(uri, canceled);
+    if (previous != null) {
+      previous.set(true);
+    }
+    preloadExecutor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            final CacheUtil.CachingCounters counters = new CacheUtil.CachingCounters();
+            Exception error = null;
+            try {
+              CacheUtil.cache(
+                  new DataSpec(parsedUri, 0, maxBytes, null), cache, upstream, counters, canceled);
+            } catch (IOException | InterruptedException e) {
+              error = e;
+            }
+            final Exception preloadError = canceled.get() ? null : error;
+            mainHandler.post(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    onPreloadDone(uri, canceled);
+                    if (preloadError != null) {
+                      result.error("preload_failed", preloadError.getMessage(), null);
+                    } else {
+                      result.success(counters.totalCachedBytes());
+                    }
+                  }
+                });
+          }
+        });
+  }
+
+  /** Stops preloading {@code uri}, keeping what was already cached. */
+  synchronized void cancelPreload(String uri) {
+    AtomicBoolean canceled = preloads.remove(uri);
+    if (canceled != null) {
+      canceled.set(true);
+    }
+  }
+
+  private synchronized void onPreloadDone(String uri, AtomicBoolean canceled) {
+    if (preloads.get(uri) == canceled) {
+      preloads.remove(uri);
+    }
+  }
+
+  synchronized Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("hits", hits.get());
+    stats.put("misses", misses.get());
+    stats.put("bytesSaved", bytesSaved.get());
+    stats.put("bytesDownloaded", bytesDownloaded.get());
+    stats.put("sizeBytes", cache == null ? 0L : cache.getCacheSpace());
+    stats.put("maxSizeBytes", evictor.getMaxSizeBytes());
+    return stats;
+  }
+
+  private Cache getCache() {
+    if (cache == null) {
+      cache = new SimpleCache(new File(context.getCacheDir(), DIRECTORY), evictor);
+    }
+    return cache;
+  }
+
+  /**
+   * Evicts the least recently used spans of the cache beyond a maximum size, which can change
+   * while the cache is open unlike that of ExoPlayer's {@code LeastRecentlyUsedCacheEvictor}.
+   */
+  private static final class Evictor implements CacheEvictor, Comparator<CacheSpan> {
+    private final TreeSet<CacheSpan> leastRecentlyUsed = new TreeSet<>(this);
+    private long sizeBytes = 0;
+    private volatile long maxSizeBytes;
+
+    Evictor(long maxSizeBytes) {
+      this.maxSizeBytes = maxSizeBytes;
+    }
+
+    long getMaxSizeBytes() {
+      return maxSizeBytes;
+    }
+
+    void setMaxSizeBytes(long maxSizeBytes) {
+      this.maxSizeBytes = maxSizeBytes;
+    }
+
+    @Override
+    public void onCacheInitialized() {}
+
+    @Override
+    public void onStartFile(Cache cache, String key, long position, long length) {
+      if (length != C.LENGTH_UNSET) {
+        evict(cache, length);
+      }
+    }
+
+    @Override
+    public void onSpanAdded(Cache cache, CacheSpan span) {
+      leastRecentlyUsed.add(span);
+      sizeBytes += span.length;
+      evict(cache, 0);
+    }
+
+    @Override
+    public void onSpanRemoved(Cache cache, CacheSpan span) {
+      leastRecentlyUsed.remove(span);
+      sizeBytes -= span.length;
+    }
+
+    @Override
+    public void onSpanTouched(Cache cache, CacheSpan oldSpan, CacheSpan newSpan) {
+      onSpanRemoved(cache, oldSpan);
+      onSpanAdded(cache, newSpan);
+    }
+
+    @Override
+    public int compare(CacheSpan a, CacheSpan b) {
+      if (a.lastAccessTimestamp == b.lastAccessTimestamp) {
+        return a.compareTo(b);
+      }
+      return a.lastAccessTimestamp < b.lastAccessTimestamp ? -1 : 1;
+    }
+
+    void evict(Cache cache, long requiredBytes) {
+      while (sizeBytes + requiredBytes > maxSizeBytes && !leastRecentlyUsed.isEmpty()) {
+        try {
+          cache.removeSpan(leastRecentlyUsed.first());
+        } catch (Cache.CacheException e) {
+          // The span was removed, only storing the updated index failed.
+        }
+      }
+    }
+  }
+}
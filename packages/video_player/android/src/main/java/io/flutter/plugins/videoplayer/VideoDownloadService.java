@@ -0,0 +1,76 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.app.Notification;
+import android.os.Build;
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.offline.DownloadManager;
+import com.google.android.exoplayer2.offline.DownloadManager.TaskState;
+import com.google.android.exoplayer2.offline.DownloadService;
+import com.google.android.exoplayer2.scheduler.Scheduler;
+
+/**
+ * Runs the downloads of {@link VideoDownloads} in the foreground, with a progress notification, so
+ * that they go on while the app is in the background.
+ *
+ * <p>Downloads that were interrupted by the process being killed resume the next time a download
+ * is started or listed, there is no scheduler to restart the service on its own.
+ */
+public final class VideoDownloadService extends DownloadService {
+  private static final String CHANNEL_ID = "video_player_downloads";
+  private static final int FOREGROUND_NOTIFICATION_ID = 0x7669646f;
+
+  public VideoDownloadService() {
+    super(
+        FOREGROUND_NOTIFICATION_ID,
+        DEFAULT_FOREGROUND_NOTIFICATION_UPDATE_INTERVAL,
+        CHANNEL_ID,
+        R.string.video_player_download_channel_name);
+  }
+
+  @Override
+  protected DownloadManager getDownloadManager() {
+    return VideoDownloads.getInstance(this).getDownloadManager();
+  }
+
+  @Override
+  protected Scheduler getScheduler() {
+    return null;
+  }
+
+  @Override
+  @SuppressWarnings("deprecation")
+  protected Notification getForegroundNotification(TaskState[] taskStates) {
+    float percentageSum = 0;
+    int downloads = 0;
+    boolean isIndeterminate = false;
+    for (TaskState taskState : taskStates) {
+      if (taskState.action.isRemoveAction || taskState.state != TaskState.STATE_STARTED) {
+        continue;
+      }
+      if (taskState.downloadPercentage == C.PERCENTAGE_UNSET) {
+        isIndeterminate = true;
+      } else {
+        percentageSum += taskState.downloadPercentage;
+      }
+      downloads++;
+    }
+    // The channel is created by DownloadService.
+    Notification.Builder builder =
+        Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+            ? new Notification.Builder(this, CHANNEL_ID)
+            : new Notification.Builder(this);
+    return builder
+        .setSmallIcon(android.R.drawable.stat_sys_download)
+        .setContentTitle(getString(R.string.video_player_downloading))
+        .setOngoing(true)
+        .setProgress(
+            100,
+            downloads == 0 ? 0 : (int) (percentageSum / downloads),
+            isIndeterminate || downloads == 0)
+        .build();
+  }
+}
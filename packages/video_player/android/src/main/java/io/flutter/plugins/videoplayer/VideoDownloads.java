@@ -0,0 +1,305 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.offline.ActionFile;
+import com.google.android.exoplayer2.offline.DownloadAction;
+import com.google.android.exoplayer2.offline.DownloadManager;
+import com.google.android.exoplayer2.offline.DownloadManager.TaskState;
+import com.google.android.exoplayer2.offline.DownloadService;
+import com.google.android.exoplayer2.offline.DownloaderConstructorHelper;
+import com.google.android.exoplayer2.offline.ProgressiveDownloadAction;
+import com.google.android.exoplayer2.offline.StreamKey;
+import com.google.android.exoplayer2.source.dash.offline.DashDownloadAction;
+import com.google.android.exoplayer2.source.hls.offline.HlsDownloadAction;
+import com.google.android.exoplayer2.source.smoothstreaming.offline.SsDownloadAction;
+import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.upstream.DefaultHttpDataSourceFactory;
+import com.google.android.exoplayer2.upstream.FileDataSourceFactory;
+import com.google.android.exoplayer2.upstream.cache.Cache;
+import com.google.android.exoplayer2.upstream.cache.CacheDataSource;
+import com.google.android.exoplayer2.upstream.cache.CacheDataSourceFactory;
+import com.google.android.exoplayer2.upstream.cache.NoOpCacheEvictor;
+import com.google.android.exoplayer2.upstream.cache.SimpleCache;
+import com.google.android.exoplayer2.util.Util;
+import io.flutter.plugin.common.EventChannel;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The videos downloaded for offline playback, and the downloads in progress.
+ *
+ * <p>Downloads are run by a {@link DownloadManager}, a few at a time, from {@link
+ * VideoDownloadService} so that they go on while the app is in the background. Streams are
+ * downloaded with all their tracks. Downloaded data is stored in its own cache in the files
+ * directory, which is never evicted, unlike that of {@link VideoCache}. A video stays downloaded
+ * until it is removed.
+ *
+ * <p>Players read downloaded data, manifests included, before falling back to the network, so a
+ * downloaded video plays offline from the same uri.
+ *
+ * <p>The download manager only knows the downloads that did not finish, so completed downloads are
+ * tracked in an action file of their own. Progress is not reported by the download manager either,
+ * so it is polled while something listens.
+ *
+ * <p>Must only be used on the main thread.
+ */
+final class VideoDownloads implements DownloadManager.Listener, EventChannel.StreamHandler {
+  private static final String TAG = "VideoDownloads";
+  private static final int MAX_SIMULTANEOUS_DOWNLOADS = 2;
+  private static final long PROGRESS_INTERVAL_MS = 500;
+  private static final String DIRECTORY = "video_player_downloads";
+  private static final String CACHE_DIRECTORY = "cache";
+  private static final String ACTION_FILE = "actions";
+  private static final String COMPLETED_ACTION_FILE = "completed_actions";
+  private static final String USER_AGENT = "ExoPlayer";
+
+  private static VideoDownloads instance;
+
+  static synchronized VideoDownloads getInstance(Context context) {
+    if (instance == null) {
+      instance = new VideoDownloads(context.getApplicationContext());
+    }
+    return instance;
+  }
+
+  private final Context context;
+  private final File directory;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable progressUpdater =
+      new Runnable() {
+        @Override
+        public void run() {
+          for (TaskState taskState : downloadManager.getAllTaskStates()) {
+            if (taskState.state == TaskState.STATE_STARTED) {
+              sendEvent(taskState);
+            }
+          }
+          updateProgressUpdates();
+        }
+      };
+  // Created on first use, since opening the cache reads its whole index.
+  private SimpleCache cache;
+  private DownloadManager downloadManager;
+  private ActionFile completedActionFile;
+  // The actions of the completed downloads, by uri.
+  private final Map<String, DownloadAction> completedDownloads = new LinkedHashMap<>();
+  private EventChannel.EventSink eventSink;
+
+  private VideoDownloads(Context context) {
+    this.context = context;
+    this.directory = new File(context.getFilesDir(), DIRECTORY);
+  }
+
+  /**
+   * Returns a factory of data sources that read the downloaded data of videos, and the rest from
+   * {@code upstreamFactory}.
+   */
+  DataSource.Factory createDataSourceFactory(DataSource.Factory upstreamFactory) {
+    if (!directory.exists()) {
+      // Nothing was ever downloaded, there is no need to open the cache.
+      return upstreamFactory;
+    }
+    return new CacheDataSourceFactory(
+        getCache(),
+        upstreamFactory,
+        new FileDataSourceFactory(),
+        null,
+        CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR,
+        null);
+  }
+
+  /** Starts downloading the video at {@code uri}, or resumes its download. */
+  void download(String uri) {
+    startAction(createAction(Uri.parse(uri), false));
+  }
+
+  /** Stops downloading the video at {@code uri} and deletes what was downloaded. */
+  void remove(String uri) {
+    // Loads the completed downloads.
+    getDownloadManager();
+    if (completedDownloads.remove(uri) != null) {
+      storeCompletedDownloads();
+    }
+    startAction(createAction(Uri.parse(uri), true));
+  }
+
+  /** Returns the completed downloads and the pending ones, removals included. */
+  List<Map<String, Object>> getDownloads() {
+    Map<String, Map<String, Object>> downloads = new LinkedHashMap<>();
+    DownloadManager downloadManager = getDownloadManager();
+    for (DownloadAction action : completedDownloads.values()) {
+      Map<String, Object> download = new HashMap<>();
+      download.put("uri", action.uri.toString());
+      download.put("state", "completed");
+      download.put("percentage", 100.0);
+      downloads.put(action.uri.toString(), download);
+    }
+    for (TaskState taskState : downloadManager.getAllTaskStates()) {
+      downloads.put(taskState.action.uri.toString(), toMap(taskState));
+    }
+    return new ArrayList<>(downloads.values());
+  }
+
+  synchronized DownloadManager getDownloadManager() {
+    if (downloadManager == null) {
+      loadCompletedDownloads();
+      DownloaderConstructorHelper downloaderConstructorHelper =
+          new DownloaderConstructorHelper(getCache(), new DefaultHttpDataSourceFactory(USER_AGENT));
+      downloadManager =
+          new DownloadManager(
+              downloaderConstructorHelper,
+              MAX_SIMULTANEOUS_DOWNLOADS,
+              DownloadManager.DEFAULT_MIN_RETRY_COUNT,
+              new File(directory, ACTION_FILE),
+              DownloadAction.getDefaultDeserializers());
+      downloadManager.addListener(this);
+    }
+    return downloadManager;
+  }
+
+  @Override
+  public void onListen(Object arguments, EventChannel.EventSink eventSink) {
+    this.eventSink = eventSink;
+    updateProgressUpdates();
+  }
+
+  @Override
+  public void onCancel(Object arguments) {
+    eventSink = null;
+    updateProgressUpdates();
+  }
+
+  @Override
+  public void onInitialized(DownloadManager downloadManager) {}
+
+  @Override
+  public void onTaskStateChanged(DownloadManager downloadManager, TaskState taskState) {
+    DownloadAction action = taskState.action;
+    if (!action.isRemoveAction && taskState.state == TaskState.STATE_COMPLETED) {
+      completedDownloads.put(action.uri.toString(), action);
+      storeCompletedDownloads();
+    }
+    sendEvent(taskState);
+    updateProgressUpdates();
+  }
+
+  @Override
+  public void onIdle(DownloadManager downloadManager) {
+    updateProgressUpdates();
+  }
+
+  private void startAction(DownloadAction action) {
+    // Make sure the manager exists, so that this instance hears about the action.
+    getDownloadManager();
+    DownloadService.startWithAction(context, VideoDownloadService.class, action, false);
+  }
+
+  private static DownloadAction createAction(Uri uri, boolean isRemoveAction) {
+    // An empty list of stream keys downloads every track.
+    List<StreamKey> allStreams = Collections.emptyList();
+    switch (Util.inferContentType(uri.getLastPathSegment())) {
+      case C.TYPE_DASH:
+        return isRemoveAction
+            ? DashDownloadAction.createRemoveAction(uri, null)
+            : DashDownloadAction.createDownloadAction(uri, null, allStreams);
+      case C.TYPE_HLS:
+        return isRemoveAction
+            ? HlsDownloadAction.createRemoveAction(uri, null)
+            : HlsDownloadAction.createDownloadAction(uri, null, allStreams);
+      case C.TYPE_SS:
+        return isRemoveAction
+            ? SsDownloadAction.createRemoveAction(uri, null)
+            : SsDownloadAction.createDownloadAction(uri, null, allStreams);
+      default:
+        return isRemoveAction
+            ? ProgressiveDownloadAction.createRemoveAction(uri, null, null)
+            : ProgressiveDownloadAction.createDownloadAction(uri, null, null);
+    }
+  }
+
+  private void updateProgressUpdates() {
+    handler.removeCallbacks(progressUpdater);
+    if (eventSink != null && downloadManager != null && !downloadManager.isIdle()) {
+      handler.postDelayed(progressUpdater, PROGRESS_INTERVAL_MS);
+    }
+  }
+
+  private void sendEvent(TaskState taskState) {
+    if (eventSink != null) {
+      eventSink.success(toMap(taskState));
+    }
+  }
+
+  private static Map<String, Object> toMap(TaskState taskState) {
+    Map<String, Object> download = new HashMap<>();
+    download.put("uri", taskState.action.uri.toString());
+    download.put("state", getState(taskState));
+    if (taskState.downloadPercentage != C.PERCENTAGE_UNSET) {
+      download.put("percentage", (double) taskState.downloadPercentage);
+    }
+    download.put("downloadedBytes", taskState.downloadedBytes);
+    if (taskState.error != null) {
+      download.put("error", taskState.error.toString());
+    }
+    return download;
+  }
+
+  private static String getState(TaskState taskState) {
+    boolean isRemoveAction = taskState.action.isRemoveAction;
+    switch (taskState.state) {
+      case TaskState.STATE_QUEUED:
+        return isRemoveAction ? "removing" : "queued";
+      case TaskState.STATE_STARTED:
+        return isRemoveAction ? "removing" : "downloading";
+      case TaskState.STATE_COMPLETED:
+        return isRemoveAction ? "removed" : "completed";
+      case TaskState.STATE_CANCELED:
+        return "canceled";
+      default:
+        return "failed";
+    }
+  }
+
+  private void loadCompletedDownloads() {
+    completedActionFile = new ActionFile(new File(directory, COMPLETED_ACTION_FILE));
+    try {
+      for (DownloadAction action :
+          completedActionFile.load(DownloadAction.getDefaultDeserializers())) {
+        completedDownloads.put(action.uri.toString(), action);
+      }
+    } catch (IOException e) {
+      Log.e(TAG, "Failed to load the completed downloads", e);
+    }
+  }
+
+  private void storeCompletedDownloads() {
+    try {
+      completedActionFile.store(
+          completedDownloads.values().toArray(new DownloadAction[completedDownloads.size()]));
+    } catch (IOException e) {
+      Log.e(TAG, "Failed to store the completed downloads", e);
+    }
+  }
+
+  private synchronized Cache getCache() {
+    if (cache == null) {
+      cache = new SimpleCache(new File(directory, CACHE_DIRECTORY), new NoOpCacheEvictor());
+    }
+    return cache;
+  }
+}
@@ -10,11 +10,12 @@ import static com.google.android.exoplayer2.Player.REPEAT_MODE_OFF;
 import android.content.Context;
 import android.net.Uri;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.LongSparseArray;
 import android.view.Surface;
 import com.google.android.exoplayer2.C;
 import com.google.android.exoplayer2.ExoPlaybackException;
-import com.google.android.exoplayer2.ExoPlayerFactory;
 import com.google.android.exoplayer2.Format;
 import com.google.android.exoplayer2.Player;
 import com.google.android.exoplayer2.Player.EventListener;
@@ -25,16 +26,15 @@ import com.google.android.exoplayer2.source.ExtractorMediaSource;
 import com.google.android.exoplayer2.source.MediaSource;
 import com.google.android.exoplayer2.source.dash.DashMediaSource;
 import com.google.android.exoplayer2.source.dash.DefaultDashChunkSource;
+import com.google.android.exoplayer2.source.hls.HlsDataSourceFactory;
 import com.google.android.exoplayer2.source.hls.HlsMediaSource;
 import com.google.android.exoplayer2.source.smoothstreaming.DefaultSsChunkSource;
 import com.google.android.exoplayer2.source.smoothstreaming.SsMediaSource;
-import com.google.android.exoplayer2.trackselection.DefaultTrackSelector;
-import com.google.android.exoplayer2.trackselection.TrackSelector;
+import com.google.android.exoplayer2.upstream.BandwidthMeter;
 import com.google.android.exoplayer2.upstream.DataSource;
 import com.google.android.exoplayer2.upstream.DefaultDataSourceFactory;
-import com.google.android.exoplayer2.upstream.DefaultHttpDataSource;
-import com.google.android.exoplayer2.upstream.DefaultHttpDataSourceFactory;
 import com.google.android.exoplayer2.util.Util;
+import com.google.android.exoplayer2.video.VideoListener;
 import io.flutter.plugin.common.EventChannel;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
@@ -47,6 +47,7 @@ import io.flutter.view.TextureRegistry;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -54,46 +55,91 @@ public class VideoPlayerPlugin implements MethodCallHandler {
 
   private static class VideoPlayer {
 
+    private static final int MAX_QUEUED_EVENTS = 64;
+
+    private final PlayerPool.PooledPlayer pooledPlayer;
+
     private SimpleExoPlayer exoPlayer;
 
     private Surface surface;
 
     private final TextureRegistry.SurfaceTextureEntry textureEntry;
 
-    private QueuingEventSink eventSink = new QueuingEventSink();
+    // Events sent before Dart listens are kept, except for superseded updates and, once the queue
+    // is full, the oldest events. The lifecycle events are never dropped, Dart waits for them.
+    private QueuingEventSink eventSink =
+        new QueuingEventSink(
+            MAX_QUEUED_EVENTS,
+            QueuingEventSink.OverflowPolicy.DROP_OLDEST,
+            new HashSet<>(Arrays.asList("bufferingUpdate", "positionUpdate", "bandwidthEstimate")),
+            new HashSet<>(Arrays.asList("initialized", "completed", "firstFrameRendered")));
 
     private final EventChannel eventChannel;
 
     private boolean isInitialized = false;
 
+    private final PlayerPool playerPool;
+
+    private EventListener eventListener;
+
+    private VideoListener videoListener;
+
+
+    private final PlaybackTelemetry telemetry;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    // The interval of the position updates sent while playing, or 0 to let Dart poll the position.
+    private final long positionUpdateIntervalMs;
+
+    private boolean isSendingPositionUpdates = false;
+
+    private final Runnable positionUpdater =
+        new Runnable() {
+          @Override
+          public void run() {
+            sendPositionUpdate();
+            handler.postDelayed(this, positionUpdateIntervalMs);
+          }
+        };
+
     VideoPlayer(
         Context context,
+        PlayerPool playerPool,
         EventChannel eventChannel,
+        EventChannel telemetryChannel,
         TextureRegistry.SurfaceTextureEntry textureEntry,
         String dataSource,
+        PlayerOptions options,
         Result result) {
+      this.playerPool = playerPool;
       this.eventChannel = eventChannel;
       this.textureEntry = textureEntry;
 
-      TrackSelector trackSelector = new DefaultTrackSelector();
-      exoPlayer = ExoPlayerFactory.newSimpleInstance(context, trackSelector);
+      pooledPlayer = playerPool.acquire(options);
+      exoPlayer = pooledPlayer.player;
+      telemetry = new PlaybackTelemetry(telemetryChannel, options.telemetryIntervalMs);
+      positionUpdateIntervalMs = options.positionUpdateIntervalMs;
+      exoPlayer.addAnalyticsListener(telemetry);
 
       Uri uri = Uri.parse(dataSource);
 
       DataSource.Factory dataSourceFactory;
+      DataSource.Factory manifestDataSourceFactory;
       if (isFileOrAsset(uri)) {
         dataSourceFactory = new DefaultDataSourceFactory(context, "ExoPlayer");
+        manifestDataSourceFactory = dataSourceFactory;
       } else {
-        dataSourceFactory =
-            new DefaultHttpDataSourceFactory(
-                "ExoPlayer",
-                null,
-                DefaultHttpDataSource.DEFAULT_CONNECT_TIMEOUT_MILLIS,
-                DefaultHttpDataSource.DEFAULT_READ_TIMEOUT_MILLIS,
-                true);
+        // Downloaded videos are read from the downloads, the others through the cache.
+        VideoCache cache = VideoCache.getInstance(context);
+        VideoDownloads downloads = VideoDownloads.getInstance(context);
+        dataSourceFactory = downloads.createDataSourceFactory(cache.createDataSourceFactory());
+        manifestDataSourceFactory =
+            downloads.createDataSourceFactory(cache.createUpstreamDataSourceFactory());
       }
 
-      MediaSource mediaSource = buildMediaSource(uri, dataSourceFactory, context);
+      MediaSource mediaSource =
+          buildMediaSource(uri, dataSourceFactory, manifestDataSourceFactory, context);
       exoPlayer.prepare(mediaSource);
 
       setupVideoPlayer(eventChannel, textureEntry, result);
@@ -108,21 +154,36 @@ public class VideoPlayerPlugin implements MethodCallHandler {
     }
 
     private MediaSource buildMediaSource(
-        Uri uri, DataSource.Factory mediaDataSourceFactory, Context context) {
+        Uri uri,
+        final DataSource.Factory mediaDataSourceFactory,
+        final DataSource.Factory manifestDataSourceFactory,
+        Context context) {
       int type = Util.inferContentType(uri.getLastPathSegment());
       switch (type) {
         case C.TYPE_SS:
           return new SsMediaSource.Factory(
                   new DefaultSsChunkSource.Factory(mediaDataSourceFactory),
-                  new DefaultDataSourceFactory(context, null, mediaDataSourceFactory))
+                  new DefaultDataSourceFactory(context, null, manifestDataSourceFactory))
               .createMediaSource(uri);
         case C.TYPE_DASH:
           return new DashMediaSource.Factory(
                   new DefaultDashChunkSource.Factory(mediaDataSourceFactory),
-                  new DefaultDataSourceFactory(context, null, mediaDataSourceFactory))
+                  new DefaultDataSourceFactory(context, null, manifestDataSourceFactory))
               .createMediaSource(uri);
         case C.TYPE_HLS:
-          return new HlsMediaSource.Factory(mediaDataSourceFactory).createMediaSource(uri);
+          return new HlsMediaSource.Factory(
+                  new HlsDataSourceFactory() {
+                    @Override
+                    public DataSource createDataSource(int dataType) {
+                      // Playlists of live streams change, only segments are read from the cache.
+                      // Downloaded playlists are still read from the downloads.
+                      if (dataType == C.DATA_TYPE_MANIFEST) {
+                        return manifestDataSourceFactory.createDataSource();
+                      }
+                      return mediaDataSourceFactory.createDataSource();
+                    }
+                  })
+              .createMediaSource(uri);
         case C.TYPE_OTHER:
           return new ExtractorMediaSource.Factory(mediaDataSourceFactory)
               .setExtractorsFactory(new DefaultExtractorsFactory())
@@ -156,11 +217,12 @@ public class VideoPlayerPlugin implements MethodCallHandler {
       exoPlayer.setVideoSurface(surface);
       setAudioAttributes(exoPlayer);
 
-      exoPlayer.addListener(
+      eventListener =
           new EventListener() {
 
             @Override
             public void onPlayerStateChanged(final boolean playWhenReady, final int playbackState) {
+              updatePositionUpdates(playWhenReady && playbackState == Player.STATE_READY);
               if (playbackState == Player.STATE_BUFFERING) {
                 sendBufferingUpdate();
               } else if (playbackState == Player.STATE_READY) {
@@ -181,19 +243,70 @@ public class VideoPlayerPlugin implements MethodCallHandler {
                 eventSink.error("VideoError", "Video player had error " + error, null);
               }
             }
-          });
+          };
+      exoPlayer.addListener(eventListener);
+
+      videoListener =
+          new VideoListener() {
+            @Override
+            public void onRenderedFirstFrame() {
+              Map<String, Object> event = new HashMap<>();
+              event.put("event", "firstFrameRendered");
+              eventSink.success(event);
+            }
+          };
+      exoPlayer.addVideoListener(videoListener);
 
       Map<String, Object> reply = new HashMap<>();
       reply.put("textureId", textureEntry.id());
+      reply.put("positionUpdates", positionUpdateIntervalMs > 0);
       result.success(reply);
     }
 
+    boolean isLoading() {
+      return exoPlayer.isLoading();
+    }
+
+    void sendBandwidthEstimate(long bitrate) {
+      Map<String, Object> event = new HashMap<>();
+      event.put("event", "bandwidthEstimate");
+      event.put("bitrate", bitrate);
+      eventSink.success(event);
+    }
+
     private void sendBufferingUpdate() {
       Map<String, Object> event = new HashMap<>();
       event.put("event", "bufferingUpdate");
+      event.put("values", getBufferedRanges());
+      eventSink.success(event);
+    }
+
+    private List<? extends List<? extends Number>> getBufferedRanges() {
       List<? extends Number> range = Arrays.asList(0, exoPlayer.getBufferedPosition());
       // iOS supports a list of buffered ranges, so here is a list with a single range.
-      event.put("values", Collections.singletonList(range));
+      return Collections.singletonList(range);
+    }
+
+    /** Sends position updates while {@code isPlaying}, and a last one when playback stops. */
+    private void updatePositionUpdates(boolean isPlaying) {
+      if (positionUpdateIntervalMs <= 0 || isPlaying == isSendingPositionUpdates) {
+        return;
+      }
+      isSendingPositionUpdates = isPlaying;
+      handler.removeCallbacks(positionUpdater);
+      if (isPlaying) {
+        handler.post(positionUpdater);
+      } else {
+        sendPositionUpdate();
+      }
+    }
+
+    /** Sends the position along with the buffered range, which polling the position also sends. */
+    private void sendPositionUpdate() {
+      Map<String, Object> event = new HashMap<>();
+      event.put("event", "positionUpdate");
+      event.put("position", exoPlayer.getCurrentPosition());
+      event.put("values", getBufferedRanges());
       eventSink.success(event);
     }
 
@@ -257,17 +370,18 @@ public class VideoPlayerPlugin implements MethodCallHandler {
     }
 
     void dispose() {
-      if (isInitialized) {
-        exoPlayer.stop();
-      }
+      // The player is reused by a later video, which must not get the events of this one.
+      exoPlayer.removeListener(eventListener);
+      exoPlayer.removeVideoListener(videoListener);
+      exoPlayer.removeAnalyticsListener(telemetry);
+      handler.removeCallbacks(positionUpdater);
+      telemetry.dispose();
+      playerPool.release(pooledPlayer);
       textureEntry.release();
       eventChannel.setStreamHandler(null);
       if (surface != null) {
         surface.release();
       }
-      if (exoPlayer != null) {
-        exoPlayer.release();
-      }
     }
   }
 
@@ -276,6 +390,8 @@ public class VideoPlayerPlugin implements MethodCallHandler {
     final MethodChannel channel =
         new MethodChannel(registrar.messenger(), "flutter.io/videoPlayer");
     channel.setMethodCallHandler(plugin);
+    new EventChannel(registrar.messenger(), "flutter.io/videoPlayer/downloadEvents")
+        .setStreamHandler(VideoDownloads.getInstance(registrar.context()));
     registrar.addViewDestroyListener(
         new PluginRegistry.ViewDestroyListener() {
           @Override
@@ -289,12 +405,32 @@ public class VideoPlayerPlugin implements MethodCallHandler {
   private VideoPlayerPlugin(Registrar registrar) {
     this.registrar = registrar;
     this.videoPlayers = new LongSparseArray<>();
+    this.playerPool = new PlayerPool(registrar.context());
+    // The meter is shared by all the players, so its samples are only sent to the players that
+    // are loading, which are the ones that transferred the sampled bytes.
+    playerPool
+        .getBandwidthMeter()
+        .addEventListener(
+            new Handler(Looper.getMainLooper()),
+            new BandwidthMeter.EventListener() {
+              @Override
+              public void onBandwidthSample(int elapsedMs, long bytes, long bitrate) {
+                for (int i = 0; i < videoPlayers.size(); i++) {
+                  VideoPlayer player = videoPlayers.valueAt(i);
+                  if (player.isLoading()) {
+                    player.sendBandwidthEstimate(bitrate);
+                  }
+                }
+              }
+            });
   }
 
   private final LongSparseArray<VideoPlayer> videoPlayers;
 
   private final Registrar registrar;
 
+  private final PlayerPool playerPool;
+
   private void disposeAllPlayers() {
     for (int i = 0; i < videoPlayers.size(); i++) {
       videoPlayers.valueAt(i).dispose();
@@ -308,6 +444,7 @@ public class VideoPlayerPlugin implements MethodCallHandler {
     // be replaced with just asserting that videoPlayers.isEmpty().
     // https://github.com/flutter/flutter/issues/20989 tracks this.
     disposeAllPlayers();
+    playerPool.clear();
   }
 
   @Override
@@ -321,12 +458,49 @@ public class VideoPlayerPlugin implements MethodCallHandler {
       case "init":
         disposeAllPlayers();
         break;
+      case "setCacheMaxSize":
+        VideoCache.getInstance(registrar.context())
+            .setMaxSizeBytes(((Number) call.argument("maxSizeBytes")).longValue());
+        result.success(null);
+        break;
+      case "cacheStats":
+        result.success(VideoCache.getInstance(registrar.context()).getStats());
+        break;
+      case "preload":
+        VideoCache.getInstance(registrar.context())
+            .preload(
+                (String) call.argument("uri"),
+                ((Number) call.argument("maxBytes")).longValue(),
+                result);
+        break;
+      case "cancelPreload":
+        VideoCache.getInstance(registrar.context()).cancelPreload((String) call.argument("uri"));
+        result.success(null);
+        break;
+      case "download":
+        VideoDownloads.getInstance(registrar.context()).download((String) call.argument("uri"));
+        result.success(null);
+        break;
+      case "removeDownload":
+        VideoDownloads.getInstance(registrar.context()).remove((String) call.argument("uri"));
+        result.success(null);
+        break;
+      case "downloads":
+        result.success(VideoDownloads.getInstance(registrar.context()).getDownloads());
+        break;
+      case "setMaxIdlePlayers":
+        playerPool.setMaxIdlePlayers((Integer) call.argument("maxIdlePlayers"));
+        result.success(null);
+        break;
       case "create":
         {
           TextureRegistry.SurfaceTextureEntry handle = textures.createSurfaceTexture();
           EventChannel eventChannel =
               new EventChannel(
                   registrar.messenger(), "flutter.io/videoPlayer/videoEvents" + handle.id());
+          EventChannel telemetryChannel =
+              new EventChannel(
+                  registrar.messenger(), "flutter.io/videoPlayer/telemetryEvents" + handle.id());
 
           VideoPlayer player;
           if (call.argument("asset") != null) {
@@ -340,15 +514,25 @@ public class VideoPlayerPlugin implements MethodCallHandler {
             player =
                 new VideoPlayer(
                     registrar.context(),
+                    playerPool,
                     eventChannel,
+                    telemetryChannel,
                     handle,
                     "asset:///" + assetLookupKey,
+                    PlayerOptions.fromMap(call.argument("options")),
                     result);
             videoPlayers.put(handle.id(), player);
           } else {
             player =
                 new VideoPlayer(
-                    registrar.context(), eventChannel, handle, call.argument("uri"), result);
+                    registrar.context(),
+                    playerPool,
+                    eventChannel,
+                    telemetryChannel,
+                    handle,
+                    call.argument("uri"),
+                    PlayerOptions.fromMap(call.argument("options")),
+                    result);
             videoPlayers.put(handle.id(), player);
           }
           break;
@@ -0,0 +1,230 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertEquals;
+
+import io.flutter.plugin.common.EventChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class QueuingEventSinkTest {
+  /** Records the calls it receives as strings. */
+  private static final class RecordingSink implements EventChannel.EventSink {
+    final List<String> calls = new ArrayList<>();
+
+    @Override
+    public void success(Object event) {
+      calls.add("success " + event);
+    }
+
+    @Override
+    public void error(String code, String message, Object details) {
+      calls.add("error " + code);
+    }
+
+    @Override
+    public void endOfStream() {
+      calls.add("endOfStream");
+    }
+  }
+
+  private static Map<String, Object> event(String kind, int value) {
+    Map<String, Object> event = new HashMap<>();
+    event.put("event", kind);
+    event.put("value", value);
+    return event;
+  }
+
+  private static QueuingEventSink coalescingSink(
+      int capacity, QueuingEventSink.OverflowPolicy overflowPolicy) {
+    return new QueuingEventSink(
+        capacity,
+        overflowPolicy,
+        new HashSet<>(Arrays.asList("bufferingUpdate")),
+        new HashSet<>(Arrays.asList("initialized")));
+  }
+
+  @Test
+  public void deliversEventsRightAwayToTheDelegate() {
+    QueuingEventSink sink = new QueuingEventSink();
+    RecordingSink delegate = new RecordingSink();
+    sink.setDelegate(delegate);
+
+    sink.success("a");
+    sink.error("code", "message", null);
+    sink.success("b");
+
+    assertEquals(Arrays.asList("success a", "error code", "success b"), delegate.calls);
+  }
+
+  @Test
+  public void queuesEventsInOrderUntilTheDelegateIsSet() {
+    QueuingEventSink sink = new QueuingEventSink();
+    sink.success("a");
+    sink.error("code", "message", null);
+    sink.success("b");
+    sink.endOfStream();
+
+    RecordingSink delegate = new RecordingSink();
+    sink.setDelegate(delegate);
+
+    assertEquals(
+        Arrays.asList("success a", "error code", "success b", "endOfStream"), delegate.calls);
+  }
+
+  @Test
+  public void ignoresEventsAfterTheEndOfStream() {
+    QueuingEventSink sink = new QueuingEventSink();
+    sink.success("a");
+    sink.endOfStream();
+    sink.success("b");
+
+    RecordingSink delegate = new RecordingSink();
+    sink.setDelegate(delegate);
+
+    assertEquals(Arrays.asList("success a", "endOfStream"), delegate.calls);
+  }
+
+  @Test
+  public void keepsOnlyTheLatestQueuedEventOfACoalescedKind() {
+    QueuingEventSink sink = coalescingSink(10, QueuingEventSink.OverflowPolicy.DROP_OLDEST);
+    sink.success(event("bufferingUpdate", 1));
+    sink.success(event("initialized", 2));
+    sink.success(event("bufferingUpdate", 3));
+    sink.success(event("completed", 4));
+    sink.success(event("bufferingUpdate", 5));
+
+    RecordingSink delegate = new RecordingSink();
+    sink.setDelegate(delegate);
+
+    // The latest event takes its place in the order it was sent, not that of the superseded one.
+    assertEquals(
+        Arrays.asList(
+            "success " + event("initialized", 2),
+            "success " + event("completed", 4),
+            "success " + event("bufferingUpdate", 5)),
+        delegate.calls);
+    assertEquals(0, sink.getDroppedEventCount());
+  }
+
+  @Test
+  public void doesNotCoalesceOtherEvents() {
+    QueuingEventSink sink = coalescingSink(10, QueuingEventSink.OverflowPolicy.DROP_OLDEST);
+    sink.success(event("completed", 1));
+    sink.success(event("completed", 2));
+    sink.success(Collections.singletonList("bufferingUpdate"));
+    sink.success(Collections.singletonList("bufferingUpdate"));
+
+    RecordingSink delegate = new RecordingSink();
+    sink.setDelegate(delegate);
+
+    assertEquals(4, delegate.calls.size());
+  }
+
+  @Test
+  public void doesNotCoalesceEventsSentAfterAFlush() {
+    QueuingEventSink sink = coalescingSink(10, QueuingEventSink.OverflowPolicy.DROP_OLDEST);
+    RecordingSink delegate = new RecordingSink();
+    sink.success(event("bufferingUpdate", 1));
+    sink.setDelegate(delegate);
+    sink.setDelegate(null);
+    sink.success(event("bufferingUpdate", 2));
+    sink.setDelegate(delegate);
+
+    assertEquals(
+        Arrays.asList(
+            "success " + event("bufferingUpdate", 1), "success " + event("bufferingUpdate", 2)),
+        delegate.calls);
+  }
+
+  @Test
+  public void dropsTheOldestEventsWhenFull() {
+    QueuingEventSink sink = coalescingSink(2, QueuingEventSink.OverflowPolicy.DROP_OLDEST);
+    sink.success("a");
+    sink.success("b");
+    sink.success("c");
+    sink.success("d");
+
+    RecordingSink delegate = new RecordingSink();
+    sink.setDelegate(delegate);
+
+    assertEquals(Arrays.asList("success c", "success d"), delegate.calls);
+    assertEquals(2, sink.getDroppedEventCount());
+  }
+
+  @Test
+  public void dropsTheNewestEventsWhenFull() {
+    QueuingEventSink sink = coalescingSink(2, QueuingEventSink.OverflowPolicy.DROP_NEWEST);
+    sink.success("a");
+    sink.success("b");
+    sink.success("c");
+    sink.success("d");
+
+    RecordingSink delegate = new RecordingSink();
+    sink.setDelegate(delegate);
+
+    assertEquals(Arrays.asList("success a", "success b"), delegate.calls);
+    assertEquals(2, sink.getDroppedEventCount());
+  }
+
+  @Test
+  public void coalescingMakesRoomForTheLatestEvent() {
+    QueuingEventSink sink = coalescingSink(2, QueuingEventSink.OverflowPolicy.DROP_NEWEST);
+    sink.success("a");
+    sink.success(event("bufferingUpdate", 1));
+    sink.success(event("bufferingUpdate", 2));
+
+    RecordingSink delegate = new RecordingSink();
+    sink.setDelegate(delegate);
+
+    assertEquals(
+        Arrays.asList("success a", "success " + event("bufferingUpdate", 2)), delegate.calls);
+    assertEquals(0, sink.getDroppedEventCount());
+  }
+
+  @Test
+  public void neverDropsErrorsOrTheEndOfStream() {
+    QueuingEventSink sink = coalescingSink(2, QueuingEventSink.OverflowPolicy.DROP_OLDEST);
+    sink.error("first", "message", null);
+    sink.error("second", "message", null);
+    sink.success("a");
+    sink.error("third", "message", null);
+    sink.endOfStream();
+
+    RecordingSink delegate = new RecordingSink();
+    sink.setDelegate(delegate);
+
+    assertEquals(
+        Arrays.asList("error first", "error second", "error third", "endOfStream"),
+        delegate.calls);
+    assertEquals(1, sink.getDroppedEventCount());
+  }
+
+  @Test
+  public void neverDropsRetainedEvents() {
+    QueuingEventSink sink = coalescingSink(2, QueuingEventSink.OverflowPolicy.DROP_OLDEST);
+    sink.success(event("initialized", 1));
+    sink.success(event("bufferingStart", 1));
+    sink.success(event("bufferingEnd", 1));
+    sink.success(event("bufferingStart", 2));
+    sink.success(event("bufferingEnd", 2));
+
+    RecordingSink delegate = new RecordingSink();
+    sink.setDelegate(delegate);
+
+    assertEquals(
+        Arrays.asList(
+            "success " + event("initialized", 1), "success " + event("bufferingEnd", 2)),
+        delegate.calls);
+    assertEquals(3, sink.getDroppedEventCount());
+  }
+}
@@ -0,0 +1,90 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+// Measures the time to the first frame of a network video, without and with
+// the player pool and preloading. Run with:
+//
+//   flutter drive test_driver/video_player_ttff.dart
+
+import 'dart:async';
+import 'dart:convert';
+
+import 'package:flutter/widgets.dart';
+import 'package:flutter_driver/driver_extension.dart';
+import 'package:video_player/video_player.dart';
+
+const String _kVideoUrl =
+    'https://flutter.github.io/assets-for-api-docs/assets/videos/butterfly.mp4';
+const int _kIterations = 10;
+const int _kCacheSizeBytes = 100 * 1024 * 1024;
+
+final ValueNotifier<VideoPlayerController> _controller =
+    ValueNotifier<VideoPlayerController>(null);
+
+void main() {
+  final Completer<String> completer = Completer<String>();
+  enableFlutterDriverExtension(handler: (_) => completer.future);
+  // The video must be on screen for iOS to render its frames.
+  runApp(Directionality(
+    textDirection: TextDirection.ltr,
+    child: ValueListenableBuilder<VideoPlayerController>(
+      valueListenable: _controller,
+      builder: (BuildContext context, VideoPlayerController controller, _) {
+        return controller == null ? Container() : VideoPlayer(controller);
+      },
+    ),
+  ));
+  _runBenchmark().then(completer.complete);
+}
+
+Future<String> _runBenchmark() async {
+  final Map<String, int> results = <String, int>{};
+
+  await VideoPlayerPool.setMaxIdlePlayers(0);
+  await VideoCache.setMaxSize(0);
+  results['coldMedianMs'] = await _medianTimeToFirstFrame(preload: false);
+
+  await VideoPlayerPool.setMaxIdlePlayers(2);
+  results['pooledMedianMs'] = await _medianTimeToFirstFrame(preload: false);
+
+  results['pooledPreloadedMedianMs'] =
+      await _medianTimeToFirstFrame(preload: true);
+
+  return json.encode(results);
+}
+
+Future<int> _medianTimeToFirstFrame({@required bool preload}) async {
+  final List<int> times = <int>[];
+  for (int i = 0; i < _kIterations; i++) {
+    if (preload) {
+      // Empties the cache, then preloads the video like a feed would while
+      // the previous video plays.
+      await VideoCache.setMaxSize(0);
+      await VideoCache.setMaxSize(_kCacheSizeBytes);
+      await VideoCache.preload(_kVideoUrl);
+    }
+    times.add((await _timeToFirstFrame(_kVideoUrl)).inMilliseconds);
+  }
+  await VideoCache.setMaxSize(0);
+  times.sort();
+  return times[times.length ~/ 2];
+}
+
+Future<Duration> _timeToFirstFrame(String uri) async {
+  final VideoPlayerController controller = VideoPlayerController.network(uri);
+  final Completer<void> firstFrame = Completer<void>();
+  controller.addListener(() {
+    if (controller.value.hasRenderedFirstFrame && !firstFrame.isCompleted) {
+      firstFrame.complete();
+    }
+  });
+  final Stopwatch stopwatch = Stopwatch()..start();
+  _controller.value = controller;
+  await controller.initialize();
+  await firstFrame.future;
+  stopwatch.stop();
+  _controller.value = null;
+  await controller.dispose();
+  return stopwatch.elapsed;
+}
@@ -41,6 +41,7 @@ int64_t FLTCMTimeToMillis(CMTime time) {
 @property(nonatomic, readonly) bool isPlaying;
 @property(nonatomic) bool isLooping;
 @property(nonatomic, readonly) bool isInitialized;
+@property(nonatomic, readonly) bool hasRenderedFirstFrame;
 - (instancetype)initWithURL:(NSURL*)url frameUpdater:(FLTFrameUpdater*)frameUpdater;
 - (void)play;
 - (void)pause;
@@ -355,7 +356,18 @@ static inline CGFloat radiansToDegrees(CGFloat radians) {
 - (CVPixelBufferRef)copyPixelBuffer {
   CMTime outputItemTime = [_videoOutput itemTimeForHostTime:CACurrentMediaTime()];
   if ([_videoOutput hasNewPixelBufferForItemTime:outputItemTime]) {
-    return [_videoOutput copyPixelBufferForItemTime:outputItemTime itemTimeForDisplay:NULL];
+    CVPixelBufferRef buffer = [_videoOutput copyPixelBufferForItemTime:outputItemTime
+                                                    itemTimeForDisplay:NULL];
+    if (buffer != NULL && !_hasRenderedFirstFrame) {
+      _hasRenderedFirstFrame = true;
+      // Pixel buffers are copied on the GPU thread, events must be sent on the main thread.
+      dispatch_async(dispatch_get_main_queue(), ^{
+        if (self->_eventSink != nil) {
+          self->_eventSink(@{@"event" : @"firstFrameRendered"});
+        }
+      });
+    }
+    return buffer;
   } else {
     return NULL;
   }
@@ -43,6 +43,8 @@ class VideoPlayerValue {
     this.isPlaying = false,
     this.isLooping = false,
     this.isBuffering = false,
+    this.hasRenderedFirstFrame = false,
+    this.bandwidthEstimate,
     this.volume = 1.0,
     this.errorDescription,
   });
@@ -72,6 +74,16 @@ class VideoPlayerValue {
   /// True if the video is currently buffering.
   final bool isBuffering;
 
+  /// True once the first frame of the video was rendered.
+  final bool hasRenderedFirstFrame;
+
+  /// The estimated bandwidth of the network, in bits per second.
+  ///
+  /// Only reported on Android, where the estimate is shared by all the players
+  /// and is updated whenever one of them finishes loading a chunk of media. Is
+  /// null until this player loads media after an estimate.
+  final int bandwidthEstimate;
+
   /// The current volume of the playback.
   final double volume;
 
@@ -97,6 +109,8 @@ class VideoPlayerValue {
     bool isPlaying,
     bool isLooping,
     bool isBuffering,
+    bool hasRenderedFirstFrame,
+    int bandwidthEstimate,
     double volume,
     String errorDescription,
   }) {
@@ -108,6 +122,9 @@ class VideoPlayerValue {
       isPlaying: isPlaying ?? this.isPlaying,
       isLooping: isLooping ?? this.isLooping,
       isBuffering: isBuffering ?? this.isBuffering,
+      hasRenderedFirstFrame:
+          hasRenderedFirstFrame ?? this.hasRenderedFirstFrame,
+      bandwidthEstimate: bandwidthEstimate ?? this.bandwidthEstimate,
       volume: volume ?? this.volume,
       errorDescription: errorDescription ?? this.errorDescription,
     );
@@ -122,12 +139,416 @@ class VideoPlayerValue {
         'buffered: [${buffered.join(', ')}], '
         'isPlaying: $isPlaying, '
         'isLooping: $isLooping, '
-        'isBuffering: $isBuffering'
+        'isBuffering: $isBuffering, '
+        'hasRenderedFirstFrame: $hasRenderedFirstFrame, '
+        'bandwidthEstimate: $bandwidthEstimate, '
         'volume: $volume, '
         'errorDescription: $errorDescription)';
   }
 }
 
+/// Counters of the disk cache of network videos, since the app started.
+class VideoCacheStats {
+  VideoCacheStats._fromMap(Map<dynamic, dynamic> map)
+      : hits = map['hits'],
+        misses = map['misses'],
+        bytesSaved = map['bytesSaved'],
+        bytesDownloaded = map['bytesDownloaded'],
+        sizeBytes = map['sizeBytes'],
+        maxSizeBytes = map['maxSizeBytes'];
+
+  /// The number of reads that were served from the cache, at least in part.
+  final int hits;
+
+  /// The number of requests that went to the network.
+  final int misses;
+
+  /// The number of bytes read from the cache instead of the network.
+  final int bytesSaved;
+
+  /// The number of bytes downloaded from the network.
+  final int bytesDownloaded;
+
+  /// The current size of the cache.
+  final int sizeBytes;
+
+  /// The size above which the least recently used data is evicted.
+  final int maxSizeBytes;
+
+  @override
+  String toString() {
+    return '$runtimeType('
+        'hits: $hits, '
+        'misses: $misses, '
+        'bytesSaved: $bytesSaved, '
+        'bytesDownloaded: $bytesDownloaded, '
+        'sizeBytes: $sizeBytes, '
+        'maxSizeBytes: $maxSizeBytes)';
+  }
+}
+
+/// The disk cache of network videos, shared by all the players of the app.
+///
+/// Only supported on Android, where videos from [DataSourceType.network] are
+/// read through the cache, so that a video that is played again is not
+/// downloaded again. Manifests and playlists of streams are never cached.
+/// The cache holds up to 100 MB by default.
+///
+/// The beginning of the next videos of a feed can be cached ahead of time
+/// with [preload], so that they start playing without waiting for the
+/// network.
+class VideoCache {
+  VideoCache._();
+
+  /// Sets the size above which the least recently used data is evicted.
+  ///
+  /// Data is evicted right away if the cache is larger. A size of 0 empties
+  /// the cache and disables it for the players created afterwards.
+  static Future<void> setMaxSize(int maxSizeBytes) async {
+    assert(maxSizeBytes != null && maxSizeBytes >= 0);
+    await _channel.invokeMethod<void>(
+      'setCacheMaxSize',
+      <String, dynamic>{'maxSizeBytes': maxSizeBytes},
+    );
+  }
+
+  /// Caches up to [maxBytes] from the start of the video at [uri], and
+  /// returns the number of bytes of the video that are cached.
+  ///
+  /// Videos are preloaded one at a time, in the order of the calls. Only
+  /// progressive videos, such as MP4 files, can be preloaded: the segments of
+  /// HLS, DASH and SmoothStreaming videos are only known once they play.
+  static Future<int> preload(String uri, {int maxBytes = 1024 * 1024}) {
+    assert(uri != null);
+    assert(maxBytes != null && maxBytes > 0);
+    return _channel.invokeMethod<int>(
+      'preload',
+      <String, dynamic>{'uri': uri, 'maxBytes': maxBytes},
+    );
+  }
+
+  /// Stops preloading the video at [uri], keeping what was already cached.
+  static Future<void> cancelPreload(String uri) async {
+    await _channel.invokeMethod<void>(
+      'cancelPreload',
+      <String, dynamic>{'uri': uri},
+    );
+  }
+
+  /// Returns the counters of the cache.
+  static Future<VideoCacheStats> getStats() async {
+    final Map<dynamic, dynamic> stats =
+        await _channel.invokeMethod<Map<dynamic, dynamic>>('cacheStats');
+    return VideoCacheStats._fromMap(stats);
+  }
+}
+
+/// The players of disposed videos, which are reused by the next videos.
+///
+/// Only supported on Android, where creating a player starts a playback
+/// thread and creates its renderers. Disposing a [VideoPlayerController]
+/// resets its player and keeps it idle instead, which makes swiping through
+/// a feed of videos cheaper. Up to 2 players are kept idle by default.
+class VideoPlayerPool {
+  VideoPlayerPool._();
+
+  /// Sets the number of idle players that are kept, releasing the others.
+  static Future<void> setMaxIdlePlayers(int maxIdlePlayers) async {
+    assert(maxIdlePlayers != null && maxIdlePlayers >= 0);
+    await _channel.invokeMethod<void>(
+      'setMaxIdlePlayers',
+      <String, dynamic>{'maxIdlePlayers': maxIdlePlayers},
+    );
+  }
+}
+
+/// The state of a [VideoDownload].
+enum VideoDownloadState {
+  /// The download waits for other downloads to finish.
+  queued,
+
+  /// The video is being downloaded.
+  downloading,
+
+  /// The video is downloaded and plays offline.
+  completed,
+
+  /// The download was stopped by a removal of the video.
+  canceled,
+
+  /// The download or the removal failed.
+  failed,
+
+  /// The downloaded data of the video is being deleted.
+  removing,
+
+  /// The downloaded data of the video was deleted.
+  removed,
+}
+
+/// A video that is downloaded for offline playback, or being downloaded or
+/// removed.
+class VideoDownload {
+  VideoDownload._fromMap(Map<dynamic, dynamic> map)
+      : uri = map['uri'],
+        state = _states[map['state']],
+        percentage = map['percentage'],
+        downloadedBytes = map['downloadedBytes'],
+        error = map['error'];
+
+  static const Map<String, VideoDownloadState> _states =
+      <String, VideoDownloadState>{
+    'queued': VideoDownloadState.queued,
+    'downloading': VideoDownloadState.downloading,
+    'completed': VideoDownloadState.completed,
+    'canceled': VideoDownloadState.canceled,
+    'failed': VideoDownloadState.failed,
+    'removing': VideoDownloadState.removing,
+    'removed': VideoDownloadState.removed,
+  };
+
+  /// The uri of the video, as given to [VideoDownloads.download].
+  final String uri;
+
+  /// Where the download or the removal of the video is at.
+  final VideoDownloadState state;
+
+  /// How much of the video is downloaded, from 0 to 100, or null if it is not
+  /// known yet.
+  final double percentage;
+
+  /// The number of bytes downloaded so far, or null for the downloads that
+  /// completed before the app started.
+  final int downloadedBytes;
+
+  /// Why the download failed, or null.
+  final String error;
+
+  @override
+  String toString() {
+    return '$runtimeType('
+        'uri: $uri, '
+        'state: $state, '
+        'percentage: $percentage, '
+        'downloadedBytes: $downloadedBytes, '
+        'error: $error)';
+  }
+}
+
+/// Downloads videos for offline playback.
+///
+/// Only supported on Android. Videos are downloaded two at a time by a
+/// foreground service with a progress notification, so downloads go on while
+/// the app is in the background. HLS, DASH and SmoothStreaming videos are
+/// downloaded with all their tracks.
+///
+/// A [VideoPlayerController.network] for the uri of a downloaded video reads
+/// the downloaded data instead of the network, so it plays offline. Downloads
+/// are kept until they are removed, the size of the [VideoCache] does not
+/// apply to them.
+class VideoDownloads {
+  VideoDownloads._();
+
+  static const EventChannel _eventChannel =
+      EventChannel('flutter.io/videoPlayer/downloadEvents');
+
+  static Stream<VideoDownload> _events;
+
+  /// Starts downloading the video at [uri], after the downloads already
+  /// queued.
+  static Future<void> download(String uri) async {
+    assert(uri != null);
+    await _channel.invokeMethod<void>(
+      'download',
+      <String, dynamic>{'uri': uri},
+    );
+  }
+
+  /// Stops downloading the video at [uri] and deletes its downloaded data.
+  static Future<void> remove(String uri) async {
+    assert(uri != null);
+    await _channel.invokeMethod<void>(
+      'removeDownload',
+      <String, dynamic>{'uri': uri},
+    );
+  }
+
+  /// Returns the completed downloads and those in progress.
+  static Future<List<VideoDownload>> getDownloads() async {
+    final List<dynamic> downloads =
+        await _channel.invokeMethod<List<dynamic>>('downloads');
+    return downloads
+        .map((dynamic download) => VideoDownload._fromMap(download))
+        .toList();
+  }
+
+  /// Changes to the state of the downloads, and their progress twice a second
+  /// while they download.
+  static Stream<VideoDownload> get events {
+    return _events ??= _eventChannel
+        .receiveBroadcastStream()
+        .map((dynamic event) => VideoDownload._fromMap(event));
+  }
+}
+
+/// How a player picks the tracks of adaptive videos, buffers them and reports
+/// its position and telemetry.
+///
+/// Only supported on Android. Values that are null keep the defaults of the
+/// platform player.
+@immutable
+class VideoPlayerOptions {
+  const VideoPlayerOptions({
+    this.maxVideoWidth,
+    this.maxVideoHeight,
+    this.maxVideoBitrate,
+    this.minBufferDuration,
+    this.maxBufferDuration,
+    this.bufferForPlaybackDuration,
+    this.bufferForPlaybackAfterRebufferDuration,
+    this.telemetryInterval,
+    this.positionUpdateInterval,
+  });
+
+  /// The maximum width of the selected video track, in pixels.
+  final int maxVideoWidth;
+
+  /// The maximum height of the selected video track, in pixels.
+  final int maxVideoHeight;
+
+  /// The maximum bitrate of the selected video track, in bits per second.
+  final int maxVideoBitrate;
+
+  /// The duration of media the player always tries to have buffered.
+  final Duration minBufferDuration;
+
+  /// The duration of media above which the player stops buffering.
+  ///
+  /// Must not be less than [minBufferDuration].
+  final Duration maxBufferDuration;
+
+  /// The duration of media that must be buffered to start playing, or to
+  /// resume after a seek.
+  ///
+  /// Must not be more than [minBufferDuration].
+  final Duration bufferForPlaybackDuration;
+
+  /// The duration of media that must be buffered to resume playing after the
+  /// buffer ran out.
+  ///
+  /// Must not be more than [minBufferDuration].
+  final Duration bufferForPlaybackAfterRebufferDuration;
+
+  /// The minimum time between two reports of
+  /// [VideoPlayerController.telemetry], one second by default.
+  final Duration telemetryInterval;
+
+  /// The interval at which the player sends its position while it plays.
+  ///
+  /// By default the position is requested from the player twice a second,
+  /// which costs two platform messages per request. With an interval the
+  /// player sends its position and buffered range in a single message, and
+  /// nothing while it does not play.
+  final Duration positionUpdateInterval;
+
+  Map<String, dynamic> _toJson() {
+    final Map<String, dynamic> json = <String, dynamic>{};
+
+    void addIfPresent(String fieldName, dynamic value) {
+      if (value != null) {
+        json[fieldName] = value;
+      }
+    }
+
+    addIfPresent('maxVideoWidth', maxVideoWidth);
+    addIfPresent('maxVideoHeight', maxVideoHeight);
+    addIfPresent('maxVideoBitrate', maxVideoBitrate);
+    addIfPresent('minBufferMs', minBufferDuration?.inMilliseconds);
+    addIfPresent('maxBufferMs', maxBufferDuration?.inMilliseconds);
+    addIfPresent(
+        'bufferForPlaybackMs', bufferForPlaybackDuration?.inMilliseconds);
+    addIfPresent('bufferForPlaybackAfterRebufferMs',
+        bufferForPlaybackAfterRebufferDuration?.inMilliseconds);
+    addIfPresent('telemetryIntervalMs', telemetryInterval?.inMilliseconds);
+    addIfPresent(
+        'positionUpdateIntervalMs', positionUpdateInterval?.inMilliseconds);
+    return json;
+  }
+}
+
+/// Quality of experience metrics of a video since its player was created.
+class VideoPlaybackTelemetry {
+  VideoPlaybackTelemetry._fromMap(Map<dynamic, dynamic> map)
+      : timeToFirstFrame = _toDuration(map['timeToFirstFrameMs']),
+        rebufferCount = map['rebufferCount'],
+        rebufferDuration = _toDuration(map['rebufferDurationMs']),
+        droppedFrames = map['droppedFrames'],
+        videoDecoderInitDuration = _toDuration(map['videoDecoderInitMs']),
+        audioDecoderInitDuration = _toDuration(map['audioDecoderInitMs']),
+        videoWidth = map['videoWidth'],
+        videoHeight = map['videoHeight'],
+        videoBitrate = map['videoBitrate'],
+        videoFormatChanges = map['videoFormatChanges'];
+
+  static Duration _toDuration(dynamic milliseconds) {
+    return milliseconds == null ? null : Duration(milliseconds: milliseconds);
+  }
+
+  /// The time from the creation of the player to its first rendered frame,
+  /// or null if no frame was rendered yet.
+  final Duration timeToFirstFrame;
+
+  /// The number of times playback stalled because the buffer ran out.
+  ///
+  /// Buffering before the first frame, after a seek or while paused is not
+  /// counted.
+  final int rebufferCount;
+
+  /// The total time playback was stalled by rebuffering.
+  final Duration rebufferDuration;
+
+  /// The number of video frames dropped because they were late.
+  final int droppedFrames;
+
+  /// The time it took to initialize the video decoder, or null if it is not
+  /// initialized yet.
+  final Duration videoDecoderInitDuration;
+
+  /// The time it took to initialize the audio decoder, or null if it is not
+  /// initialized yet.
+  final Duration audioDecoderInitDuration;
+
+  /// The width of the video track being decoded, or null before the first
+  /// track is selected.
+  final int videoWidth;
+
+  /// The height of the video track being decoded, or null before the first
+  /// track is selected.
+  final int videoHeight;
+
+  /// The bitrate of the video track being decoded in bits per second, or null
+  /// before the first track is selected.
+  final int videoBitrate;
+
+  /// The number of times adaptive playback switched to another video track.
+  final int videoFormatChanges;
+
+  @override
+  String toString() {
+    return '$runtimeType('
+        'timeToFirstFrame: $timeToFirstFrame, '
+        'rebufferCount: $rebufferCount, '
+        'rebufferDuration: $rebufferDuration, '
+        'droppedFrames: $droppedFrames, '
+        'videoDecoderInitDuration: $videoDecoderInitDuration, '
+        'audioDecoderInitDuration: $audioDecoderInitDuration, '
+        'videoWidth: $videoWidth, '
+        'videoHeight: $videoHeight, '
+        'videoBitrate: $videoBitrate, '
+        'videoFormatChanges: $videoFormatChanges)';
+  }
+}
+
 enum DataSourceType { asset, network, file }
 
 /// Controls a platform video player, and provides updates when the state is
@@ -146,7 +567,7 @@ class VideoPlayerController extends ValueNotifier<VideoPlayerValue> {
   /// The name of the asset is given by the [dataSource] argument and must not be
   /// null. The [package] argument must be non-null when the asset comes from a
   /// package and null otherwise.
-  VideoPlayerController.asset(this.dataSource, {this.package})
+  VideoPlayerController.asset(this.dataSource, {this.package, this.options})
       : dataSourceType = DataSourceType.asset,
         super(VideoPlayerValue(duration: null));
 
@@ -155,7 +576,7 @@ class VideoPlayerController extends ValueNotifier<VideoPlayerValue> {
   ///
   /// The URI for the video is given by the [dataSource] argument and must not be
   /// null.
-  VideoPlayerController.network(this.dataSource)
+  VideoPlayerController.network(this.dataSource, {this.options})
       : dataSourceType = DataSourceType.network,
         package = null,
         super(VideoPlayerValue(duration: null));
@@ -164,7 +585,7 @@ class VideoPlayerController extends ValueNotifier<VideoPlayerValue> {
   ///
   /// This will load the file from the file-URI given by:
   /// `'file://${file.path}'`.
-  VideoPlayerController.file(File file)
+  VideoPlayerController.file(File file, {this.options})
       : dataSource = 'file://${file.path}',
         dataSourceType = DataSourceType.file,
         package = null,
@@ -178,7 +599,13 @@ class VideoPlayerController extends ValueNotifier<VideoPlayerValue> {
   final DataSourceType dataSourceType;
 
   final String package;
+
+  /// How the player picks and buffers the tracks of the video.
+  final VideoPlayerOptions options;
+
   Timer _timer;
+  // Whether the player sends its position, instead of being polled for it.
+  bool _isPositionPushed = false;
   bool _isDisposed = false;
   Completer<void> _creatingCompleter;
   StreamSubscription<dynamic> _eventSubscription;
@@ -205,12 +632,16 @@ class VideoPlayerController extends ValueNotifier<VideoPlayerValue> {
       case DataSourceType.file:
         dataSourceDescription = <String, dynamic>{'uri': dataSource};
     }
+    if (options != null) {
+      dataSourceDescription['options'] = options._toJson();
+    }
     final Map<String, dynamic> response =
         await _channel.invokeMapMethod<String, dynamic>(
       'create',
       dataSourceDescription,
     );
     _textureId = response['textureId'];
+    _isPositionPushed = response['positionUpdates'] ?? false;
     _creatingCompleter.complete(null);
     final Completer<void> initializingCompleter = Completer<void>();
 
@@ -250,12 +681,25 @@ class VideoPlayerController extends ValueNotifier<VideoPlayerValue> {
             buffered: values.map<DurationRange>(toDurationRange).toList(),
           );
           break;
+        case 'positionUpdate':
+          final List<dynamic> values = map['values'];
+          value = value.copyWith(
+            position: Duration(milliseconds: map['position']),
+            buffered: values.map<DurationRange>(toDurationRange).toList(),
+          );
+          break;
         case 'bufferingStart':
           value = value.copyWith(isBuffering: true);
           break;
         case 'bufferingEnd':
           value = value.copyWith(isBuffering: false);
           break;
+        case 'firstFrameRendered':
+          value = value.copyWith(hasRenderedFirstFrame: true);
+          break;
+        case 'bandwidthEstimate':
+          value = value.copyWith(bandwidthEstimate: map['bitrate']);
+          break;
       }
     }
 
@@ -275,6 +719,20 @@ class VideoPlayerController extends ValueNotifier<VideoPlayerValue> {
     return EventChannel('flutter.io/videoPlayer/videoEvents$textureId');
   }
 
+  /// The quality of experience metrics of the video, reported when they
+  /// change, at most once per [VideoPlayerOptions.telemetryInterval].
+  ///
+  /// Only supported on Android. A listener first gets the current metrics.
+  /// Must only be listened to once the player is created, after [initialize]
+  /// was called.
+  Stream<VideoPlaybackTelemetry> get telemetry {
+    assert(_textureId != null);
+    return EventChannel('flutter.io/videoPlayer/telemetryEvents$_textureId')
+        .receiveBroadcastStream()
+        .map<VideoPlaybackTelemetry>((dynamic event) =>
+            VideoPlaybackTelemetry._fromMap(event));
+  }
+
   @override
   Future<void> dispose() async {
     if (_creatingCompleter != null) {
@@ -328,6 +786,9 @@ class VideoPlayerController extends ValueNotifier<VideoPlayerValue> {
         'play',
         <String, dynamic>{'textureId': _textureId},
       );
+      if (_isPositionPushed) {
+        return;
+      }
       _timer = Timer.periodic(
         const Duration(milliseconds: 500),
         (Timer timer) async {
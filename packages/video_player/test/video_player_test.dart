@@ -1,5 +1,8 @@
 import 'dart:async';
+import 'dart:typed_data';
+
 import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
 import 'package:flutter/widgets.dart';
 import 'package:video_player/video_player.dart';
 import 'package:flutter_test/flutter_test.dart';
@@ -23,6 +26,11 @@ class FakeController extends ValueNotifier<VideoPlayerValue>
   @override
   String get package => null;
   @override
+  VideoPlayerOptions get options => null;
+  @override
+  Stream<VideoPlaybackTelemetry> get telemetry =>
+      const Stream<VideoPlaybackTelemetry>.empty();
+  @override
   Future<Duration> get position async => value.position;
 
   @override
@@ -40,6 +48,8 @@ class FakeController extends ValueNotifier<VideoPlayerValue>
 }
 
 void main() {
+  TestWidgetsFlutterBinding.ensureInitialized();
+
   testWidgets('update texture', (WidgetTester tester) async {
     final FakeController controller = FakeController();
     await tester.pumpWidget(VideoPlayer(controller));
@@ -73,4 +83,243 @@ void main() {
         ),
         findsOneWidget);
   });
+
+  group('platform calls', () {
+    const MethodChannel channel = MethodChannel('flutter.io/videoPlayer');
+    const MethodChannel eventChannel =
+        MethodChannel('flutter.io/videoPlayer/videoEvents1');
+    final List<MethodCall> log = <MethodCall>[];
+
+    setUp(() {
+      log.clear();
+      channel.setMockMethodCallHandler((MethodCall methodCall) async {
+        log.add(methodCall);
+        if (methodCall.method == 'create') {
+          final Map<dynamic, dynamic> options = methodCall.arguments['options'];
+          return <String, dynamic>{
+            'textureId': 1,
+            'positionUpdates':
+                options?.containsKey('positionUpdateIntervalMs') ?? false,
+          };
+        }
+        if (methodCall.method == 'preload') {
+          return 65536;
+        }
+        if (methodCall.method == 'downloads') {
+          return <dynamic>[
+            <String, dynamic>{
+              'uri': 'https://127.0.0.1/lesson.m3u8',
+              'state': 'completed',
+              'percentage': 100.0,
+            },
+            <String, dynamic>{
+              'uri': 'https://127.0.0.1/video.mp4',
+              'state': 'downloading',
+              'percentage': 42.5,
+              'downloadedBytes': 4096,
+            },
+          ];
+        }
+        if (methodCall.method == 'cacheStats') {
+          return <String, dynamic>{
+            'hits': 3,
+            'misses': 2,
+            'bytesSaved': 4096,
+            'bytesDownloaded': 1024,
+            'sizeBytes': 5120,
+            'maxSizeBytes': 1048576,
+          };
+        }
+        return null;
+      });
+      eventChannel
+          .setMockMethodCallHandler((MethodCall methodCall) async => null);
+    });
+
+    tearDown(() {
+      channel.setMockMethodCallHandler(null);
+      eventChannel.setMockMethodCallHandler(null);
+    });
+
+    Future<void> sendVideoEvent(Map<String, dynamic> event) {
+      return BinaryMessages.handlePlatformMessage(
+          eventChannel.name,
+          const StandardMethodCodec().encodeSuccessEnvelope(event),
+          (ByteData data) {});
+    }
+
+    test('setMaxSize', () async {
+      await VideoCache.setMaxSize(1048576);
+      expect(log.last.method, 'setCacheMaxSize');
+      expect(log.last.arguments, <String, dynamic>{'maxSizeBytes': 1048576});
+    });
+
+    test('preload', () async {
+      final int cachedBytes =
+          await VideoCache.preload('https://127.0.0.1/video.mp4');
+      expect(cachedBytes, 65536);
+      expect(log.last.method, 'preload');
+      expect(log.last.arguments, <String, dynamic>{
+        'uri': 'https://127.0.0.1/video.mp4',
+        'maxBytes': 1024 * 1024,
+      });
+
+      await VideoCache.cancelPreload('https://127.0.0.1/video.mp4');
+      expect(log.last.method, 'cancelPreload');
+      expect(log.last.arguments,
+          <String, dynamic>{'uri': 'https://127.0.0.1/video.mp4'});
+    });
+
+    test('downloads', () async {
+      await VideoDownloads.download('https://127.0.0.1/lesson.m3u8');
+      expect(log.last.method, 'download');
+      expect(log.last.arguments,
+          <String, dynamic>{'uri': 'https://127.0.0.1/lesson.m3u8'});
+
+      await VideoDownloads.remove('https://127.0.0.1/lesson.m3u8');
+      expect(log.last.method, 'removeDownload');
+      expect(log.last.arguments,
+          <String, dynamic>{'uri': 'https://127.0.0.1/lesson.m3u8'});
+
+      final List<VideoDownload> downloads =
+          await VideoDownloads.getDownloads();
+      expect(log.last.method, 'downloads');
+      expect(downloads, hasLength(2));
+      expect(downloads[0].uri, 'https://127.0.0.1/lesson.m3u8');
+      expect(downloads[0].state, VideoDownloadState.completed);
+      expect(downloads[0].downloadedBytes, isNull);
+      expect(downloads[1].state, VideoDownloadState.downloading);
+      expect(downloads[1].percentage, 42.5);
+      expect(downloads[1].downloadedBytes, 4096);
+    });
+
+    test('setMaxIdlePlayers', () async {
+      await VideoPlayerPool.setMaxIdlePlayers(3);
+      expect(log.last.method, 'setMaxIdlePlayers');
+      expect(log.last.arguments, <String, dynamic>{'maxIdlePlayers': 3});
+    });
+
+    test('options are sent on create', () async {
+      final VideoPlayerController controller = VideoPlayerController.network(
+        'https://127.0.0.1/video.m3u8',
+        options: const VideoPlayerOptions(
+          maxVideoHeight: 720,
+          maxVideoBitrate: 2000000,
+          minBufferDuration: Duration(seconds: 10),
+          bufferForPlaybackDuration: Duration(milliseconds: 1500),
+        ),
+      );
+      // Initializing completes once the platform reports the video, which
+      // never happens here.
+      controller.initialize();
+      await Future<void>.delayed(Duration.zero);
+
+      final MethodCall create =
+          log.singleWhere((MethodCall call) => call.method == 'create');
+      expect(create.arguments, <String, dynamic>{
+        'uri': 'https://127.0.0.1/video.m3u8',
+        'options': <String, dynamic>{
+          'maxVideoHeight': 720,
+          'maxVideoBitrate': 2000000,
+          'minBufferMs': 10000,
+          'bufferForPlaybackMs': 1500,
+        },
+      });
+    });
+
+    test('telemetry', () async {
+      final VideoPlayerController controller =
+          VideoPlayerController.network('https://127.0.0.1/video.mp4');
+      controller.initialize();
+      await Future<void>.delayed(Duration.zero);
+
+      const String telemetryChannel = 'flutter.io/videoPlayer/telemetryEvents1';
+      const MethodChannel(telemetryChannel)
+          .setMockMethodCallHandler((MethodCall methodCall) async {
+        if (methodCall.method == 'listen') {
+          await BinaryMessages.handlePlatformMessage(
+              telemetryChannel,
+              const StandardMethodCodec()
+                  .encodeSuccessEnvelope(<String, dynamic>{
+                'timeToFirstFrameMs': 420,
+                'rebufferCount': 1,
+                'rebufferDurationMs': 1500,
+                'droppedFrames': 7,
+                'videoDecoderInitMs': 35,
+                'videoWidth': 1280,
+                'videoHeight': 720,
+                'videoBitrate': 2000000,
+                'videoFormatChanges': 2,
+              }),
+              (ByteData data) {});
+        }
+        return null;
+      });
+
+      final VideoPlaybackTelemetry telemetry =
+          await controller.telemetry.first;
+      expect(telemetry.timeToFirstFrame, const Duration(milliseconds: 420));
+      expect(telemetry.rebufferCount, 1);
+      expect(telemetry.rebufferDuration, const Duration(milliseconds: 1500));
+      expect(telemetry.droppedFrames, 7);
+      expect(telemetry.videoDecoderInitDuration,
+          const Duration(milliseconds: 35));
+      expect(telemetry.audioDecoderInitDuration, isNull);
+      expect(telemetry.videoWidth, 1280);
+      expect(telemetry.videoHeight, 720);
+      expect(telemetry.videoBitrate, 2000000);
+      expect(telemetry.videoFormatChanges, 2);
+
+      const MethodChannel(telemetryChannel).setMockMethodCallHandler(null);
+    });
+
+    test('position updates are pushed', () async {
+      final VideoPlayerController controller = VideoPlayerController.network(
+        'https://127.0.0.1/video.mp4',
+        options: const VideoPlayerOptions(
+          positionUpdateInterval: Duration(milliseconds: 250),
+        ),
+      );
+      eventChannel.setMockMethodCallHandler((MethodCall methodCall) async {
+        if (methodCall.method == 'listen') {
+          await sendVideoEvent(<String, dynamic>{
+            'event': 'initialized',
+            'duration': 10000,
+            'width': 640,
+            'height': 360,
+          });
+          await sendVideoEvent(<String, dynamic>{
+            'event': 'positionUpdate',
+            'position': 1250,
+            'values': <dynamic>[
+              <int>[0, 4000]
+            ],
+          });
+        }
+        return null;
+      });
+
+      await controller.initialize();
+      await controller.play();
+      // Longer than the interval at which the position would be polled.
+      await Future<void>.delayed(const Duration(milliseconds: 600));
+
+      expect(controller.value.position, const Duration(milliseconds: 1250));
+      expect(controller.value.buffered.single.end, const Duration(seconds: 4));
+      expect(log.where((MethodCall call) => call.method == 'position'),
+          isEmpty);
+      await controller.dispose();
+    });
+
+    test('getStats', () async {
+      final VideoCacheStats stats = await VideoCache.getStats();
+      expect(log.last.method, 'cacheStats');
+      expect(stats.hits, 3);
+      expect(stats.misses, 2);
+      expect(stats.bytesSaved, 4096);
+      expect(stats.bytesDownloaded, 1024);
+      expect(stats.sizeBytes, 5120);
+      expect(stats.maxSizeBytes, 1048576);
+    });
+  });
 }